@@ -0,0 +1,186 @@
+-- Partitioned vs unpartitioned plans for the resource schema.
+--
+-- Builds two copies of the schema side by side:
+--   bench_flat  - the V1 layout (plain tables)
+--   bench_part  - the V2 layout (resources LIST by country_code, characteristics HASH by resource_id)
+-- loads the same synthetic data into both and prints EXPLAIN (ANALYZE, BUFFERS) for the queries the
+-- service runs. Defaults to 1M resources x 10 characteristics = 10M characteristic rows.
+--
+-- Run against a scratch database (takes several minutes at full size):
+--   psql -d bench -v ON_ERROR_STOP=1 -f docs/benchmarks/partitioning.sql
+-- Scale down for a quick look:
+--   PGOPTIONS='-c bench.resources=100000' psql -d bench -f docs/benchmarks/partitioning.sql
+
+SELECT set_config('bench.resources', coalesce(current_setting('bench.resources', true), '1000000'), false);
+SELECT set_config('bench.characteristics_per_resource', '10', false);
+
+DROP SCHEMA IF EXISTS bench_flat CASCADE;
+DROP SCHEMA IF EXISTS bench_part CASCADE;
+CREATE SCHEMA bench_flat;
+CREATE SCHEMA bench_part;
+
+-- Country mix: a few large markets and a long tail
+CREATE TEMP TABLE bench_countries AS
+SELECT code, weight
+FROM (VALUES ('EE', 30), ('LV', 20), ('LT', 20), ('FI', 10), ('PL', 8), ('SE', 5), ('DE', 3),
+             ('US', 2), ('FR', 1), ('NO', 1)) AS c(code, weight);
+
+CREATE TEMP TABLE bench_country_slots AS
+SELECT row_number() OVER () - 1 AS slot, code
+FROM bench_countries, generate_series(1, weight);
+
+-- bench_flat: V1 layout
+CREATE TABLE bench_flat.resources (
+    id BIGINT PRIMARY KEY,
+    type VARCHAR(20) NOT NULL,
+    country_code VARCHAR(2) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE bench_flat.characteristics (
+    id BIGINT PRIMARY KEY,
+    resource_id BIGINT NOT NULL REFERENCES bench_flat.resources(id) ON DELETE CASCADE,
+    code VARCHAR(5) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    char_value VARCHAR(255) NOT NULL
+);
+
+-- bench_part: V2 layout
+CREATE TABLE bench_part.resources (
+    id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    country_code VARCHAR(2) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, country_code)
+) PARTITION BY LIST (country_code);
+
+DO $$
+DECLARE
+    cc TEXT;
+BEGIN
+    FOR cc IN SELECT code FROM bench_countries LOOP
+        EXECUTE format('CREATE TABLE bench_part.%I PARTITION OF bench_part.resources FOR VALUES IN (%L)',
+                       'resources_' || lower(cc), cc);
+    END LOOP;
+    EXECUTE 'CREATE TABLE bench_part.resources_default PARTITION OF bench_part.resources DEFAULT';
+END $$;
+
+CREATE TABLE bench_part.characteristics (
+    id BIGINT NOT NULL,
+    resource_id BIGINT NOT NULL,
+    resource_country_code VARCHAR(2) NOT NULL,
+    code VARCHAR(5) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    char_value VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id, resource_id)
+) PARTITION BY HASH (resource_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..7 LOOP
+        EXECUTE format('CREATE TABLE bench_part.%I PARTITION OF bench_part.characteristics'
+                           || ' FOR VALUES WITH (MODULUS 8, REMAINDER %s)', 'characteristics_p' || i, i);
+    END LOOP;
+END $$;
+
+-- Data
+INSERT INTO bench_flat.resources (id, type, country_code)
+SELECT g,
+       CASE WHEN g % 3 = 0 THEN 'CONNECTION_POINT' ELSE 'METERING_POINT' END,
+       s.code
+FROM generate_series(1, current_setting('bench.resources')::BIGINT) AS g
+JOIN bench_country_slots s ON s.slot = g % 100;
+
+INSERT INTO bench_flat.characteristics (id, resource_id, code, type, char_value)
+SELECT (r.id - 1) * n.k + c.i,
+       r.id,
+       'C' || c.i,
+       (ARRAY['CONSUMPTION_TYPE', 'CHARGING_POINT', 'CONNECTION_POINT_STATUS'])[1 + c.i % 3],
+       (ARRAY['RESIDENTIAL', 'CCS', 'ACTIVE', 'TYPE2', 'COMMERCIAL'])[1 + (r.id + c.i) % 5]
+FROM bench_flat.resources r
+CROSS JOIN (SELECT current_setting('bench.characteristics_per_resource')::INT AS k) n
+CROSS JOIN LATERAL generate_series(1, n.k) AS c(i);
+
+INSERT INTO bench_part.resources SELECT * FROM bench_flat.resources;
+
+INSERT INTO bench_part.characteristics (id, resource_id, resource_country_code, code, type, char_value)
+SELECT c.id, c.resource_id, r.country_code, c.code, c.type, c.char_value
+FROM bench_flat.characteristics c
+JOIN bench_flat.resources r ON r.id = c.resource_id;
+
+ALTER TABLE bench_part.characteristics
+    ADD FOREIGN KEY (resource_id, resource_country_code)
+        REFERENCES bench_part.resources(id, country_code) ON DELETE CASCADE ON UPDATE CASCADE;
+
+CREATE INDEX ON bench_flat.resources(country_code);
+CREATE INDEX ON bench_flat.characteristics(resource_id);
+CREATE INDEX ON bench_part.resources(country_code);
+CREATE INDEX ON bench_part.characteristics(resource_id);
+
+VACUUM ANALYZE bench_flat.resources;
+VACUUM ANALYZE bench_flat.characteristics;
+VACUUM ANALYZE bench_part.resources;
+VACUUM ANALYZE bench_part.characteristics;
+
+-- Sizes: the largest unit vacuum/reindex has to process in one go
+SELECT 'flat' AS layout, c.relname, pg_size_pretty(pg_total_relation_size(c.oid)) AS total_size
+FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+WHERE n.nspname = 'bench_flat' AND c.relkind = 'r'
+UNION ALL
+SELECT 'partitioned (largest partition)', relname, pg_size_pretty(size)
+FROM (SELECT c.relname, pg_total_relation_size(c.oid) AS size,
+             row_number() OVER (PARTITION BY c.relname LIKE 'resources%' ORDER BY pg_total_relation_size(c.oid) DESC) AS rn
+      FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+      WHERE n.nspname = 'bench_part' AND c.relkind = 'r') p
+WHERE rn = 1;
+
+-- 1. Country-filtered scan with details (send-all / list for one country)
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+SELECT r.*, c.*
+FROM bench_flat.resources r
+LEFT JOIN bench_flat.characteristics c ON c.resource_id = r.id
+WHERE r.country_code = 'LV';
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+SELECT r.*, c.*
+FROM bench_part.resources r
+LEFT JOIN bench_part.characteristics c ON c.resource_id = r.id AND c.resource_country_code = r.country_code
+WHERE r.country_code = 'LV';
+
+-- 2. Single resource by id with characteristics (GET /{id}); the partitioned layout probes every
+--    resources partition because the id alone does not identify one
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+SELECT r.*, c.*
+FROM bench_flat.resources r
+LEFT JOIN bench_flat.characteristics c ON c.resource_id = r.id
+WHERE r.id = 424242;
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+SELECT r.*, c.*
+FROM bench_part.resources r
+LEFT JOIN bench_part.characteristics c ON c.resource_id = r.id
+WHERE r.id = 424242;
+
+-- 3. Per-country aggregate (partition-wise aggregation can kick in on the partitioned layout)
+SET enable_partitionwise_aggregate = on;
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+SELECT country_code, count(*) FROM bench_flat.resources GROUP BY country_code;
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+SELECT country_code, count(*) FROM bench_part.resources GROUP BY country_code;
+
+-- 4. Region decommission: delete one country with its characteristics
+BEGIN;
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+DELETE FROM bench_flat.resources WHERE country_code = 'NO';
+ROLLBACK;
+
+BEGIN;
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+DELETE FROM bench_part.resources WHERE country_code = 'NO';
+ROLLBACK;
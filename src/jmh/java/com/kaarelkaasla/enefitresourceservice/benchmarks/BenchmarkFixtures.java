@@ -0,0 +1,106 @@
+package com.kaarelkaasla.enefitresourceservice.benchmarks;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import com.kaarelkaasla.enefitresourceservice.dtos.*;
+import com.kaarelkaasla.enefitresourceservice.entities.Characteristic;
+import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType;
+import com.kaarelkaasla.enefitresourceservice.entities.Location;
+import com.kaarelkaasla.enefitresourceservice.entities.Resource;
+import com.kaarelkaasla.enefitresourceservice.entities.ResourceType;
+import com.kaarelkaasla.enefitresourceservice.services.TimeProvider;
+
+/**
+ * Builds requests, entities and responses with a given number of characteristics for the
+ * benchmarks. Values are fixed so runs are comparable across changes.
+ */
+final class BenchmarkFixtures {
+
+  static final ZoneId ZONE = ZoneId.of("Europe/Tallinn");
+  static final OffsetDateTime TIMESTAMP =
+      OffsetDateTime.of(2024, 1, 15, 10, 30, 0, 0, ZoneOffset.UTC);
+
+  private static final CharacteristicType[] TYPES = CharacteristicType.values();
+
+  private BenchmarkFixtures() {}
+
+  static TimeProvider timeProvider() {
+    return new TimeProvider(ZONE);
+  }
+
+  static Set<CharacteristicRequest> characteristicRequests(int count) {
+    Set<CharacteristicRequest> characteristics = new LinkedHashSet<>();
+    for (int i = 0; i < count; i++) {
+      characteristics.add(new CharacteristicRequest("C" + i, TYPES[i % TYPES.length], "VALUE" + i));
+    }
+    return characteristics;
+  }
+
+  static ResourceRequest resourceRequest(int characteristicCount) {
+    return new ResourceRequest(
+        ResourceType.METERING_POINT,
+        "EE",
+        new LocationRequest("Narva mnt 1", "Tallinn", "10111", "EE"),
+        characteristicRequests(characteristicCount));
+  }
+
+  static PatchResourceRequest patchRequest(int characteristicCount) {
+    return new PatchResourceRequest(
+        Optional.of(ResourceType.CONNECTION_POINT),
+        Optional.of("LV"),
+        Optional.of(new LocationRequest("Brivibas iela 1", "Riga", "10501", "LV")),
+        Optional.of(characteristicRequests(characteristicCount)));
+  }
+
+  static Resource resource(int characteristicCount) {
+    Resource resource =
+        Resource.builder()
+            .id(1L)
+            .type(ResourceType.METERING_POINT)
+            .countryCode("EE")
+            .version(3L)
+            .createdAt(TIMESTAMP)
+            .updatedAt(TIMESTAMP)
+            .build();
+    resource.setLocation(
+        Location.builder()
+            .id(1L)
+            .streetAddress("Narva mnt 1")
+            .city("Tallinn")
+            .postalCode("10111")
+            .countryCode("EE")
+            .build());
+    for (int i = 0; i < characteristicCount; i++) {
+      resource.addCharacteristic(
+          Characteristic.builder()
+              .id((long) i + 1)
+              .code("C" + i)
+              .type(TYPES[i % TYPES.length])
+              .value("VALUE" + i)
+              .build());
+    }
+    return resource;
+  }
+
+  static ResourceResponse resourceResponse(int characteristicCount) {
+    Set<CharacteristicResponse> characteristics = new LinkedHashSet<>();
+    for (int i = 0; i < characteristicCount; i++) {
+      characteristics.add(
+          new CharacteristicResponse((long) i + 1, "C" + i, TYPES[i % TYPES.length], "VALUE" + i));
+    }
+    return new ResourceResponse(
+        1L,
+        ResourceType.METERING_POINT,
+        "EE",
+        3L,
+        TIMESTAMP.atZoneSameInstant(ZONE).toOffsetDateTime(),
+        TIMESTAMP.atZoneSameInstant(ZONE).toOffsetDateTime(),
+        new LocationResponse(1L, "Narva mnt 1", "Tallinn", "10111", "EE"),
+        characteristics);
+  }
+}
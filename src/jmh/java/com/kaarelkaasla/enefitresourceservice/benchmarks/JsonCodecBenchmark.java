@@ -0,0 +1,83 @@
+package com.kaarelkaasla.enefitresourceservice.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.kaarelkaasla.enefitresourceservice.dtos.EncodedResourceResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.PatchResourceRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceEvent;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceEventType;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceResponse;
+import com.kaarelkaasla.enefitresourceservice.json.ResourceJsonCodecs;
+
+/**
+ * Reflective record (de)serialization against Blackbird alone, the hand-written ResourceJsonCodecs
+ * alone, and both together as the application configures its ObjectMapper.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonCodecBenchmark {
+
+  @Param({"reflective", "blackbird", "codecs", "application"})
+  public String mapper;
+
+  @Param({"1", "10", "50"})
+  public int characteristicCount;
+
+  private ObjectMapper objectMapper;
+  private ResourceResponse response;
+  private ResourceEvent event;
+  private byte[] patchJson;
+
+  @Setup
+  public void setUp() throws IOException {
+    Module[] modules =
+        switch (mapper) {
+          case "reflective" -> new Module[0];
+          case "blackbird" -> new Module[] {new BlackbirdModule()};
+          case "codecs" -> new Module[] {ResourceJsonCodecs.module()};
+          case "application" -> new Module[] {ResourceJsonCodecs.module(), new BlackbirdModule()};
+          default -> throw new IllegalArgumentException(mapper);
+        };
+    objectMapper =
+        Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .modulesToInstall(modules)
+            .build();
+    response = BenchmarkFixtures.resourceResponse(characteristicCount);
+    event =
+        new ResourceEvent(
+            ResourceEventType.UPDATED,
+            response.id(),
+            EncodedResourceResponse.of(response),
+            response.updatedAt(),
+            "6f1c0d4e-8a3b-4d8e-9c1a-2b3c4d5e6f70");
+    patchJson = objectMapper.writeValueAsBytes(BenchmarkFixtures.patchRequest(characteristicCount));
+  }
+
+  @Benchmark
+  public byte[] writeResourceResponse() throws IOException {
+    return objectMapper.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public byte[] writeResourceEvent() throws IOException {
+    return objectMapper.writeValueAsBytes(event);
+  }
+
+  @Benchmark
+  public PatchResourceRequest readPatchRequest() throws IOException {
+    return objectMapper.readValue(patchJson, PatchResourceRequest.class);
+  }
+}
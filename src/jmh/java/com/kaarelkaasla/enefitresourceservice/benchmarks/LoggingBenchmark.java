@@ -0,0 +1,117 @@
+package com.kaarelkaasla.enefitresourceservice.benchmarks;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceRequest;
+import com.kaarelkaasla.enefitresourceservice.monitoring.SuccessLogSampler;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+
+/**
+ * Logging done for one create request, from four request threads, with the output discarded so
+ * the formatting and hand-off cost is measured rather than the disk. 'before' is the old setup
+ * (request record at INFO, DEBUG on, synchronous console appender); 'async' is the same lines
+ * through the async appender; 'after' is the current one (payload at DEBUG, off; one success line
+ * sampled at the default write rate; async appender). The async appender blocks here when full
+ * instead of dropping, so throughput is what the writer thread sustains.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+  private static final String PATTERN =
+      "%d{yyyy-MM-dd HH:mm:ss.SSS} %-5level [%thread] %replace([%X{traceId}] ){'\\[\\] ', ''}"
+          + "%logger{36} - %msg%n";
+
+  @Param({"before", "async", "after"})
+  public String pipeline;
+
+  private LoggerContext context;
+  private Logger controller;
+  private Logger service;
+  private Logger events;
+  private ResourceRequest request;
+  private final Long id = 42L;
+
+  @Setup
+  public void setUp() {
+    context = new LoggerContext();
+    request = BenchmarkFixtures.resourceRequest(10);
+
+    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+    encoder.setContext(context);
+    encoder.setPattern(PATTERN);
+    encoder.start();
+    OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+    console.setContext(context);
+    console.setEncoder(encoder);
+    console.setOutputStream(OutputStream.nullOutputStream());
+    console.start();
+
+    Appender<ILoggingEvent> appender = console;
+    if (!pipeline.equals("before")) {
+      AsyncAppender async = new AsyncAppender();
+      async.setContext(context);
+      async.setQueueSize(8192);
+      async.addAppender(console);
+      async.start();
+      appender = async;
+    }
+    if (pipeline.equals("after")) {
+      SuccessLogSampler sampler = new SuccessLogSampler();
+      sampler.setContext(context);
+      sampler.addRate("write=0.1");
+      sampler.start();
+      context.addTurboFilter(sampler);
+    }
+
+    Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+    root.setLevel(pipeline.equals("after") ? Level.INFO : Level.DEBUG);
+    root.addAppender(appender);
+    controller = context.getLogger("com.kaarelkaasla.enefitresourceservice.controllers.X");
+    service = context.getLogger("com.kaarelkaasla.enefitresourceservice.services.X");
+    events = context.getLogger("com.kaarelkaasla.enefitresourceservice.services.Y");
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.stop();
+  }
+
+  @Benchmark
+  public void createRequest() {
+    if (pipeline.equals("after")) {
+      controller.debug("Creating resource: {}", request);
+      service.debug(
+          "Creating resource with type: {} and country code: {}",
+          request.type(),
+          request.countryCode());
+      events.debug("Publishing event: {} for resource: {}", "CREATED", id);
+      service.info(SuccessLogSampler.WRITE, "Created resource id={}", id);
+    } else {
+      controller.info("Creating resource: {}", request);
+      service.debug(
+          "Creating resource with type: {} and country code: {}",
+          request.type(),
+          request.countryCode());
+      events.debug("Publishing event: {} for resource: {}", "CREATED", id);
+      service.info("Created resource with id: {}", id);
+      controller.info("Created resource successfully: id={} status=201", id);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.kaarelkaasla.enefitresourceservice.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.kaarelkaasla.enefitresourceservice.dtos.PatchResourceRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceResponse;
+import com.kaarelkaasla.enefitresourceservice.entities.Resource;
+import com.kaarelkaasla.enefitresourceservice.services.ResourceMappingService;
+
+/**
+ * Entity/DTO mapping in ResourceMappingService. updateEntity and patchEntity rewrite the same
+ * entity on every call, which is their steady state: the characteristic set is cleared and rebuilt.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MappingBenchmark {
+
+  @Param({"1", "10", "50"})
+  public int characteristicCount;
+
+  private ResourceMappingService mappingService;
+  private Resource resource;
+  private Resource target;
+  private ResourceRequest request;
+  private PatchResourceRequest patchRequest;
+
+  @Setup
+  public void setUp() {
+    mappingService = new ResourceMappingService(BenchmarkFixtures.timeProvider());
+    resource = BenchmarkFixtures.resource(characteristicCount);
+    target = BenchmarkFixtures.resource(characteristicCount);
+    request = BenchmarkFixtures.resourceRequest(characteristicCount);
+    patchRequest = BenchmarkFixtures.patchRequest(characteristicCount);
+  }
+
+  @Benchmark
+  public ResourceResponse toResponse() {
+    return mappingService.toResponse(resource);
+  }
+
+  @Benchmark
+  public Resource toEntity() {
+    return mappingService.toEntity(request);
+  }
+
+  @Benchmark
+  public Resource updateEntity() {
+    mappingService.updateEntity(target, request);
+    return target;
+  }
+
+  @Benchmark
+  public Resource patchEntity() {
+    mappingService.patchEntity(target, patchRequest);
+    return target;
+  }
+}
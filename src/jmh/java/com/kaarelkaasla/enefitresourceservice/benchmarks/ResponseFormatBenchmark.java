@@ -0,0 +1,92 @@
+package com.kaarelkaasla.enefitresourceservice.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceResponse;
+import com.kaarelkaasla.enefitresourceservice.json.ResourceJsonCodecs;
+import com.kaarelkaasla.enefitresourceservice.proto.ResourceProtoMapper;
+import com.kaarelkaasla.enefitresourceservice.web.ContentCoding;
+
+/**
+ * Encoding a resource list in each response format the API offers, optionally compressed with the
+ * encoders ResponseCompressionFilter uses. The encoded size of each combination is printed at setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseFormatBenchmark {
+
+  @Param({"json", "cbor", "smile", "protobuf"})
+  public String format;
+
+  @Param({"identity", "gzip", "zstd"})
+  public String compression;
+
+  @Param({"1", "50"})
+  public int resourceCount;
+
+  private ContentCoding coding;
+  private ObjectMapper objectMapper;
+  private List<ResourceResponse> responses;
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+
+  @Setup
+  public void setUp() throws IOException {
+    coding = ContentCoding.valueOf(compression.toUpperCase());
+    Jackson2ObjectMapperBuilder builder =
+        Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .modulesToInstall(ResourceJsonCodecs.module());
+    objectMapper =
+        switch (format) {
+          case "cbor" -> builder.factory(new CBORFactory()).build();
+          case "smile" -> builder.factory(new SmileFactory()).build();
+          default -> builder.build();
+        };
+    responses = new ArrayList<>(resourceCount);
+    ResourceResponse template = BenchmarkFixtures.resourceResponse(10);
+    for (int i = 0; i < resourceCount; i++) {
+      // Distinct ids and timestamps, so compression does not see one repeated document
+      responses.add(
+          new ResourceResponse(
+              template.id() + i,
+              template.type(),
+              template.countryCode(),
+              template.version() + i % 7,
+              template.createdAt().minusMinutes(i * 37L),
+              template.updatedAt().minusSeconds(i * 11L),
+              template.location(),
+              template.characteristics()));
+    }
+    System.out.printf(
+        "%n# %s/%s, %d resources: %d bytes%n", format, compression, resourceCount, encode());
+  }
+
+  @Benchmark
+  public int encode() throws IOException {
+    buffer.reset();
+    OutputStream out = coding.encoder(buffer, 3);
+    if (format.equals("protobuf")) {
+      ResourceProtoMapper.toProto(responses).writeTo(out);
+    } else {
+      objectMapper.writeValue(out, responses);
+    }
+    out.close();
+    return buffer.size();
+  }
+}
@@ -0,0 +1,76 @@
+package com.kaarelkaasla.enefitresourceservice.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kaarelkaasla.enefitresourceservice.dtos.EncodedResourceResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceEvent;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceEventType;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceResponse;
+
+/**
+ * Jackson serialization of the HTTP response body and the Kafka event payload, with an ObjectMapper
+ * configured like the application's (Java time module, ISO dates).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+  @Param({"1", "10", "50"})
+  public int characteristicCount;
+
+  private ObjectMapper objectMapper;
+  private ResourceResponse response;
+  private ResourceEvent event;
+  private ResourceEvent encodedEvent;
+
+  @Setup
+  public void setUp() {
+    objectMapper =
+        Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    response = BenchmarkFixtures.resourceResponse(characteristicCount);
+    event = event(EncodedResourceResponse.of(response));
+    try {
+      encodedEvent =
+          event(new EncodedResourceResponse(response, objectMapper.writeValueAsBytes(response)));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Benchmark
+  public byte[] resourceResponse() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public byte[] resourceEvent() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(event);
+  }
+
+  /** Event around an already encoded (cached) response, as published after writes. */
+  @Benchmark
+  public byte[] resourceEventPreEncoded() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(encodedEvent);
+  }
+
+  private static ResourceEvent event(EncodedResourceResponse resource) {
+    return new ResourceEvent(
+        ResourceEventType.UPDATED,
+        resource.response().id(),
+        resource,
+        resource.response().updatedAt(),
+        "6f1c0d4e-8a3b-4d8e-9c1a-2b3c4d5e6f70");
+  }
+}
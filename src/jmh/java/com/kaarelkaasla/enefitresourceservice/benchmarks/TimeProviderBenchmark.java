@@ -0,0 +1,32 @@
+package com.kaarelkaasla.enefitresourceservice.benchmarks;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.kaarelkaasla.enefitresourceservice.services.TimeProvider;
+
+/** TimeProvider.toApplicationOffset, called twice per mapped resource. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeProviderBenchmark {
+
+  private TimeProvider timeProvider;
+  private OffsetDateTime utcValue;
+
+  @Setup
+  public void setUp() {
+    timeProvider = BenchmarkFixtures.timeProvider();
+    utcValue = BenchmarkFixtures.TIMESTAMP;
+  }
+
+  @Benchmark
+  public OffsetDateTime toApplicationOffset() {
+    return timeProvider.toApplicationOffset(utcValue);
+  }
+}
@@ -0,0 +1,117 @@
+package com.kaarelkaasla.enefitresourceservice.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import com.kaarelkaasla.enefitresourceservice.dtos.LocationRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceRequest;
+import com.kaarelkaasla.enefitresourceservice.validation.MatchingCountryCodeValidator;
+import com.kaarelkaasla.enefitresourceservice.validation.ResourceRequestValidator;
+import com.kaarelkaasla.enefitresourceservice.validation.ValidCountryCodeValidator;
+import com.kaarelkaasla.enefitresourceservice.validation.ValidPostalCodeValidator;
+
+/**
+ * The custom validators called directly on valid input, and full Bean Validation of a create
+ * request (valid, and with a bad postal code plus mismatched country codes), each next to its
+ * ResourceRequestValidator counterpart as the request path runs it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+
+  @Param({"1", "10", "50"})
+  public int characteristicCount;
+
+  private final ValidCountryCodeValidator countryCodeValidator = new ValidCountryCodeValidator();
+  private final ValidPostalCodeValidator postalCodeValidator = new ValidPostalCodeValidator();
+  private final MatchingCountryCodeValidator matchingCountryCodeValidator =
+      new MatchingCountryCodeValidator();
+  private final ResourceRequestValidator resourceRequestValidator = new ResourceRequestValidator();
+
+  private ValidatorFactory validatorFactory;
+  private Validator validator;
+  private ResourceRequest validRequest;
+  private ResourceRequest invalidRequest;
+
+  @Setup
+  public void setUp() {
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    validator = validatorFactory.getValidator();
+    validRequest = BenchmarkFixtures.resourceRequest(characteristicCount);
+    invalidRequest =
+        new ResourceRequest(
+            validRequest.type(),
+            "EE",
+            new LocationRequest("Narva mnt 1", "Tallinn", "1011A", "LV"),
+            validRequest.characteristics());
+  }
+
+  @TearDown
+  public void tearDown() {
+    validatorFactory.close();
+  }
+
+  @Benchmark
+  public boolean countryCode() {
+    return countryCodeValidator.isValid("EE", null);
+  }
+
+  @Benchmark
+  public boolean postalCode() {
+    return postalCodeValidator.isValid("10111", null);
+  }
+
+  @Benchmark
+  public boolean fastCountryCode() {
+    return ResourceRequestValidator.isIsoCountryCode("EE");
+  }
+
+  @Benchmark
+  public boolean fastPostalCode() {
+    return ResourceRequestValidator.isPostalCode("10111");
+  }
+
+  @Benchmark
+  public boolean matchingCountryCode() {
+    return matchingCountryCodeValidator.isValid(validRequest, null);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<ResourceRequest>> validateValidRequest() {
+    return validator.validate(validRequest);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<ResourceRequest>> validateInvalidRequest() {
+    return validator.validate(invalidRequest);
+  }
+
+  @Benchmark
+  public BindingResult fastValidateValidRequest() {
+    return fastValidate(validRequest);
+  }
+
+  @Benchmark
+  public BindingResult fastValidateInvalidRequest() {
+    return fastValidate(invalidRequest);
+  }
+
+  private BindingResult fastValidate(ResourceRequest request) {
+    BindingResult result = new BeanPropertyBindingResult(request, "resourceRequest");
+    resourceRequestValidator.validate(request, result);
+    return result;
+  }
+}
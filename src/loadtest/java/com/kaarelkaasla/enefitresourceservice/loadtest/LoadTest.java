@@ -0,0 +1,297 @@
+package com.kaarelkaasla.enefitresourceservice.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Open-model HTTP load generator for the resource API.
+ *
+ * <p>Requests arrive on a fixed schedule at the target rate regardless of how fast the server
+ * answers; each runs on its own virtual thread through a shared HTTP/2 client. Latency is recorded
+ * per scenario against the scheduled start (see ScenarioStats). Results are printed and written to
+ * loadtest.output as summary.json plus one HdrHistogram percentile file per scenario.
+ */
+public final class LoadTest {
+
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+  private static final int HOT_SET_SIZE = 3;
+  private static final int SEED_CONCURRENCY = 32;
+
+  private final LoadTestOptions options;
+  private final URI baseUri;
+  private final HttpClient client;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ResourcePool pool = new ResourcePool(HOT_SET_SIZE);
+  private final Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+  private final Semaphore inFlightPermits;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final LongAdder http2Responses = new LongAdder();
+  private final LongAdder responses = new LongAdder();
+
+  LoadTest(LoadTestOptions options, URI baseUri, HttpClient client) {
+    this.options = options;
+    this.baseUri = baseUri;
+    this.client = client;
+    this.inFlightPermits = new Semaphore(options.maxInFlight());
+    options.mix().keySet().forEach(scenario -> stats.put(scenario, new ScenarioStats()));
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+    try (TargetService target = TargetService.start(options);
+        ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient client =
+            HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build()) {
+      LoadTest loadTest = new LoadTest(options, target.baseUri(), client);
+      loadTest.seed();
+      loadTest.run();
+      loadTest.report(System.out);
+    }
+  }
+
+  /** Creates the initial resources the read and update scenarios act on. */
+  void seed() throws InterruptedException {
+    Semaphore permits = new Semaphore(SEED_CONCURRENCY);
+    SplittableRandom random = new SplittableRandom(options.seed() ^ 0x5EEDL);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < options.resources(); i++) {
+        permits.acquire();
+        SplittableRandom requestRandom = random.split();
+        executor.execute(
+            () -> {
+              try {
+                HttpRequest request =
+                    Scenario.CREATE
+                        .request(baseUri, pool, requestRandom)
+                        .timeout(REQUEST_TIMEOUT)
+                        .build();
+                HttpResponse<String> response =
+                    client.send(request, HttpResponse.BodyHandlers.ofString());
+                addCreated(response);
+              } catch (IOException e) {
+                System.err.println("Seeding request failed: " + e);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              } finally {
+                permits.release();
+              }
+            });
+      }
+    }
+    System.out.printf("Seeded %d resources at %s%n", pool.size(), baseUri);
+  }
+
+  void run() {
+    ScenarioPicker picker = new ScenarioPicker(options.mix());
+    SplittableRandom random = new SplittableRandom(options.seed());
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rps();
+    long start = System.nanoTime();
+    long measureFrom = start + options.warmup().toNanos();
+    long end = measureFrom + options.duration().toNanos();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (long i = 0; ; i++) {
+        long intendedStart = start + i * intervalNanos;
+        if (intendedStart >= end) {
+          break;
+        }
+        parkUntil(intendedStart);
+        Scenario scenario = picker.pick(random);
+        SplittableRandom requestRandom = random.split();
+        boolean measured = intendedStart >= measureFrom;
+        executor.execute(() -> execute(scenario, requestRandom, intendedStart, measured));
+      }
+    }
+  }
+
+  private void execute(
+      Scenario scenario, SplittableRandom random, long intendedStart, boolean measured) {
+    ScenarioStats scenarioStats = stats.get(scenario);
+    HttpRequest.Builder builder = scenario.request(baseUri, pool, random);
+    if (builder == null) {
+      if (measured) {
+        scenarioStats.recordSkipped();
+      }
+      return;
+    }
+    HttpRequest request = builder.timeout(REQUEST_TIMEOUT).build();
+
+    try {
+      inFlightPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    long sent = System.nanoTime();
+    try {
+      HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+      long completed = System.nanoTime();
+      if (scenario == Scenario.CREATE) {
+        addCreated(response);
+      }
+      if (measured) {
+        scenarioStats.record(
+            response.statusCode(),
+            scenario.isExpected(response.statusCode()),
+            intendedStart,
+            sent,
+            completed);
+        responses.increment();
+        if (response.version() == HttpClient.Version.HTTP_2) {
+          http2Responses.increment();
+        }
+      }
+    } catch (IOException e) {
+      if (measured) {
+        scenarioStats.recordFailure(e, intendedStart, sent, System.nanoTime());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      inFlight.decrementAndGet();
+      inFlightPermits.release();
+    }
+  }
+
+  private void addCreated(HttpResponse<String> response) throws IOException {
+    if (response.statusCode() == 201) {
+      pool.add(objectMapper.readTree(response.body()).get("id").asLong());
+    }
+  }
+
+  void report(PrintStream out) throws IOException {
+    double seconds = options.duration().toNanos() / 1e9;
+    Files.createDirectories(options.output());
+
+    out.printf(
+        "%nTarget %d req/s for %s after %s warm-up; max in flight %d; HTTP/2 responses %d of %d%n",
+        options.rps(),
+        options.duration(),
+        options.warmup(),
+        maxInFlight.get(),
+        http2Responses.sum(),
+        responses.sum());
+    out.printf(
+        "%-15s %8s %9s %9s %9s %9s %9s %9s %12s  %s%n",
+        "scenario",
+        "count",
+        "req/s",
+        "p50 ms",
+        "p90 ms",
+        "p99 ms",
+        "p99.9 ms",
+        "max ms",
+        "svc p99 ms",
+        "statuses (unexpected/failed/skipped)");
+
+    Map<String, Object> scenarios = new LinkedHashMap<>();
+    long total = 0;
+    for (Map.Entry<Scenario, ScenarioStats> entry : stats.entrySet()) {
+      Scenario scenario = entry.getKey();
+      ScenarioStats scenarioStats = entry.getValue();
+      Histogram responseTime = scenarioStats.responseTime();
+      long count = responseTime.getTotalCount();
+      total += count;
+
+      out.printf(
+          "%-15s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f  %s (%d/%d/%d)%n",
+          scenario.scenarioName(),
+          count,
+          count / seconds,
+          millis(responseTime, 50),
+          millis(responseTime, 90),
+          millis(responseTime, 99),
+          millis(responseTime, 99.9),
+          responseTime.getMaxValue() / 1000.0,
+          millis(scenarioStats.serviceTime(), 99),
+          scenarioStats.statuses(),
+          scenarioStats.unexpected(),
+          scenarioStats.failures(),
+          scenarioStats.skipped());
+      if (scenarioStats.failures() > 0) {
+        out.printf("%-15s failures: %s%n", "", scenarioStats.failureCauses());
+      }
+
+      try (PrintStream histogramFile =
+          new PrintStream(
+              Files.newOutputStream(options.output().resolve(scenario.scenarioName() + ".hgrm")))) {
+        responseTime.outputPercentileDistribution(histogramFile, 1000.0);
+      }
+
+      Map<String, Object> summary = new LinkedHashMap<>();
+      summary.put("count", count);
+      summary.put("throughput", count / seconds);
+      summary.put("responseTimeMs", percentiles(responseTime));
+      summary.put("serviceTimeMs", percentiles(scenarioStats.serviceTime()));
+      summary.put("statuses", scenarioStats.statuses());
+      summary.put("unexpected", scenarioStats.unexpected());
+      summary.put("failures", scenarioStats.failureCauses());
+      summary.put("skipped", scenarioStats.skipped());
+      scenarios.put(scenario.scenarioName(), summary);
+    }
+    out.printf("%-15s %8d %9.1f%n", "total", total, total / seconds);
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("targetRps", options.rps());
+    result.put("warmup", options.warmup().toString());
+    result.put("duration", options.duration().toString());
+    result.put("seed", options.seed());
+    result.put("throughput", total / seconds);
+    result.put("maxInFlight", maxInFlight.get());
+    result.put("http2Responses", http2Responses.sum());
+    result.put("scenarios", scenarios);
+    objectMapper
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .writeValue(options.output().resolve("summary.json").toFile(), result);
+    out.printf("Results written to %s%n", options.output().toAbsolutePath());
+  }
+
+  private static Map<String, Double> percentiles(Histogram histogram) {
+    Map<String, Double> percentiles = new LinkedHashMap<>();
+    percentiles.put("p50", millis(histogram, 50));
+    percentiles.put("p90", millis(histogram, 90));
+    percentiles.put("p99", millis(histogram, 99));
+    percentiles.put("p99.9", millis(histogram, 99.9));
+    percentiles.put("max", histogram.getMaxValue() / 1000.0);
+    return percentiles;
+  }
+
+  private static double millis(Histogram histogram, double percentile) {
+    return histogram.getValueAtPercentile(percentile) / 1000.0;
+  }
+
+  private static void parkUntil(long deadlineNanos) {
+    long remaining;
+    while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(remaining);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.kaarelkaasla.enefitresourceservice.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from 'loadtest.*' system properties.
+ *
+ * <ul>
+ *   <li>{@code loadtest.target}: base URL of a running service; blank starts the app in-process
+ *   <li>{@code loadtest.rps}: target arrival rate (requests per second) across all scenarios
+ *   <li>{@code loadtest.warmup} / {@code loadtest.duration}: ISO-8601 durations (PT10S)
+ *   <li>{@code loadtest.mix}: scenario weights, e.g. {@code get:50,create:10,patch-conflict:5}
+ *   <li>{@code loadtest.resources}: resources created before the run
+ *   <li>{@code loadtest.max-in-flight}: concurrent request cap, at most the server's HTTP/2 max
+ *       concurrent streams (Tomcat default 100); time spent waiting for a slot counts as latency
+ *   <li>{@code loadtest.seed}: random seed for the scenario mix and id choice
+ *   <li>{@code loadtest.output}: directory for the summary and histogram files
+ *   <li>{@code loadtest.app-args}: command line arguments for the in-process application, e.g.
+ *       {@code --app.write-serialization.enabled=false}
+ * </ul>
+ */
+record LoadTestOptions(
+    String target,
+    int rps,
+    Duration warmup,
+    Duration duration,
+    Map<Scenario, Integer> mix,
+    int resources,
+    int maxInFlight,
+    long seed,
+    Path output,
+    String[] appArgs) {
+
+  static final String DEFAULT_MIX =
+      "get:50,list:1,search:4,create:10,put:8,patch:10,patch-conflict:8,delete:8,send-all:1";
+
+  static LoadTestOptions fromSystemProperties() {
+    return new LoadTestOptions(
+        System.getProperty("loadtest.target", "").strip(),
+        Integer.parseInt(System.getProperty("loadtest.rps", "200")),
+        Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+        Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+        parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+        Integer.parseInt(System.getProperty("loadtest.resources", "500")),
+        Integer.parseInt(System.getProperty("loadtest.max-in-flight", "100")),
+        Long.parseLong(System.getProperty("loadtest.seed", "42")),
+        Path.of(System.getProperty("loadtest.output", "target/loadtest")),
+        parseArgs(System.getProperty("loadtest.app-args", "")));
+  }
+
+  static String[] parseArgs(String args) {
+    return args.isBlank() ? new String[0] : args.strip().split("\\s+");
+  }
+
+  static Map<Scenario, Integer> parseMix(String mix) {
+    Map<Scenario, Integer> weights = new LinkedHashMap<>();
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.strip().split(":");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException(
+            "Invalid mix entry '" + entry + "', expected name:weight");
+      }
+      int weight = Integer.parseInt(parts[1].strip());
+      if (weight > 0) {
+        weights.put(Scenario.fromName(parts[0].strip()), weight);
+      }
+    }
+    if (weights.isEmpty()) {
+      throw new IllegalArgumentException("Mix has no scenario with a positive weight: " + mix);
+    }
+    return weights;
+  }
+}
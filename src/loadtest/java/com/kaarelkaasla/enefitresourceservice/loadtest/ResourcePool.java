@@ -0,0 +1,68 @@
+package com.kaarelkaasla.enefitresourceservice.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ids of resources that exist on the server. The first few created form the hot set that the
+ * patch-conflict scenario hammers; they are never deleted.
+ */
+final class ResourcePool {
+
+  private final int hotSetSize;
+  private final List<Long> hot = new ArrayList<>();
+  private final List<Long> ids = new ArrayList<>();
+
+  ResourcePool(int hotSetSize) {
+    this.hotSetSize = hotSetSize;
+  }
+
+  synchronized void add(long id) {
+    if (hot.size() < hotSetSize) {
+      hot.add(id);
+    } else {
+      ids.add(id);
+    }
+  }
+
+  synchronized Long pick(RandomGenerator random) {
+    if (ids.isEmpty()) {
+      return pickHot(random);
+    }
+    return ids.get(random.nextInt(ids.size()));
+  }
+
+  /**
+   * A non-hot id picked with probability falling off as 1/(rank + 1) over the pool order (Zipf with
+   * exponent 1), so the first seeded resources take most picks. Deletes swap other ids into the
+   * ranks they free, keeping the skew.
+   */
+  synchronized Long pickSkewed(RandomGenerator random) {
+    if (ids.isEmpty()) {
+      return pickHot(random);
+    }
+    int rank = (int) Math.pow(ids.size() + 1, random.nextDouble()) - 1;
+    return ids.get(Math.min(rank, ids.size() - 1));
+  }
+
+  synchronized Long pickHot(RandomGenerator random) {
+    return hot.isEmpty() ? null : hot.get(random.nextInt(hot.size()));
+  }
+
+  /** Removes and returns a random non-hot id (swap-remove), or null when none is left. */
+  synchronized Long take(RandomGenerator random) {
+    if (ids.isEmpty()) {
+      return null;
+    }
+    int index = random.nextInt(ids.size());
+    Long id = ids.get(index);
+    ids.set(index, ids.get(ids.size() - 1));
+    ids.remove(ids.size() - 1);
+    return id;
+  }
+
+  synchronized int size() {
+    return hot.size() + ids.size();
+  }
+}
@@ -0,0 +1,148 @@
+package com.kaarelkaasla.enefitresourceservice.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.util.Arrays;
+import java.util.function.LongFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * One request type of the workload, covering every ResourceController endpoint. Each scenario
+ * builds its request from the shared ResourcePool, and statuses listed as expected are counted as
+ * outcomes rather than errors (e.g. 409 for patch-conflict, which targets a few hot resources so
+ * concurrent patches collide). The skewed scenarios pick ids with a Zipf-like popularity, so a few
+ * resources take most writes; they show how often concurrent writes to one resource conflict (409)
+ * or time out waiting for each other (503).
+ */
+enum Scenario {
+  GET("get", 200),
+  LIST("list", 200),
+  SEARCH("search", 200),
+  CREATE("create", 201),
+  PUT("put", 200),
+  PATCH("patch", 200),
+  PATCH_CONFLICT("patch-conflict", 200, 409),
+  PUT_SKEWED("put-skewed", 200, 409, 503),
+  PATCH_SKEWED("patch-skewed", 200, 409, 503),
+  DELETE("delete", 204),
+  SEND_ALL("send-all", 200);
+
+  private static final String BASE_PATH = "/api/v1/resources";
+  private static final String[] COUNTRIES = {"EE", "LV", "LT", "FI", "PL"};
+
+  private final String scenarioName;
+  private final int[] expectedStatuses;
+
+  Scenario(String scenarioName, int... expectedStatuses) {
+    this.scenarioName = scenarioName;
+    this.expectedStatuses = expectedStatuses;
+  }
+
+  String scenarioName() {
+    return scenarioName;
+  }
+
+  boolean isExpected(int status) {
+    return Arrays.stream(expectedStatuses).anyMatch(expected -> expected == status);
+  }
+
+  static Scenario fromName(String name) {
+    return Arrays.stream(values())
+        .filter(scenario -> scenario.scenarioName.equals(name))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown scenario: " + name));
+  }
+
+  /**
+   * Builds the request for this scenario. Returns null when the pool has no resource to act on;
+   * DELETE takes its id out of the pool so no other request targets a deleted resource.
+   */
+  HttpRequest.Builder request(URI base, ResourcePool pool, RandomGenerator random) {
+    return switch (this) {
+      case GET -> withId(pool.pick(random), id -> get(base, BASE_PATH + "/" + id));
+      case LIST -> get(base, BASE_PATH);
+      case SEARCH ->
+          get(
+              base,
+              BASE_PATH + "/search?characteristicType=CHARGING_POINT&characteristicValue=CCS");
+      case CREATE -> send(base, BASE_PATH, "POST", resourceJson(country(random), random));
+      case PUT ->
+          withId(
+              pool.pick(random),
+              id -> send(base, BASE_PATH + "/" + id, "PUT", resourceJson(country(random), random)));
+      case PATCH ->
+          withId(
+              pool.pick(random),
+              id -> send(base, BASE_PATH + "/" + id, "PATCH", characteristicsPatch(random)));
+      case PATCH_CONFLICT ->
+          withId(
+              pool.pickHot(random),
+              id -> send(base, BASE_PATH + "/" + id, "PATCH", characteristicsPatch(random)));
+      case PUT_SKEWED ->
+          withId(
+              pool.pickSkewed(random),
+              id -> send(base, BASE_PATH + "/" + id, "PUT", resourceJson(country(random), random)));
+      case PATCH_SKEWED ->
+          withId(
+              pool.pickSkewed(random),
+              id -> send(base, BASE_PATH + "/" + id, "PATCH", characteristicsPatch(random)));
+      case DELETE ->
+          withId(
+              pool.take(random),
+              id -> HttpRequest.newBuilder(base.resolve(BASE_PATH + "/" + id)).DELETE());
+      case SEND_ALL -> send(base, BASE_PATH + "/send-all", "POST", "");
+    };
+  }
+
+  static String resourceJson(String country, RandomGenerator random) {
+    return """
+        {
+          "type": "%s",
+          "countryCode": "%s",
+          "location": {
+            "streetAddress": "Load test street %d",
+            "city": "Load City",
+            "postalCode": "%05d",
+            "countryCode": "%s"
+          },
+          "characteristics": [
+            {"code": "CT01", "type": "CONSUMPTION_TYPE", "value": "RESIDENTIAL"},
+            {"code": "CP01", "type": "CHARGING_POINT", "value": "%s"}
+          ]
+        }
+        """
+        .formatted(
+            random.nextBoolean() ? "METERING_POINT" : "CONNECTION_POINT",
+            country,
+            random.nextInt(1000),
+            random.nextInt(100000),
+            country,
+            random.nextInt(4) == 0 ? "CCS" : "TYPE2");
+  }
+
+  private static String characteristicsPatch(RandomGenerator random) {
+    return """
+        {"characteristics": [{"code": "CS01", "type": "CONNECTION_POINT_STATUS", "value": "%s"}]}
+        """
+        .formatted(random.nextBoolean() ? "ACTIVE" : "INACTIVE");
+  }
+
+  private static String country(RandomGenerator random) {
+    return COUNTRIES[random.nextInt(COUNTRIES.length)];
+  }
+
+  private static HttpRequest.Builder withId(Long id, LongFunction<HttpRequest.Builder> builder) {
+    return id == null ? null : builder.apply(id);
+  }
+
+  private static HttpRequest.Builder get(URI base, String path) {
+    return HttpRequest.newBuilder(base.resolve(path)).GET();
+  }
+
+  private static HttpRequest.Builder send(URI base, String path, String method, String json) {
+    return HttpRequest.newBuilder(base.resolve(path))
+        .header("Content-Type", "application/json")
+        .method(method, BodyPublishers.ofString(json));
+  }
+}
@@ -0,0 +1,31 @@
+package com.kaarelkaasla.enefitresourceservice.loadtest;
+
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/** Picks scenarios in proportion to their mix weights. */
+final class ScenarioPicker {
+
+  private final Scenario[] scenarios;
+  private final int[] cumulativeWeights;
+
+  ScenarioPicker(Map<Scenario, Integer> weights) {
+    scenarios = weights.keySet().toArray(Scenario[]::new);
+    cumulativeWeights = new int[scenarios.length];
+    int total = 0;
+    for (int i = 0; i < scenarios.length; i++) {
+      total += weights.get(scenarios[i]);
+      cumulativeWeights[i] = total;
+    }
+  }
+
+  Scenario pick(RandomGenerator random) {
+    int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    for (int i = 0; i < cumulativeWeights.length; i++) {
+      if (value < cumulativeWeights[i]) {
+        return scenarios[i];
+      }
+    }
+    throw new IllegalStateException("Unreachable");
+  }
+}
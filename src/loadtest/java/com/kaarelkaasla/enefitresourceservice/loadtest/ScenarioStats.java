@@ -0,0 +1,95 @@
+package com.kaarelkaasla.enefitresourceservice.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency and outcome counts for one scenario, in microseconds.
+ *
+ * <p>Response time is measured from the request's intended start in the arrival schedule, so time a
+ * request spent waiting behind a stalled server counts against it (coordinated-omission
+ * corrected). Service time is measured from when the request was actually sent.
+ */
+final class ScenarioStats {
+
+  private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+  private final Histogram responseTime = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+  private final Histogram serviceTime = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+  private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+  private final LongAdder unexpected = new LongAdder();
+  private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+  private final LongAdder skipped = new LongAdder();
+
+  void record(
+      int status, boolean expected, long intendedStartNanos, long sentNanos, long endNanos) {
+    responseTime.recordValue(toMicros(endNanos - intendedStartNanos));
+    serviceTime.recordValue(toMicros(endNanos - sentNanos));
+    statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    if (!expected) {
+      unexpected.increment();
+    }
+  }
+
+  /** Transport failure or timeout: counts toward latency at the time it was detected. */
+  void recordFailure(Exception cause, long intendedStartNanos, long sentNanos, long endNanos) {
+    responseTime.recordValue(toMicros(endNanos - intendedStartNanos));
+    serviceTime.recordValue(toMicros(endNanos - sentNanos));
+    failures.computeIfAbsent(describe(cause), key -> new LongAdder()).increment();
+  }
+
+  /** No request could be built (e.g. no resource left to delete). */
+  void recordSkipped() {
+    skipped.increment();
+  }
+
+  Histogram responseTime() {
+    return responseTime;
+  }
+
+  Histogram serviceTime() {
+    return serviceTime;
+  }
+
+  Map<Integer, Long> statuses() {
+    Map<Integer, Long> counts = new TreeMap<>();
+    statuses.forEach((status, count) -> counts.put(status, count.sum()));
+    return counts;
+  }
+
+  long unexpected() {
+    return unexpected.sum();
+  }
+
+  long failures() {
+    return failures.values().stream().mapToLong(LongAdder::sum).sum();
+  }
+
+  /** Failure counts by exception type. */
+  Map<String, Long> failureCauses() {
+    Map<String, Long> counts = new TreeMap<>();
+    failures.forEach((cause, count) -> counts.put(cause, count.sum()));
+    return counts;
+  }
+
+  long skipped() {
+    return skipped.sum();
+  }
+
+  private static String describe(Exception cause) {
+    String message = cause.getMessage();
+    return message == null
+        ? cause.getClass().getSimpleName()
+        : cause.getClass().getSimpleName() + ": " + message;
+  }
+
+  private static long toMicros(long nanos) {
+    return Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 1), MAX_TRACKABLE_MICROS);
+  }
+}
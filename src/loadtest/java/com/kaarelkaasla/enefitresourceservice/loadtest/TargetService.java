@@ -0,0 +1,68 @@
+package com.kaarelkaasla.enefitresourceservice.loadtest;
+
+import java.net.URI;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import com.kaarelkaasla.enefitresourceservice.EnefitResourceServiceApplication;
+
+/**
+ * The service under test: either an already running instance at loadtest.target, or the
+ * application started in this JVM on a random port against an embedded Kafka broker and the
+ * datasource from application.yml (override with -Dspring.datasource.url=...), with
+ * loadtest.app-args as its command line.
+ */
+final class TargetService implements AutoCloseable {
+
+  private static final String TOPIC = "resource-updates";
+
+  private final URI baseUri;
+  private final EmbeddedKafkaKraftBroker kafka;
+  private final ConfigurableApplicationContext application;
+
+  private TargetService(
+      URI baseUri, EmbeddedKafkaKraftBroker kafka, ConfigurableApplicationContext application) {
+    this.baseUri = baseUri;
+    this.kafka = kafka;
+    this.application = application;
+  }
+
+  static TargetService start(LoadTestOptions options) {
+    if (!options.target().isEmpty()) {
+      return new TargetService(URI.create(options.target()), null, null);
+    }
+
+    EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 3, TOPIC);
+    kafka.afterPropertiesSet();
+    ConfigurableApplicationContext application =
+        new SpringApplicationBuilder(EnefitResourceServiceApplication.class)
+            .properties(
+                "server.port=0",
+                "server.http2.enabled=true",
+                "spring.kafka.bootstrap-servers=" + kafka.getBrokersAsString(),
+                "app.kafka.topic.resource-updates=" + TOPIC,
+                // Console SQL and DEBUG logging would otherwise dominate the measurement
+                "spring.jpa.show-sql=false",
+                "logging.level.com.kaarelkaasla.enefitresourceservice=INFO")
+            .run(options.appArgs());
+    int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+    return new TargetService(URI.create("http://localhost:" + port), kafka, application);
+  }
+
+  URI baseUri() {
+    return baseUri;
+  }
+
+  @Override
+  public void close() {
+    if (application != null) {
+      application.close();
+    }
+    if (kafka != null) {
+      kafka.destroy();
+    }
+  }
+}
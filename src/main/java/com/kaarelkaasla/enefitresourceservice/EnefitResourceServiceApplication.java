@@ -2,11 +2,21 @@ package com.kaarelkaasla.enefitresourceservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.kaarelkaasla.enefitresourceservice.config.ResourceServiceRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(ResourceServiceRuntimeHints.class)
 public class EnefitResourceServiceApplication {
 
+  // Startup steps kept for /actuator/startup; a startup records about 600
+  private static final int STARTUP_STEP_CAPACITY = 2048;
+
   public static void main(String[] args) {
-    SpringApplication.run(EnefitResourceServiceApplication.class, args);
+    SpringApplication application = new SpringApplication(EnefitResourceServiceApplication.class);
+    application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+    application.run(args);
   }
 }
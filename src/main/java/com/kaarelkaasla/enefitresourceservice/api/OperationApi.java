@@ -0,0 +1,70 @@
+package com.kaarelkaasla.enefitresourceservice.api;
+
+import java.util.UUID;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import com.kaarelkaasla.enefitresourceservice.dtos.BulkDeleteOperationResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.ErrorResponse;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * API contract for following long-running operations started through the resource API.
+ * Annotated for OpenAPI/Swagger to document requests and responses.
+ */
+@Tag(name = "Operations", description = "Status of background jobs such as bulk deletes")
+public interface OperationApi {
+
+  @Operation(
+      summary = "Get operation status",
+      description =
+          "Returns the progress of a bulk delete. Status is kept in memory by the instance that"
+              + " runs the job, for its most recent operations only.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Current status",
+            content =
+                @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = BulkDeleteOperationResponse.class),
+                    examples =
+                        @ExampleObject(
+                            name = "Completed",
+                            summary = "A finished bulk delete",
+                            value =
+                                """
+                                            {
+                                              "operationId": "550e8400-e29b-41d4-a716-446655440000",
+                                              "status": "COMPLETED",
+                                              "type": "METERING_POINT",
+                                              "countryCode": "LV",
+                                              "deletedCount": 182340,
+                                              "chunkCount": 183,
+                                              "createdAt": "2024-01-15T14:30:00Z",
+                                              "finishedAt": "2024-01-15T14:31:12Z",
+                                              "error": null
+                                            }
+                                            """))),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Unknown operation, or no longer retained",
+            content =
+                @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)))
+      })
+  ResponseEntity<BulkDeleteOperationResponse> getOperation(
+      @Parameter(description = "Operation ID", required = true) @PathVariable UUID id);
+}
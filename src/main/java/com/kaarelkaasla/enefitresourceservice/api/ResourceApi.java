@@ -4,12 +4,17 @@ import java.util.List;
 
 import jakarta.validation.Valid;
 
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.kaarelkaasla.enefitresourceservice.dtos.*;
+import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -288,9 +293,164 @@ public interface ResourceApi {
       })
   ResponseEntity<List<ResourceResponse>> getAllResources();
 
+  @Operation(
+      summary = "Search resources by characteristic",
+      description =
+          "Returns the resources that have a characteristic with the given type and value (and"
+              + " code, when given). Served by the GIN index on the resources' characteristics"
+              + " document.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Matching resources, ordered by ID; empty when nothing matches",
+            content =
+                @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ResourceResponse.class, type = "array"))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Missing or invalid search parameter",
+            content =
+                @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples =
+                        @ExampleObject(
+                            name = "Missing Parameter",
+                            summary = "characteristicValue was not provided",
+                            value =
+                                """
+                                            {
+                                              "status": 400,
+                                              "error": "Bad Request",
+                                              "message": "Required parameter 'characteristicValue' is missing",
+                                              "path": "/api/v1/resources/search",
+                                              "timestamp": "2024-01-15T10:30:00",
+                                              "fieldErrors": null
+                                            }
+                                            """)))
+      })
+  ResponseEntity<List<ResourceResponse>> searchResources(
+      @Parameter(description = "Characteristic type", required = true, example = "CHARGING_POINT")
+          @RequestParam
+          CharacteristicType characteristicType,
+      @Parameter(
+              description = "Characteristic value (exact match)",
+              required = true,
+              example = "CCS")
+          @RequestParam
+          String characteristicValue,
+      @Parameter(description = "Characteristic code (exact match)", example = "CP001")
+          @RequestParam(required = false)
+          String characteristicCode);
+
+  @Operation(
+      summary = "Get resources by IDs",
+      description =
+          "Loads up to 1000 resources with a single query. Returns one result per requested ID,"
+              + " in request order; IDs without a resource are marked with \"found\": false"
+              + " instead of failing the request.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "One result per requested ID",
+            content =
+                @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ResourceLookupResult.class, type = "array"),
+                    examples =
+                        @ExampleObject(
+                            name = "Found and Missing",
+                            summary = "The second ID does not exist",
+                            value =
+                                """
+                                            [
+                                              {
+                                                "id": 1,
+                                                "found": true,
+                                                "resource": {
+                                                  "id": 1,
+                                                  "type": "METERING_POINT",
+                                                  "countryCode": "US",
+                                                  "version": 1,
+                                                  "createdAt": "2024-01-15T10:30:00Z",
+                                                  "updatedAt": "2024-01-15T10:30:00Z",
+                                                  "location": {
+                                                    "streetAddress": "123 Main Street",
+                                                    "city": "New York",
+                                                    "postalCode": "10001",
+                                                    "countryCode": "US"
+                                                  },
+                                                  "characteristics": []
+                                                }
+                                              },
+                                              {
+                                                "id": 999,
+                                                "found": false,
+                                                "resource": null
+                                              }
+                                            ]
+                                            """))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "No IDs, more than 1000 IDs, or an ID that is not a number",
+            content =
+                @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)))
+      })
+  ResponseEntity<List<ResourceLookupResult>> getResourcesByIds(
+      @ParameterObject ResourceLookupRequest request);
+
+  @Operation(
+      summary = "Get resources by IDs (request body)",
+      description =
+          "Same as GET /api/v1/resources?ids=..., for ID sets too large for a query string.",
+      requestBody =
+          @io.swagger.v3.oas.annotations.parameters.RequestBody(
+              description = "IDs to load",
+              required = true,
+              content =
+                  @Content(
+                      mediaType = MediaType.APPLICATION_JSON_VALUE,
+                      schema = @Schema(implementation = ResourceLookupRequest.class),
+                      examples =
+                          @ExampleObject(
+                              name = "Lookup Request",
+                              value =
+                                  """
+                          {
+                            "ids": [1, 2, 999]
+                          }
+                          """))))
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "One result per requested ID",
+            content =
+                @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ResourceLookupResult.class, type = "array"))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "No IDs or more than 1000 IDs",
+            content =
+                @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)))
+      })
+  ResponseEntity<List<ResourceLookupResult>> lookupResources(
+      @Valid @RequestBody ResourceLookupRequest request);
+
   @Operation(
       summary = "Get resource by ID",
-      description = "Retrieves a specific resource by its ID with location and characteristics")
+      description =
+          "Retrieves a specific resource by its ID with location and characteristics. Also"
+              + " available as application/cbor, application/x-jackson-smile and"
+              + " application/x-protobuf (resources.proto) through the Accept header.")
   @ApiResponses(
       value = {
         @ApiResponse(
@@ -351,9 +511,13 @@ public interface ResourceApi {
                                             }
                                             """)))
       })
-  ResponseEntity<ResourceResponse> getResourceById(
-      @Parameter(description = "Resource ID", required = true, example = "1") @PathVariable
-          Long id);
+  ResponseEntity<?> getResourceById(
+      @Parameter(description = "Resource ID", required = true, example = "1") @PathVariable Long id,
+      @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+          String accept,
+      @Parameter(hidden = true)
+          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+          String acceptEncoding);
 
   @Operation(
       summary = "Update resource (full update)",
@@ -821,6 +985,51 @@ public interface ResourceApi {
       @Parameter(description = "Resource ID", required = true, example = "1") @PathVariable
           Long id);
 
+  @Operation(
+      summary = "Delete resources matching a filter",
+      description =
+          "Starts a background job deleting every resource with the given type and/or country"
+              + " code, in chunks with one short transaction each, and publishes a DELETED event"
+              + " per resource. Returns immediately; follow progress at the Location header"
+              + " (GET /api/v1/operations/{id}).")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Job accepted",
+            content =
+                @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = BulkDeleteOperationResponse.class),
+                    examples =
+                        @ExampleObject(
+                            name = "Accepted",
+                            summary = "Deleting all metering points in Latvia",
+                            value =
+                                """
+                                            {
+                                              "operationId": "550e8400-e29b-41d4-a716-446655440000",
+                                              "status": "PENDING",
+                                              "type": "METERING_POINT",
+                                              "countryCode": "LV",
+                                              "deletedCount": 0,
+                                              "chunkCount": 0,
+                                              "createdAt": "2024-01-15T14:30:00Z",
+                                              "finishedAt": null,
+                                              "error": null
+                                            }
+                                            """))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "No filter given, or an invalid type or country code",
+            content =
+                @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)))
+      })
+  ResponseEntity<BulkDeleteOperationResponse> deleteResources(
+      @ParameterObject BulkDeleteRequest filter);
+
   @Operation(
       summary = "Send all resources for batch notification",
       description = "Publishes all resources to the Kafka topic for batch notification")
@@ -0,0 +1,56 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaarelkaasla.enefitresourceservice.services.TimeProvider;
+import com.kaarelkaasla.enefitresourceservice.web.AdaptiveConcurrencyLimit;
+import com.kaarelkaasla.enefitresourceservice.web.ConcurrencyLimitFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registers the load-shedding ConcurrencyLimitFilter ahead of the other API filters, with the
+ * bounds of each request class's adaptive limit from 'app.concurrency-limit.*'.
+ */
+@Configuration
+@ConditionalOnProperty(
+    name = "app.concurrency-limit.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+  @Bean
+  public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+      ObjectMapper objectMapper,
+      TimeProvider timeProvider,
+      MeterRegistry meterRegistry,
+      @Value("${app.concurrency-limit.reads.min-limit:10}") int readMin,
+      @Value("${app.concurrency-limit.reads.initial-limit:50}") int readInitial,
+      @Value("${app.concurrency-limit.reads.max-limit:200}") int readMax,
+      @Value("${app.concurrency-limit.writes.min-limit:5}") int writeMin,
+      @Value("${app.concurrency-limit.writes.initial-limit:20}") int writeInitial,
+      @Value("${app.concurrency-limit.writes.max-limit:100}") int writeMax,
+      @Value("${app.concurrency-limit.send-all.min-limit:1}") int sendAllMin,
+      @Value("${app.concurrency-limit.send-all.initial-limit:1}") int sendAllInitial,
+      @Value("${app.concurrency-limit.send-all.max-limit:2}") int sendAllMax) {
+    FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+        new FilterRegistrationBean<>(
+            new ConcurrencyLimitFilter(
+                new AdaptiveConcurrencyLimit(readMin, readInitial, readMax),
+                new AdaptiveConcurrencyLimit(writeMin, writeInitial, writeMax),
+                new AdaptiveConcurrencyLimit(sendAllMin, sendAllInitial, sendAllMax),
+                objectMapper,
+                timeProvider,
+                meterRegistry));
+    registration.addUrlPatterns("/api/*");
+    // Before the SQL budget and compression filters, so shed requests cost next to nothing
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+    return registration;
+  }
+}
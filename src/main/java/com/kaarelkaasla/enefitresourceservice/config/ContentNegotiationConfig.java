@@ -0,0 +1,64 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.kaarelkaasla.enefitresourceservice.web.ResourceProtobufHttpMessageConverter;
+import com.kaarelkaasla.enefitresourceservice.web.ResponseCompressionFilter;
+
+/**
+ * Alternative response formats and encodings for the API. CBOR and Smile converters use the
+ * application's Jackson configuration (codecs, date format) and Protobuf covers resource bodies;
+ * all come after JSON, so JSON stays the default for wildcard Accept headers. Responses are
+ * compressed with zstd or gzip as negotiated, tuned by 'app.compression.*'.
+ */
+@Configuration
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+  private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+  public ContentNegotiationConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+    this.objectMapperBuilder = objectMapperBuilder;
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    // Replaces Spring MVC's defaults, which use a separately configured ObjectMapper
+    converters.removeIf(
+        converter ->
+            converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+    converters.add(
+        new MappingJackson2CborHttpMessageConverter(
+            objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+    converters.add(
+        new MappingJackson2SmileHttpMessageConverter(
+            objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+    converters.add(new ResourceProtobufHttpMessageConverter());
+  }
+
+  @Bean
+  public FilterRegistrationBean<ResponseCompressionFilter> responseCompressionFilter(
+      @Value("${app.compression.min-size:1KB}") DataSize minSize,
+      @Value("${app.compression.zstd-level:3}") int zstdLevel) {
+    FilterRegistrationBean<ResponseCompressionFilter> registration =
+        new FilterRegistrationBean<>(new ResponseCompressionFilter(minSize.toBytes(), zstdLevel));
+    registration.addUrlPatterns("/api/*");
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+    return registration;
+  }
+}
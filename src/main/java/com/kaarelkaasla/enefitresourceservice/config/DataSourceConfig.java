@@ -0,0 +1,86 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import java.io.Closeable;
+import java.util.Map;
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.kaarelkaasla.enefitresourceservice.services.BulkWorkExecutor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Splits database connections into two Hikari pools behind one DataSource: 'interactive' for
+ * request threads (configured by 'spring.datasource.hikari.*') and 'bulk' for bulk work, such as
+ * BulkWorkExecutor jobs and gRPC ListResources streams (configured by 'app.bulk.datasource.*'), so a
+ * send-all scan or a stalled stream never holds a
+ * connection an interactive request is waiting for. Both pools report hikaricp_* metrics under their
+ * pool name.
+ */
+@Configuration
+public class DataSourceConfig {
+
+  static final String INTERACTIVE_POOL = "interactive";
+  static final String BULK_POOL = "bulk";
+
+  @Bean
+  public DataSource dataSource(
+      DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry) {
+    Binder binder = Binder.get(environment);
+    MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+    HikariDataSource interactive = newPool(properties, INTERACTIVE_POOL, metrics);
+    binder.bind("spring.datasource.hikari", Bindable.ofInstance(interactive));
+
+    HikariDataSource bulk = newPool(properties, BULK_POOL, metrics);
+    bulk.setMaximumPoolSize(2);
+    bulk.setMinimumIdle(0);
+    binder.bind("app.bulk.datasource", Bindable.ofInstance(bulk));
+
+    return new BulkRoutingDataSource(interactive, bulk);
+  }
+
+  private static HikariDataSource newPool(
+      DataSourceProperties properties, String name, MicrometerMetricsTrackerFactory metrics) {
+    HikariDataSource pool =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    pool.setPoolName(name);
+    pool.setMetricsTrackerFactory(metrics);
+    return pool;
+  }
+
+  /** Hands out bulk pool connections on bulk threads and interactive ones everywhere else. */
+  static final class BulkRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final HikariDataSource interactive;
+    private final HikariDataSource bulk;
+
+    BulkRoutingDataSource(HikariDataSource interactive, HikariDataSource bulk) {
+      this.interactive = interactive;
+      this.bulk = bulk;
+      setTargetDataSources(Map.of(INTERACTIVE_POOL, interactive, BULK_POOL, bulk));
+      setDefaultTargetDataSource(interactive);
+      afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+      return BulkWorkExecutor.inBulkWork() ? BULK_POOL : INTERACTIVE_POOL;
+    }
+
+    @Override
+    public void close() {
+      bulk.close();
+      interactive.close();
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.kaarelkaasla.enefitresourceservice.monitoring.ContinuousRecording;
+import com.kaarelkaasla.enefitresourceservice.monitoring.FlightRecordingEndpoint;
+import com.kaarelkaasla.enefitresourceservice.monitoring.ResourceOperationRecorder;
+import com.kaarelkaasla.enefitresourceservice.monitoring.SqlStatementCounter;
+
+/**
+ * Flight Recorder support: ResourceOperation events for service operations, the continuous
+ * recording ('app.jfr.continuous.*') and the /actuator/jfr endpoint that dumps it. Kafka publish
+ * events are emitted by ResourceEventService itself.
+ */
+@Configuration
+public class FlightRecorderConfig {
+
+  @Bean
+  public ResourceOperationRecorder resourceOperationRecorder(
+      SqlStatementCounter sqlStatementCounter) {
+    return new ResourceOperationRecorder(sqlStatementCounter);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "app.jfr.continuous.enabled", havingValue = "true")
+  public ContinuousRecording continuousRecording(
+      @Value("${app.jfr.continuous.max-age:6h}") Duration maxAge,
+      @Value("${app.jfr.continuous.max-size:250MB}") DataSize maxSize)
+      throws IOException, ParseException {
+    return new ContinuousRecording(maxAge, maxSize.toBytes());
+  }
+
+  @Bean
+  public FlightRecordingEndpoint flightRecordingEndpoint() {
+    return new FlightRecordingEndpoint();
+  }
+}
@@ -4,36 +4,55 @@ import java.util.List;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import com.kaarelkaasla.enefitresourceservice.dtos.ErrorResponse;
 import com.kaarelkaasla.enefitresourceservice.dtos.FieldError;
 import com.kaarelkaasla.enefitresourceservice.exceptions.OptimisticLockingException;
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceBusyException;
 import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceNotFoundException;
 import com.kaarelkaasla.enefitresourceservice.services.TimeProvider;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Centralized exception handling that maps errors to HTTP responses.
- * Translates common exceptions (404, 400, 409, 415, 405, 500),
+ * Translates common exceptions (404, 400, 409, 415, 405, 503, 500),
  * aggregates field/global validation errors, and timestamps responses via TimeProvider.
+ * Counts not-found and optimistic-lock conflict responses as metrics.
  */
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
 
   private final TimeProvider timeProvider;
+  private final Counter notFoundCounter;
+  private final Counter conflictCounter;
 
-  public GlobalExceptionHandler(TimeProvider timeProvider) {
+  public GlobalExceptionHandler(TimeProvider timeProvider, MeterRegistry meterRegistry) {
     this.timeProvider = timeProvider;
+    this.notFoundCounter =
+        Counter.builder("resource.not.found")
+            .description("Requests answered with 404 because the resource does not exist")
+            .register(meterRegistry);
+    this.conflictCounter =
+        Counter.builder("resource.optimistic.lock.conflicts")
+            .description("Writes rejected with 409 because of a concurrent modification")
+            .register(meterRegistry);
   }
 
   @ExceptionHandler(ResourceNotFoundException.class)
@@ -41,6 +60,7 @@ public class GlobalExceptionHandler {
       ResourceNotFoundException ex, HttpServletRequest request) {
 
     log.warn("Resource not found: {}", ex.getMessage());
+    notFoundCounter.increment();
 
     ErrorResponse error =
         new ErrorResponse(
@@ -62,6 +82,7 @@ public class GlobalExceptionHandler {
       Exception ex, HttpServletRequest request) {
 
     log.warn("Optimistic locking conflict: {}", ex.getMessage());
+    conflictCounter.increment();
 
     ErrorResponse error =
         new ErrorResponse(
@@ -75,6 +96,49 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
   }
 
+  // Serialization failures and lock timeouts, e.g. two requests moving the same resource to
+  // another country's partition at once; the database message is not passed on
+  @ExceptionHandler(ConcurrencyFailureException.class)
+  public ResponseEntity<ErrorResponse> handleConcurrencyFailureException(
+      ConcurrencyFailureException ex, HttpServletRequest request) {
+
+    log.warn("Concurrent write conflict: {}", ex.getMessage());
+    conflictCounter.increment();
+
+    ErrorResponse error =
+        new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            "Conflict",
+            "Resource was modified by another transaction. Please refresh and try again.",
+            request.getRequestURI(),
+            timeProvider.now().toLocalDateTime(),
+            null);
+
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+  }
+
+  @ExceptionHandler(ResourceBusyException.class)
+  public ResponseEntity<ErrorResponse> handleResourceBusyException(
+      ResourceBusyException ex, HttpServletRequest request) {
+
+    log.warn("Resource busy: {}", ex.getMessage());
+
+    ErrorResponse error =
+        new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Service Unavailable",
+            ex.getMessage(),
+            request.getRequestURI(),
+            timeProvider.now().toLocalDateTime(),
+            null);
+
+    // Whole seconds, rounded up
+    long retryAfter = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+        .body(error);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ErrorResponse> handleValidationException(
       MethodArgumentNotValidException ex, HttpServletRequest request) {
@@ -141,6 +205,42 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
   }
 
+  @ExceptionHandler(MissingServletRequestParameterException.class)
+  public ResponseEntity<ErrorResponse> handleMissingRequestParameter(
+      MissingServletRequestParameterException ex, HttpServletRequest request) {
+
+    log.warn("Missing request parameter: {}", ex.getParameterName());
+
+    ErrorResponse error =
+        new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Bad Request",
+            "Required parameter '" + ex.getParameterName() + "' is missing",
+            request.getRequestURI(),
+            timeProvider.now().toLocalDateTime(),
+            null);
+
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+  }
+
+  @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+  public ResponseEntity<ErrorResponse> handleArgumentTypeMismatch(
+      MethodArgumentTypeMismatchException ex, HttpServletRequest request) {
+
+    log.warn("Invalid value for parameter {}: {}", ex.getName(), ex.getValue());
+
+    ErrorResponse error =
+        new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Bad Request",
+            "Invalid value for parameter '" + ex.getName() + "'",
+            request.getRequestURI(),
+            timeProvider.now().toLocalDateTime(),
+            null);
+
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+  }
+
   @ExceptionHandler(DataIntegrityViolationException.class)
   public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(
       DataIntegrityViolationException ex, HttpServletRequest request) {
@@ -196,6 +296,25 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).body(error);
   }
 
+  // Neither a handler nor a static resource, e.g. /v3/api-docs where springdoc is turned off
+  @ExceptionHandler(NoResourceFoundException.class)
+  public ResponseEntity<ErrorResponse> handleNoResourceFound(
+      NoResourceFoundException ex, HttpServletRequest request) {
+
+    log.warn("No endpoint: {}", request.getRequestURI());
+
+    ErrorResponse error =
+        new ErrorResponse(
+            HttpStatus.NOT_FOUND.value(),
+            "Not Found",
+            "No endpoint " + request.getMethod() + " " + request.getRequestURI(),
+            request.getRequestURI(),
+            timeProvider.now().toLocalDateTime(),
+            null);
+
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+  }
+
   @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
   public ResponseEntity<ErrorResponse> handleUnsupportedMediaType(
       HttpMediaTypeNotSupportedException ex, HttpServletRequest request) {
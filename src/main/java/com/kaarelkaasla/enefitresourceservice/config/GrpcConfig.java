@@ -0,0 +1,70 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import com.kaarelkaasla.enefitresourceservice.grpc.GrpcServerLifecycle;
+import com.kaarelkaasla.enefitresourceservice.grpc.ResourceGrpcService;
+import com.kaarelkaasla.enefitresourceservice.grpc.ResourceWatchers;
+import com.kaarelkaasla.enefitresourceservice.services.ResourceService;
+import com.kaarelkaasla.enefitresourceservice.validation.ResourceRequestValidator;
+
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+
+/**
+ * gRPC endpoint next to the REST API, on its own port ('app.grpc.port'). Requests are validated
+ * like the REST ones (fast path or Bean Validation, per 'app.validation.fast-path'). Unary calls
+ * run on a fixed pool and ListResources cursors on a smaller one, since each holds a database
+ * connection while it streams. Disable with app.grpc.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcConfig {
+
+  @Bean
+  public ResourceWatchers resourceWatchers(
+      @Value("${app.grpc.watch-queue-capacity:1024}") int queueCapacity) {
+    return new ResourceWatchers(queueCapacity);
+  }
+
+  @Bean
+  public ResourceGrpcService resourceGrpcService(
+      ResourceService resourceService,
+      ResourceWatchers resourceWatchers,
+      jakarta.validation.Validator beanValidator,
+      @Value("${app.validation.fast-path:true}") boolean fastPathValidation,
+      @Value("${app.grpc.stream-threads:4}") int streamThreads,
+      @Value("${app.grpc.stream-stall-timeout:30s}") Duration stallTimeout) {
+    return new ResourceGrpcService(
+        resourceService,
+        fastPathValidation
+            ? new ResourceRequestValidator()
+            : new SpringValidatorAdapter(beanValidator),
+        resourceWatchers,
+        Executors.newFixedThreadPool(streamThreads, new CustomizableThreadFactory("grpc-stream-")),
+        stallTimeout);
+  }
+
+  @Bean
+  public GrpcServerLifecycle grpcServer(
+      ResourceGrpcService resourceGrpcService,
+      @Value("${app.grpc.port:9090}") int port,
+      @Value("${app.grpc.threads:32}") int threads,
+      @Value("${app.grpc.shutdown-grace-period:10s}") Duration shutdownGracePeriod) {
+    ExecutorService executor =
+        Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("grpc-call-"));
+    return new GrpcServerLifecycle(
+        NettyServerBuilder.forPort(port).executor(executor).addService(resourceGrpcService).build(),
+        resourceGrpcService,
+        executor,
+        shutdownGracePeriod);
+  }
+}
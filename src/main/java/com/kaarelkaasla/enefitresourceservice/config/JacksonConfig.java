@@ -0,0 +1,24 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Adds Blackbird to the application's ObjectMapper, replacing reflective property access with
+ * generated lambdas for every type without a hand-written codec (see ResourceJsonCodecs). A native
+ * image cannot define classes at runtime, so there Jackson keeps reflective access (see
+ * ResourceServiceRuntimeHints).
+ */
+@Configuration
+public class JacksonConfig {
+
+  @Bean
+  public Module blackbirdModule() {
+    return NativeDetector.inNativeImage() ? new SimpleModule() : new BlackbirdModule();
+  }
+}
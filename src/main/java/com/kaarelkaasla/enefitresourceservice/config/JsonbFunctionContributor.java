@@ -0,0 +1,27 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers jsonb_contains(document, filter) for JPQL, rendered as PostgreSQL's @> operator so a
+ * query can join fetch through the entity model and still be served by the GIN index on the
+ * document. Picked up by Hibernate from META-INF/services.
+ */
+public class JsonbFunctionContributor implements FunctionContributor {
+
+  @Override
+  public void contributeFunctions(FunctionContributions functionContributions) {
+    functionContributions
+        .getFunctionRegistry()
+        .patternDescriptorBuilder("jsonb_contains", "(?1 @> cast(?2 as jsonb))")
+        .setExactArgumentCount(2)
+        .setInvariantType(
+            functionContributions
+                .getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN))
+        .register();
+  }
+}
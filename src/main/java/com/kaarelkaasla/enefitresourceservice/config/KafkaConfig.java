@@ -6,13 +6,16 @@ import java.util.Map;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.util.unit.DataSize;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kaarelkaasla.enefitresourceservice.dtos.ResourceEvent;
@@ -20,8 +23,11 @@ import com.kaarelkaasla.enefitresourceservice.dtos.ResourceEvent;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Configures Kafka topic and producer for event publishing.
- * Uses an idempotent producer with JSON serialization.
+ * Configures Kafka topic and producers for event publishing.
+ * Uses idempotent producers with JSON serialization: the primary one for interactive requests and a
+ * separate 'bulk' one, with its own buffer ('app.bulk.kafka.buffer-memory'), I/O thread and
+ * connections, for send-all and bulk delete events. Sends are traced and carry the trace context in
+ * their headers.
  */
 @Configuration
 @Slf4j
@@ -39,14 +45,63 @@ public class KafkaConfig {
   }
 
   @Bean
+  @Primary
   public ProducerFactory<String, ResourceEvent> producerFactory(ObjectMapper objectMapper) {
+    return newProducerFactory(producerProperties(), objectMapper);
+  }
+
+  @Bean
+  @Primary
+  public KafkaTemplate<String, ResourceEvent> kafkaTemplate(
+      ProducerFactory<String, ResourceEvent> producerFactory) {
+    return newKafkaTemplate(producerFactory);
+  }
+
+  @Bean
+  public ProducerFactory<String, ResourceEvent> bulkProducerFactory(
+      ObjectMapper objectMapper,
+      @Value("${app.bulk.kafka.buffer-memory:16MB}") DataSize bufferMemory) {
+    Map<String, Object> configProps = producerProperties();
+    configProps.put(ProducerConfig.CLIENT_ID_CONFIG, "bulk");
+    configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory.toBytes());
+    return newProducerFactory(configProps, objectMapper);
+  }
+
+  @Bean
+  public KafkaTemplate<String, ResourceEvent> bulkKafkaTemplate(
+      @Qualifier("bulkProducerFactory") ProducerFactory<String, ResourceEvent> producerFactory) {
+    return newKafkaTemplate(producerFactory);
+  }
+
+  private Map<String, Object> producerProperties() {
     Map<String, Object> configProps = new HashMap<>();
     configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
     configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
     configProps.put(ProducerConfig.ACKS_CONFIG, "all");
     configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
     configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 1);
+    return configProps;
+  }
+
+  // Each send is observed: a producer span until the broker acks, with the trace context written to
+  // the record headers (W3C traceparent) for consumers to continue the trace
+  private static KafkaTemplate<String, ResourceEvent> newKafkaTemplate(
+      ProducerFactory<String, ResourceEvent> producerFactory) {
+    KafkaTemplate<String, ResourceEvent> template =
+        new KafkaTemplate<>(producerFactory) {
+          // Only names the span's remote service, but is looked up through the admin client on the
+          // sending thread, which blocks sends for the admin timeout while the broker is down
+          @Override
+          protected String clusterId() {
+            return null;
+          }
+        };
+    template.setObservationEnabled(true);
+    return template;
+  }
 
+  private static ProducerFactory<String, ResourceEvent> newProducerFactory(
+      Map<String, Object> configProps, ObjectMapper objectMapper) {
     DefaultKafkaProducerFactory<String, ResourceEvent> factory =
         new DefaultKafkaProducerFactory<>(configProps);
     factory.setKeySerializer(new StringSerializer());
@@ -54,10 +109,4 @@ public class KafkaConfig {
         new org.springframework.kafka.support.serializer.JsonSerializer<>(objectMapper));
     return factory;
   }
-
-  @Bean
-  public KafkaTemplate<String, ResourceEvent> kafkaTemplate(
-      ProducerFactory<String, ResourceEvent> producerFactory) {
-    return new KafkaTemplate<>(producerFactory);
-  }
 }
@@ -0,0 +1,31 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.InitBinder;
+
+import com.kaarelkaasla.enefitresourceservice.validation.ResourceRequestValidator;
+
+/**
+ * Validates @Valid resource request bodies with {@link ResourceRequestValidator} instead of
+ * Hibernate Validator. Errors reach GlobalExceptionHandler unchanged; disable with
+ * app.validation.fast-path=false to fall back to the annotations.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(
+    name = "app.validation.fast-path",
+    havingValue = "true",
+    matchIfMissing = true)
+public class RequestValidationAdvice {
+
+  private final ResourceRequestValidator validator = new ResourceRequestValidator();
+
+  @InitBinder
+  public void useResourceRequestValidator(WebDataBinder binder) {
+    Object target = binder.getTarget();
+    if (target != null && validator.supports(target.getClass())) {
+      binder.setValidator(validator);
+    }
+  }
+}
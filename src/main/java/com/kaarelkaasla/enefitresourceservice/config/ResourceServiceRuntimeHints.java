@@ -0,0 +1,125 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.ConstraintValidator;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.util.ClassUtils;
+
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+import com.kaarelkaasla.enefitresourceservice.monitoring.LatencyThresholdSetting;
+import com.kaarelkaasla.enefitresourceservice.services.ResourceService;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+
+/**
+ * Hints for the native image ('native' Maven profile) beyond what Spring AOT and the GraalVM
+ * reachability metadata provide. Registered at build time, so the DTO, entity and validation
+ * packages are scanned rather than listed:
+ *
+ * <ul>
+ *   <li>DTO records: Jackson binding for REST, CBOR/Smile and the Kafka JsonSerializer, plus fields
+ *       and accessors for Bean Validation of their components
+ *   <li>Hibernate entities, enums and the JSONB characteristics document
+ *   <li>custom ConstraintValidators, which Hibernate Validator instantiates reflectively
+ *   <li>Flyway migrations and the Flight Recorder settings as resources, and the custom setting
+ *       control Flight Recorder instantiates
+ *   <li>the JDK proxies datasource-proxy wraps JDBC objects in
+ *   <li>zstd-jni's native library and the fields its JNI code updates
+ * </ul>
+ */
+public class ResourceServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+  private static final String BASE_PACKAGE = "com.kaarelkaasla.enefitresourceservice";
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+    for (Class<?> dto : typesIn("dtos", classLoader)) {
+      binding.registerReflectionHints(hints.reflection(), dto);
+      hints
+          .reflection()
+          .registerType(
+              dto, MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_METHODS);
+    }
+
+    for (Class<?> entity : typesIn("entities", classLoader)) {
+      binding.registerReflectionHints(hints.reflection(), entity);
+      hints
+          .reflection()
+          .registerType(
+              entity,
+              MemberCategory.DECLARED_FIELDS,
+              MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+              MemberCategory.INVOKE_DECLARED_METHODS);
+    }
+
+    for (Class<?> type : typesIn("validation", classLoader)) {
+      if (ConstraintValidator.class.isAssignableFrom(type)) {
+        hints.reflection().registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+      } else if (type.isAnnotation()) {
+        hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+      }
+    }
+
+    // @Timed and @NewSpan are read from the operation methods by the aspects
+    hints
+        .reflection()
+        .registerType(ResourceService.class, MemberCategory.INTROSPECT_PUBLIC_METHODS);
+
+    // Flight Recorder instantiates custom event settings reflectively
+    hints
+        .reflection()
+        .registerType(LatencyThresholdSetting.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+    hints.resources().registerPattern("db/migration/*.sql");
+    hints.resources().registerPattern("jfr/*.jfc");
+
+    for (Class<?> jdbcType :
+        List.of(
+            Connection.class,
+            Statement.class,
+            PreparedStatement.class,
+            CallableStatement.class,
+            ResultSet.class)) {
+      hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+    }
+
+    // Only the build machine's architecture; the image runs where it was built
+    hints
+        .resources()
+        .registerPattern("linux/" + System.getProperty("os.arch") + "/libzstd-jni-*.so");
+    hints.jni().registerType(ZstdOutputStreamNoFinalizer.class, MemberCategory.DECLARED_FIELDS);
+  }
+
+  // Top-level and nested types, including records, enums, interfaces and annotations
+  private static List<Class<?>> typesIn(String subPackage, ClassLoader classLoader) {
+    ClassPathScanningCandidateComponentProvider scanner =
+        new ClassPathScanningCandidateComponentProvider(false) {
+          @Override
+          protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+            return beanDefinition.getMetadata().isIndependent();
+          }
+        };
+    scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+    List<Class<?>> types = new ArrayList<>();
+    for (BeanDefinition candidate :
+        scanner.findCandidateComponents(BASE_PACKAGE + "." + subPackage)) {
+      types.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+    }
+    return types;
+  }
+}
@@ -0,0 +1,109 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import java.time.Duration;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import com.kaarelkaasla.enefitresourceservice.monitoring.RepositoryCallTracker;
+import com.kaarelkaasla.enefitresourceservice.monitoring.SqlStatementBudgetFilter;
+import com.kaarelkaasla.enefitresourceservice.monitoring.SqlStatementCounter;
+import com.kaarelkaasla.enefitresourceservice.monitoring.SqlStatementTimer;
+import com.kaarelkaasla.enefitresourceservice.monitoring.SqlStatementTracer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the DataSource in a datasource-proxy that feeds SqlStatementCounter, SqlStatementTimer and,
+ * when tracing is set up, SqlStatementTracer, tracks repository calls for the slow-query log, and
+ * registers the per-request statement budget filter. Thresholds come from 'app.sql.*'.
+ */
+@Configuration
+public class SqlMonitoringConfig {
+
+  @Bean
+  public static SqlStatementCounter sqlStatementCounter() {
+    return new SqlStatementCounter();
+  }
+
+  @Bean
+  public SqlStatementTimer sqlStatementTimer(
+      MeterRegistry meterRegistry,
+      @Value("${app.sql.slow-query-threshold:100ms}") Duration slowQueryThreshold,
+      @Value("${app.sql.max-fingerprints:200}") int maxFingerprints) {
+    return new SqlStatementTimer(meterRegistry, slowQueryThreshold, maxFingerprints);
+  }
+
+  @Bean
+  public static BeanPostProcessor sqlCountingDataSourcePostProcessor(
+      ObjectProvider<SqlStatementCounter> sqlStatementCounter,
+      ObjectProvider<SqlStatementTimer> sqlStatementTimer,
+      ObjectProvider<Tracer> tracer) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+          SqlStatementCounter counter = sqlStatementCounter.getObject();
+          SqlStatementTimer timer = sqlStatementTimer.getObject();
+          ProxyDataSourceBuilder builder =
+              ProxyDataSourceBuilder.create(dataSource)
+                  .name(beanName)
+                  .listener(counter)
+                  .listener(timer)
+                  .methodListener(counter)
+                  .proxyResultSet();
+          Tracer currentTracer = tracer.getIfAvailable();
+          if (currentTracer != null) {
+            SqlStatementTracer statementTracer = new SqlStatementTracer(currentTracer, timer);
+            builder.listener(statementTracer).methodListener(statementTracer);
+          }
+          return builder.build();
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public static BeanPostProcessor repositoryCallTrackingPostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactory) {
+          repositoryFactory.addRepositoryFactoryCustomizer(
+              factory ->
+                  factory.addRepositoryProxyPostProcessor(
+                      (proxyFactory, repository) ->
+                          proxyFactory.addAdvice(
+                              new RepositoryCallTracker(repository.getRepositoryInterface()))));
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public FilterRegistrationBean<SqlStatementBudgetFilter> sqlStatementBudgetFilter(
+      SqlStatementCounter sqlStatementCounter,
+      MeterRegistry meterRegistry,
+      @Value("${app.sql.statement-budget:10}") int statementBudget,
+      @Value("${app.sql.repeated-statement-threshold:5}") int repeatedStatementThreshold) {
+    FilterRegistrationBean<SqlStatementBudgetFilter> registration =
+        new FilterRegistrationBean<>(
+            new SqlStatementBudgetFilter(
+                sqlStatementCounter, meterRegistry, statementBudget, repeatedStatementThreshold));
+    registration.addUrlPatterns("/api/*");
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+    return registration;
+  }
+}
@@ -0,0 +1,22 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.kaarelkaasla.enefitresourceservice.monitoring.StartupTimelineReport;
+
+/**
+ * Logs the slowest startup steps once the application is ready ('app.startup.report-top', 0 to
+ * turn off). The steps are recorded by the BufferingApplicationStartup set in
+ * EnefitResourceServiceApplication and served in full by /actuator/startup.
+ */
+@Configuration
+public class StartupConfig {
+
+  @Bean
+  public StartupTimelineReport startupTimelineReport(
+      @Value("${app.startup.report-top:10}") int top) {
+    return new StartupTimelineReport(top);
+  }
+}
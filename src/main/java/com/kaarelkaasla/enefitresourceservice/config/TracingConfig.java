@@ -0,0 +1,27 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.kaarelkaasla.enefitresourceservice.monitoring.FileSpanExporter;
+
+/**
+ * Writes finished spans to a local JSON-lines file when 'app.tracing.file' is set, next to (or
+ * instead of) the OTLP exporter Spring Boot sets up for 'management.otlp.tracing.endpoint'. Which
+ * traces are recorded at all is 'management.tracing.sampling.probability'.
+ */
+@Configuration
+public class TracingConfig {
+
+  @Bean
+  @ConditionalOnProperty("app.tracing.file")
+  public FileSpanExporter fileSpanExporter(@Value("${app.tracing.file}") Path file)
+      throws IOException {
+    return new FileSpanExporter(file);
+  }
+}
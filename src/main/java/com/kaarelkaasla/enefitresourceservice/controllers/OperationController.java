@@ -0,0 +1,30 @@
+package com.kaarelkaasla.enefitresourceservice.controllers;
+
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.kaarelkaasla.enefitresourceservice.api.OperationApi;
+import com.kaarelkaasla.enefitresourceservice.dtos.BulkDeleteOperationResponse;
+import com.kaarelkaasla.enefitresourceservice.services.BulkDeleteService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/** REST controller reporting the status of background operations. */
+@RestController
+@RequestMapping("/api/v1/operations")
+@RequiredArgsConstructor
+@Slf4j
+public class OperationController implements OperationApi {
+
+  private final BulkDeleteService bulkDeleteService;
+
+  @Override
+  @GetMapping("/{id}")
+  public ResponseEntity<BulkDeleteOperationResponse> getOperation(@PathVariable UUID id) {
+    log.debug("Retrieving operation with id: {}", id);
+    return ResponseEntity.ok(bulkDeleteService.getOperation(id));
+  }
+}
@@ -1,23 +1,32 @@
 package com.kaarelkaasla.enefitresourceservice.controllers;
 
+import java.net.URI;
 import java.util.List;
 
 import jakarta.validation.Valid;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.kaarelkaasla.enefitresourceservice.api.ResourceApi;
 import com.kaarelkaasla.enefitresourceservice.dtos.*;
+import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType;
+import com.kaarelkaasla.enefitresourceservice.services.BulkDeleteService;
+import com.kaarelkaasla.enefitresourceservice.services.ResourceResponseCache;
 import com.kaarelkaasla.enefitresourceservice.services.ResourceService;
+import com.kaarelkaasla.enefitresourceservice.web.ContentCoding;
+import com.kaarelkaasla.enefitresourceservice.web.ResourceMediaTypes;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * REST controller exposing resource management endpoints.
- * Delegates to ResourceService and maps responses to a HTTP status with simple logging.
+ * Delegates to ResourceService and maps responses to a HTTP status. Outcomes are logged by
+ * ResourceService; request bodies are only logged here at DEBUG.
  */
 @RestController
 @RequestMapping("/api/v1/resources")
@@ -26,42 +35,88 @@ import lombok.extern.slf4j.Slf4j;
 public class ResourceController implements ResourceApi {
 
   private final ResourceService resourceService;
+  private final BulkDeleteService bulkDeleteService;
 
   @Override
   @PostMapping
   public ResponseEntity<ResourceResponse> createResource(
       @Valid @RequestBody ResourceRequest request) {
-    log.info("Creating resource: {}", request);
+    log.debug("Creating resource: {}", request);
     ResourceResponse response = resourceService.createResource(request);
-    log.info("Created resource successfully: id={} status=201", response.id());
     return ResponseEntity.status(HttpStatus.CREATED).body(response);
   }
 
   @Override
   @GetMapping
   public ResponseEntity<List<ResourceResponse>> getAllResources() {
-    log.info("Retrieving all resources");
+    log.debug("Retrieving all resources");
     List<ResourceResponse> resources = resourceService.getAllResources();
-    log.info("Returning {} resources", resources.size());
     return ResponseEntity.ok(resources);
   }
 
+  @Override
+  @GetMapping("/search")
+  public ResponseEntity<List<ResourceResponse>> searchResources(
+      @RequestParam CharacteristicType characteristicType,
+      @RequestParam String characteristicValue,
+      @RequestParam(required = false) String characteristicCode) {
+    log.debug(
+        "Searching resources by characteristic: type={} value={} code={}",
+        characteristicType,
+        characteristicValue,
+        characteristicCode);
+    List<ResourceResponse> resources =
+        resourceService.findByCharacteristic(
+            characteristicType, characteristicValue, characteristicCode);
+    return ResponseEntity.ok(resources);
+  }
+
+  @Override
+  @GetMapping(params = "ids")
+  public ResponseEntity<List<ResourceLookupResult>> getResourcesByIds(
+      @Valid ResourceLookupRequest request) {
+    return lookup(request);
+  }
+
+  @Override
+  @PostMapping("/lookup")
+  public ResponseEntity<List<ResourceLookupResult>> lookupResources(
+      @Valid @RequestBody ResourceLookupRequest request) {
+    return lookup(request);
+  }
+
   @Override
   @GetMapping("/{id}")
-  public ResponseEntity<ResourceResponse> getResourceById(@PathVariable Long id) {
-    log.info("Retrieving resource with id: {}", id);
-    ResourceResponse response = resourceService.getResourceById(id);
-    log.info("Found resource with id: {}", id);
-    return ResponseEntity.ok(response);
+  public ResponseEntity<?> getResourceById(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    log.debug("Retrieving resource id={}", id);
+    if (!ResourceMediaTypes.prefersJson(accept)) {
+      // CBOR, Smile and Protobuf go through the message converters
+      ResourceResponse resource = resourceService.getResourceById(id);
+      return ResponseEntity.ok().header(HttpHeaders.VARY, HttpHeaders.ACCEPT).body(resource);
+    }
+    ResourceResponseCache.Body body =
+        resourceService.getEncodedResourceById(
+            id, ContentCoding.accepts(acceptEncoding, ContentCoding.GZIP));
+    // Pre-encoded bytes go to the response stream as they are
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+    if (body.gzip()) {
+      response.header(HttpHeaders.CONTENT_ENCODING, ContentCoding.GZIP.token());
+    }
+    return response.body(body.content());
   }
 
   @Override
   @PutMapping("/{id}")
   public ResponseEntity<ResourceResponse> updateResource(
       @PathVariable Long id, @Valid @RequestBody ResourceRequest request) {
-    log.info("Updating resource with id: {} with data: {}", id, request);
+    log.debug("Updating resource id={}: {}", id, request);
     ResourceResponse response = resourceService.updateResource(id, request);
-    log.info("Updated resource successfully: id={}", id);
     return ResponseEntity.ok(response);
   }
 
@@ -69,31 +124,40 @@ public class ResourceController implements ResourceApi {
   @PatchMapping("/{id}")
   public ResponseEntity<ResourceResponse> patchResource(
       @PathVariable Long id, @Valid @RequestBody PatchResourceRequest request) {
-    log.info("Patching resource with id: {} with data: {}", id, request);
+    log.debug("Patching resource id={}: {}", id, request);
     ResourceResponse response = resourceService.patchResource(id, request);
-    log.info("Patched resource successfully: id={}", id);
     return ResponseEntity.ok(response);
   }
 
   @Override
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteResource(@PathVariable Long id) {
-    log.info("Deleting resource with id: {}", id);
+    log.debug("Deleting resource id={}", id);
     resourceService.deleteResource(id);
-    log.info("Deleted resource successfully: id={} status=204", id);
     return ResponseEntity.noContent().build();
   }
 
+  @Override
+  @DeleteMapping
+  public ResponseEntity<BulkDeleteOperationResponse> deleteResources(
+      @Valid BulkDeleteRequest filter) {
+    log.debug("Deleting resources type={} countryCode={}", filter.type(), filter.countryCode());
+    BulkDeleteOperationResponse operation = bulkDeleteService.start(filter);
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/v1/operations/" + operation.operationId()))
+        .body(operation);
+  }
+
   @Override
   @PostMapping("/send-all")
   public ResponseEntity<BatchNotificationResponse> sendAllResources() {
-    log.info("Starting batch notification for all resources");
-    BatchNotificationResponse response = resourceService.notifyAllResources();
-    log.info(
-        "Batch notification completed: operationId={} resourceCount={} status={}",
-        response.operationId(),
-        response.resourceCount(),
-        response.status());
-    return ResponseEntity.ok(response);
+    log.debug("Sending all resources");
+    return ResponseEntity.ok(resourceService.notifyAllResources());
+  }
+
+  private ResponseEntity<List<ResourceLookupResult>> lookup(ResourceLookupRequest request) {
+    log.debug("Retrieving {} resources by id", request.ids().size());
+    List<ResourceLookupResult> results = resourceService.getResourcesByIds(request.ids());
+    return ResponseEntity.ok(results);
   }
 }
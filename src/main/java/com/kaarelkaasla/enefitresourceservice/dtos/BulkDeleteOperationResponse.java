@@ -0,0 +1,17 @@
+package com.kaarelkaasla.enefitresourceservice.dtos;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import com.kaarelkaasla.enefitresourceservice.entities.ResourceType;
+
+public record BulkDeleteOperationResponse(
+    UUID operationId,
+    OperationStatus status,
+    ResourceType type,
+    String countryCode,
+    long deletedCount,
+    int chunkCount,
+    OffsetDateTime createdAt,
+    OffsetDateTime finishedAt,
+    String error) {}
@@ -0,0 +1,24 @@
+package com.kaarelkaasla.enefitresourceservice.dtos;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Pattern;
+
+import com.kaarelkaasla.enefitresourceservice.entities.ResourceType;
+import com.kaarelkaasla.enefitresourceservice.validation.ValidationConstants;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/** Filter of a bulk delete, bound from query parameters; at least one field must be set. */
+public record BulkDeleteRequest(
+    ResourceType type,
+    @Pattern(
+            regexp = ValidationConstants.COUNTRY_CODE_PATTERN,
+            message = ValidationConstants.COUNTRY_CODE_MESSAGE)
+        String countryCode) {
+
+  @Schema(hidden = true)
+  @AssertTrue(message = "At least one of type and countryCode is required")
+  public boolean isFiltered() {
+    return type != null || countryCode != null;
+  }
+}
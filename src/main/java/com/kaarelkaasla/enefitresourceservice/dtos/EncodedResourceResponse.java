@@ -0,0 +1,144 @@
+package com.kaarelkaasla.enefitresourceservice.dtos;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * A ResourceResponse together with its UTF-8 JSON encoding, when one has already been made.
+ * Serializes by writing those bytes as a raw value, so an enclosing document such as a
+ * ResourceEvent reuses them instead of serializing the response again; without bytes it falls
+ * back to regular serialization, as it does for binary formats (CBOR, Smile) and token buffers.
+ */
+public record EncodedResourceResponse(ResourceResponse response, byte[] json)
+    implements JsonSerializable {
+
+  // Reads back as the plain response, e.g. when a consumer deserializes a ResourceEvent
+  @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+  public static EncodedResourceResponse of(ResourceResponse response) {
+    return new EncodedResourceResponse(response, null);
+  }
+
+  @Override
+  public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+    if (json != null && gen instanceof JsonGeneratorImpl && gen.getPrettyPrinter() == null) {
+      gen.writeRawValue(new RawJson(json));
+    } else {
+      serializers.defaultSerializeValue(response, gen);
+    }
+  }
+
+  @Override
+  public void serializeWithType(
+      JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+      throws IOException {
+    // Written as a plain ResourceResponse; the API's mappers do not enable polymorphic typing
+    serialize(gen, serializers);
+  }
+
+  /**
+   * Already encoded JSON. UTF-8 generators copy the bytes into their buffer as they are; character
+   * based generators and the quoted forms work on the text, decoded once on first use, with quoting
+   * left to Jackson's SerializedString.
+   */
+  private static final class RawJson implements SerializableString {
+
+    private final byte[] bytes;
+    private SerializedString text;
+
+    RawJson(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    private SerializedString text() {
+      if (text == null) {
+        text = new SerializedString(new String(bytes, StandardCharsets.UTF_8));
+      }
+      return text;
+    }
+
+    @Override
+    public String getValue() {
+      return text().getValue();
+    }
+
+    @Override
+    public int charLength() {
+      return text().charLength();
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+      return text().asQuotedChars();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+      return bytes;
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+      return text().asQuotedUTF8();
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+      return text().appendQuotedUTF8(buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+      return text().appendQuoted(buffer, offset);
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+      if (offset + bytes.length > buffer.length) {
+        return -1;
+      }
+      System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+      return bytes.length;
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+      return text().appendUnquoted(buffer, offset);
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+      return text().writeQuotedUTF8(out);
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+      out.write(bytes);
+      return bytes.length;
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) {
+      return text().putQuotedUTF8(buffer);
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer) {
+      if (bytes.length > buffer.remaining()) {
+        return -1;
+      }
+      buffer.put(bytes);
+      return bytes.length;
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package com.kaarelkaasla.enefitresourceservice.dtos;
+
+public enum OperationStatus {
+  PENDING,
+  RUNNING,
+  COMPLETED,
+  FAILED
+}
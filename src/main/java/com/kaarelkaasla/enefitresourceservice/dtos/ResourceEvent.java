@@ -7,6 +7,6 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 public record ResourceEvent(
     ResourceEventType eventType,
     Long resourceId,
-    ResourceResponse resource,
+    EncodedResourceResponse resource,
     @JsonFormat(shape = JsonFormat.Shape.STRING) OffsetDateTime eventTimestamp,
     String eventId) {}
@@ -0,0 +1,16 @@
+package com.kaarelkaasla.enefitresourceservice.dtos;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/** Ids to load in one query; bound from the ids query parameter or a JSON body. */
+public record ResourceLookupRequest(
+    @NotEmpty(message = "At least one id is required")
+        @Size(max = ResourceLookupRequest.MAX_IDS, message = "At most 1000 ids can be requested")
+        List<@NotNull(message = "Id must not be null") Long> ids) {
+
+  public static final int MAX_IDS = 1000;
+}
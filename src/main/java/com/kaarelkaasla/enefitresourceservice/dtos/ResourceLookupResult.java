@@ -0,0 +1,13 @@
+package com.kaarelkaasla.enefitresourceservice.dtos;
+
+/** One requested id and, when it exists, its resource. */
+public record ResourceLookupResult(Long id, boolean found, ResourceResponse resource) {
+
+  public static ResourceLookupResult found(ResourceResponse resource) {
+    return new ResourceLookupResult(resource.id(), true, resource);
+  }
+
+  public static ResourceLookupResult notFound(Long id) {
+    return new ResourceLookupResult(id, false, null);
+  }
+}
@@ -5,6 +5,9 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
 import com.kaarelkaasla.enefitresourceservice.validation.ValidCharacteristicCode;
 import com.kaarelkaasla.enefitresourceservice.validation.ValidCharacteristicType;
 
@@ -13,6 +16,7 @@ import lombok.*;
 /**
  * JPA entity for a key/value characteristic associated with a resource.
  * Many-to-one to Resource; equality prefers id when present, otherwise falls back to (code,type).
+ * Carries the owning resource's country code, which is part of the partitioned resource key.
  */
 @Entity
 @Table(
@@ -50,8 +54,13 @@ public class Characteristic {
 
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "resource_id", nullable = false)
+  @OnDelete(action = OnDeleteAction.CASCADE)
   private Resource resource;
 
+  // Written on insert only; country changes reach existing rows via ON UPDATE CASCADE
+  @Column(name = "resource_country_code", nullable = false, length = 2, updatable = false)
+  private String resourceCountryCode;
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -0,0 +1,7 @@
+package com.kaarelkaasla.enefitresourceservice.entities;
+
+/**
+ * Element of the denormalised characteristics document stored on a resource row.
+ * Mirrors a Characteristic row; the document is maintained by the database, not by the application.
+ */
+public record CharacteristicDocument(Long id, String code, CharacteristicType type, String value) {}
@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
 import com.kaarelkaasla.enefitresourceservice.validation.ValidCountryCode;
 import com.kaarelkaasla.enefitresourceservice.validation.ValidPostalCode;
 import com.kaarelkaasla.enefitresourceservice.validation.ValidationConstants;
@@ -54,5 +57,6 @@ public class Location {
 
   @OneToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "resource_id", nullable = false)
+  @OnDelete(action = OnDeleteAction.CASCADE)
   private Resource resource;
 }
@@ -1,13 +1,17 @@
 package com.kaarelkaasla.enefitresourceservice.entities;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -22,6 +26,7 @@ import lombok.*;
  * JPA entity representing a resource (metering or connection point) with location and characteristics.
  * Uses @Version for optimistic locking and JPA auditing;
  * helper methods maintain both sides of the relationships with orphan removal for characteristics.
+ * The characteristics document is a read-only JSONB copy of the characteristic rows kept current by triggers.
  */
 @Entity
 @Table(
@@ -81,9 +86,17 @@ public class Resource {
   @Builder.Default
   private Set<Characteristic> characteristics = new HashSet<>();
 
+  // Written by the database in the same transaction as the characteristic rows (see V3 and V4
+  // migrations)
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(name = "characteristics", insertable = false, updatable = false)
+  @Builder.Default
+  private List<CharacteristicDocument> characteristicsDocument = new ArrayList<>();
+
   public void addCharacteristic(Characteristic characteristic) {
     characteristics.add(characteristic);
     characteristic.setResource(this);
+    characteristic.setResourceCountryCode(countryCode);
   }
 
   public void setLocation(Location location) {
@@ -0,0 +1,16 @@
+package com.kaarelkaasla.enefitresourceservice.exceptions;
+
+import java.time.Duration;
+
+public class ResourceBusyException extends RuntimeException {
+  private final Duration retryAfter;
+
+  public ResourceBusyException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
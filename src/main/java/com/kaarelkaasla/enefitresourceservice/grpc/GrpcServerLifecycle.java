@@ -0,0 +1,78 @@
+package com.kaarelkaasla.enefitresourceservice.grpc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.SmartLifecycle;
+
+import io.grpc.Server;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts the gRPC server with the application context and stops it gracefully before the
+ * context's beans go away: new calls are refused, running ones get the grace period to finish,
+ * then the rest are cancelled.
+ */
+@Slf4j
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+  private final Server server;
+  private final ResourceGrpcService service;
+  private final ExecutorService executor;
+  private final Duration shutdownGracePeriod;
+  private volatile boolean running;
+
+  public GrpcServerLifecycle(
+      Server server,
+      ResourceGrpcService service,
+      ExecutorService executor,
+      Duration shutdownGracePeriod) {
+    this.server = server;
+    this.service = service;
+    this.executor = executor;
+    this.shutdownGracePeriod = shutdownGracePeriod;
+  }
+
+  @Override
+  public void start() {
+    try {
+      server.start();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not start gRPC server", e);
+    }
+    running = true;
+    log.info("gRPC server started on port {}", server.getPort());
+  }
+
+  @Override
+  public void stop() {
+    log.info("Stopping gRPC server");
+    server.shutdown();
+    service.close();
+    try {
+      if (!server.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+        server.shutdownNow();
+        server.awaitTermination(5, TimeUnit.SECONDS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      server.shutdownNow();
+    } finally {
+      executor.shutdownNow();
+      running = false;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** The bound port, which differs from the configured one when that is 0. */
+  public int getPort() {
+    return server.getPort();
+  }
+}
@@ -0,0 +1,73 @@
+package com.kaarelkaasla.enefitresourceservice.grpc;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import com.google.protobuf.Any;
+import com.google.rpc.BadRequest;
+import com.google.rpc.Code;
+import com.kaarelkaasla.enefitresourceservice.exceptions.OptimisticLockingException;
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceBusyException;
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceNotFoundException;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.protobuf.StatusProto;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Translates service exceptions into gRPC statuses, mirroring GlobalExceptionHandler: not found,
+ * optimistic locking conflicts, busy resources, data integrity violations and validation errors keep their message;
+ * anything else is logged and reported as INTERNAL without details.
+ */
+@Slf4j
+final class GrpcStatuses {
+
+  private GrpcStatuses() {}
+
+  static StatusRuntimeException toStatusException(Throwable e) {
+    return switch (e) {
+      case StatusRuntimeException status -> status;
+      case ResourceNotFoundException notFound ->
+          Status.NOT_FOUND.withDescription(notFound.getMessage()).asRuntimeException();
+      case OptimisticLockingException conflict ->
+          Status.ABORTED.withDescription(conflict.getMessage()).asRuntimeException();
+      case ResourceBusyException busy ->
+          Status.UNAVAILABLE.withDescription(busy.getMessage()).asRuntimeException();
+      case DataIntegrityViolationException integrity -> {
+        log.error("Data integrity violation: {}", integrity.getMessage());
+        yield Status.FAILED_PRECONDITION
+            .withDescription("Data integrity constraint violation")
+            .asRuntimeException();
+      }
+      case IllegalArgumentException invalid ->
+          Status.INVALID_ARGUMENT.withDescription(invalid.getMessage()).asRuntimeException();
+      default -> {
+        log.error("Unexpected error occurred", e);
+        yield Status.INTERNAL.withDescription("Unexpected error occurred").asRuntimeException();
+      }
+    };
+  }
+
+  /**
+   * INVALID_ARGUMENT with a google.rpc.BadRequest detail holding one violation per error, with
+   * the field paths and messages the REST API reports; object-level errors have an empty field.
+   */
+  static StatusRuntimeException invalidArgument(BindingResult errors) {
+    BadRequest.Builder badRequest = BadRequest.newBuilder();
+    for (ObjectError error : errors.getAllErrors()) {
+      badRequest.addFieldViolations(
+          BadRequest.FieldViolation.newBuilder()
+              .setField(error instanceof FieldError fieldError ? fieldError.getField() : "")
+              .setDescription(String.valueOf(error.getDefaultMessage())));
+    }
+    return StatusProto.toStatusRuntimeException(
+        com.google.rpc.Status.newBuilder()
+            .setCode(Code.INVALID_ARGUMENT_VALUE)
+            .setMessage("Validation failed")
+            .addDetails(Any.pack(badRequest.build()))
+            .build());
+  }
+}
@@ -0,0 +1,163 @@
+package com.kaarelkaasla.enefitresourceservice.grpc;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import org.springframework.validation.DataBinder;
+import org.springframework.validation.Validator;
+
+import com.google.protobuf.Empty;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceRequest;
+import com.kaarelkaasla.enefitresourceservice.proto.*;
+import com.kaarelkaasla.enefitresourceservice.services.BulkWorkExecutor;
+import com.kaarelkaasla.enefitresourceservice.services.ResourceService;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * gRPC implementation of the Resources service on top of the same ResourceService and request
+ * validation as ResourceController. Unary calls run on the server's executor. ListResources
+ * streams from a database cursor on a separate bounded pool, using a bulk pool connection (see
+ * BulkWorkExecutor) and fetching the next row only once the
+ * client is ready for it, and gives up on clients that stop reading for longer than the stall
+ * timeout.
+ */
+@Slf4j
+public class ResourceGrpcService extends ResourcesGrpc.ResourcesImplBase implements AutoCloseable {
+
+  private final ResourceService resourceService;
+  private final Validator validator;
+  private final ResourceWatchers watchers;
+  private final ExecutorService streamExecutor;
+  private final Duration stallTimeout;
+
+  public ResourceGrpcService(
+      ResourceService resourceService,
+      Validator validator,
+      ResourceWatchers watchers,
+      ExecutorService streamExecutor,
+      Duration stallTimeout) {
+    this.resourceService = resourceService;
+    this.validator = validator;
+    this.watchers = watchers;
+    this.streamExecutor = streamExecutor;
+    this.stallTimeout = stallTimeout;
+  }
+
+  @Override
+  public void createResource(CreateResourceRequest request, StreamObserver<Resource> observer) {
+    unary(
+        observer,
+        () -> {
+          ResourceRequest resource = ResourceProtoMapper.toRequest(request.getResource());
+          validate(resource);
+          return ResourceProtoMapper.toProto(resourceService.createResource(resource));
+        });
+  }
+
+  @Override
+  public void getResource(GetResourceRequest request, StreamObserver<Resource> observer) {
+    unary(
+        observer,
+        () -> ResourceProtoMapper.toProto(resourceService.getResourceById(request.getId())));
+  }
+
+  @Override
+  public void updateResource(UpdateResourceRequest request, StreamObserver<Resource> observer) {
+    unary(
+        observer,
+        () -> {
+          ResourceRequest resource = ResourceProtoMapper.toRequest(request.getResource());
+          validate(resource);
+          return ResourceProtoMapper.toProto(
+              resourceService.updateResource(request.getId(), resource));
+        });
+  }
+
+  @Override
+  public void patchResource(PatchResourceRequest request, StreamObserver<Resource> observer) {
+    unary(
+        observer,
+        () -> {
+          com.kaarelkaasla.enefitresourceservice.dtos.PatchResourceRequest patch =
+              ResourceProtoMapper.toRequest(request);
+          validate(patch);
+          return ResourceProtoMapper.toProto(resourceService.patchResource(request.getId(), patch));
+        });
+  }
+
+  @Override
+  public void deleteResource(DeleteResourceRequest request, StreamObserver<Empty> observer) {
+    unary(
+        observer,
+        () -> {
+          resourceService.deleteResource(request.getId());
+          return Empty.getDefaultInstance();
+        });
+  }
+
+  @Override
+  public void listResources(ListResourcesRequest request, StreamObserver<Resource> observer) {
+    ServerCallStreamObserver<Resource> call = (ServerCallStreamObserver<Resource>) observer;
+    StreamFlowControl flowControl = new StreamFlowControl(call);
+    // Readiness is signalled on this call's executor, so the cursor is read on another thread. A
+    // slow client holds the cursor's connection for as long as it stalls, so it comes from the
+    // bulk pool rather than the one interactive requests wait on.
+    streamExecutor.execute(
+        () ->
+            BulkWorkExecutor.runAsBulk(
+                () -> {
+                  try {
+                    resourceService.streamAllResources(
+                        resource -> {
+                          flowControl.awaitReady(stallTimeout);
+                          call.onNext(ResourceProtoMapper.toProto(resource));
+                        });
+                    call.onCompleted();
+                  } catch (RuntimeException e) {
+                    if (flowControl.isCancelled()) {
+                      log.debug("ListResources cancelled by the client");
+                    } else {
+                      call.onError(GrpcStatuses.toStatusException(e));
+                    }
+                  }
+                }));
+  }
+
+  @Override
+  public void watchResources(
+      WatchResourcesRequest request, StreamObserver<ResourceEvent> observer) {
+    watchers.watch(request, (ServerCallStreamObserver<ResourceEvent>) observer);
+  }
+
+  /** Stops running streams; called when the server shuts down. */
+  @Override
+  public void close() {
+    watchers.completeAll();
+    streamExecutor.shutdownNow();
+  }
+
+  private void validate(Object request) {
+    DataBinder binder = new DataBinder(request, "request");
+    binder.setValidator(validator);
+    binder.validate();
+    if (binder.getBindingResult().hasErrors()) {
+      throw GrpcStatuses.invalidArgument(binder.getBindingResult());
+    }
+  }
+
+  private static <T> void unary(StreamObserver<T> observer, Supplier<T> call) {
+    T response;
+    try {
+      response = call.get();
+    } catch (RuntimeException e) {
+      observer.onError(GrpcStatuses.toStatusException(e));
+      return;
+    }
+    observer.onNext(response);
+    observer.onCompleted();
+  }
+}
@@ -0,0 +1,113 @@
+package com.kaarelkaasla.enefitresourceservice.grpc;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.kaarelkaasla.enefitresourceservice.proto.ResourceEvent;
+import com.kaarelkaasla.enefitresourceservice.proto.ResourceProtoMapper;
+import com.kaarelkaasla.enefitresourceservice.proto.WatchResourcesRequest;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Open WatchResources streams. Resource events reach every matching watcher once their transaction
+ * commits. Each watcher has a bounded queue that drains whenever its client is ready, so a slow
+ * client never blocks the writer that published the event; one that falls further behind than
+ * the queue holds is closed with RESOURCE_EXHAUSTED and has to watch again.
+ */
+@Slf4j
+public class ResourceWatchers {
+
+  private final Set<Watcher> watchers = ConcurrentHashMap.newKeySet();
+  private final int queueCapacity;
+
+  public ResourceWatchers(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onResourceEvent(com.kaarelkaasla.enefitresourceservice.dtos.ResourceEvent event) {
+    if (watchers.isEmpty()) {
+      return;
+    }
+    ResourceEvent message = ResourceProtoMapper.toProto(event);
+    for (Watcher watcher : watchers) {
+      watcher.offer(message);
+    }
+  }
+
+  void watch(WatchResourcesRequest request, ServerCallStreamObserver<ResourceEvent> call) {
+    Watcher watcher = new Watcher(call, new HashSet<>(request.getResourceIdsList()));
+    call.setOnReadyHandler(watcher::drain);
+    call.setOnCancelHandler(watcher::close);
+    watchers.add(watcher);
+    log.debug("Watcher added, {} open", watchers.size());
+  }
+
+  /** Completes every open stream, so server shutdown does not wait for clients to cancel. */
+  void completeAll() {
+    for (Watcher watcher : watchers) {
+      watcher.complete();
+    }
+  }
+
+  int size() {
+    return watchers.size();
+  }
+
+  private final class Watcher {
+
+    private final ServerCallStreamObserver<ResourceEvent> call;
+    private final Set<Long> resourceIds;
+    private final Queue<ResourceEvent> queue = new ArrayDeque<>();
+    private boolean closed;
+
+    Watcher(ServerCallStreamObserver<ResourceEvent> call, Set<Long> resourceIds) {
+      this.call = call;
+      this.resourceIds = resourceIds;
+    }
+
+    synchronized void offer(ResourceEvent event) {
+      if (closed || !resourceIds.isEmpty() && !resourceIds.contains(event.getResourceId())) {
+        return;
+      }
+      if (queue.size() >= queueCapacity) {
+        log.warn("Closing resource watcher that fell {} events behind", queue.size());
+        close();
+        call.onError(
+            Status.RESOURCE_EXHAUSTED
+                .withDescription("Watcher fell more than " + queueCapacity + " events behind")
+                .asRuntimeException());
+        return;
+      }
+      queue.add(event);
+      drain();
+    }
+
+    synchronized void drain() {
+      while (!closed && call.isReady() && !queue.isEmpty()) {
+        call.onNext(queue.poll());
+      }
+    }
+
+    synchronized void complete() {
+      if (!closed) {
+        close();
+        call.onCompleted();
+      }
+    }
+
+    synchronized void close() {
+      closed = true;
+      queue.clear();
+      watchers.remove(this);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.kaarelkaasla.enefitresourceservice.grpc;
+
+import java.time.Duration;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+
+/**
+ * Lets a thread producing a server stream wait until the client can take another message. gRPC
+ * signals readiness and cancellation on the call's own executor, so the producer must run on a
+ * different thread than the one that started the call. Must be created while the call is being
+ * started, which is when its handlers can be registered.
+ */
+final class StreamFlowControl {
+
+  private final ServerCallStreamObserver<?> call;
+  private final Object lock = new Object();
+  private volatile boolean cancelled;
+
+  StreamFlowControl(ServerCallStreamObserver<?> call) {
+    this.call = call;
+    call.setOnReadyHandler(this::signal);
+    call.setOnCancelHandler(
+        () -> {
+          cancelled = true;
+          signal();
+        });
+  }
+
+  boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Blocks until the client is ready for another message. Throws CANCELLED once the client has
+   * gone away and DEADLINE_EXCEEDED if it stays not ready for longer than the timeout.
+   */
+  void awaitReady(Duration timeout) {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    synchronized (lock) {
+      while (!cancelled && !call.isReady()) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          throw Status.DEADLINE_EXCEEDED
+              .withDescription("Client did not read the stream for " + timeout)
+              .asRuntimeException();
+        }
+        try {
+          lock.wait(remaining / 1_000_000 + 1);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw Status.CANCELLED.withDescription("Server is shutting down").asRuntimeException();
+        }
+      }
+    }
+    if (cancelled) {
+      throw Status.CANCELLED.withDescription("Client cancelled the stream").asRuntimeException();
+    }
+  }
+
+  private void signal() {
+    synchronized (lock) {
+      lock.notifyAll();
+    }
+  }
+}
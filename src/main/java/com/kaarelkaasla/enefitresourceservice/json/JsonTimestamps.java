@@ -0,0 +1,101 @@
+package com.kaarelkaasla.enefitresourceservice.json;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes OffsetDateTime values as JSON strings in the exact form of
+ * {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME}, which JavaTimeModule uses when dates are not
+ * written as timestamps. Digits go straight into a per-thread char buffer instead of through the
+ * formatter's parsed-field maps, StringBuilder and String.
+ */
+public final class JsonTimestamps {
+
+  // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn+HH:MM:SS
+  private static final int MAX_LENGTH = 38;
+  private static final ThreadLocal<char[]> BUFFER =
+      ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+
+  private JsonTimestamps() {}
+
+  public static void write(OffsetDateTime value, JsonGenerator gen) throws IOException {
+    if (value == null) {
+      gen.writeNull();
+      return;
+    }
+    int year = value.getYear();
+    if (year < 0 || year > 9999) {
+      // Signed and five-digit years are rare enough for the formatter
+      gen.writeString(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value));
+      return;
+    }
+    char[] buffer = BUFFER.get();
+    gen.writeString(buffer, 0, format(value, buffer));
+  }
+
+  /** Formats a value with a four-digit year into the buffer; returns the length written. */
+  static int format(OffsetDateTime value, char[] buffer) {
+    int year = value.getYear();
+    buffer[0] = digit(year / 1000);
+    buffer[1] = digit(year / 100 % 10);
+    buffer[2] = digit(year / 10 % 10);
+    buffer[3] = digit(year % 10);
+    buffer[4] = '-';
+    twoDigits(buffer, 5, value.getMonthValue());
+    buffer[7] = '-';
+    twoDigits(buffer, 8, value.getDayOfMonth());
+    buffer[10] = 'T';
+    twoDigits(buffer, 11, value.getHour());
+    buffer[13] = ':';
+    twoDigits(buffer, 14, value.getMinute());
+    buffer[16] = ':';
+    twoDigits(buffer, 17, value.getSecond());
+    int pos = 19;
+
+    int nano = value.getNano();
+    if (nano != 0) {
+      // As many fraction digits as needed, without trailing zeros
+      int digits = 9;
+      while (nano % 10 == 0) {
+        nano /= 10;
+        digits--;
+      }
+      buffer[pos++] = '.';
+      for (int i = pos + digits - 1; i >= pos; i--) {
+        buffer[i] = digit(nano % 10);
+        nano /= 10;
+      }
+      pos += digits;
+    }
+
+    int offset = value.getOffset().getTotalSeconds();
+    if (offset == 0) {
+      buffer[pos++] = 'Z';
+      return pos;
+    }
+    buffer[pos++] = offset < 0 ? '-' : '+';
+    int absOffset = Math.abs(offset);
+    twoDigits(buffer, pos, absOffset / 3600);
+    buffer[pos + 2] = ':';
+    twoDigits(buffer, pos + 3, absOffset / 60 % 60);
+    pos += 5;
+    if (absOffset % 60 != 0) {
+      buffer[pos] = ':';
+      twoDigits(buffer, pos + 1, absOffset % 60);
+      pos += 3;
+    }
+    return pos;
+  }
+
+  private static void twoDigits(char[] buffer, int pos, int value) {
+    buffer[pos] = digit(value / 10);
+    buffer[pos + 1] = digit(value % 10);
+  }
+
+  private static char digit(int value) {
+    return (char) ('0' + value);
+  }
+}
@@ -0,0 +1,307 @@
+package com.kaarelkaasla.enefitresourceservice.json;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.kaarelkaasla.enefitresourceservice.dtos.*;
+import com.kaarelkaasla.enefitresourceservice.entities.ResourceType;
+
+/**
+ * Hand-written streaming codecs for the hot API DTOs, registered with the application's
+ * ObjectMapper. They produce and accept exactly what the reflective record (de)serializers do
+ * under the default configuration: record component order, nulls written, enums by name, dates in
+ * ISO offset form, absent or null Optionals read as empty and unknown properties left to
+ * FAIL_ON_UNKNOWN_PROPERTIES.
+ */
+@JsonComponent
+public class ResourceJsonCodecs {
+
+  private static final SerializableString ID = new SerializedString("id");
+  private static final SerializableString TYPE = new SerializedString("type");
+  private static final SerializableString COUNTRY_CODE = new SerializedString("countryCode");
+  private static final SerializableString VERSION = new SerializedString("version");
+  private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+  private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+  private static final SerializableString LOCATION = new SerializedString("location");
+  private static final SerializableString CHARACTERISTICS = new SerializedString("characteristics");
+  private static final SerializableString STREET_ADDRESS = new SerializedString("streetAddress");
+  private static final SerializableString CITY = new SerializedString("city");
+  private static final SerializableString POSTAL_CODE = new SerializedString("postalCode");
+  private static final SerializableString CODE = new SerializedString("code");
+  private static final SerializableString VALUE = new SerializedString("value");
+  private static final SerializableString EVENT_TYPE = new SerializedString("eventType");
+  private static final SerializableString RESOURCE_ID = new SerializedString("resourceId");
+  private static final SerializableString RESOURCE = new SerializedString("resource");
+  private static final SerializableString EVENT_TIMESTAMP = new SerializedString("eventTimestamp");
+  private static final SerializableString EVENT_ID = new SerializedString("eventId");
+
+  private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+
+  /** The same codecs as a module, for ObjectMappers built outside the application context. */
+  public static SimpleModule module() {
+    return new SimpleModule("ResourceJsonCodecs")
+        .addSerializer(ResourceResponse.class, new ResourceResponseSerializer())
+        .addSerializer(LocationResponse.class, new LocationResponseSerializer())
+        .addSerializer(CharacteristicResponse.class, new CharacteristicResponseSerializer())
+        .addSerializer(ResourceEvent.class, new ResourceEventSerializer())
+        .addDeserializer(PatchResourceRequest.class, new PatchResourceRequestDeserializer());
+  }
+
+  public static class ResourceResponseSerializer extends StdSerializer<ResourceResponse> {
+
+    public ResourceResponseSerializer() {
+      super(ResourceResponse.class);
+    }
+
+    @Override
+    public void serialize(ResourceResponse value, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      gen.writeStartObject(value);
+      gen.writeFieldName(ID);
+      writeNumber(value.id(), gen);
+      gen.writeFieldName(TYPE);
+      writeEnum(value.type(), gen);
+      gen.writeFieldName(COUNTRY_CODE);
+      gen.writeString(value.countryCode());
+      gen.writeFieldName(VERSION);
+      writeNumber(value.version(), gen);
+      gen.writeFieldName(CREATED_AT);
+      JsonTimestamps.write(value.createdAt(), gen);
+      gen.writeFieldName(UPDATED_AT);
+      JsonTimestamps.write(value.updatedAt(), gen);
+      gen.writeFieldName(LOCATION);
+      LocationResponseSerializer.write(value.location(), gen);
+      gen.writeFieldName(CHARACTERISTICS);
+      Set<CharacteristicResponse> characteristics = value.characteristics();
+      if (characteristics == null) {
+        gen.writeNull();
+      } else {
+        gen.writeStartArray(characteristics, characteristics.size());
+        for (CharacteristicResponse characteristic : characteristics) {
+          CharacteristicResponseSerializer.write(characteristic, gen);
+        }
+        gen.writeEndArray();
+      }
+      gen.writeEndObject();
+    }
+  }
+
+  public static class LocationResponseSerializer extends StdSerializer<LocationResponse> {
+
+    public LocationResponseSerializer() {
+      super(LocationResponse.class);
+    }
+
+    @Override
+    public void serialize(LocationResponse value, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      write(value, gen);
+    }
+
+    static void write(LocationResponse value, JsonGenerator gen) throws IOException {
+      if (value == null) {
+        gen.writeNull();
+        return;
+      }
+      gen.writeStartObject(value);
+      gen.writeFieldName(ID);
+      writeNumber(value.id(), gen);
+      gen.writeFieldName(STREET_ADDRESS);
+      gen.writeString(value.streetAddress());
+      gen.writeFieldName(CITY);
+      gen.writeString(value.city());
+      gen.writeFieldName(POSTAL_CODE);
+      gen.writeString(value.postalCode());
+      gen.writeFieldName(COUNTRY_CODE);
+      gen.writeString(value.countryCode());
+      gen.writeEndObject();
+    }
+  }
+
+  public static class CharacteristicResponseSerializer
+      extends StdSerializer<CharacteristicResponse> {
+
+    public CharacteristicResponseSerializer() {
+      super(CharacteristicResponse.class);
+    }
+
+    @Override
+    public void serialize(
+        CharacteristicResponse value, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      write(value, gen);
+    }
+
+    static void write(CharacteristicResponse value, JsonGenerator gen) throws IOException {
+      if (value == null) {
+        gen.writeNull();
+        return;
+      }
+      gen.writeStartObject(value);
+      gen.writeFieldName(ID);
+      writeNumber(value.id(), gen);
+      gen.writeFieldName(CODE);
+      gen.writeString(value.code());
+      gen.writeFieldName(TYPE);
+      writeEnum(value.type(), gen);
+      gen.writeFieldName(VALUE);
+      gen.writeString(value.value());
+      gen.writeEndObject();
+    }
+  }
+
+  public static class ResourceEventSerializer extends StdSerializer<ResourceEvent> {
+
+    public ResourceEventSerializer() {
+      super(ResourceEvent.class);
+    }
+
+    @Override
+    public void serialize(ResourceEvent value, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      gen.writeStartObject(value);
+      gen.writeFieldName(EVENT_TYPE);
+      writeEnum(value.eventType(), gen);
+      gen.writeFieldName(RESOURCE_ID);
+      writeNumber(value.resourceId(), gen);
+      gen.writeFieldName(RESOURCE);
+      // Writes cached bytes as they are, or the response through ResourceResponseSerializer
+      provider.defaultSerializeValue(value.resource(), gen);
+      gen.writeFieldName(EVENT_TIMESTAMP);
+      JsonTimestamps.write(value.eventTimestamp(), gen);
+      gen.writeFieldName(EVENT_ID);
+      gen.writeString(value.eventId());
+      gen.writeEndObject();
+    }
+  }
+
+  /**
+   * Reads the four Optional fields directly. Scalar fields take a fast path for plain strings;
+   * anything else, and the nested request objects, go through the regular deserializers (looked up
+   * once in resolve) so errors and coercions stay the same, with the field added to the error path.
+   */
+  public static class PatchResourceRequestDeserializer extends StdDeserializer<PatchResourceRequest>
+      implements ResolvableDeserializer {
+
+    private static final JavaType CHARACTERISTICS_TYPE =
+        TypeFactory.defaultInstance()
+            .constructCollectionType(Set.class, CharacteristicRequest.class);
+
+    private JsonDeserializer<Object> typeDeserializer;
+    private JsonDeserializer<Object> stringDeserializer;
+    private JsonDeserializer<Object> locationDeserializer;
+    private JsonDeserializer<Object> characteristicsDeserializer;
+
+    public PatchResourceRequestDeserializer() {
+      super(PatchResourceRequest.class);
+    }
+
+    @Override
+    public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+      typeDeserializer = ctxt.findRootValueDeserializer(ctxt.constructType(ResourceType.class));
+      stringDeserializer = ctxt.findRootValueDeserializer(ctxt.constructType(String.class));
+      locationDeserializer =
+          ctxt.findRootValueDeserializer(ctxt.constructType(LocationRequest.class));
+      characteristicsDeserializer = ctxt.findRootValueDeserializer(CHARACTERISTICS_TYPE);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public PatchResourceRequest deserialize(JsonParser p, DeserializationContext ctxt)
+        throws IOException {
+      JsonToken token = p.currentToken();
+      if (token == JsonToken.START_OBJECT) {
+        token = p.nextToken();
+      } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+        return (PatchResourceRequest) ctxt.handleUnexpectedToken(PatchResourceRequest.class, p);
+      }
+
+      Optional<ResourceType> type = Optional.empty();
+      Optional<String> countryCode = Optional.empty();
+      Optional<LocationRequest> location = Optional.empty();
+      Optional<Set<CharacteristicRequest>> characteristics = Optional.empty();
+
+      for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+        String name = p.currentName();
+        boolean isNull = p.nextToken() == JsonToken.VALUE_NULL;
+        try {
+          switch (name) {
+            case "type" -> type = isNull ? Optional.empty() : Optional.of(readType(p, ctxt));
+            case "countryCode" ->
+                countryCode = isNull ? Optional.empty() : Optional.of(readString(p, ctxt));
+            case "location" ->
+                location =
+                    isNull
+                        ? Optional.empty()
+                        : Optional.ofNullable(
+                            (LocationRequest) locationDeserializer.deserialize(p, ctxt));
+            case "characteristics" ->
+                characteristics =
+                    isNull
+                        ? Optional.empty()
+                        : Optional.ofNullable(
+                            (Set<CharacteristicRequest>)
+                                characteristicsDeserializer.deserialize(p, ctxt));
+            default -> ctxt.handleUnknownProperty(p, this, PatchResourceRequest.class, name);
+          }
+        } catch (JsonMappingException e) {
+          throw JsonMappingException.wrapWithPath(e, PatchResourceRequest.class, name);
+        }
+      }
+      return new PatchResourceRequest(type, countryCode, location, characteristics);
+    }
+
+    private ResourceType readType(JsonParser p, DeserializationContext ctxt) throws IOException {
+      if (p.currentToken() == JsonToken.VALUE_STRING) {
+        String text = p.getText();
+        for (ResourceType candidate : RESOURCE_TYPES) {
+          if (candidate.name().equals(text)) {
+            return candidate;
+          }
+        }
+      }
+      return (ResourceType) typeDeserializer.deserialize(p, ctxt);
+    }
+
+    private String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+      if (p.currentToken() == JsonToken.VALUE_STRING) {
+        return p.getText();
+      }
+      return (String) stringDeserializer.deserialize(p, ctxt);
+    }
+  }
+
+  private static void writeNumber(Long value, JsonGenerator gen) throws IOException {
+    if (value == null) {
+      gen.writeNull();
+    } else {
+      gen.writeNumber(value.longValue());
+    }
+  }
+
+  private static void writeEnum(Enum<?> value, JsonGenerator gen) throws IOException {
+    if (value == null) {
+      gen.writeNull();
+    } else {
+      gen.writeString(value.name());
+    }
+  }
+}
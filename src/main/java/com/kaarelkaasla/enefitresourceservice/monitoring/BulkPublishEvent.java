@@ -0,0 +1,44 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one block of bulk events (a block of send-all events or a bulk delete
+ * chunk), committed on the producer's I/O thread once every send in it was acknowledged or failed;
+ * latency is the time since the first send. Each send is also an EventPublish event.
+ */
+@Name("com.kaarelkaasla.enefitresourceservice.BulkPublish")
+@Label("Bulk Publish")
+@Category({"Resource Service", "Kafka"})
+@Description("A block of send-all or bulk delete events sent to Kafka through the bulk producer")
+@StackTrace(false)
+public class BulkPublishEvent extends Event {
+
+  @Label("Operation")
+  @Description("'send-all' or 'bulk-delete'")
+  public String operation;
+
+  @Label("Events")
+  public int events;
+
+  @Label("Failed")
+  @Description("Sends in the block that failed")
+  public int failed;
+
+  @Label("First Resource Id")
+  public long firstId;
+
+  @Label("Last Resource Id")
+  public long lastId;
+
+  @Label("Latency")
+  @Description("From the first send until every send in the block was acknowledged or failed")
+  @Timespan(Timespan.NANOSECONDS)
+  public long latency;
+}
@@ -0,0 +1,57 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.ClassPathResource;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Always-on Flight Recorder recording with the JDK's low-overhead 'default' settings plus
+ * jfr/resource-service.jfc (this service's events, only slow ones). Kept on disk for the last
+ * maxAge or maxSize bytes, whichever is less, for FlightRecordingEndpoint to dump after an
+ * incident.
+ */
+@Slf4j
+public class ContinuousRecording implements DisposableBean {
+
+  static final String SETTINGS = "jfr/resource-service.jfc";
+
+  private final Recording recording;
+
+  public ContinuousRecording(Duration maxAge, long maxSizeBytes)
+      throws IOException, ParseException {
+    Map<String, String> settings =
+        new HashMap<>(Configuration.getConfiguration("default").getSettings());
+    try (Reader reader =
+        new InputStreamReader(
+            new ClassPathResource(SETTINGS).getInputStream(), StandardCharsets.UTF_8)) {
+      settings.putAll(Configuration.create(reader).getSettings());
+    }
+    recording = new Recording(settings);
+    recording.setName("resource-service");
+    recording.setToDisk(true);
+    recording.setMaxAge(maxAge);
+    recording.setMaxSize(maxSizeBytes);
+    recording.start();
+    log.info(
+        "Started continuous flight recording (max age {}, max size {} bytes)",
+        maxAge,
+        maxSizeBytes);
+  }
+
+  @Override
+  public void destroy() {
+    recording.close();
+  }
+}
@@ -0,0 +1,60 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one Kafka publish, created and committed on the producer's I/O thread
+ * once the broker acknowledged it or the send failed; latency is the time since the send. Only
+ * publishes at least latencyThreshold slow are recorded.
+ */
+@Name("com.kaarelkaasla.enefitresourceservice.EventPublish")
+@Label("Event Publish")
+@Category({"Resource Service", "Kafka"})
+@Description("A resource event sent to Kafka and acknowledged, or failed")
+@StackTrace(false)
+public class EventPublishEvent extends Event {
+
+  @Label("Event Type")
+  public String eventType;
+
+  @Label("Key")
+  public String key;
+
+  @Label("Topic")
+  public String topic;
+
+  @Label("Partition")
+  public int partition;
+
+  @Label("Offset")
+  public long offset;
+
+  @Label("Serialized Size")
+  @Description("Serialized key and value; -1 when the send failed")
+  @DataAmount(DataAmount.BYTES)
+  public long serializedSize;
+
+  @Label("Latency")
+  @Description("From the send until the broker acknowledged it or the send failed")
+  @Timespan(Timespan.NANOSECONDS)
+  public long latency;
+
+  @Label("Outcome")
+  @Description("'success' or the simple name of the exception the send failed with")
+  public String outcome;
+
+  @Name("latencyThreshold")
+  @Label("Latency Threshold")
+  @SettingDefinition
+  protected boolean latencyThreshold(LatencyThresholdSetting setting) {
+    return latency >= setting.nanos();
+  }
+}
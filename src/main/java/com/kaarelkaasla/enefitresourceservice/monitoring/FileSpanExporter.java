@@ -0,0 +1,121 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Span exporter that appends each finished span as one JSON object per line to a local file, for
+ * tracing without a collector. Lines carry the trace and span ids, parent id, name, kind, start,
+ * duration in microseconds, status, attributes and events, so a trace can be pulled out with e.g.
+ * {@code grep <traceId> spans.jsonl}.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Path file;
+  private final BufferedWriter writer;
+
+  public FileSpanExporter(Path file) throws IOException {
+    this.file = file;
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    this.writer =
+        Files.newBufferedWriter(
+            file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    log.info("Writing trace spans to {}", file.toAbsolutePath());
+  }
+
+  @Override
+  public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+    try {
+      for (SpanData span : spans) {
+        writer.write(objectMapper.writeValueAsString(toJson(span)));
+        writer.newLine();
+      }
+      writer.flush();
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      log.warn("Could not write {} spans to {}", spans.size(), file, e);
+      return CompletableResultCode.ofFailure();
+    }
+  }
+
+  @Override
+  public synchronized CompletableResultCode flush() {
+    try {
+      writer.flush();
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      return CompletableResultCode.ofFailure();
+    }
+  }
+
+  @Override
+  public synchronized CompletableResultCode shutdown() {
+    try {
+      writer.close();
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      return CompletableResultCode.ofFailure();
+    }
+  }
+
+  private static Map<String, Object> toJson(SpanData span) {
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("traceId", span.getTraceId());
+    json.put("spanId", span.getSpanId());
+    if (SpanId.isValid(span.getParentSpanId())) {
+      json.put("parentSpanId", span.getParentSpanId());
+    }
+    json.put("name", span.getName());
+    json.put("kind", span.getKind().name());
+    json.put("start", Instant.ofEpochSecond(0, span.getStartEpochNanos()).toString());
+    json.put(
+        "durationMicros",
+        TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()));
+    json.put("status", span.getStatus().getStatusCode().name());
+    if (!span.getStatus().getDescription().isEmpty()) {
+      json.put("statusDescription", span.getStatus().getDescription());
+    }
+    Map<String, Object> attributes = new LinkedHashMap<>();
+    span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+    json.put("attributes", attributes);
+    List<EventData> events = span.getEvents();
+    if (!events.isEmpty()) {
+      json.put(
+          "events",
+          events.stream()
+              .map(
+                  event ->
+                      Map.of(
+                          "name",
+                          event.getName(),
+                          "offsetMicros",
+                          TimeUnit.NANOSECONDS.toMicros(
+                              event.getEpochNanos() - span.getStartEpochNanos())))
+              .toList());
+    }
+    return json;
+  }
+}
@@ -0,0 +1,42 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Actuator endpoint (/actuator/jfr) that downloads a .jfr file with everything the running
+ * recordings hold, typically the continuous one, e.g. {@code curl -o incident.jfr
+ * localhost:8080/actuator/jfr}. 404 when nothing is being recorded. The dump is written to a temp
+ * file that is deleted once sent.
+ */
+@WebEndpoint(id = "jfr")
+@Slf4j
+public class FlightRecordingEndpoint {
+
+  @ReadOperation(produces = "application/octet-stream")
+  public WebEndpointResponse<Resource> dump() throws IOException {
+    try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+      if (snapshot.getSize() == 0) {
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+      }
+      Path file = Files.createTempFile("resource-service-", ".jfr");
+      snapshot.dump(file);
+      log.info("Dumped flight recording of {} bytes", Files.size(file));
+      return new WebEndpointResponse<>(
+          new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)),
+          WebEndpointResponse.STATUS_OK);
+    }
+  }
+}
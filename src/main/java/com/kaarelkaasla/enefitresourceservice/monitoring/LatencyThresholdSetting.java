@@ -0,0 +1,71 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jdk.jfr.SettingControl;
+
+/**
+ * Flight Recorder setting with the syntax of the built-in threshold ("50 ms", "0 ns"), for events
+ * that carry their latency in a field instead of lasting for it, e.g. because they complete on
+ * another thread than the one that started the work. With several recordings the lowest threshold
+ * applies, as it does for the built-in one.
+ */
+public final class LatencyThresholdSetting extends SettingControl {
+
+  private static final Pattern VALUE = Pattern.compile("(\\d+)\\s*(ns|us|ms|s|m|h|d)");
+
+  private String value = "0 ns";
+  private volatile long nanos;
+
+  @Override
+  public String combine(Set<String> values) {
+    String lowest = null;
+    for (String candidate : values) {
+      if (lowest == null || parse(candidate) < parse(lowest)) {
+        lowest = candidate;
+      }
+    }
+    return lowest == null ? value : lowest;
+  }
+
+  @Override
+  public void setValue(String value) {
+    // JDK 21 drops what combine returns and passes null when several recordings set a value;
+    // record everything then, which is at least what each of them asked for
+    this.value = value == null ? "0 ns" : value;
+    this.nanos = parse(this.value);
+  }
+
+  @Override
+  public String getValue() {
+    return value;
+  }
+
+  long nanos() {
+    return nanos;
+  }
+
+  /** Nanoseconds in an "<amount> <unit>" value, the unit one of ns, us, ms, s, m, h, d. */
+  static long parse(String value) {
+    Matcher matcher = VALUE.matcher(value.trim());
+    if (!matcher.matches()) {
+      throw new IllegalArgumentException("Not a latency threshold: " + value);
+    }
+    long amount = Long.parseLong(matcher.group(1));
+    TimeUnit unit =
+        switch (matcher.group(2)) {
+          case "ns" -> TimeUnit.NANOSECONDS;
+          case "us" -> TimeUnit.MICROSECONDS;
+          case "ms" -> TimeUnit.MILLISECONDS;
+          case "s" -> TimeUnit.SECONDS;
+          case "m" -> TimeUnit.MINUTES;
+          case "h" -> TimeUnit.HOURS;
+          case "d" -> TimeUnit.DAYS;
+          default -> throw new IllegalArgumentException("Not a latency threshold: " + value);
+        };
+    return unit.toNanos(amount);
+  }
+}
@@ -0,0 +1,40 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Advice on Spring Data repository proxies that remembers, per thread, which repository method is
+ * running, so a slow statement can be traced back to e.g. 'ResourceRepository.findByIdWithDetails'.
+ * Statements run outside a repository call (flushes at commit) have none.
+ */
+public class RepositoryCallTracker implements MethodInterceptor {
+
+  private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+  private final String repositoryName;
+
+  public RepositoryCallTracker(Class<?> repositoryInterface) {
+    this.repositoryName = repositoryInterface.getSimpleName();
+  }
+
+  /** The repository method running on this thread, or null. */
+  public static String current() {
+    return CURRENT.get();
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    String previous = CURRENT.get();
+    CURRENT.set(repositoryName + "." + invocation.getMethod().getName());
+    try {
+      return invocation.proceed();
+    } finally {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight Recorder event for one ResourceService operation, e.g. a get or a patch. */
+@Name("com.kaarelkaasla.enefitresourceservice.ResourceOperation")
+@Label("Resource Operation")
+@Category({"Resource Service", "Operations"})
+@Description("A ResourceService operation with the JDBC work it did")
+@StackTrace(false)
+public class ResourceOperationEvent extends Event {
+
+  @Label("Operation")
+  public String operation;
+
+  @Label("Resource Id")
+  @Description("The resource the operation was called for; 0 for operations on many resources")
+  public long resourceId;
+
+  @Label("Statements")
+  public int statements;
+
+  @Label("Rows")
+  @Description("Rows read or written")
+  public long rows;
+
+  @Label("Outcome")
+  @Description("'success' or the simple name of the exception thrown")
+  public String outcome;
+}
@@ -0,0 +1,100 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Emits a ResourceOperationEvent for every method timed with an 'operation' tag (the
+ * ResourceService operations), with the first Long parameter as the resource id and the statements
+ * and rows it ran. Runs outside the transaction so commit-time flushes are included. Costs nothing
+ * beyond the event check while no recording has the event enabled.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ResourceOperationRecorder {
+
+  private final SqlStatementCounter sqlStatementCounter;
+
+  public ResourceOperationRecorder(SqlStatementCounter sqlStatementCounter) {
+    this.sqlStatementCounter = sqlStatementCounter;
+  }
+
+  @Around("@annotation(io.micrometer.core.annotation.Timed)")
+  public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+    ResourceOperationEvent event = new ResourceOperationEvent();
+    if (!event.isEnabled()) {
+      return joinPoint.proceed();
+    }
+    String operation =
+        operation(
+            ((MethodSignature) joinPoint.getSignature()).getMethod().getAnnotation(Timed.class));
+    if (operation == null) {
+      return joinPoint.proceed();
+    }
+
+    // Counted within the enclosing scope (e.g. the request's) when there is one, so that scope
+    // keeps seeing the statements too
+    SqlStatistics scope = sqlStatementCounter.current();
+    SqlStatistics previous = null;
+    boolean ownScope = scope == null;
+    if (ownScope) {
+      previous = sqlStatementCounter.open();
+      scope = sqlStatementCounter.current();
+    }
+    int statementsBefore = scope.getStatements();
+    long rowsBefore = scope.getRows();
+    String outcome = "success";
+
+    event.begin();
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      outcome = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      event.end();
+      if (ownScope) {
+        sqlStatementCounter.close(previous);
+      }
+      if (event.shouldCommit()) {
+        event.operation = operation;
+        event.resourceId = resourceId(joinPoint);
+        event.statements = scope.getStatements() - statementsBefore;
+        event.rows = scope.getRows() - rowsBefore;
+        event.outcome = outcome;
+        event.commit();
+      }
+    }
+  }
+
+  private static String operation(Timed timed) {
+    if (timed == null) {
+      return null;
+    }
+    String[] tags = timed.extraTags();
+    for (int i = 0; i + 1 < tags.length; i += 2) {
+      if ("operation".equals(tags[i])) {
+        return tags[i + 1];
+      }
+    }
+    return null;
+  }
+
+  // The first parameter declared as Long, as in get(Long id); a primitive long is something else,
+  // e.g. a chunk's starting id
+  private static long resourceId(ProceedingJoinPoint joinPoint) {
+    Class<?>[] types = ((MethodSignature) joinPoint.getSignature()).getParameterTypes();
+    for (int i = 0; i < types.length; i++) {
+      if (types[i] == Long.class && joinPoint.getArgs()[i] instanceof Long id) {
+        return id;
+      }
+    }
+    return 0;
+  }
+}
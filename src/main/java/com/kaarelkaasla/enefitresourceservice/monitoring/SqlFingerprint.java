@@ -0,0 +1,57 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * A SQL statement with its literals replaced by '?', IN lists of any length collapsed to 'in (?)'
+ * and whitespace normalized, so statements that differ only in values or list size (e.g. padded
+ * multi-get IN clauses) share one fingerprint. The id is a short hash of the normalized text, used
+ * as a metric tag; operation and table are the statement verb and its first table.
+ */
+public record SqlFingerprint(String id, String sql, String operation, String table) {
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL =
+      Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern IN_LIST =
+      Pattern.compile("(?i)\\bin \\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+  private static final Pattern VALUES_ROWS =
+      Pattern.compile("(?i)\\bvalues\\s*(\\([^()]*\\))(?:\\s*,\\s*\\([^()]*\\))+");
+  private static final Pattern TABLE =
+      Pattern.compile("(?i)\\b(?:from|into|update|join)\\s+\"?([\\w.]+)\"?");
+
+  public static SqlFingerprint of(String sql) {
+    String normalized = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+    normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+    normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+    normalized = IN_LIST.matcher(normalized).replaceAll("in (?)");
+    normalized = VALUES_ROWS.matcher(normalized).replaceAll("values $1");
+    return new SqlFingerprint(id(normalized), normalized, operation(normalized), table(normalized));
+  }
+
+  private static String id(String normalized) {
+    CRC32 crc = new CRC32();
+    crc.update(normalized.getBytes(StandardCharsets.UTF_8));
+    return HexFormat.of().toHexDigits((int) crc.getValue());
+  }
+
+  private static String operation(String normalized) {
+    int end = normalized.indexOf(' ');
+    String verb = (end < 0 ? normalized : normalized.substring(0, end)).toLowerCase(Locale.ROOT);
+    return switch (verb) {
+      case "select", "insert", "update", "delete", "with", "merge" -> verb;
+      default -> "other";
+    };
+  }
+
+  private static String table(String normalized) {
+    Matcher matcher = TABLE.matcher(normalized);
+    return matcher.find() ? matcher.group(1).toLowerCase(Locale.ROOT) : "none";
+  }
+}
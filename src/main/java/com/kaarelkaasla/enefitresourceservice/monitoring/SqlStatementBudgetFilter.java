@@ -0,0 +1,110 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opens a SQL statistics scope per HTTP request and reports it when the request completes.
+ * Logs every request's statement/row/time totals at DEBUG, warns when a request exceeds the
+ * statement budget or repeats one statement often enough to look like an N+1, and records the
+ * totals as metrics tagged by route. The statistics are also left on the request for tests.
+ */
+@Slf4j
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+  public static final String STATISTICS_ATTRIBUTE = SqlStatementBudgetFilter.class.getName();
+
+  private final SqlStatementCounter counter;
+  private final MeterRegistry meterRegistry;
+  private final int statementBudget;
+  private final int repeatedStatementThreshold;
+
+  public SqlStatementBudgetFilter(
+      SqlStatementCounter counter,
+      MeterRegistry meterRegistry,
+      int statementBudget,
+      int repeatedStatementThreshold) {
+    this.counter = counter;
+    this.meterRegistry = meterRegistry;
+    this.statementBudget = statementBudget;
+    this.repeatedStatementThreshold = repeatedStatementThreshold;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    SqlStatistics previous = counter.open();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      SqlStatistics statistics = counter.close(previous);
+      request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+      report(request, statistics);
+    }
+  }
+
+  private void report(HttpServletRequest request, SqlStatistics statistics) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+    Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+    DistributionSummary.builder("sql.request.statements")
+        .description("JDBC statements executed per HTTP request")
+        .tags(tags)
+        .register(meterRegistry)
+        .record(statistics.getStatements());
+    DistributionSummary.builder("sql.request.rows")
+        .description("Rows read or written per HTTP request")
+        .tags(tags)
+        .register(meterRegistry)
+        .record(statistics.getRows());
+    Timer.builder("sql.request.time")
+        .description("Time spent executing JDBC statements per HTTP request")
+        .tags(tags)
+        .register(meterRegistry)
+        .record(Duration.ofMillis(statistics.getElapsedMillis()));
+
+    log.debug(
+        "SQL for {} {}: statements={} rows={} time={}ms",
+        request.getMethod(),
+        uri,
+        statistics.getStatements(),
+        statistics.getRows(),
+        statistics.getElapsedMillis());
+
+    if (statistics.getStatements() > statementBudget) {
+      log.warn(
+          "SQL statement budget exceeded for {} {}: {} statements (budget {})",
+          request.getMethod(),
+          uri,
+          statistics.getStatements(),
+          statementBudget);
+    }
+    statistics
+        .mostRepeatedStatement()
+        .filter(entry -> entry.getValue() >= repeatedStatementThreshold)
+        .ifPresent(
+            entry ->
+                log.warn(
+                    "Possible N+1 in {} {}: statement executed {} times: {}",
+                    request.getMethod(),
+                    uri,
+                    entry.getValue(),
+                    entry.getKey()));
+  }
+}
@@ -0,0 +1,129 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * datasource-proxy listener that accumulates JDBC work into the SqlStatistics of the current
+ * thread's scope. Statements run outside a scope (startup, migrations, background threads) are
+ * ignored.
+ */
+public class SqlStatementCounter implements QueryExecutionListener, MethodExecutionListener {
+
+  private final ThreadLocal<SqlStatistics> current = new ThreadLocal<>();
+
+  /** Starts a scope on this thread; returns the enclosing scope so callers can restore it. */
+  public SqlStatistics open() {
+    SqlStatistics previous = current.get();
+    current.set(new SqlStatistics());
+    return previous;
+  }
+
+  /** The scope open on this thread, or null. */
+  public SqlStatistics current() {
+    return current.get();
+  }
+
+  /** Ends the current scope, restores the enclosing one and returns the finished statistics. */
+  public SqlStatistics close(SqlStatistics previous) {
+    SqlStatistics finished = current.get();
+    if (previous == null) {
+      current.remove();
+    } else {
+      current.set(previous);
+    }
+    return finished;
+  }
+
+  /** Runs the action in its own scope and returns its result with the statistics it produced. */
+  public <T> Measured<T> measure(Supplier<T> action) {
+    SqlStatistics previous = open();
+    T result;
+    try {
+      result = action.get();
+    } catch (RuntimeException e) {
+      close(previous);
+      throw e;
+    }
+    return new Measured<>(result, close(previous));
+  }
+
+  /**
+   * Binds the action to the calling thread's scope, so JDBC work it does on another thread is
+   * counted for the caller. Only for callers that wait for the action to finish; the scope is not
+   * thread safe.
+   */
+  public <T> Supplier<T> propagate(Supplier<T> action) {
+    SqlStatistics scope = current.get();
+    if (scope == null) {
+      return action;
+    }
+    return () -> {
+      SqlStatistics previous = current.get();
+      current.set(scope);
+      try {
+        return action.get();
+      } finally {
+        if (previous == null) {
+          current.remove();
+        } else {
+          current.set(previous);
+        }
+      }
+    };
+  }
+
+  @Override
+  public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {}
+
+  @Override
+  public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    SqlStatistics statistics = current.get();
+    if (statistics == null) {
+      return;
+    }
+    String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+    statistics.recordStatement(sql, execInfo.getElapsedTime(), updatedRows(execInfo.getResult()));
+  }
+
+  // Rows read are counted as the application consumes them from a proxied ResultSet
+  @Override
+  public void beforeMethod(MethodExecutionContext executionContext) {}
+
+  @Override
+  public void afterMethod(MethodExecutionContext executionContext) {
+    SqlStatistics statistics = current.get();
+    if (statistics != null
+        && executionContext.getTarget() instanceof ResultSet
+        && Boolean.TRUE.equals(executionContext.getResult())
+        && "next".equals(executionContext.getMethod().getName())) {
+      statistics.recordRow();
+    }
+  }
+
+  private static long updatedRows(Object result) {
+    if (result instanceof Integer count) {
+      return Math.max(count, 0);
+    }
+    if (result instanceof Long count) {
+      return Math.max(count, 0);
+    }
+    if (result instanceof int[] counts) {
+      long total = 0;
+      for (int count : counts) {
+        total += Math.max(count, 0);
+      }
+      return total;
+    }
+    return 0;
+  }
+
+  public record Measured<T>(T result, SqlStatistics statistics) {}
+}
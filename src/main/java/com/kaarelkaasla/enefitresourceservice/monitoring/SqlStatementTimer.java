@@ -0,0 +1,203 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * datasource-proxy listener that times every JDBC statement into a histogram per SQL fingerprint
+ * (sql.statement.time, tagged with the fingerprint id, operation and table) and logs statements
+ * slower than the threshold at WARN with their bind parameters, the repository method that ran them
+ * and the application method that called it. Each fingerprint's normalized SQL is logged once at
+ * DEBUG when first seen, to look up the id of a metric. Statements other than queries and DML
+ * (migration DDL, session settings) and, past maxFingerprints distinct fingerprints, new ones are
+ * timed under 'other' so the number of series stays bounded.
+ */
+@Slf4j
+public class SqlStatementTimer implements QueryExecutionListener {
+
+  static final String TIMER = "sql.statement.time";
+
+  private static final String START = SqlStatementTimer.class.getName() + ".start";
+  private static final String APPLICATION_PACKAGE = "com.kaarelkaasla.enefitresourceservice.";
+  private static final String MONITORING_PACKAGE = APPLICATION_PACKAGE + "monitoring.";
+  private static final int MAX_LOGGED_BATCHES = 3;
+  private static final int MAX_LOGGED_VALUE_LENGTH = 100;
+
+  private final MeterRegistry meterRegistry;
+  private final long slowThresholdNanos;
+  private final int maxFingerprints;
+
+  // Keyed by the SQL string as sent, which repeats exactly for every generated statement
+  private final Map<String, Statement> statements = new ConcurrentHashMap<>();
+  private final Map<String, Timer> timersByFingerprint = new ConcurrentHashMap<>();
+  private final Timer otherTimer;
+
+  public SqlStatementTimer(
+      MeterRegistry meterRegistry, Duration slowThreshold, int maxFingerprints) {
+    this.meterRegistry = meterRegistry;
+    this.slowThresholdNanos = slowThreshold.toNanos();
+    this.maxFingerprints = maxFingerprints;
+    this.otherTimer = timer("other", "other", "other");
+  }
+
+  @Override
+  public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    execInfo.addCustomValue(START, System.nanoTime());
+  }
+
+  @Override
+  public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    Long start = execInfo.getCustomValue(START, Long.class);
+    if (start == null || queryInfoList.isEmpty()) {
+      return;
+    }
+    long elapsedNanos = System.nanoTime() - start;
+    String sql = queryInfoList.get(0).getQuery();
+    Statement statement = statementFor(sql);
+    statement.timer().record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+    if (elapsedNanos >= slowThresholdNanos) {
+      log.warn(
+          "Slow SQL {}ms [{}] in {} from {}: {} params={}",
+          TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+          statement.fingerprint().id(),
+          Optional.ofNullable(RepositoryCallTracker.current()).orElse("no repository call"),
+          caller(),
+          sql,
+          parameters(queryInfoList));
+    }
+  }
+
+  /** The fingerprint of a statement, cached like its timer. */
+  public SqlFingerprint fingerprint(String sql) {
+    return statementFor(sql).fingerprint();
+  }
+
+  private Statement statementFor(String sql) {
+    Statement statement = statements.get(sql);
+    if (statement != null) {
+      return statement;
+    }
+    SqlFingerprint fingerprint = SqlFingerprint.of(sql);
+    statement = new Statement(fingerprint, timerFor(fingerprint));
+    // Generated SQL is a small fixed set; anything beyond the bound is fingerprinted each time
+    if (statements.size() < maxFingerprints * 4) {
+      statements.putIfAbsent(sql, statement);
+    }
+    return statement;
+  }
+
+  private Timer timerFor(SqlFingerprint fingerprint) {
+    Timer timer = timersByFingerprint.get(fingerprint.id());
+    if (timer != null) {
+      return timer;
+    }
+    if (fingerprint.operation().equals("other") || timersByFingerprint.size() >= maxFingerprints) {
+      return otherTimer;
+    }
+    return timersByFingerprint.computeIfAbsent(
+        fingerprint.id(),
+        id -> {
+          log.debug("SQL fingerprint {}: {}", id, fingerprint.sql());
+          return timer(id, fingerprint.operation(), fingerprint.table());
+        });
+  }
+
+  private Timer timer(String fingerprint, String operation, String table) {
+    return Timer.builder(TIMER)
+        .description("JDBC statement execution time per normalized statement")
+        .tag("fingerprint", fingerprint)
+        .tag("operation", operation)
+        .tag("table", table)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  /** The innermost application frame outside this package, e.g. 'ResourceService.getResource:97'. */
+  private static String caller() {
+    return StackWalker.getInstance()
+        .walk(
+            frames ->
+                frames
+                    .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE))
+                    .filter(frame -> !frame.getClassName().startsWith(MONITORING_PACKAGE))
+                    .filter(frame -> !frame.getClassName().contains("$$"))
+                    .findFirst())
+        .map(
+            frame -> {
+              String className = frame.getClassName();
+              return className.substring(className.lastIndexOf('.') + 1)
+                  + "."
+                  + frame.getMethodName()
+                  + ":"
+                  + frame.getLineNumber();
+            })
+        .orElse("unknown");
+  }
+
+  /** Bind values per execution (one list per batch entry), in parameter order. */
+  static String parameters(List<QueryInfo> queryInfoList) {
+    List<List<ParameterSetOperation>> executions = new ArrayList<>();
+    for (QueryInfo queryInfo : queryInfoList) {
+      executions.addAll(queryInfo.getParametersList());
+    }
+    StringJoiner joined = new StringJoiner(", ");
+    for (int i = 0; i < executions.size() && i < MAX_LOGGED_BATCHES; i++) {
+      joined.add(values(executions.get(i)));
+    }
+    if (executions.size() > MAX_LOGGED_BATCHES) {
+      joined.add("... " + (executions.size() - MAX_LOGGED_BATCHES) + " more");
+    }
+    return joined.toString();
+  }
+
+  private static String values(List<ParameterSetOperation> operations) {
+    StringJoiner values = new StringJoiner(", ", "[", "]");
+    operations.stream()
+        .filter(operation -> operation.getArgs().length > 0)
+        .sorted(
+            Comparator.comparing(
+                operation -> String.valueOf(operation.getArgs()[0]), SqlStatementTimer::byIndex))
+        .forEach(operation -> values.add(value(operation)));
+    return values.toString();
+  }
+
+  private static int byIndex(String left, String right) {
+    try {
+      return Integer.compare(Integer.parseInt(left), Integer.parseInt(right));
+    } catch (NumberFormatException e) {
+      return left.compareTo(right);
+    }
+  }
+
+  private static String value(ParameterSetOperation operation) {
+    if (ParameterSetOperation.isSetNullParameterOperation(operation)
+        || operation.getArgs().length < 2
+        || operation.getArgs()[1] == null) {
+      return "null";
+    }
+    Object value = operation.getArgs()[1];
+    String text = value.toString();
+    if (text.length() > MAX_LOGGED_VALUE_LENGTH) {
+      text = text.substring(0, MAX_LOGGED_VALUE_LENGTH) + "...";
+    }
+    return value instanceof CharSequence ? "'" + text + "'" : text;
+  }
+
+  private record Statement(SqlFingerprint fingerprint, Timer timer) {}
+}
@@ -0,0 +1,92 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import java.util.List;
+import javax.sql.DataSource;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * datasource-proxy listener that adds a client span for every JDBC statement, and for every wait on
+ * the pool for a connection, to the trace running on the calling thread. Statement spans are named
+ * after the operation and table and carry the normalized SQL (literals already replaced, so no
+ * values end up in the trace) and its fingerprint, matching the sql.statement.time series. Work
+ * outside a trace (e.g. startup, scheduled jobs) gets no spans.
+ */
+public class SqlStatementTracer implements QueryExecutionListener, MethodExecutionListener {
+
+  private static final String SPAN = SqlStatementTracer.class.getName() + ".span";
+
+  private final Tracer tracer;
+  private final SqlStatementTimer statementTimer;
+
+  public SqlStatementTracer(Tracer tracer, SqlStatementTimer statementTimer) {
+    this.tracer = tracer;
+    this.statementTimer = statementTimer;
+  }
+
+  @Override
+  public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    if (queryInfoList.isEmpty() || tracer.currentSpan() == null) {
+      return;
+    }
+    SqlFingerprint fingerprint = statementTimer.fingerprint(queryInfoList.get(0).getQuery());
+    Span.Builder span =
+        tracer
+            .spanBuilder()
+            .name(fingerprint.operation() + " " + fingerprint.table())
+            .kind(Span.Kind.CLIENT)
+            .tag("db.operation", fingerprint.operation())
+            .tag("db.sql.table", fingerprint.table())
+            .tag("db.statement", fingerprint.sql())
+            .tag("sql.fingerprint", fingerprint.id());
+    if (execInfo.isBatch()) {
+      span.tag("db.batch.size", execInfo.getBatchSize());
+    }
+    execInfo.addCustomValue(SPAN, span.start());
+  }
+
+  @Override
+  public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    Span span = execInfo.getCustomValue(SPAN, Span.class);
+    if (span == null) {
+      return;
+    }
+    if (execInfo.getThrowable() != null) {
+      span.error(execInfo.getThrowable());
+    }
+    span.end();
+  }
+
+  @Override
+  public void beforeMethod(MethodExecutionContext executionContext) {
+    if (isGetConnection(executionContext) && tracer.currentSpan() != null) {
+      executionContext.addCustomValue(
+          SPAN, tracer.spanBuilder().name("connection").kind(Span.Kind.CLIENT).start());
+    }
+  }
+
+  @Override
+  public void afterMethod(MethodExecutionContext executionContext) {
+    if (!isGetConnection(executionContext)) {
+      return;
+    }
+    Span span = executionContext.getCustomValue(SPAN, Span.class);
+    if (span != null) {
+      if (executionContext.getThrown() != null) {
+        span.error(executionContext.getThrown());
+      }
+      span.end();
+    }
+  }
+
+  private static boolean isGetConnection(MethodExecutionContext executionContext) {
+    return executionContext.getTarget() instanceof DataSource
+        && "getConnection".equals(executionContext.getMethod().getName());
+  }
+}
@@ -0,0 +1,39 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.Getter;
+
+/**
+ * JDBC work done within one scope (an HTTP request or a service call) on a single thread.
+ * Counts executed statements, rows read or written and time spent in the driver, and remembers how
+ * often each SQL string ran so repeated identical statements (N+1 selects) can be reported.
+ */
+@Getter
+public class SqlStatistics {
+
+  private int statements;
+  private long rows;
+  private long elapsedMillis;
+
+  @Getter(lombok.AccessLevel.NONE)
+  private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+  void recordStatement(String sql, long elapsedMillis, long affectedRows) {
+    statements++;
+    this.elapsedMillis += elapsedMillis;
+    rows += affectedRows;
+    executionsBySql.merge(sql, 1, Integer::sum);
+  }
+
+  void recordRow() {
+    rows++;
+  }
+
+  /** The statement executed most often in this scope, with its execution count. */
+  public Optional<Map.Entry<String, Integer>> mostRepeatedStatement() {
+    return executionsBySql.entrySet().stream().max(Map.Entry.comparingByValue());
+  }
+}
@@ -0,0 +1,102 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs the startup steps that took longest once the application is ready, by their own time (the
+ * step's duration minus that of the steps nested in it), so a bean that is slow itself is not
+ * hidden behind the beans that depend on it. Only reports when the application was started with a
+ * BufferingApplicationStartup (see EnefitResourceServiceApplication); the full timeline is at
+ * /actuator/startup.
+ */
+@Slf4j
+public class StartupTimelineReport implements ApplicationListener<ApplicationReadyEvent> {
+
+  private final int top;
+
+  public StartupTimelineReport(int top) {
+    this.top = top;
+  }
+
+  @Override
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+    if (!(startup instanceof BufferingApplicationStartup buffering) || top <= 0) {
+      return;
+    }
+    List<StepTime> slowest = slowest(buffering.getBufferedTimeline().getEvents(), top);
+    log.info(
+        "Startup took {} ms; slowest steps by own time: {}",
+        event.getTimeTaken().toMillis(),
+        slowest.stream().map(StepTime::toString).collect(Collectors.joining(", ")));
+  }
+
+  /** The count steps with the longest own time, longest first. */
+  static List<StepTime> slowest(List<TimelineEvent> events, int count) {
+    Map<Long, StepTime> steps = new HashMap<>();
+    for (TimelineEvent event : events) {
+      steps.put(
+          event.getStartupStep().getId(),
+          new StepTime(describe(event.getStartupStep()), event.getDuration()));
+    }
+    for (TimelineEvent event : events) {
+      StepTime parent = steps.get(event.getStartupStep().getParentId());
+      if (parent != null) {
+        parent.ownTime = parent.ownTime.minus(event.getDuration());
+      }
+    }
+    List<StepTime> sorted = new ArrayList<>(steps.values());
+    sorted.sort(Comparator.comparing((StepTime step) -> step.ownTime).reversed());
+    return sorted.subList(0, Math.min(count, sorted.size()));
+  }
+
+  // e.g. spring.beans.instantiate[beanName=entityManagerFactory]
+  private static String describe(StartupStep step) {
+    List<String> tags = new ArrayList<>();
+    for (StartupStep.Tag tag : step.getTags()) {
+      if (tag.getKey().equals("beanName") || tag.getKey().equals("postProcessor")) {
+        tags.add(tag.getKey() + "=" + tag.getValue());
+      }
+    }
+    return tags.isEmpty() ? step.getName() : step.getName() + tags;
+  }
+
+  static final class StepTime {
+
+    private final String step;
+    private Duration ownTime;
+
+    StepTime(String step, Duration duration) {
+      this.step = step;
+      this.ownTime = duration;
+    }
+
+    String step() {
+      return step;
+    }
+
+    Duration ownTime() {
+      return ownTime;
+    }
+
+    @Override
+    public String toString() {
+      return step + " " + ownTime.toMillis() + " ms";
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Logback turbo filter that lets through only a share of the success logs of each category, set as
+ * {@code <rate>read=0.01</rate>} in logback-spring.xml. Success logs are INFO (or lower) lines
+ * logged with the category's marker, e.g. {@code log.info(SuccessLogSampler.READ, ...)}; anything
+ * else, including every WARN and ERROR, passes untouched. Lines are dropped before a logging event
+ * is built, so a sampled-out line costs about as much as a disabled one. Log such lines with a
+ * single call, not behind isInfoEnabled(marker), which would draw the sample twice.
+ */
+public class SuccessLogSampler extends TurboFilter {
+
+  /** Successful reads: get, list, search, multi-get, stream. */
+  public static final Marker READ = MarkerFactory.getMarker("success.read");
+
+  /** Successful creates, updates, patches and deletes. */
+  public static final Marker WRITE = MarkerFactory.getMarker("success.write");
+
+  private final Map<String, Double> rates = new HashMap<>();
+
+  /** A {@code category=rate} pair, rate from 0 (none) to 1 (all); category is the marker name. */
+  public void addRate(String rate) {
+    int separator = rate.indexOf('=');
+    if (separator < 0) {
+      addError("Expected category=rate but got '" + rate + "'");
+      return;
+    }
+    String category = rate.substring(0, separator).trim();
+    try {
+      rates.put("success." + category, Double.parseDouble(rate.substring(separator + 1).trim()));
+    } catch (NumberFormatException e) {
+      addError("Invalid sample rate for " + category + ": '" + rate + "'", e);
+    }
+  }
+
+  @Override
+  public FilterReply decide(
+      Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    if (marker == null || level == null || level.toInt() > Level.INFO_INT) {
+      return FilterReply.NEUTRAL;
+    }
+    Double rate = rates.get(marker.getName());
+    if (rate == null || rate >= 1) {
+      return FilterReply.NEUTRAL;
+    }
+    return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+  }
+}
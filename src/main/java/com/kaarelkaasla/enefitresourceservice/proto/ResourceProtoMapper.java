@@ -0,0 +1,249 @@
+package com.kaarelkaasla.enefitresourceservice.proto;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.protobuf.Timestamp;
+import com.kaarelkaasla.enefitresourceservice.dtos.CharacteristicRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.CharacteristicResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.EncodedResourceResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.ErrorResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.LocationRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.LocationResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceResponse;
+
+/**
+ * Maps response DTOs, error bodies and events to the messages generated from src/main/proto, and
+ * gRPC request messages to the request DTOs. Null DTO fields are left unset (proto3 defaults);
+ * timestamps keep the instant but not the offset. In requests, empty strings and unspecified enums
+ * become null so validation reports them as missing.
+ */
+public final class ResourceProtoMapper {
+
+  private ResourceProtoMapper() {}
+
+  public static ResourceList toProto(Collection<ResourceResponse> responses) {
+    ResourceList.Builder list = ResourceList.newBuilder();
+    for (ResourceResponse response : responses) {
+      list.addResources(toProto(response));
+    }
+    return list.build();
+  }
+
+  public static ResourceLookupResultList toLookupList(
+      Collection<com.kaarelkaasla.enefitresourceservice.dtos.ResourceLookupResult> results) {
+    ResourceLookupResultList.Builder list = ResourceLookupResultList.newBuilder();
+    for (com.kaarelkaasla.enefitresourceservice.dtos.ResourceLookupResult result : results) {
+      ResourceLookupResult.Builder proto =
+          ResourceLookupResult.newBuilder().setId(result.id()).setFound(result.found());
+      if (result.resource() != null) {
+        proto.setResource(toProto(result.resource()));
+      }
+      list.addResults(proto);
+    }
+    return list.build();
+  }
+
+  public static Resource toProto(ResourceResponse response) {
+    Resource.Builder resource = Resource.newBuilder();
+    if (response.id() != null) {
+      resource.setId(response.id());
+    }
+    if (response.type() != null) {
+      resource.setType(ResourceType.valueOf(response.type().name()));
+    }
+    if (response.countryCode() != null) {
+      resource.setCountryCode(response.countryCode());
+    }
+    if (response.version() != null) {
+      resource.setVersion(response.version());
+    }
+    if (response.createdAt() != null) {
+      resource.setCreatedAt(toTimestamp(response.createdAt()));
+    }
+    if (response.updatedAt() != null) {
+      resource.setUpdatedAt(toTimestamp(response.updatedAt()));
+    }
+    if (response.location() != null) {
+      resource.setLocation(toProto(response.location()));
+    }
+    if (response.characteristics() != null) {
+      for (CharacteristicResponse characteristic : response.characteristics()) {
+        resource.addCharacteristics(toProto(characteristic));
+      }
+    }
+    return resource.build();
+  }
+
+  static Location toProto(LocationResponse response) {
+    Location.Builder location = Location.newBuilder();
+    if (response.id() != null) {
+      location.setId(response.id());
+    }
+    if (response.streetAddress() != null) {
+      location.setStreetAddress(response.streetAddress());
+    }
+    if (response.city() != null) {
+      location.setCity(response.city());
+    }
+    if (response.postalCode() != null) {
+      location.setPostalCode(response.postalCode());
+    }
+    if (response.countryCode() != null) {
+      location.setCountryCode(response.countryCode());
+    }
+    return location.build();
+  }
+
+  static Characteristic toProto(CharacteristicResponse response) {
+    Characteristic.Builder characteristic = Characteristic.newBuilder();
+    if (response.id() != null) {
+      characteristic.setId(response.id());
+    }
+    if (response.code() != null) {
+      characteristic.setCode(response.code());
+    }
+    if (response.type() != null) {
+      characteristic.setType(CharacteristicType.valueOf(response.type().name()));
+    }
+    if (response.value() != null) {
+      characteristic.setValue(response.value());
+    }
+    return characteristic.build();
+  }
+
+  public static Error toProto(ErrorResponse response) {
+    Error.Builder error = Error.newBuilder().setStatus(response.status());
+    if (response.error() != null) {
+      error.setError(response.error());
+    }
+    if (response.message() != null) {
+      error.setMessage(response.message());
+    }
+    if (response.path() != null) {
+      error.setPath(response.path());
+    }
+    if (response.timestamp() != null) {
+      error.setTimestamp(response.timestamp().toString());
+    }
+    if (response.fieldErrors() != null) {
+      for (com.kaarelkaasla.enefitresourceservice.dtos.FieldError fieldError :
+          response.fieldErrors()) {
+        FieldError.Builder field = FieldError.newBuilder();
+        if (fieldError.field() != null) {
+          field.setField(fieldError.field());
+        }
+        if (fieldError.rejectedValue() != null) {
+          field.setRejectedValue(String.valueOf(fieldError.rejectedValue()));
+        }
+        if (fieldError.message() != null) {
+          field.setMessage(fieldError.message());
+        }
+        error.addFieldErrors(field);
+      }
+    }
+    return error.build();
+  }
+
+  public static ResourceEvent toProto(
+      com.kaarelkaasla.enefitresourceservice.dtos.ResourceEvent event) {
+    ResourceEvent.Builder proto =
+        ResourceEvent.newBuilder()
+            .setEventType(ResourceEventType.valueOf(event.eventType().name()))
+            .setResourceId(event.resourceId());
+    EncodedResourceResponse resource = event.resource();
+    if (resource != null) {
+      proto.setResource(toProto(resource.response()));
+    }
+    if (event.eventTimestamp() != null) {
+      proto.setEventTimestamp(toTimestamp(event.eventTimestamp()));
+    }
+    if (event.eventId() != null) {
+      proto.setEventId(event.eventId());
+    }
+    return proto.build();
+  }
+
+  public static ResourceRequest toRequest(ResourceInput input) {
+    return new ResourceRequest(
+        toEntityType(input.getType()),
+        emptyToNull(input.getCountryCode()),
+        input.hasLocation() ? toRequest(input.getLocation()) : null,
+        toRequests(input.getCharacteristicsList()));
+  }
+
+  /**
+   * Set fields become present Optionals. A set but unspecified type is rejected here, since as an
+   * empty Optional it would silently leave the type unchanged.
+   */
+  public static com.kaarelkaasla.enefitresourceservice.dtos.PatchResourceRequest toRequest(
+      PatchResourceRequest request) {
+    Optional<com.kaarelkaasla.enefitresourceservice.entities.ResourceType> type = Optional.empty();
+    if (request.hasType()) {
+      type = Optional.ofNullable(toEntityType(request.getType()));
+      if (type.isEmpty()) {
+        throw new IllegalArgumentException("Unknown resource type: " + request.getTypeValue());
+      }
+    }
+    return new com.kaarelkaasla.enefitresourceservice.dtos.PatchResourceRequest(
+        type,
+        request.hasCountryCode() ? Optional.of(request.getCountryCode()) : Optional.empty(),
+        request.hasLocation() ? Optional.of(toRequest(request.getLocation())) : Optional.empty(),
+        request.hasCharacteristics()
+            ? Optional.of(toRequests(request.getCharacteristics().getItemsList()))
+            : Optional.empty());
+  }
+
+  static LocationRequest toRequest(LocationInput input) {
+    return new LocationRequest(
+        emptyToNull(input.getStreetAddress()),
+        emptyToNull(input.getCity()),
+        emptyToNull(input.getPostalCode()),
+        emptyToNull(input.getCountryCode()));
+  }
+
+  static Set<CharacteristicRequest> toRequests(List<CharacteristicInput> inputs) {
+    Set<CharacteristicRequest> requests = new HashSet<>();
+    for (CharacteristicInput input : inputs) {
+      requests.add(
+          new CharacteristicRequest(
+              emptyToNull(input.getCode()),
+              toEntityType(input.getType()),
+              emptyToNull(input.getValue())));
+    }
+    return requests;
+  }
+
+  private static com.kaarelkaasla.enefitresourceservice.entities.ResourceType toEntityType(
+      ResourceType type) {
+    return switch (type) {
+      case RESOURCE_TYPE_UNSPECIFIED, UNRECOGNIZED -> null;
+      default -> com.kaarelkaasla.enefitresourceservice.entities.ResourceType.valueOf(type.name());
+    };
+  }
+
+  private static com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType toEntityType(
+      CharacteristicType type) {
+    return switch (type) {
+      case CHARACTERISTIC_TYPE_UNSPECIFIED, UNRECOGNIZED -> null;
+      default ->
+          com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType.valueOf(type.name());
+    };
+  }
+
+  private static String emptyToNull(String value) {
+    return value.isEmpty() ? null : value;
+  }
+
+  private static Timestamp toTimestamp(OffsetDateTime value) {
+    return Timestamp.newBuilder()
+        .setSeconds(value.toEpochSecond())
+        .setNanos(value.getNano())
+        .build();
+  }
+}
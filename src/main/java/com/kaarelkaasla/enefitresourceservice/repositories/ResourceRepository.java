@@ -1,10 +1,18 @@
 package com.kaarelkaasla.enefitresourceservice.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -20,4 +28,62 @@ public interface ResourceRepository extends JpaRepository<Resource, Long> {
 
   @Query("SELECT r FROM Resource r LEFT JOIN FETCH r.location LEFT JOIN FETCH r.characteristics")
   List<Resource> findAllWithDetails();
+
+  // One statement: the location and characteristic rows go with it through ON DELETE CASCADE
+  @Modifying(clearAutomatically = true)
+  @Query("DELETE FROM Resource r WHERE r.id = :id")
+  int deleteByIdCascading(@Param("id") Long id);
+
+  // Next chunk of a bulk delete, locked so the rows cannot change before they are deleted
+  @Query(
+      value =
+          "SELECT r.id FROM resources r WHERE r.id > :afterId"
+              + " AND (CAST(:type AS VARCHAR) IS NULL OR r.type = CAST(:type AS VARCHAR))"
+              + " AND (CAST(:countryCode AS VARCHAR) IS NULL"
+              + " OR r.country_code = CAST(:countryCode AS VARCHAR))"
+              + " ORDER BY r.id LIMIT :limit FOR UPDATE",
+      nativeQuery = true)
+  List<Long> lockIdsForDeletion(
+      @Param("type") String type,
+      @Param("countryCode") String countryCode,
+      @Param("afterId") long afterId,
+      @Param("limit") int limit);
+
+  @Modifying(clearAutomatically = true)
+  @Query("DELETE FROM Resource r WHERE r.id IN :ids")
+  int deleteAllByIdCascading(@Param("ids") Collection<Long> ids);
+
+  // Probe for the response cache, which is keyed by version
+  @Query("SELECT r.version FROM Resource r WHERE r.id = :id")
+  Optional<Long> findVersionById(@Param("id") Long id);
+
+  // Single-row reads: characteristics come from the resource's JSONB document instead of a join
+  @Query("SELECT r FROM Resource r LEFT JOIN FETCH r.location WHERE r.id = :id")
+  Optional<Resource> findByIdWithLocation(@Param("id") Long id);
+
+  @Query("SELECT r FROM Resource r LEFT JOIN FETCH r.location")
+  List<Resource> findAllWithLocation();
+
+  // Cursor for streamed reads: one row per resource, fetched from the database in batches
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT r FROM Resource r LEFT JOIN FETCH r.location ORDER BY r.id")
+  Stream<Resource> streamAllWithLocation();
+
+  @Query(
+      "SELECT r FROM Resource r LEFT JOIN FETCH r.location LEFT JOIN FETCH r.characteristics WHERE"
+          + " r.id IN :ids")
+  List<Resource> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Query("SELECT r FROM Resource r LEFT JOIN FETCH r.location WHERE r.id IN :ids ORDER BY r.id")
+  List<Resource> findAllWithLocationByIdIn(@Param("ids") Collection<Long> ids);
+
+  // Served by the GIN index idx_resource_characteristics; the limit bounds the response size
+  @Query(
+      "SELECT r FROM Resource r LEFT JOIN FETCH r.location"
+          + " WHERE jsonb_contains(r.characteristicsDocument, :filter) ORDER BY r.id")
+  List<Resource> findAllWithLocationByCharacteristicsContaining(
+      @Param("filter") String filter, Limit limit);
 }
@@ -0,0 +1,200 @@
+package com.kaarelkaasla.enefitresourceservice.services;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.kaarelkaasla.enefitresourceservice.dtos.BulkDeleteOperationResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.BulkDeleteRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.OperationStatus;
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceBusyException;
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceNotFoundException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs filter-based bulk deletes as background jobs and tracks their progress.
+ * A job deletes the matching resources in id order, one chunk per short transaction, and sends each
+ * chunk's DELETED events after it commits.
+ */
+@Service
+@Slf4j
+public class BulkDeleteService {
+
+  private final ResourceService resourceService;
+  private final ResourceEventService eventService;
+  private final TimeProvider timeProvider;
+  private final BulkWorkExecutor bulkWork;
+  private final int chunkSize;
+  private final Duration chunkPause;
+  private final int retainedOperations;
+
+  // Insertion ordered, so the oldest finished operations are dropped first
+  private final Map<UUID, Operation> operations = new LinkedHashMap<>();
+
+  public BulkDeleteService(
+      ResourceService resourceService,
+      ResourceEventService eventService,
+      TimeProvider timeProvider,
+      BulkWorkExecutor bulkWork,
+      @Value("${app.bulk-delete.chunk-size:1000}") int chunkSize,
+      @Value("${app.bulk-delete.chunk-pause:50ms}") Duration chunkPause,
+      @Value("${app.bulk-delete.retained-operations:100}") int retainedOperations) {
+    this.resourceService = resourceService;
+    this.eventService = eventService;
+    this.timeProvider = timeProvider;
+    this.bulkWork = bulkWork;
+    this.chunkSize = chunkSize;
+    this.chunkPause = chunkPause;
+    this.retainedOperations = retainedOperations;
+  }
+
+  /** Queues a job deleting every resource matching the filter and returns its initial status. */
+  public BulkDeleteOperationResponse start(BulkDeleteRequest filter) {
+    Operation operation = new Operation(UUID.randomUUID(), filter, timeProvider.now());
+    register(operation);
+    BulkDeleteOperationResponse queued = operation.toResponse();
+    try {
+      bulkWork.execute(() -> run(operation));
+    } catch (ResourceBusyException e) {
+      unregister(operation);
+      throw e;
+    }
+    log.info(
+        "Queued bulk delete {} for type={} countryCode={}",
+        operation.id,
+        filter.type(),
+        filter.countryCode());
+    return queued;
+  }
+
+  public BulkDeleteOperationResponse getOperation(UUID id) {
+    Operation operation;
+    synchronized (operations) {
+      operation = operations.get(id);
+    }
+    if (operation == null) {
+      throw new ResourceNotFoundException("Operation not found with id: " + id);
+    }
+    return operation.toResponse();
+  }
+
+  /** Interrupted at shutdown (BulkWorkExecutor), the job ends as FAILED after its current chunk. */
+  void run(Operation operation) {
+    operation.start();
+    log.info("Started bulk delete {}", operation.id);
+    long afterId = 0;
+    try {
+      while (true) {
+        List<Long> ids = resourceService.deleteChunk(operation.filter, afterId, chunkSize);
+        if (ids.isEmpty()) {
+          break;
+        }
+        operation.chunkDeleted(ids.size());
+        afterId = ids.getLast();
+        eventService.publishResourcesDeleted(ids).join();
+        if (ids.size() < chunkSize) {
+          break;
+        }
+        if (chunkPause.isPositive()) {
+          Thread.sleep(chunkPause);
+        }
+      }
+      operation.finish(OperationStatus.COMPLETED, null, timeProvider.now());
+      log.info(
+          "Completed bulk delete {}: {} resources in {} chunks",
+          operation.id,
+          operation.deletedCount,
+          operation.chunkCount);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      operation.finish(OperationStatus.FAILED, "Interrupted by shutdown", timeProvider.now());
+      log.warn(
+          "Bulk delete {} interrupted after {} resources", operation.id, operation.deletedCount);
+    } catch (RuntimeException e) {
+      // The status is public; the exception (SQL, constraint names) only goes to the log
+      operation.finish(
+          OperationStatus.FAILED,
+          "Bulk delete failed after " + operation.deletedCount + " resources; see server logs",
+          timeProvider.now());
+      log.error(
+          "Bulk delete {} failed after {} resources", operation.id, operation.deletedCount, e);
+    }
+  }
+
+  private void register(Operation operation) {
+    synchronized (operations) {
+      operations.put(operation.id, operation);
+      Iterator<Operation> oldest = operations.values().iterator();
+      while (operations.size() > retainedOperations && oldest.hasNext()) {
+        if (oldest.next().isFinished()) {
+          oldest.remove();
+        }
+      }
+    }
+  }
+
+  private void unregister(Operation operation) {
+    synchronized (operations) {
+      operations.remove(operation.id);
+    }
+  }
+
+  /** Progress of one job; written by the job thread, read by status requests. */
+  static final class Operation {
+
+    private final UUID id;
+    private final BulkDeleteRequest filter;
+    private final OffsetDateTime createdAt;
+    private OperationStatus status = OperationStatus.PENDING;
+    private long deletedCount;
+    private int chunkCount;
+    private OffsetDateTime finishedAt;
+    private String error;
+
+    Operation(UUID id, BulkDeleteRequest filter, OffsetDateTime createdAt) {
+      this.id = id;
+      this.filter = filter;
+      this.createdAt = createdAt;
+    }
+
+    synchronized void start() {
+      status = OperationStatus.RUNNING;
+    }
+
+    synchronized void chunkDeleted(int count) {
+      deletedCount += count;
+      chunkCount++;
+    }
+
+    synchronized void finish(OperationStatus status, String error, OffsetDateTime finishedAt) {
+      this.status = status;
+      this.error = error;
+      this.finishedAt = finishedAt;
+    }
+
+    synchronized boolean isFinished() {
+      return status == OperationStatus.COMPLETED || status == OperationStatus.FAILED;
+    }
+
+    synchronized BulkDeleteOperationResponse toResponse() {
+      return new BulkDeleteOperationResponse(
+          id,
+          status,
+          filter.type(),
+          filter.countryCode(),
+          deletedCount,
+          chunkCount,
+          createdAt,
+          finishedAt,
+          error);
+    }
+  }
+}
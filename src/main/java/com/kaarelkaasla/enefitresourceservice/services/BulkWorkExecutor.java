@@ -0,0 +1,162 @@
+package com.kaarelkaasla.enefitresourceservice.services;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceBusyException;
+import com.kaarelkaasla.enefitresourceservice.monitoring.SqlStatementCounter;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulkhead for bulk work (send-all, bulk deletes): a small fixed pool of threads with a bounded
+ * queue, kept apart from the request threads that serve interactive CRUD. Work running here uses
+ * the bulk connection pool (see DataSourceConfig) and is published through the bulk Kafka producer,
+ * so a long scan or a flood of events cannot take the connections and producer buffer interactive
+ * requests need. When the queue is full new work is refused with ResourceBusyException (503).
+ */
+@Component
+@Slf4j
+public class BulkWorkExecutor implements DisposableBean {
+
+  static final Duration RETRY_AFTER = Duration.ofSeconds(10);
+
+  private static final ThreadLocal<Boolean> BULK = new ThreadLocal<>();
+
+  private final ThreadPoolExecutor pool;
+  private final ExecutorService executor;
+  private final Duration callTimeout;
+  private final SqlStatementCounter sqlStatementCounter;
+
+  public BulkWorkExecutor(
+      @Value("${app.bulk.executor.threads:2}") int threads,
+      @Value("${app.bulk.executor.queue-capacity:10}") int queueCapacity,
+      @Value("${app.bulk.executor.call-timeout:60s}") Duration callTimeout,
+      SqlStatementCounter sqlStatementCounter,
+      MeterRegistry meterRegistry) {
+    this.pool =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("bulk-", 0).factory());
+    // Tasks carry the submitting thread's observation, so their spans join the request's trace
+    this.executor =
+        ContextExecutorService.wrap(
+            ExecutorServiceMetrics.monitor(meterRegistry, pool, "bulk"),
+            () -> ContextSnapshotFactory.builder().build().captureAll());
+    this.callTimeout = callTimeout;
+    this.sqlStatementCounter = sqlStatementCounter;
+  }
+
+  /** Whether the current thread is running bulk work, which selects the bulk connection pool. */
+  public static boolean inBulkWork() {
+    return BULK.get() != null;
+  }
+
+  /** Queues the task and returns at once. */
+  public void execute(Runnable task) {
+    try {
+      executor.execute(() -> runAsBulk(task));
+    } catch (RejectedExecutionException e) {
+      throw busy(e);
+    }
+  }
+
+  /**
+   * Runs the task on a bulk thread and waits up to app.bulk.executor.call-timeout for its result,
+   * rethrowing what it threw. A task that has not finished by then, queued or running, is cancelled
+   * (interrupted) and the call refused with ResourceBusyException (503), so a backlog of bulk work
+   * cannot hold request threads indefinitely. JDBC work it does is counted in the caller's SQL
+   * statistics scope.
+   */
+  public <T> T call(Supplier<T> task) {
+    Supplier<T> measured = sqlStatementCounter.propagate(task);
+    Future<T> result;
+    try {
+      result = executor.submit(() -> runAsBulk(measured));
+    } catch (RejectedExecutionException e) {
+      throw busy(e);
+    }
+    try {
+      return result.get(callTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (TimeoutException e) {
+      result.cancel(true);
+      log.warn(
+          "Bulk work did not finish within {}: {} running, {} queued",
+          callTimeout,
+          pool.getActiveCount(),
+          pool.getQueue().size());
+      throw new ResourceBusyException(
+          "Bulk operation did not finish in time. Please try again later.", RETRY_AFTER);
+    } catch (InterruptedException e) {
+      result.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ResourceBusyException(
+          "Bulk operation was interrupted. Please try again later.", RETRY_AFTER);
+    }
+  }
+
+  /** Interrupts running work; queued work is dropped. */
+  @Override
+  public void destroy() {
+    pool.shutdownNow();
+  }
+
+  /**
+   * Runs the task on the calling thread as bulk work, for long-running work that has a bounded pool
+   * of its own (gRPC ListResources streams) but must not hold interactive connections.
+   */
+  public static void runAsBulk(Runnable task) {
+    runAsBulk(
+        () -> {
+          task.run();
+          return null;
+        });
+  }
+
+  private static <T> T runAsBulk(Supplier<T> task) {
+    BULK.set(Boolean.TRUE);
+    try {
+      return task.get();
+    } finally {
+      BULK.remove();
+    }
+  }
+
+  private ResourceBusyException busy(RejectedExecutionException e) {
+    log.warn(
+        "Refused bulk work: {} running, {} queued",
+        pool.getActiveCount(),
+        pool.getQueue().size(),
+        e);
+    return new ResourceBusyException(
+        "Too many bulk operations in progress. Please try again later.", RETRY_AFTER);
+  }
+}
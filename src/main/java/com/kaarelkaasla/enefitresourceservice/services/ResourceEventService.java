@@ -1,57 +1,108 @@
 package com.kaarelkaasla.enefitresourceservice.services;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.kaarelkaasla.enefitresourceservice.dtos.EncodedResourceResponse;
 import com.kaarelkaasla.enefitresourceservice.dtos.ResourceEvent;
 import com.kaarelkaasla.enefitresourceservice.dtos.ResourceEventType;
-import com.kaarelkaasla.enefitresourceservice.dtos.ResourceResponse;
+import com.kaarelkaasla.enefitresourceservice.monitoring.BulkPublishEvent;
+import com.kaarelkaasla.enefitresourceservice.monitoring.EventPublishEvent;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Publishes resource lifecycle events to Kafka.
- * Builds events with a UUID and timestamp, sends asynchronously keyed by resource id,
- * and logs success/failure while producer retries/backoff handle transient failures.
+ * Builds events with a UUID and timestamp around the already encoded resource, sends asynchronously
+ * keyed by resource id, and records publish latency and outcome as metrics.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ResourceEventService {
 
+  // Send-all events are recorded as one BulkPublish event per this many
+  static final int SEND_ALL_BLOCK_SIZE = 500;
+
   private final KafkaTemplate<String, ResourceEvent> kafkaTemplate;
+  private final KafkaTemplate<String, ResourceEvent> bulkKafkaTemplate;
   private final TimeProvider timeProvider;
+  private final MeterRegistry meterRegistry;
+  private final ApplicationEventPublisher applicationEventPublisher;
+
+  private final Map<ResourceEventType, Timer> successTimers =
+      new EnumMap<>(ResourceEventType.class);
+  private final Map<ResourceEventType, Timer> failureTimers =
+      new EnumMap<>(ResourceEventType.class);
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger batchPending = new AtomicInteger();
 
   @Value("${app.kafka.topic.resource-updates}")
   private String topicName;
 
-  public void publishResourceCreated(ResourceResponse resource) {
+  public ResourceEventService(
+      KafkaTemplate<String, ResourceEvent> kafkaTemplate,
+      @Qualifier("bulkKafkaTemplate") KafkaTemplate<String, ResourceEvent> bulkKafkaTemplate,
+      TimeProvider timeProvider,
+      MeterRegistry meterRegistry,
+      ApplicationEventPublisher applicationEventPublisher) {
+    this.kafkaTemplate = kafkaTemplate;
+    this.bulkKafkaTemplate = bulkKafkaTemplate;
+    this.timeProvider = timeProvider;
+    this.meterRegistry = meterRegistry;
+    this.applicationEventPublisher = applicationEventPublisher;
+
+    for (ResourceEventType type : ResourceEventType.values()) {
+      successTimers.put(type, publishTimer(type, "success"));
+      failureTimers.put(type, publishTimer(type, "failure"));
+    }
+    Gauge.builder("resource.events.in.flight", inFlight, AtomicInteger::get)
+        .description("Events handed to the producer and not yet acknowledged")
+        .register(meterRegistry);
+    Gauge.builder("resource.events.send.all.pending", batchPending, AtomicInteger::get)
+        .description("Send-all events not yet acknowledged")
+        .register(meterRegistry);
+  }
+
+  public void publishResourceCreated(EncodedResourceResponse resource) {
+    Long id = resource.response().id();
     ResourceEvent event =
         new ResourceEvent(
             ResourceEventType.CREATED,
-            resource.id(),
+            id,
             resource,
             timeProvider.now(),
             UUID.randomUUID().toString());
-    publishEvent(event, resource.id().toString());
+    publishAfterCommit(event, id.toString());
   }
 
-  public void publishResourceUpdated(ResourceResponse resource) {
+  public void publishResourceUpdated(EncodedResourceResponse resource) {
+    Long id = resource.response().id();
     ResourceEvent event =
         new ResourceEvent(
             ResourceEventType.UPDATED,
-            resource.id(),
+            id,
             resource,
             timeProvider.now(),
             UUID.randomUUID().toString());
-    publishEvent(event, resource.id().toString());
+    publishAfterCommit(event, id.toString());
   }
 
   public void publishResourceDeleted(Long resourceId) {
@@ -62,47 +113,204 @@ public class ResourceEventService {
             null,
             timeProvider.now(),
             UUID.randomUUID().toString());
-    publishEvent(event, resourceId.toString());
+    publishAfterCommit(event, resourceId.toString());
   }
 
-  public void publishBatchNotification(List<ResourceResponse> resources) {
-    resources.forEach(
-        resource -> {
-          ResourceEvent event =
-              new ResourceEvent(
-                  ResourceEventType.BATCH_NOTIFICATION,
-                  resource.id(),
-                  resource,
-                  timeProvider.now(),
-                  UUID.randomUUID().toString());
-          publishEvent(event, resource.id().toString());
-        });
+  /**
+   * Publishes a DELETED event per id, e.g. for a committed bulk delete chunk. The future completes
+   * once every send has been acknowledged or has failed (failures are logged as usual), so callers
+   * can hold back the next batch until the producer has caught up.
+   */
+  public CompletableFuture<Void> publishResourcesDeleted(List<Long> resourceIds) {
+    if (resourceIds.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    long started = System.nanoTime();
+    List<CompletableFuture<?>> sends = new ArrayList<>(resourceIds.size());
+    for (Long id : resourceIds) {
+      ResourceEvent event =
+          new ResourceEvent(
+              ResourceEventType.DELETED,
+              id,
+              null,
+              timeProvider.now(),
+              UUID.randomUUID().toString());
+      try {
+        sends.add(publishEvent(event, id.toString(), bulkKafkaTemplate));
+      } catch (RuntimeException e) {
+        // Already logged and counted as a failure; the rest of the batch is still sent
+        sends.add(CompletableFuture.failedFuture(e));
+      }
+    }
+    return recordBlock(
+        "bulk-delete", sends, resourceIds.getFirst(), resourceIds.getLast(), started);
   }
 
-  private void publishEvent(ResourceEvent event, String key) {
-    log.debug("Publishing event: {} for resource: {}", event.eventType(), event.resourceId());
+  public void publishBatchNotification(List<EncodedResourceResponse> resources) {
+    long started = System.nanoTime();
+    List<CompletableFuture<?>> block = new ArrayList<>(SEND_ALL_BLOCK_SIZE);
+    for (int i = 0; i < resources.size(); i++) {
+      EncodedResourceResponse resource = resources.get(i);
+      Long id = resource.response().id();
+      ResourceEvent event =
+          new ResourceEvent(
+              ResourceEventType.BATCH_NOTIFICATION,
+              id,
+              resource,
+              timeProvider.now(),
+              UUID.randomUUID().toString());
+      block.add(publishEvent(event, id.toString(), bulkKafkaTemplate));
+      if (block.size() == SEND_ALL_BLOCK_SIZE || i == resources.size() - 1) {
+        long firstId = resources.get(i - block.size() + 1).response().id();
+        recordBlock("send-all", block, firstId, id, started);
+        block = new ArrayList<>(SEND_ALL_BLOCK_SIZE);
+        started = System.nanoTime();
+      }
+    }
+  }
+
+  /**
+   * Records a BulkPublish event once every send of the block has completed, on the thread that
+   * completed the last one. The returned future completes after that, whatever the sends' outcome.
+   */
+  private CompletableFuture<Void> recordBlock(
+      String operation, List<CompletableFuture<?>> sends, long firstId, long lastId, long started) {
+    CompletableFuture<?>[] completed =
+        sends.stream()
+            .map(send -> send.handle((result, ex) -> null))
+            .toArray(CompletableFuture[]::new);
+    return CompletableFuture.allOf(completed)
+        .thenRun(
+            () -> {
+              BulkPublishEvent recorded = new BulkPublishEvent();
+              if (!recorded.shouldCommit()) {
+                return;
+              }
+              recorded.operation = operation;
+              recorded.events = sends.size();
+              recorded.failed =
+                  (int) sends.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+              recorded.firstId = firstId;
+              recorded.lastId = lastId;
+              recorded.latency = System.nanoTime() - started;
+              recorded.commit();
+            });
+  }
 
-    CompletableFuture<SendResult<String, ResourceEvent>> future =
-        kafkaTemplate.send(topicName, key, event);
-
-    // Async callback purely for logging; retries/backoff are controlled by producer settings
-    future.whenComplete(
-        (result, ex) -> {
-          if (ex == null) {
-            log.info(
-                "Successfully published event: {} for resource: {} with offset: {}",
-                event.eventType(),
-                event.resourceId(),
-                result.getRecordMetadata().offset());
-          } else {
-            log.error(
-                "Failed to publish event: {} for resource: {} - EventId: {} - Exception: {}",
-                event.eventType(),
-                event.resourceId(),
-                event.eventId(),
-                ex.getMessage());
-            // No manual retry here; allow KafkaTemplate/producer retry config to handle it
+  /**
+   * Sends the event to Kafka once the surrounding transaction commits, so consumers never see a
+   * write that is rolled back (e.g. by a deferred foreign key check at commit). Sent immediately
+   * when there is no transaction.
+   */
+  private void publishAfterCommit(ResourceEvent event, String key) {
+    log.debug("Publishing event: {} for resource: {}", event.eventType(), event.resourceId());
+    // Transactional listeners receive it once the surrounding transaction commits
+    applicationEventPublisher.publishEvent(event);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      send(event, key, kafkaTemplate);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            try {
+              send(event, key, kafkaTemplate);
+            } catch (RuntimeException e) {
+              // Already logged and counted as a failure; the write itself has committed
+            }
           }
         });
   }
+
+  private CompletableFuture<SendResult<String, ResourceEvent>> publishEvent(
+      ResourceEvent event, String key, KafkaTemplate<String, ResourceEvent> template) {
+    log.debug("Publishing event: {} for resource: {}", event.eventType(), event.resourceId());
+    applicationEventPublisher.publishEvent(event);
+    return send(event, key, template);
+  }
+
+  private CompletableFuture<SendResult<String, ResourceEvent>> send(
+      ResourceEvent event, String key, KafkaTemplate<String, ResourceEvent> template) {
+    boolean batch = event.eventType() == ResourceEventType.BATCH_NOTIFICATION;
+    inFlight.incrementAndGet();
+    if (batch) {
+      batchPending.incrementAndGet();
+    }
+    Timer.Sample sample = Timer.start(meterRegistry);
+
+    CompletableFuture<SendResult<String, ResourceEvent>> future;
+    try {
+      future = template.send(topicName, key, event);
+    } catch (RuntimeException e) {
+      onPublishComplete(event, key, sample, batch, null, e);
+      throw e;
+    }
+
+    // Runs on the producer I/O thread: only metrics on success, failures are logged.
+    // No manual retry here; retries/backoff are controlled by producer settings
+    future.whenComplete((result, ex) -> onPublishComplete(event, key, sample, batch, result, ex));
+    return future;
+  }
+
+  private void onPublishComplete(
+      ResourceEvent event,
+      String key,
+      Timer.Sample sample,
+      boolean batch,
+      SendResult<String, ResourceEvent> result,
+      Throwable ex) {
+    inFlight.decrementAndGet();
+    if (batch) {
+      batchPending.decrementAndGet();
+    }
+    long latency = sample.stop((ex == null ? successTimers : failureTimers).get(event.eventType()));
+    record(event, key, latency, result, ex);
+    if (ex != null) {
+      log.error(
+          "Failed to publish event: {} for resource: {} - EventId: {} - Exception: {}",
+          event.eventType(),
+          event.resourceId(),
+          event.eventId(),
+          ex.getMessage());
+    }
+  }
+
+  // Created and committed on the thread that completed the send, with the latency as a field
+  private void record(
+      ResourceEvent event,
+      String key,
+      long latency,
+      SendResult<String, ResourceEvent> result,
+      Throwable ex) {
+    EventPublishEvent recorded = new EventPublishEvent();
+    recorded.latency = latency;
+    if (!recorded.shouldCommit()) {
+      return;
+    }
+    recorded.eventType = event.eventType().name();
+    recorded.key = key;
+    recorded.topic = topicName;
+    recorded.partition = -1;
+    recorded.offset = -1;
+    recorded.serializedSize = -1;
+    RecordMetadata metadata = result == null ? null : result.getRecordMetadata();
+    if (metadata != null) {
+      recorded.partition = metadata.partition();
+      recorded.offset = metadata.offset();
+      recorded.serializedSize =
+          Math.max(metadata.serializedKeySize(), 0) + Math.max(metadata.serializedValueSize(), 0);
+    }
+    recorded.outcome = ex == null ? "success" : ex.getClass().getSimpleName();
+    recorded.commit();
+  }
+
+  private Timer publishTimer(ResourceEventType type, String outcome) {
+    return Timer.builder("resource.events.publish")
+        .description("Time from send until the broker acknowledged or the send failed")
+        .tag("type", type.name())
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
 }
@@ -1,12 +1,18 @@
 package com.kaarelkaasla.enefitresourceservice.services;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.kaarelkaasla.enefitresourceservice.dtos.*;
 import com.kaarelkaasla.enefitresourceservice.entities.Characteristic;
+import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicDocument;
+import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType;
 import com.kaarelkaasla.enefitresourceservice.entities.Location;
 import com.kaarelkaasla.enefitresourceservice.entities.Resource;
 
@@ -16,6 +22,8 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Maps between JPA entities and API DTOs for resources.
  * Ensures location.countryCode aligns with resource.countryCode, patches via Optionals, and clears/rebuilds the characteristics set while keeping associations consistent.
+ * Responses can be built either from the characteristic rows or from the resource's JSONB characteristics document.
+ * For patch retries it snapshots the current values of just the fields a patch sets.
  */
 @Service
 @RequiredArgsConstructor
@@ -24,6 +32,23 @@ public class ResourceMappingService {
   private final TimeProvider timeProvider;
 
   public ResourceResponse toResponse(Resource resource) {
+    return toResponse(
+        resource,
+        resource.getCharacteristics().stream()
+            .map(this::toCharacteristicResponse)
+            .collect(Collectors.toSet()));
+  }
+
+  public ResourceResponse toDocumentResponse(Resource resource) {
+    return toResponse(
+        resource,
+        resource.getCharacteristicsDocument().stream()
+            .map(this::toCharacteristicResponse)
+            .collect(Collectors.toSet()));
+  }
+
+  private ResourceResponse toResponse(
+      Resource resource, Set<CharacteristicResponse> characteristics) {
     return new ResourceResponse(
         resource.getId(),
         resource.getType(),
@@ -32,9 +57,7 @@ public class ResourceMappingService {
         timeProvider.toApplicationOffset(resource.getCreatedAt()),
         timeProvider.toApplicationOffset(resource.getUpdatedAt()),
         toLocationResponse(resource.getLocation()),
-        resource.getCharacteristics().stream()
-            .map(this::toCharacteristicResponse)
-            .collect(Collectors.toSet()));
+        characteristics);
   }
 
   public LocationResponse toLocationResponse(Location location) {
@@ -57,6 +80,29 @@ public class ResourceMappingService {
         characteristic.getValue());
   }
 
+  public CharacteristicResponse toCharacteristicResponse(CharacteristicDocument document) {
+    return new CharacteristicResponse(
+        document.id(), document.code(), document.type(), document.value());
+  }
+
+  /**
+   * Builds a JSONB containment filter matching documents with one characteristic that has all of
+   * the given (non-null) attributes.
+   */
+  public String toCharacteristicFilter(CharacteristicType type, String value, String code) {
+    ObjectNode element = JsonNodeFactory.instance.objectNode();
+    if (type != null) {
+      element.put("type", type.name());
+    }
+    if (value != null) {
+      element.put("value", value);
+    }
+    if (code != null) {
+      element.put("code", code);
+    }
+    return JsonNodeFactory.instance.arrayNode().add(element).toString();
+  }
+
   public Resource toEntity(ResourceRequest request) {
     Resource resource =
         Resource.builder().type(request.type()).countryCode(request.countryCode()).build();
@@ -190,4 +236,42 @@ public class ResourceMappingService {
               characteristics.forEach(resource::addCharacteristic);
             });
   }
+
+  /**
+   * The resource's current values of the fields the patch sets, keyed by field name. Two snapshots
+   * of the same patch are equal unless one of those fields changed in between; the location and
+   * characteristics count as one field each.
+   */
+  public Map<String, Object> patchedFieldValues(Resource resource, PatchResourceRequest request) {
+    Map<String, Object> values = new LinkedHashMap<>();
+    request.type().ifPresent(type -> values.put("type", resource.getType()));
+    request
+        .countryCode()
+        .ifPresent(countryCode -> values.put("countryCode", resource.getCountryCode()));
+    request
+        .location()
+        .ifPresent(
+            location -> {
+              Location current = resource.getLocation();
+              values.put(
+                  "location",
+                  current == null
+                      ? null
+                      : new LocationRequest(
+                          current.getStreetAddress(),
+                          current.getCity(),
+                          current.getPostalCode(),
+                          current.getCountryCode()));
+            });
+    request
+        .characteristics()
+        .ifPresent(
+            characteristics ->
+                values.put(
+                    "characteristics",
+                    resource.getCharacteristics().stream()
+                        .map(c -> new CharacteristicRequest(c.getCode(), c.getType(), c.getValue()))
+                        .collect(Collectors.toSet())));
+    return values;
+  }
 }
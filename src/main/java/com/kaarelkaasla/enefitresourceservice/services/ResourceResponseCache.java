@@ -0,0 +1,146 @@
+package com.kaarelkaasla.enefitresourceservice.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kaarelkaasla.enefitresourceservice.dtos.EncodedResourceResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Encoded ResourceResponse JSON (and gzip) bytes, keyed by resource id and version.
+ * An entry only answers for the version it was encoded from, so readers look up the row's
+ * current version and never get outdated bytes; writes publish their entry once committed.
+ * Bounded by total encoded size (app.response-cache.max-size); Caffeine evicts the least useful entries beyond it.
+ */
+@Component
+public class ResourceResponseCache {
+
+  static final String CACHE_NAME = "resource.responses";
+
+  // Approximate per-entry overhead of the cache node, entry record and array headers
+  private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+  private final ObjectMapper objectMapper;
+  private final int gzipMinBytes;
+  private final Cache<Long, Entry> cache;
+
+  public ResourceResponseCache(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${app.response-cache.max-size:64MB}") DataSize maxSize,
+      @Value("${app.response-cache.gzip-min-size:1KB}") DataSize gzipMinSize) {
+    this.objectMapper = objectMapper;
+    this.gzipMinBytes = (int) gzipMinSize.toBytes();
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes())
+            .weigher((Long id, Entry entry) -> entry.weight())
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  /** Cached bytes for this exact version of the resource, or null. */
+  public Entry get(Long id, long version) {
+    Entry entry = cache.getIfPresent(id);
+    return entry != null && entry.version() == version ? entry : null;
+  }
+
+  /** Encodes the response as UTF-8 JSON without caching it. */
+  public EncodedResourceResponse encode(ResourceResponse response) {
+    try {
+      return new EncodedResourceResponse(response, objectMapper.writeValueAsBytes(response));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Caches the encoding of committed state, e.g. a response just read from the database. Returns
+   * the cached entry.
+   */
+  public Entry put(EncodedResourceResponse encoded) {
+    Entry entry = new Entry(encoded.response().version(), encoded.json(), null);
+    cache.put(encoded.response().id(), entry);
+    return entry;
+  }
+
+  /**
+   * Caches the encoding of a write once its transaction commits, so bytes of a rolled back
+   * version can never be served for the same version number written later.
+   */
+  public void putAfterCommit(EncodedResourceResponse encoded) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      put(encoded);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            put(encoded);
+          }
+        });
+  }
+
+  public void evict(Long id) {
+    cache.invalidate(id);
+  }
+
+  /**
+   * The entry's gzip encoding, compressed and cached on first use; null when the JSON is below
+   * app.response-cache.gzip-min-size and is better sent as is.
+   */
+  public byte[] gzip(Long id, Entry entry) {
+    if (entry.json().length < gzipMinBytes) {
+      return null;
+    }
+    if (entry.gzip() != null) {
+      return entry.gzip();
+    }
+    Entry compressed = new Entry(entry.version(), entry.json(), compress(entry.json()));
+    // Re-weighs the entry; skipped if a newer version replaced it meanwhile
+    cache.asMap().replace(id, entry, compressed);
+    return compressed.gzip();
+  }
+
+  public long size() {
+    return cache.estimatedSize();
+  }
+
+  private static byte[] compress(byte[] json) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(json);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /** A response body ready to write, gzip-compressed or plain JSON. */
+  public record Body(byte[] content, boolean gzip) {}
+
+  /** Encoded bytes of one resource version; gzip is null until first requested. */
+  public record Entry(long version, byte[] json, byte[] gzip) {
+
+    int weight() {
+      return ENTRY_OVERHEAD_BYTES + json.length + (gzip != null ? gzip.length : 0);
+    }
+  }
+}
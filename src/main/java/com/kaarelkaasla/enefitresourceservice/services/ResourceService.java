@@ -1,36 +1,94 @@
 package com.kaarelkaasla.enefitresourceservice.services;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-
-import org.springframework.dao.OptimisticLockingFailureException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.kaarelkaasla.enefitresourceservice.dtos.*;
+import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType;
 import com.kaarelkaasla.enefitresourceservice.entities.Resource;
 import com.kaarelkaasla.enefitresourceservice.exceptions.OptimisticLockingException;
 import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceNotFoundException;
+import com.kaarelkaasla.enefitresourceservice.monitoring.SuccessLogSampler;
 import com.kaarelkaasla.enefitresourceservice.repositories.ResourceRepository;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.annotation.NewSpan;
+import io.micrometer.tracing.annotation.SpanTag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Business logic for CRUD operations and batch notifications for resources.
- * Wraps mutations in transactions, loads with fetch-joins, maps entities/DTOs,
- * and publishes CREATED/UPDATED/DELETED/BATCH events while translating optimistic locking conflicts to domain exceptions.
+ * Wraps mutations in transactions, maps entities/DTOs and publishes CREATED/UPDATED/DELETED/BATCH
+ * events, translating concurrent modification conflicts to domain exceptions.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ResourceService {
 
+  static final String OPERATION_TIMER = "resource.service.operations";
+  static final String CONFLICT_COUNTER = "resource.service.conflicts";
+
+  private static final String CONFLICT_MESSAGE =
+      "Resource was modified by another transaction. Please refresh and try again.";
+
   private final ResourceRepository resourceRepository;
   private final ResourceMappingService mappingService;
   private final ResourceEventService eventService;
   private final TimeProvider timeProvider;
+  private final ResourceResponseCache responseCache;
+  private final TransactionTemplate transactionTemplate;
+  private final ResourceWriteLocks writeLocks;
+  private final BulkWorkExecutor bulkWork;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${app.characteristics.document-reads:false}")
+  private boolean documentReads;
+
+  @Value("${app.characteristics.search-max-results:1000}")
+  private int searchMaxResults;
+
+  @Value("${app.patch-retry.max-attempts:4}")
+  private int patchMaxAttempts;
+
+  @Value("${app.patch-retry.initial-backoff:10ms}")
+  private Duration patchInitialBackoff;
+
+  @Value("${app.patch-retry.max-backoff:200ms}")
+  private Duration patchMaxBackoff;
+
+  @PersistenceContext private EntityManager entityManager;
 
   @Transactional
+  @NewSpan("resource.create")
+  @Timed(
+      value = OPERATION_TIMER,
+      extraTags = {"operation", "create"},
+      histogram = true)
   public ResourceResponse createResource(ResourceRequest request) {
     log.debug(
         "Creating resource with type: {} and country code: {}",
@@ -41,42 +99,192 @@ public class ResourceService {
     Resource savedResource = resourceRepository.save(resource);
 
     ResourceResponse response = mappingService.toResponse(savedResource);
+    EncodedResourceResponse encoded = responseCache.encode(response);
+    responseCache.putAfterCommit(encoded);
 
-    eventService.publishResourceCreated(response);
+    eventService.publishResourceCreated(encoded);
 
-    log.info("Created resource with id: {}", savedResource.getId());
+    log.info(SuccessLogSampler.WRITE, "Created resource id={}", savedResource.getId());
     return response;
   }
 
   @Transactional(readOnly = true)
+  @NewSpan("resource.list")
+  @Timed(
+      value = OPERATION_TIMER,
+      extraTags = {"operation", "list"},
+      histogram = true)
   public List<ResourceResponse> getAllResources() {
     log.debug("Retrieving all resources");
-    List<Resource> resources = resourceRepository.findAllWithDetails();
-    List<ResourceResponse> result = resources.stream().map(mappingService::toResponse).toList();
-    log.info("Retrieved {} resources", result.size());
+    List<ResourceResponse> result = findAllForRead();
+    log.info(SuccessLogSampler.READ, "Listed resources count={}", result.size());
     return result;
   }
 
+  /**
+   * Hands every resource, in id order, to the consumer straight from a database cursor within one
+   * read-only transaction. Characteristics come from the JSONB document so the cursor has one row
+   * per resource, and each entity is detached once mapped so memory stays flat however many rows
+   * there are. The consumer may block (e.g. on client flow control) and holds the connection while
+   * it does; an exception it throws ends the stream.
+   */
   @Transactional(readOnly = true)
-  public ResourceResponse getResourceById(Long id) {
+  @NewSpan("resource.stream")
+  @Timed(
+      value = OPERATION_TIMER,
+      extraTags = {"operation", "stream"},
+      histogram = true)
+  public long streamAllResources(Consumer<ResourceResponse> consumer) {
+    log.debug("Streaming all resources");
+    long count = 0;
+    try (Stream<Resource> resources = resourceRepository.streamAllWithLocation()) {
+      Iterator<Resource> iterator = resources.iterator();
+      while (iterator.hasNext()) {
+        Resource resource = iterator.next();
+        ResourceResponse response = mappingService.toDocumentResponse(resource);
+        entityManager.detach(resource);
+        consumer.accept(response);
+        count++;
+      }
+    }
+    log.info(SuccessLogSampler.READ, "Streamed resources count={}", count);
+    return count;
+  }
+
+  @Transactional(readOnly = true)
+  @NewSpan("resource.get")
+  @Timed(
+      value = OPERATION_TIMER,
+      extraTags = {"operation", "get"},
+      histogram = true)
+  public ResourceResponse getResourceById(@SpanTag("resource.id") Long id) {
     log.debug("Retrieving resource with id: {}", id);
     Resource resource =
-        resourceRepository
-            .findByIdWithDetails(id)
+        (documentReads
+                ? resourceRepository.findByIdWithLocation(id)
+                : resourceRepository.findByIdWithDetails(id))
             .orElseThrow(
                 () -> {
                   log.warn("Resource not found when retrieving id: {}", id);
                   return new ResourceNotFoundException("Resource not found with id: " + id);
                 });
-    ResourceResponse response = mappingService.toResponse(resource);
-    log.info("Retrieved resource with id: {}", id);
+    ResourceResponse response = toReadResponse(resource);
+    log.info(SuccessLogSampler.READ, "Retrieved resource id={}", id);
     return response;
   }
 
-  @Transactional
-  public ResourceResponse updateResource(Long id, ResourceRequest request) {
+  /**
+   * One result per requested id, in request order and repeated for repeated ids, loaded with a
+   * single IN query. Ids without a resource get a not-found result instead of failing the call.
+   */
+  @Transactional(readOnly = true)
+  @NewSpan("resource.multi-get")
+  @Timed(
+      value = OPERATION_TIMER,
+      extraTags = {"operation", "multi-get"},
+      histogram = true)
+  public List<ResourceLookupResult> getResourcesByIds(List<Long> ids) {
+    Set<Long> distinctIds = new LinkedHashSet<>(ids);
+    log.debug("Retrieving {} resources by id", distinctIds.size());
+    List<Resource> resources =
+        documentReads
+            ? resourceRepository.findAllWithLocationByIdIn(distinctIds)
+            : resourceRepository.findAllWithDetailsByIdIn(distinctIds);
+    Map<Long, ResourceResponse> responses = new HashMap<>();
+    for (Resource resource : resources) {
+      responses.put(resource.getId(), toReadResponse(resource));
+    }
+    List<ResourceLookupResult> results = new ArrayList<>(ids.size());
+    for (Long id : ids) {
+      ResourceResponse response = responses.get(id);
+      results.add(
+          response != null
+              ? ResourceLookupResult.found(response)
+              : ResourceLookupResult.notFound(id));
+    }
+    log.info(
+        SuccessLogSampler.READ,
+        "Retrieved resources found={} requested={}",
+        responses.size(),
+        distinctIds.size());
+    return results;
+  }
+
+  /**
+   * The resource's JSON, or its gzip encoding when accepted and worthwhile. Only the version is
+   * read while the cached encoding of that version is current.
+   */
+  @Transactional(readOnly = true)
+  @NewSpan("resource.get")
+  @Timed(
+      value = OPERATION_TIMER,
+      extraTags = {"operation", "get"},
+      histogram = true)
+  public ResourceResponseCache.Body getEncodedResourceById(
+      @SpanTag("resource.id") Long id, boolean gzipAccepted) {
+    log.debug("Retrieving encoded resource with id: {}", id);
+    Long version =
+        resourceRepository
+            .findVersionById(id)
+            .orElseThrow(
+                () -> {
+                  log.warn("Resource not found when retrieving id: {}", id);
+                  return new ResourceNotFoundException("Resource not found with id: " + id);
+                });
+
+    ResourceResponseCache.Entry entry = responseCache.get(id, version);
+    if (entry == null) {
+      log.debug("No cached response for resource id: {} version: {}", id, version);
+      Resource resource =
+          (documentReads
+                  ? resourceRepository.findByIdWithLocation(id)
+                  : resourceRepository.findByIdWithDetails(id))
+              .orElseThrow(
+                  () -> new ResourceNotFoundException("Resource not found with id: " + id));
+      // Keyed by the version just loaded, which a concurrent write may have moved past the one read
+      entry = responseCache.put(responseCache.encode(toReadResponse(resource)));
+    }
+
+    byte[] gzip = gzipAccepted ? responseCache.gzip(id, entry) : null;
+    log.info(SuccessLogSampler.READ, "Retrieved resource id={}", id);
+    return gzip != null
+        ? new ResourceResponseCache.Body(gzip, true)
+        : new ResourceResponseCache.Body(entry.json(), false);
+  }
+
+  @Transactional(readOnly = true)
+  @NewSpan("resource.search")
+  @Timed(
+      value = OPERATION_TIMER,
+      extraTags = {"operation", "search"},
+      histogram = true)
+  public List<ResourceResponse> findByCharacteristic(
+      CharacteristicType type, String value, String code) {
+    String filter = mappingService.toCharacteristicFilter(type, value, code);
+    log.debug("Searching resources by characteristic filter: {}", filter);
+    List<ResourceResponse> result =
+        resourceRepository
+            .findAllWithLocationByCharacteristicsContaining(filter, Limit.of(searchMaxResults))
+            .stream()
+            .map(mappingService::toDocumentResponse)
+            .toList();
+    log.info(
+        SuccessLogSampler.READ, "Searched resources by characteristic matches={}", result.size());
+    return result;
+  }
+
+  @NewSpan("resource.update")
+  @Timed(
+      value = OPERATION_TIMER,
+      extraTags = {"operation", "update"},
+      histogram = true)
+  public ResourceResponse updateResource(@SpanTag("resource.id") Long id, ResourceRequest request) {
     log.debug("Updating resource with id: {}", id);
+    return writeLocks.withLock(
+        id, () -> transactionTemplate.execute(status -> applyUpdate(id, request)));
+  }
 
+  private ResourceResponse applyUpdate(Long id, ResourceRequest request) {
     Resource existingResource =
         resourceRepository
             .findByIdWithDetails(id)
@@ -88,26 +296,77 @@ public class ResourceService {
 
     try {
       mappingService.updateEntity(existingResource, request);
-      Resource updatedResource = resourceRepository.save(existingResource);
+      touch(existingResource);
+      Resource updatedResource = resourceRepository.saveAndFlush(existingResource);
 
       ResourceResponse response = mappingService.toResponse(updatedResource);
+      EncodedResourceResponse encoded = responseCache.encode(response);
+      responseCache.putAfterCommit(encoded);
 
-      eventService.publishResourceUpdated(response);
+      eventService.publishResourceUpdated(encoded);
 
-      log.info("Updated resource with id: {}", id);
+      log.info(SuccessLogSampler.WRITE, "Updated resource id={}", id);
       return response;
 
-    } catch (OptimisticLockingFailureException e) {
+    } catch (ConcurrencyFailureException e) {
+      // Also a serialization failure when a concurrent write moved the row to another partition
+      countConflict("update", "conflict");
       log.warn("Optimistic locking conflict when updating resource with id: {}", id);
-      throw new OptimisticLockingException(
-          "Resource was modified by another transaction. Please refresh and try again.");
+      throw new OptimisticLockingException(CONFLICT_MESSAGE);
     }
   }
 
-  @Transactional
-  public ResourceResponse patchResource(Long id, PatchResourceRequest request) {
+  /**
+   * Applies the patch in its own transaction, retrying when a concurrent write to the same resource
+   * makes the flush fail. A retry re-reads the resource after a jittered backoff and re-applies the
+   * patch only if none of the fields it sets changed since the first read, so writes to disjoint
+   * fields merge; a change to one of them, or running out of attempts, is a 409. Must not be called
+   * within an existing transaction, which the retries would join instead of starting afresh.
+   * Writes to the same resource on this instance are queued first, so the retries are left for
+   * conflicts with other instances.
+   */
+  @NewSpan("resource.patch")
+  @Timed(
+      value = OPERATION_TIMER,
+      extraTags = {"operation", "patch"},
+      histogram = true)
+  public ResourceResponse patchResource(
+      @SpanTag("resource.id") Long id, PatchResourceRequest request) {
     log.debug("Patching resource with id: {}", id);
+    return writeLocks.withLock(id, () -> patchWithRetries(id, request));
+  }
+
+  private ResourceResponse patchWithRetries(Long id, PatchResourceRequest request) {
+    // Fields the patch sets, as first read; later attempts must find them unchanged
+    AtomicReference<Map<String, Object>> base = new AtomicReference<>();
+    for (int attempt = 1; ; attempt++) {
+      try {
+        ResourceResponse response =
+            transactionTemplate.execute(status -> applyPatch(id, request, base));
+        if (attempt > 1) {
+          countConflict("patch", "merged");
+          log.info("Patched resource with id: {} after {} attempts", id, attempt);
+        }
+        return response;
+      } catch (ConcurrencyFailureException e) {
+        if (attempt >= patchMaxAttempts) {
+          countConflict("patch", "exhausted");
+          log.warn(
+              "Optimistic locking conflict when patching resource with id: {}; gave up after {}"
+                  + " attempts",
+              id,
+              attempt);
+          throw new OptimisticLockingException(CONFLICT_MESSAGE);
+        }
+        countConflict("patch", "retried");
+        log.debug("Concurrent modification when patching resource with id: {}; retrying", id);
+        backOff(attempt);
+      }
+    }
+  }
 
+  private ResourceResponse applyPatch(
+      Long id, PatchResourceRequest request, AtomicReference<Map<String, Object>> base) {
     Resource existingResource =
         resourceRepository
             .findByIdWithDetails(id)
@@ -117,54 +376,126 @@ public class ResourceService {
                   return new ResourceNotFoundException("Resource not found with id: " + id);
                 });
 
-    try {
-      mappingService.patchEntity(existingResource, request);
-      Resource updatedResource = resourceRepository.save(existingResource);
+    Map<String, Object> current = mappingService.patchedFieldValues(existingResource, request);
+    if (!base.compareAndSet(null, current) && !Objects.equals(base.get(), current)) {
+      countConflict("patch", "conflict");
+      log.warn(
+          "Optimistic locking conflict when patching resource with id: {}; patched fields {}"
+              + " changed concurrently",
+          id,
+          current.keySet());
+      throw new OptimisticLockingException(CONFLICT_MESSAGE);
+    }
 
-      ResourceResponse response = mappingService.toResponse(updatedResource);
+    mappingService.patchEntity(existingResource, request);
+    touch(existingResource);
+    Resource updatedResource = resourceRepository.saveAndFlush(existingResource);
 
-      eventService.publishResourceUpdated(response);
+    ResourceResponse response = mappingService.toResponse(updatedResource);
+    EncodedResourceResponse encoded = responseCache.encode(response);
+    responseCache.putAfterCommit(encoded);
 
-      log.info("Patched resource with id: {}", id);
-      return response;
+    eventService.publishResourceUpdated(encoded);
 
-    } catch (OptimisticLockingFailureException e) {
-      log.warn("Optimistic locking conflict when patching resource with id: {}", id);
-      throw new OptimisticLockingException(
-          "Resource was modified by another transaction. Please refresh and try again.");
+    log.info(SuccessLogSampler.WRITE, "Patched resource id={}", id);
+    return response;
+  }
+
+  /** Sleeps a random time up to the attempt's exponential backoff (full jitter). */
+  private void backOff(int attempt) {
+    long ceiling =
+        Math.min(patchMaxBackoff.toMillis(), patchInitialBackoff.toMillis() << (attempt - 1));
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OptimisticLockingException(CONFLICT_MESSAGE);
     }
   }
 
-  @Transactional
-  public void deleteResource(Long id) {
+  private void countConflict(String operation, String outcome) {
+    Counter.builder(CONFLICT_COUNTER)
+        .description("Concurrent modifications detected when writing a resource")
+        .tag("operation", operation)
+        .tag("outcome", outcome)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  @NewSpan("resource.delete")
+  @Timed(
+      value = OPERATION_TIMER,
+      extraTags = {"operation", "delete"},
+      histogram = true)
+  public void deleteResource(@SpanTag("resource.id") Long id) {
     log.debug("Deleting resource with id: {}", id);
+    writeLocks.withLock(
+        id, () -> transactionTemplate.executeWithoutResult(status -> applyDelete(id)));
+  }
 
-    if (!resourceRepository.existsById(id)) {
+  private void applyDelete(Long id) {
+    // Deletes without loading; a concurrent delete leaves nothing to remove and reads as not found
+    if (resourceRepository.deleteByIdCascading(id) == 0) {
       log.warn("Resource not found when deleting id: {}", id);
       throw new ResourceNotFoundException("Resource not found with id: " + id);
     }
+    responseCache.evict(id);
 
-    try {
-      resourceRepository.deleteById(id);
-
-      eventService.publishResourceDeleted(id);
+    eventService.publishResourceDeleted(id);
 
-      log.info("Deleted resource with id: {}", id);
+    log.info(SuccessLogSampler.WRITE, "Deleted resource id={}", id);
+  }
 
-    } catch (OptimisticLockingFailureException e) {
-      log.warn("Optimistic locking conflict when deleting resource with id: {}", id);
-      throw new OptimisticLockingException(
-          "Resource was modified by another transaction. Please refresh and try again.");
+  /**
+   * Deletes up to limit resources matching the filter with ids above afterId, lowest ids first, in
+   * one short transaction: one locking select and one delete, with child rows removed by ON DELETE
+   * CASCADE. Returns the deleted ids, empty once nothing matches; DELETED events are left to the
+   * caller so they can be sent after the chunk commits.
+   */
+  @Transactional
+  @NewSpan("resource.bulk-delete-chunk")
+  @Timed(
+      value = OPERATION_TIMER,
+      extraTags = {"operation", "bulk-delete-chunk"},
+      histogram = true)
+  public List<Long> deleteChunk(BulkDeleteRequest filter, long afterId, int limit) {
+    List<Long> ids =
+        resourceRepository.lockIdsForDeletion(
+            filter.type() != null ? filter.type().name() : null,
+            filter.countryCode(),
+            afterId,
+            limit);
+    if (ids.isEmpty()) {
+      return ids;
     }
+    resourceRepository.deleteAllByIdCascading(ids);
+    ids.forEach(responseCache::evict);
+    log.debug(
+        "Deleted chunk of {} resources, ids {}..{}", ids.size(), ids.getFirst(), ids.getLast());
+    return ids;
   }
 
-  @Transactional(readOnly = true)
+  /**
+   * Runs on a BulkWorkExecutor thread, with a bulk pool connection and the bulk Kafka producer; the
+   * caller waits for it. The connection is released before publishing starts.
+   */
+  @NewSpan("resource.send-all")
+  @Timed(
+      value = OPERATION_TIMER,
+      extraTags = {"operation", "send-all"},
+      histogram = true)
   public BatchNotificationResponse notifyAllResources() {
+    return bulkWork.call(this::publishAllResources);
+  }
+
+  private BatchNotificationResponse publishAllResources() {
     log.debug("Starting batch notification for all resources");
 
-    List<Resource> allResources = resourceRepository.findAllWithDetails();
-    List<ResourceResponse> responses =
-        allResources.stream().map(mappingService::toResponse).toList();
+    TransactionTemplate readOnly =
+        new TransactionTemplate(transactionTemplate.getTransactionManager());
+    readOnly.setReadOnly(true);
+    List<EncodedResourceResponse> responses =
+        readOnly.execute(status -> findAllForRead().stream().map(this::encoded).toList());
 
     if (responses.isEmpty()) {
       log.info("No resources found for batch notification; nothing to publish");
@@ -193,4 +524,40 @@ public class ResourceService {
     log.info("Completed batch notification for {} resources", responses.size());
     return response;
   }
+
+  private List<ResourceResponse> findAllForRead() {
+    if (documentReads) {
+      return resourceRepository.findAllWithLocation().stream()
+          .map(mappingService::toDocumentResponse)
+          .toList();
+    }
+    return resourceRepository.findAllWithDetails().stream()
+        .map(mappingService::toResponse)
+        .toList();
+  }
+
+  /**
+   * Marks the resource itself dirty so the flush moves its version (and updatedAt) even when only
+   * its location or characteristics changed; cached responses are keyed by that version.
+   */
+  private void touch(Resource resource) {
+    resource.setUpdatedAt(timeProvider.now());
+  }
+
+  /** Cached encoding of a committed read, encoding and caching it if missing. */
+  private EncodedResourceResponse encoded(ResourceResponse response) {
+    ResourceResponseCache.Entry entry = responseCache.get(response.id(), response.version());
+    if (entry != null) {
+      return new EncodedResourceResponse(response, entry.json());
+    }
+    EncodedResourceResponse encoded = responseCache.encode(response);
+    responseCache.put(encoded);
+    return encoded;
+  }
+
+  private ResourceResponse toReadResponse(Resource resource) {
+    return documentReads
+        ? mappingService.toDocumentResponse(resource)
+        : mappingService.toResponse(resource);
+  }
 }
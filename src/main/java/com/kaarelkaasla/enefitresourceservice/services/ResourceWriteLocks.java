@@ -0,0 +1,122 @@
+package com.kaarelkaasla.enefitresourceservice.services;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceBusyException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serializes writes to one resource within this instance, so two requests for the same id on
+ * different threads queue up instead of racing each other into an optimistic locking conflict.
+ * Every id being written has its own fair lock, whose waiters park in the lock's lock-free FIFO
+ * queue; the lock is dropped as soon as nobody holds or waits for it, so writes to different ids
+ * never contend. Waiting is bounded: a writer that does not get the lock within the timeout fails
+ * with ResourceBusyException instead of holding its request thread. Other instances are not
+ * covered; their writes still meet at the resource's version.
+ */
+@Component
+@Slf4j
+public class ResourceWriteLocks {
+
+  private final boolean enabled;
+  private final Duration timeout;
+  private final Timer waitTimer;
+  private final Counter timeoutCounter;
+
+  private final ConcurrentHashMap<Long, Entry> locks = new ConcurrentHashMap<>();
+
+  public ResourceWriteLocks(
+      @Value("${app.write-serialization.enabled:true}") boolean enabled,
+      @Value("${app.write-serialization.timeout:2s}") Duration timeout,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.timeout = timeout;
+    this.waitTimer =
+        Timer.builder("resource.write.lock.wait")
+            .description("Time writes waited for earlier writes to the same resource")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    this.timeoutCounter =
+        Counter.builder("resource.write.lock.timeouts")
+            .description("Writes rejected with 503 after waiting too long for the resource")
+            .register(meterRegistry);
+  }
+
+  /** Runs the write once every earlier write to the id on this instance has finished. */
+  public <T> T withLock(Long id, Supplier<T> write) {
+    if (!enabled) {
+      return write.get();
+    }
+    Entry entry =
+        locks.compute(id, (key, current) -> (current != null ? current : new Entry()).join());
+    try {
+      lock(id, entry);
+      try {
+        return write.get();
+      } finally {
+        entry.lock.unlock();
+      }
+    } finally {
+      locks.computeIfPresent(id, (key, current) -> current.leave() ? null : current);
+    }
+  }
+
+  public void withLock(Long id, Runnable write) {
+    withLock(
+        id,
+        () -> {
+          write.run();
+          return null;
+        });
+  }
+
+  /** Ids with a lock currently held or waited for. */
+  int size() {
+    return locks.size();
+  }
+
+  private void lock(Long id, Entry entry) {
+    // Timed tryLock, unlike tryLock(), keeps the fair queue order
+    long start = System.nanoTime();
+    boolean acquired = false;
+    try {
+      acquired = entry.lock.tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+    if (!acquired) {
+      timeoutCounter.increment();
+      log.warn("Gave up waiting for earlier writes to resource with id: {}", id);
+      throw new ResourceBusyException(
+          "Resource with id " + id + " is busy with other writes. Please try again.", timeout);
+    }
+  }
+
+  /** A lock and the number of threads holding or waiting for it; users is guarded by the map. */
+  private static final class Entry {
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private int users;
+
+    Entry join() {
+      users++;
+      return this;
+    }
+
+    boolean leave() {
+      return --users == 0;
+    }
+  }
+}
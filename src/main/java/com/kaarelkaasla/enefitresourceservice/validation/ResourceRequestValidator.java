@@ -0,0 +1,272 @@
+package com.kaarelkaasla.enefitresourceservice.validation;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.Validator;
+
+import com.kaarelkaasla.enefitresourceservice.dtos.CharacteristicRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.LocationRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.PatchResourceRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceRequest;
+
+/**
+ * Precompiled single-pass validator for the resource request DTOs.
+ * Applies the same constraints as their Bean Validation annotations and reports the same field
+ * paths, rejected values and messages, using table lookups and character loops instead of
+ * reflection and regexes. Messages are only built for rejected values.
+ */
+public class ResourceRequestValidator implements Validator {
+
+  private static final int MAX_CHARACTERISTIC_CODE_LENGTH = 5;
+  private static final int POSTAL_CODE_LENGTH = 5;
+
+  /** One bit per two-letter code AA..ZZ, set for ISO 3166-1 alpha-2 codes. */
+  private static final long[] ISO_COUNTRY_CODES = new long[(26 * 26 + 63) / 64];
+
+  static {
+    for (String code : Locale.getISOCountries()) {
+      int index = countryCodeIndex(code);
+      ISO_COUNTRY_CODES[index >>> 6] |= 1L << index;
+    }
+  }
+
+  @Override
+  public boolean supports(Class<?> clazz) {
+    return ResourceRequest.class == clazz
+        || PatchResourceRequest.class == clazz
+        || LocationRequest.class == clazz
+        || CharacteristicRequest.class == clazz;
+  }
+
+  @Override
+  public void validate(Object target, Errors errors) {
+    switch (target) {
+      case ResourceRequest request -> validateResource(request, errors);
+      case PatchResourceRequest request -> validatePatch(request, errors);
+      case LocationRequest location -> validateLocation(location, "", errors);
+      case CharacteristicRequest characteristic ->
+          validateCharacteristic(characteristic, "", errors);
+      default -> {}
+    }
+  }
+
+  /** Matches {@code ^[A-Z]{2}$}. */
+  public static boolean isCountryCodeFormat(String value) {
+    return value.length() == 2 && isUpperLetter(value.charAt(0)) && isUpperLetter(value.charAt(1));
+  }
+
+  /** Whether the value is an ISO 3166-1 alpha-2 code as listed by {@link Locale#getISOCountries()}. */
+  public static boolean isIsoCountryCode(String value) {
+    if (!isCountryCodeFormat(value)) {
+      return false;
+    }
+    int index = countryCodeIndex(value);
+    return (ISO_COUNTRY_CODES[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /** Matches {@code ^\d{5}$}: exactly five ASCII digits. */
+  public static boolean isPostalCode(String value) {
+    if (value.length() != POSTAL_CODE_LENGTH) {
+      return false;
+    }
+    for (int i = 0; i < POSTAL_CODE_LENGTH; i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void validateResource(ResourceRequest request, Errors errors) {
+    if (request.type() == null) {
+      reject(errors, "type", null, "NotNull", "Resource type is required");
+    }
+    if (request.countryCode() == null) {
+      reject(errors, "countryCode", null, "NotNull", "Country code is required");
+    } else {
+      validateCountryCode(request.countryCode(), "countryCode", errors);
+    }
+    if (request.location() == null) {
+      reject(errors, "location", null, "NotNull", "Location is required");
+    } else {
+      validateLocation(request.location(), "location.", errors);
+    }
+    validateCharacteristics(request.characteristics(), errors);
+    validateMatchingCountryCodes(
+        request.countryCode(),
+        request.location() != null ? request.location().countryCode() : null,
+        errors);
+  }
+
+  private void validatePatch(PatchResourceRequest request, Errors errors) {
+    String countryCode = orNull(request.countryCode());
+    LocationRequest location = orNull(request.location());
+    if (countryCode != null) {
+      validateCountryCode(countryCode, "countryCode", errors);
+    }
+    if (location != null) {
+      validateLocation(location, "location.", errors);
+    }
+    validateCharacteristics(orNull(request.characteristics()), errors);
+    validateMatchingCountryCodes(
+        countryCode, location != null ? location.countryCode() : null, errors);
+  }
+
+  private void validateLocation(LocationRequest location, String path, Errors errors) {
+    if (isBlank(location.streetAddress())) {
+      reject(
+          errors,
+          path + "streetAddress",
+          location.streetAddress(),
+          "NotBlank",
+          "Street address is required");
+    }
+    if (isBlank(location.city())) {
+      reject(errors, path + "city", location.city(), "NotBlank", "City is required");
+    }
+    String postalCode = location.postalCode();
+    if (isBlank(postalCode)) {
+      reject(errors, path + "postalCode", postalCode, "NotBlank", "Postal code is required");
+    }
+    if (postalCode != null && !isPostalCode(postalCode)) {
+      reject(
+          errors,
+          path + "postalCode",
+          postalCode,
+          "Pattern",
+          ValidationConstants.POSTAL_CODE_MESSAGE);
+      reject(
+          errors,
+          path + "postalCode",
+          postalCode,
+          "ValidPostalCode",
+          "Invalid postal code '" + postalCode + "'. Must be exactly 5 digits (0-9)");
+    }
+    if (location.countryCode() != null) {
+      validateCountryCode(location.countryCode(), path + "countryCode", errors);
+    }
+  }
+
+  private void validateCharacteristics(
+      Collection<CharacteristicRequest> characteristics, Errors errors) {
+    if (characteristics == null) {
+      return;
+    }
+    for (CharacteristicRequest characteristic : characteristics) {
+      if (characteristic != null) {
+        validateCharacteristic(characteristic, "characteristics[].", errors);
+      }
+    }
+  }
+
+  private void validateCharacteristic(
+      CharacteristicRequest characteristic, String path, Errors errors) {
+    String code = characteristic.code();
+    if (isBlank(code)) {
+      reject(errors, path + "code", code, "NotBlank", "Code is required");
+    }
+    if (code != null && code.length() > MAX_CHARACTERISTIC_CODE_LENGTH) {
+      reject(errors, path + "code", code, "Size", "Code must be maximum 5 characters");
+      reject(
+          errors,
+          path + "code",
+          code,
+          "ValidCharacteristicCode",
+          "Invalid characteristic code '"
+              + code
+              + "'. Must be maximum "
+              + MAX_CHARACTERISTIC_CODE_LENGTH
+              + " characters, but was "
+              + code.length());
+    }
+    if (characteristic.type() == null) {
+      reject(errors, path + "type", null, "NotNull", "Type is required");
+    }
+    if (isBlank(characteristic.value())) {
+      reject(errors, path + "value", characteristic.value(), "NotBlank", "Value is required");
+    }
+  }
+
+  private void validateCountryCode(String countryCode, String field, Errors errors) {
+    if (!isCountryCodeFormat(countryCode)) {
+      reject(errors, field, countryCode, "Pattern", ValidationConstants.COUNTRY_CODE_MESSAGE);
+    }
+    if (!isIsoCountryCode(countryCode)) {
+      reject(
+          errors,
+          field,
+          countryCode,
+          "ValidCountryCode",
+          "Invalid country code '" + countryCode + "'. Must be a valid ISO 3166-1 alpha-2 code");
+    }
+  }
+
+  private void validateMatchingCountryCodes(
+      String resourceCountryCode, String locationCountryCode, Errors errors) {
+    if (resourceCountryCode != null
+        && locationCountryCode != null
+        && !resourceCountryCode.equals(locationCountryCode)) {
+      errors.reject(
+          "MatchingCountryCode",
+          "Resource country code '"
+              + resourceCountryCode
+              + "' must match location country code '"
+              + locationCountryCode
+              + "'");
+    }
+  }
+
+  /**
+   * Adds the error directly rather than through {@link Errors#rejectValue}, which would re-read
+   * the value by property path and cannot resolve the unindexed {@code characteristics[]} path.
+   */
+  private static void reject(
+      Errors errors, String field, Object rejectedValue, String code, String message) {
+    if (errors instanceof BindingResult bindingResult) {
+      String nestedField = bindingResult.getNestedPath() + field;
+      bindingResult.addError(
+          new FieldError(
+              bindingResult.getObjectName(),
+              nestedField,
+              rejectedValue,
+              false,
+              bindingResult.resolveMessageCodes(code, field),
+              null,
+              message));
+    } else {
+      errors.rejectValue(field, code, message);
+    }
+  }
+
+  /** Bean Validation's {@code @NotBlank}: null, or nothing left after {@link String#trim()}. */
+  private static boolean isBlank(String value) {
+    if (value == null) {
+      return true;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isUpperLetter(char c) {
+    return c >= 'A' && c <= 'Z';
+  }
+
+  private static int countryCodeIndex(String code) {
+    return (code.charAt(0) - 'A') * 26 + (code.charAt(1) - 'A');
+  }
+
+  /** Jackson maps absent and null fields to {@link Optional#empty()}; null is treated the same. */
+  private static <T> T orNull(Optional<T> value) {
+    return value != null ? value.orElse(null) : null;
+  }
+}
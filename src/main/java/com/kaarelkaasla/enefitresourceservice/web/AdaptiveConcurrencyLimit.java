@@ -0,0 +1,108 @@
+package com.kaarelkaasla.enefitresourceservice.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit that follows the service's latency, after the gradient algorithm of Netflix's
+ * concurrency-limits. The lowest recent response time stands for the latency without queueing;
+ * while recent responses are slower than that by more than the tolerance, the limit shrinks in
+ * proportion (by at most half per sample, smoothed), otherwise it grows by a queue allowance of
+ * sqrt(limit). Samples taken while less than half the limit was in use never change it, so a quiet
+ * period cannot inflate it. Acquiring never waits: at the limit it fails at once.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+  /** Recent latency may exceed the no-queueing latency by this factor before the limit shrinks. */
+  private static final double TOLERANCE = 1.5;
+
+  private static final double SMOOTHING = 0.2;
+
+  /** Samples averaged into the recent latency. */
+  private static final int SHORT_WINDOW = 10;
+
+  /**
+   * Growth of the no-queueing latency per sample, so that it follows a lasting change in the
+   * service's latency (a bigger table, a slower disk) instead of keeping the limit down forever.
+   */
+  private static final double BASELINE_DRIFT = 1e-4;
+
+  private static final int WARMUP_SAMPLES = 10;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile int limit;
+
+  // Guarded by this
+  private double estimatedLimit;
+  private double shortRttNanos;
+  private double noLoadRttNanos;
+  private long samples;
+
+  public AdaptiveConcurrencyLimit(int minLimit, int initialLimit, int maxLimit) {
+    if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+      throw new IllegalArgumentException(
+          "Limits must satisfy 1 <= min <= initial <= max, got %d/%d/%d"
+              .formatted(minLimit, initialLimit, maxLimit));
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = initialLimit;
+    this.estimatedLimit = initialLimit;
+  }
+
+  /**
+   * Takes a slot if fewer than limit requests are in flight, returning the in-flight count
+   * including this one; -1 when the limit is reached.
+   */
+  public int tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) {
+        return -1;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return current + 1;
+      }
+    }
+  }
+
+  /**
+   * Frees a slot taken by tryAcquire. The response time adjusts the limit; pass a negative time
+   * for requests that failed, which are not a sample of the service's latency.
+   */
+  public void release(long rttNanos, int inFlightAtStart) {
+    inFlight.decrementAndGet();
+    if (rttNanos > 0) {
+      onSample(rttNanos, inFlightAtStart);
+    }
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+    samples++;
+    if (samples == 1) {
+      shortRttNanos = rttNanos;
+      noLoadRttNanos = rttNanos;
+    }
+    shortRttNanos += (rttNanos - shortRttNanos) * 2 / (SHORT_WINDOW + 1);
+    // The minimum of an average, so one unusually fast response does not set the baseline
+    noLoadRttNanos = Math.min(shortRttNanos, noLoadRttNanos * (1 + BASELINE_DRIFT));
+    if (samples <= WARMUP_SAMPLES || inFlightAtStart < estimatedLimit / 2) {
+      return;
+    }
+
+    double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * noLoadRttNanos / shortRttNanos));
+    double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+    newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+    estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    limit = (int) estimatedLimit;
+  }
+}
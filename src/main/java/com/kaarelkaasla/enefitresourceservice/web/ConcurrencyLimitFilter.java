@@ -0,0 +1,143 @@
+package com.kaarelkaasla.enefitresourceservice.web;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaarelkaasla.enefitresourceservice.dtos.ErrorResponse;
+import com.kaarelkaasla.enefitresourceservice.services.TimeProvider;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sheds API requests beyond an adaptive concurrency limit with an immediate 503 and Retry-After,
+ * so overload turns into fast rejections instead of requests queueing on Tomcat threads and the
+ * connection pool until they all time out. Reads, writes and send-all each have their own limit
+ * (AdaptiveConcurrencyLimit), so a slow send-all or a write backlog cannot starve reads. The limits,
+ * in-flight counts and rejections are exported per request class.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+  static final String RETRY_AFTER_SECONDS = "1";
+
+  enum RequestClass {
+    READ("read"),
+    WRITE("write"),
+    SEND_ALL("send-all");
+
+    private final String tag;
+
+    RequestClass(String tag) {
+      this.tag = tag;
+    }
+
+    /** POST /lookup only reads; send-all is matched before the method. */
+    static RequestClass of(HttpServletRequest request) {
+      String uri = request.getRequestURI();
+      if (uri.endsWith("/send-all")) {
+        return SEND_ALL;
+      }
+      return switch (request.getMethod()) {
+        case "GET", "HEAD", "OPTIONS" -> READ;
+        case "POST" -> uri.endsWith("/lookup") ? READ : WRITE;
+        default -> WRITE;
+      };
+    }
+  }
+
+  private final Map<RequestClass, AdaptiveConcurrencyLimit> limits;
+  private final Map<RequestClass, Counter> rejections = new EnumMap<>(RequestClass.class);
+  private final ObjectMapper objectMapper;
+  private final TimeProvider timeProvider;
+
+  public ConcurrencyLimitFilter(
+      AdaptiveConcurrencyLimit reads,
+      AdaptiveConcurrencyLimit writes,
+      AdaptiveConcurrencyLimit sendAll,
+      ObjectMapper objectMapper,
+      TimeProvider timeProvider,
+      MeterRegistry meterRegistry) {
+    this.limits = new EnumMap<>(RequestClass.class);
+    limits.put(RequestClass.READ, reads);
+    limits.put(RequestClass.WRITE, writes);
+    limits.put(RequestClass.SEND_ALL, sendAll);
+    this.objectMapper = objectMapper;
+    this.timeProvider = timeProvider;
+    limits.forEach(
+        (requestClass, limit) -> {
+          Gauge.builder("api.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+              .description("Current adaptive limit on concurrent API requests")
+              .tag("class", requestClass.tag)
+              .register(meterRegistry);
+          Gauge.builder("api.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+              .description("API requests currently admitted by the concurrency limit")
+              .tag("class", requestClass.tag)
+              .register(meterRegistry);
+          rejections.put(
+              requestClass,
+              Counter.builder("api.concurrency.rejected")
+                  .description("API requests shed with 503 at the concurrency limit")
+                  .tag("class", requestClass.tag)
+                  .register(meterRegistry));
+        });
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    RequestClass requestClass = RequestClass.of(request);
+    AdaptiveConcurrencyLimit limit = limits.get(requestClass);
+    int inFlight = limit.tryAcquire();
+    if (inFlight < 0) {
+      rejections.get(requestClass).increment();
+      log.debug(
+          "Shed {} {} at the {} concurrency limit of {}",
+          request.getMethod(),
+          request.getRequestURI(),
+          requestClass.tag,
+          limit.getLimit());
+      reject(request, response);
+      return;
+    }
+
+    long start = System.nanoTime();
+    boolean completed = false;
+    try {
+      filterChain.doFilter(request, response);
+      completed = true;
+    } finally {
+      limit.release(completed ? System.nanoTime() - start : -1, inFlight);
+    }
+  }
+
+  private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    ErrorResponse error =
+        new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Service Unavailable",
+            "Too many concurrent requests. Please try again.",
+            request.getRequestURI(),
+            timeProvider.now().toLocalDateTime(),
+            null);
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), error);
+  }
+}
@@ -0,0 +1,95 @@
+package com.kaarelkaasla.enefitresourceservice.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.github.luben.zstd.RecyclingBufferPool;
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+
+/**
+ * Response content codings the API can produce, and Accept-Encoding negotiation between them.
+ * The coding with the highest quality value wins; ties go to zstd, then gzip. A "*" entry gives
+ * its quality to every coding not listed explicitly, and q=0 rules a coding out.
+ */
+public enum ContentCoding {
+  ZSTD("zstd"),
+  GZIP("gzip"),
+  IDENTITY("identity");
+
+  private final String token;
+
+  ContentCoding(String token) {
+    this.token = token;
+  }
+
+  /** The Content-Encoding header value. */
+  public String token() {
+    return token;
+  }
+
+  /**
+   * An encoder writing this coding to the target; closing it finishes the encoding and closes the
+   * target. The zstd stream borrows its buffers from a shared pool and frees its native context on
+   * close, which makes creating one per response several times cheaper than ZstdOutputStream.
+   */
+  public OutputStream encoder(OutputStream target, int zstdLevel) throws IOException {
+    return switch (this) {
+      case ZSTD ->
+          new ZstdOutputStreamNoFinalizer(target, RecyclingBufferPool.INSTANCE).setLevel(zstdLevel);
+      case GZIP -> new GZIPOutputStream(target, 8192, true);
+      case IDENTITY -> target;
+    };
+  }
+
+  /** The preferred coding for an Accept-Encoding header; identity when none is acceptable. */
+  public static ContentCoding negotiate(String acceptEncoding) {
+    ContentCoding best = IDENTITY;
+    double bestQuality = 0;
+    for (ContentCoding coding : new ContentCoding[] {ZSTD, GZIP}) {
+      double quality = quality(acceptEncoding, coding.token);
+      if (quality > bestQuality) {
+        best = coding;
+        bestQuality = quality;
+      }
+    }
+    return best;
+  }
+
+  /** Whether the header lists the coding (or "*") with a non-zero quality. */
+  public static boolean accepts(String acceptEncoding, ContentCoding coding) {
+    return quality(acceptEncoding, coding.token) > 0;
+  }
+
+  private static double quality(String acceptEncoding, String token) {
+    if (acceptEncoding == null) {
+      return 0;
+    }
+    double wildcard = 0;
+    for (String entry : acceptEncoding.split(",")) {
+      String[] parts = entry.split(";");
+      String name = parts[0].strip();
+      if (name.equalsIgnoreCase(token)) {
+        return parseQuality(parts);
+      }
+      if (name.equals("*")) {
+        wildcard = parseQuality(parts);
+      }
+    }
+    return wildcard;
+  }
+
+  private static double parseQuality(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String parameter = parts[i].strip();
+      if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2).strip());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+}
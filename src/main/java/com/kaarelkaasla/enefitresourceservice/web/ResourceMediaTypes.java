@@ -0,0 +1,56 @@
+package com.kaarelkaasla.enefitresourceservice.web;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+/** Media types the resource API produces besides JSON. */
+public final class ResourceMediaTypes {
+
+  public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+  public static final MediaType APPLICATION_SMILE =
+      MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+  public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+  public static final MediaType APPLICATION_PROTOBUF =
+      MediaType.parseMediaType(APPLICATION_PROTOBUF_VALUE);
+
+  private static final List<MediaType> PRODUCIBLE =
+      List.of(
+          MediaType.APPLICATION_JSON,
+          MediaType.APPLICATION_CBOR,
+          APPLICATION_SMILE,
+          APPLICATION_PROTOBUF);
+
+  private ResourceMediaTypes() {}
+
+  /**
+   * Whether JSON is the best match for an Accept header among the producible types: true without
+   * a header, for wildcards, and when JSON has the highest quality.
+   */
+  public static boolean prefersJson(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return true;
+    }
+    List<MediaType> accepted;
+    try {
+      accepted = MediaType.parseMediaTypes(accept);
+      // Most specific first, then (stable) highest quality first
+      MimeTypeUtils.sortBySpecificity(accepted);
+    } catch (IllegalArgumentException e) {
+      // Left to the regular negotiation, which rejects it
+      return false;
+    }
+    accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+    for (MediaType mediaType : accepted) {
+      for (MediaType producible : PRODUCIBLE) {
+        if (mediaType.getQualityValue() > 0 && mediaType.isCompatibleWith(producible)) {
+          return producible.equals(MediaType.APPLICATION_JSON);
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,108 @@
+package com.kaarelkaasla.enefitresourceservice.web;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.google.protobuf.Message;
+import com.kaarelkaasla.enefitresourceservice.dtos.ErrorResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceLookupResult;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceResponse;
+import com.kaarelkaasla.enefitresourceservice.proto.ResourceProtoMapper;
+
+/**
+ * Writes ResourceResponse bodies, and collections of them, as the Resource and ResourceList
+ * messages of resources.proto for Accept: application/x-protobuf; multi-get results become a
+ * ResourceLookupResultList and error bodies Error messages. Write-only: requests stay JSON.
+ */
+public class ResourceProtobufHttpMessageConverter
+    extends AbstractGenericHttpMessageConverter<Object> {
+
+  public ResourceProtobufHttpMessageConverter() {
+    super(ResourceMediaTypes.APPLICATION_PROTOBUF);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return ResourceResponse.class.isAssignableFrom(clazz)
+        || ErrorResponse.class.isAssignableFrom(clazz)
+        || Collection.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected boolean canRead(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+    if (!canWrite(mediaType)) {
+      return false;
+    }
+    ResolvableType resolved =
+        type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+    Class<?> raw = resolved.resolve(clazz);
+    if (raw == null) {
+      return false;
+    }
+    if (ResourceResponse.class.isAssignableFrom(raw) || ErrorResponse.class.isAssignableFrom(raw)) {
+      return true;
+    }
+    if (!Collection.class.isAssignableFrom(raw)) {
+      return false;
+    }
+    Class<?> element = resolved.asCollection().resolveGeneric(0);
+    return ResourceResponse.class.equals(element) || ResourceLookupResult.class.equals(element);
+  }
+
+  @Override
+  protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage)
+      throws IOException {
+    Message message =
+        switch (body) {
+          case ResourceResponse response -> ResourceProtoMapper.toProto(response);
+          case ErrorResponse error -> ResourceProtoMapper.toProto(error);
+          default ->
+              isLookupResults(type)
+                  ? ResourceProtoMapper.toLookupList(toCollection(body))
+                  : ResourceProtoMapper.toProto(toCollection(body));
+        };
+    // Encodes through a small buffer straight into the response stream
+    message.writeTo(outputMessage.getBody());
+  }
+
+  @Override
+  protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException(
+        "Protobuf request bodies are not supported", inputMessage);
+  }
+
+  @Override
+  public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException(
+        "Protobuf request bodies are not supported", inputMessage);
+  }
+
+  private static boolean isLookupResults(Type type) {
+    return type != null
+        && ResourceLookupResult.class.equals(
+            ResolvableType.forType(type).asCollection().resolveGeneric(0));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Collection<T> toCollection(Object body) {
+    return (Collection<T>) body;
+  }
+}
@@ -0,0 +1,233 @@
+package com.kaarelkaasla.enefitresourceservice.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Compresses API responses with the coding negotiated from Accept-Encoding (zstd or gzip). The
+ * encoder wraps the servlet output stream, so the body is compressed as it is written and never
+ * buffered whole. The decision is made when the body is first written: responses that already
+ * carry a Content-Encoding (such as cached gzip bodies), have no body, use another content type,
+ * or declare a Content-Length below the minimum size are passed through unchanged.
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+  private static final Set<String> COMPRESSIBLE_TYPES =
+      Set.of(
+          MediaType.APPLICATION_JSON_VALUE,
+          MediaType.APPLICATION_PROBLEM_JSON_VALUE,
+          MediaType.APPLICATION_CBOR_VALUE,
+          ResourceMediaTypes.APPLICATION_SMILE_VALUE,
+          ResourceMediaTypes.APPLICATION_PROTOBUF_VALUE);
+
+  private final long minSize;
+  private final int zstdLevel;
+
+  public ResponseCompressionFilter(long minSize, int zstdLevel) {
+    this.minSize = minSize;
+    this.zstdLevel = zstdLevel;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    ContentCoding coding = ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (coding == ContentCoding.IDENTITY || "HEAD".equals(request.getMethod())) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    CompressingResponse compressing = new CompressingResponse(response, coding);
+    try {
+      filterChain.doFilter(request, compressing);
+    } finally {
+      compressing.finish();
+    }
+  }
+
+  private boolean isCompressible(HttpServletResponse response, long contentLength) {
+    if (response.getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+      return false;
+    }
+    int status = response.getStatus();
+    if (status == HttpServletResponse.SC_NO_CONTENT
+        || status == HttpServletResponse.SC_NOT_MODIFIED) {
+      return false;
+    }
+    if (contentLength >= 0 && contentLength < minSize) {
+      return false;
+    }
+    String contentType = response.getContentType();
+    if (contentType == null) {
+      return false;
+    }
+    int parameters = contentType.indexOf(';');
+    String type = (parameters >= 0 ? contentType.substring(0, parameters) : contentType).strip();
+    return COMPRESSIBLE_TYPES.contains(type.toLowerCase());
+  }
+
+  /**
+   * Holds back Content-Length until the body starts, then either compresses (dropping the
+   * length) or passes the stream and the held length through.
+   */
+  private final class CompressingResponse extends HttpServletResponseWrapper {
+
+    private final ContentCoding coding;
+    private long contentLength = -1;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private OutputStream encoder;
+
+    CompressingResponse(HttpServletResponse response, ContentCoding coding) {
+      super(response);
+      this.coding = coding;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+      setContentLengthLong(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+      if (outputStream != null && encoder == null) {
+        super.setContentLengthLong(length);
+      } else if (outputStream == null) {
+        contentLength = length;
+      }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+      if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+        setContentLengthLong(value != null ? Long.parseLong(value) : -1);
+      } else {
+        super.setHeader(name, value);
+      }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+      if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+        setContentLengthLong(value != null ? Long.parseLong(value) : -1);
+      } else {
+        super.addHeader(name, value);
+      }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (outputStream == null) {
+        outputStream = start();
+      }
+      return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      if (writer == null) {
+        String encoding = getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset));
+      }
+      return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      if (writer != null) {
+        writer.flush();
+      } else if (outputStream != null) {
+        outputStream.flush();
+      }
+      super.flushBuffer();
+    }
+
+    private ServletOutputStream start() throws IOException {
+      HttpServletResponse response = (HttpServletResponse) getResponse();
+      if (!isCompressible(response, contentLength)) {
+        if (contentLength >= 0) {
+          response.setContentLengthLong(contentLength);
+        }
+        return response.getOutputStream();
+      }
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, coding.token());
+      ServletOutputStream target = response.getOutputStream();
+      encoder = coding.encoder(target, zstdLevel);
+      return new EncodingOutputStream(target, encoder);
+    }
+
+    /** Completes the compressed stream once the handler has written everything. */
+    void finish() throws IOException {
+      if (writer != null) {
+        writer.flush();
+      }
+      if (encoder != null) {
+        encoder.close();
+      } else if (outputStream == null && contentLength >= 0) {
+        // No body was written; keep a length the handler declared (e.g. 0)
+        ((HttpServletResponse) getResponse()).setContentLengthLong(contentLength);
+      }
+    }
+  }
+
+  /** Servlet stream facade over the encoder; close only finishes the encoding in finish(). */
+  private static final class EncodingOutputStream extends ServletOutputStream {
+
+    private final ServletOutputStream target;
+    private final OutputStream encoder;
+
+    EncodingOutputStream(ServletOutputStream target, OutputStream encoder) {
+      this.target = target;
+      this.encoder = encoder;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      encoder.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      encoder.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      encoder.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      encoder.flush();
+    }
+
+    @Override
+    public boolean isReady() {
+      return target.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      target.setWriteListener(writeListener);
+    }
+  }
+}
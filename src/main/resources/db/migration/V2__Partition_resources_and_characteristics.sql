@@ -0,0 +1,127 @@
+-- Declarative partitioning:
+--   resources       LIST-partitioned by country_code (one partition per known country + DEFAULT)
+--   characteristics HASH-partitioned by resource_id (8 partitions)
+--
+-- Requires PostgreSQL 15+: a country_code change moves the resource row to another partition,
+-- and only 15+ applies that move to referencing rows as ON UPDATE CASCADE instead of a delete.
+--
+-- Unique constraints on a partitioned table must include the partition key, so the resource key
+-- becomes (id, country_code). Child tables reference that pair; ids stay globally unique because
+-- they are still drawn from resources_id_seq / characteristics_id_seq.
+
+-- Detach children and keep the id sequences alive while the old tables are dropped
+ALTER TABLE locations DROP CONSTRAINT fk_location_resource;
+ALTER TABLE characteristics DROP CONSTRAINT fk_characteristic_resource;
+
+ALTER SEQUENCE resources_id_seq OWNED BY NONE;
+ALTER SEQUENCE characteristics_id_seq OWNED BY NONE;
+
+-- Location country is aligned by the application; make it so before it becomes part of the FK
+UPDATE locations l
+SET country_code = r.country_code
+FROM resources r
+WHERE l.resource_id = r.id
+  AND l.country_code <> r.country_code;
+
+-- resources
+CREATE TABLE resources_partitioned (
+    id BIGINT NOT NULL DEFAULT nextval('resources_id_seq'),
+    type VARCHAR(20) NOT NULL,
+    country_code VARCHAR(2) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT chk_resource_type CHECK (type IN ('METERING_POINT', 'CONNECTION_POINT')),
+    CONSTRAINT chk_resource_country_code CHECK (country_code ~ '^[A-Z]{2}$')
+) PARTITION BY LIST (country_code);
+
+-- One partition per home market and per country already in use; other countries land in the
+-- DEFAULT partition (see README, "Partitioning")
+DO $$
+DECLARE
+    cc TEXT;
+BEGIN
+    FOR cc IN
+        SELECT country_code FROM resources
+        UNION
+        SELECT unnest(ARRAY['EE', 'FI', 'LT', 'LV', 'PL'])
+        ORDER BY 1
+    LOOP
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF resources_partitioned FOR VALUES IN (%L)',
+            'resources_' || lower(cc), cc);
+    END LOOP;
+END $$;
+
+CREATE TABLE resources_default PARTITION OF resources_partitioned DEFAULT;
+
+INSERT INTO resources_partitioned (id, type, country_code, version, created_at, updated_at)
+SELECT id, type, country_code, version, created_at, updated_at FROM resources;
+
+-- characteristics
+CREATE TABLE characteristics_partitioned (
+    id BIGINT NOT NULL DEFAULT nextval('characteristics_id_seq'),
+    resource_id BIGINT NOT NULL,
+    resource_country_code VARCHAR(2) NOT NULL,
+    code VARCHAR(5) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    char_value VARCHAR(255) NOT NULL,
+
+    CONSTRAINT chk_characteristic_type
+        CHECK (type IN ('CONSUMPTION_TYPE', 'CHARGING_POINT', 'CONNECTION_POINT_STATUS'))
+) PARTITION BY HASH (resource_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..7 LOOP
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF characteristics_partitioned'
+                || ' FOR VALUES WITH (MODULUS 8, REMAINDER %s)',
+            'characteristics_p' || i, i);
+    END LOOP;
+END $$;
+
+INSERT INTO characteristics_partitioned
+    (id, resource_id, resource_country_code, code, type, char_value)
+SELECT c.id, c.resource_id, r.country_code, c.code, c.type, c.char_value
+FROM characteristics c
+JOIN resources r ON r.id = c.resource_id;
+
+-- Swap
+DROP TABLE characteristics;
+DROP TABLE resources;
+
+ALTER TABLE resources_partitioned RENAME TO resources;
+ALTER TABLE characteristics_partitioned RENAME TO characteristics;
+
+ALTER SEQUENCE resources_id_seq OWNED BY resources.id;
+ALTER SEQUENCE characteristics_id_seq OWNED BY characteristics.id;
+
+-- Keys and indexes (created after the copy; each is built per partition)
+ALTER TABLE resources ADD CONSTRAINT resources_pkey PRIMARY KEY (id, country_code);
+CREATE INDEX idx_resource_country_code ON resources(country_code);
+CREATE INDEX idx_resource_type ON resources(type);
+
+ALTER TABLE characteristics ADD CONSTRAINT characteristics_pkey PRIMARY KEY (id, resource_id);
+CREATE INDEX idx_characteristic_code ON characteristics(code);
+CREATE INDEX idx_characteristic_type ON characteristics(type);
+CREATE INDEX idx_characteristic_resource_id ON characteristics(resource_id);
+
+-- Child checks are deferred to commit because Hibernate may flush a child row before the parent
+-- row it points to has moved to its new country; the cascades themselves still run immediately.
+ALTER TABLE locations
+    ADD CONSTRAINT fk_location_resource
+        FOREIGN KEY (resource_id, country_code)
+        REFERENCES resources(id, country_code)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE
+        DEFERRABLE INITIALLY DEFERRED;
+
+ALTER TABLE characteristics
+    ADD CONSTRAINT fk_characteristic_resource
+        FOREIGN KEY (resource_id, resource_country_code)
+        REFERENCES resources(id, country_code)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE
+        DEFERRABLE INITIALLY DEFERRED;
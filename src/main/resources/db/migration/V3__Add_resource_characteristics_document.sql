@@ -0,0 +1,52 @@
+-- Denormalised characteristics document on resources.
+--
+-- resources.characteristics holds the resource's characteristics as a JSONB array of
+-- {"id", "code", "type", "value"} objects ordered by id. A trigger on the characteristics table
+-- rewrites it in the same transaction as every insert, delete and update of a characteristic row,
+-- so it can never drift from the rows and needs no write path of its own in the application.
+-- The GIN index serves containment queries such as
+--   characteristics @> '[{"type": "CHARGING_POINT", "value": "CCS"}]'
+
+ALTER TABLE resources ADD COLUMN characteristics JSONB NOT NULL DEFAULT '[]'::jsonb;
+
+CREATE FUNCTION resource_characteristics_document(p_resource_id BIGINT) RETURNS JSONB
+    LANGUAGE sql STABLE AS $$
+    SELECT coalesce(
+        jsonb_agg(
+            jsonb_build_object('id', c.id, 'code', c.code, 'type', c.type, 'value', c.char_value)
+            ORDER BY c.id),
+        '[]'::jsonb)
+    FROM characteristics c
+    WHERE c.resource_id = p_resource_id
+$$;
+
+-- Matches on id only: Hibernate may insert a characteristic for a new country before it flushes
+-- the resource row's move to that country's partition.
+CREATE FUNCTION sync_resource_characteristics_document() RETURNS TRIGGER
+    LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND OLD.resource_id <> NEW.resource_id) THEN
+        UPDATE resources
+        SET characteristics = resource_characteristics_document(OLD.resource_id)
+        WHERE id = OLD.resource_id;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        UPDATE resources
+        SET characteristics = resource_characteristics_document(NEW.resource_id)
+        WHERE id = NEW.resource_id;
+    END IF;
+
+    RETURN NULL;
+END $$;
+
+UPDATE resources r SET characteristics = resource_characteristics_document(r.id);
+
+-- resource_country_code is left out on purpose: it only changes through the ON UPDATE CASCADE
+-- of a resource's own country change, which does not alter the document.
+CREATE TRIGGER trg_characteristics_document
+    AFTER INSERT OR DELETE OR UPDATE OF resource_id, code, type, char_value ON characteristics
+    FOR EACH ROW
+    EXECUTE FUNCTION sync_resource_characteristics_document();
+
+CREATE INDEX idx_resource_characteristics ON resources USING GIN (characteristics jsonb_path_ops);
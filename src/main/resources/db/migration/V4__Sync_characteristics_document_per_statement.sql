@@ -0,0 +1,72 @@
+-- Statement-level maintenance of resources.characteristics (see V3).
+--
+-- The V3 row trigger rebuilt a resource's whole document once per changed characteristic row, so
+-- writing N characteristics of one resource cost O(N^2), and a cascading delete still rebuilt the
+-- document of the resource being deleted once per row. These triggers run once per statement,
+-- collect the affected resource ids from the transition tables and rebuild each document once.
+-- Resources that no longer exist (the parent of a cascading or bulk delete) match no row and are
+-- skipped without building their document.
+--
+-- A trigger with transition tables takes a single event and no column list, so there is one per
+-- event, and the UPDATE one compares old and new rows itself: the ON UPDATE CASCADE of a resource's
+-- country change only rewrites resource_country_code, which does not alter the document.
+
+DROP TRIGGER trg_characteristics_document ON characteristics;
+DROP FUNCTION sync_resource_characteristics_document();
+
+CREATE FUNCTION refresh_resource_characteristics_documents(p_resource_ids BIGINT[]) RETURNS VOID
+    LANGUAGE sql AS $$
+    UPDATE resources r
+    SET characteristics = resource_characteristics_document(r.id)
+    WHERE r.id = ANY (p_resource_ids)
+$$;
+
+CREATE FUNCTION sync_inserted_characteristics_documents() RETURNS TRIGGER
+    LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM refresh_resource_characteristics_documents(
+        ARRAY(SELECT DISTINCT resource_id FROM new_characteristics));
+    RETURN NULL;
+END $$;
+
+CREATE FUNCTION sync_deleted_characteristics_documents() RETURNS TRIGGER
+    LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM refresh_resource_characteristics_documents(
+        ARRAY(SELECT DISTINCT resource_id FROM old_characteristics));
+    RETURN NULL;
+END $$;
+
+-- Matches old and new rows on id only: a row whose resource_id changed is hash-moved to another
+-- partition and shows up in both tables of the statement on the partitioned parent.
+CREATE FUNCTION sync_updated_characteristics_documents() RETURNS TRIGGER
+    LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM refresh_resource_characteristics_documents(
+        ARRAY(
+            SELECT DISTINCT changed.resource_id
+            FROM old_characteristics o
+            JOIN new_characteristics n ON n.id = o.id
+            CROSS JOIN LATERAL (VALUES (o.resource_id), (n.resource_id)) AS changed(resource_id)
+            WHERE (o.resource_id, o.code, o.type, o.char_value)
+                IS DISTINCT FROM (n.resource_id, n.code, n.type, n.char_value)));
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER trg_characteristics_document_insert
+    AFTER INSERT ON characteristics
+    REFERENCING NEW TABLE AS new_characteristics
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION sync_inserted_characteristics_documents();
+
+CREATE TRIGGER trg_characteristics_document_delete
+    AFTER DELETE ON characteristics
+    REFERENCING OLD TABLE AS old_characteristics
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION sync_deleted_characteristics_documents();
+
+CREATE TRIGGER trg_characteristics_document_update
+    AFTER UPDATE ON characteristics
+    REFERENCING OLD TABLE AS old_characteristics NEW TABLE AS new_characteristics
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION sync_updated_characteristics_documents();
@@ -0,0 +1,248 @@
+package com.kaarelkaasla.enefitresourceservice.smoketest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Starts the packaged service as a separate process (the native binary by default, or any command
+ * given as smoketest.command, e.g. "java -jar target/app.jar"), waits for /actuator/health and runs
+ * the happy-path CRUD scenario against it. Reports the time to the first healthy response, the
+ * startup time Spring logs, the resident set size after startup and its peak at the end. Postgres
+ * and Kafka are expected at the addresses in application.yml unless smoketest.app-args points
+ * elsewhere. The process output goes to app.log and the results to summary.json in
+ * smoketest.output; the exit status is non-zero if any step fails.
+ */
+public final class NativeSmokeTest {
+
+  private static final String BASE_PATH = "/api/v1/resources";
+  private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+  private static final Pattern STARTED =
+      Pattern.compile("Started \\S+ in ([0-9.]+) seconds \\(process running for ([0-9.]+)\\)");
+
+  private static final String RESOURCE =
+      """
+      {
+        "type": "METERING_POINT",
+        "countryCode": "EE",
+        "location": {
+          "streetAddress": "Smoke test street 1",
+          "city": "Tallinn",
+          "postalCode": "10115",
+          "countryCode": "EE"
+        },
+        "characteristics": [
+          {"code": "CT01", "type": "CONSUMPTION_TYPE", "value": "RESIDENTIAL"}
+        ]
+      }
+      """;
+  private static final String PATCH =
+      """
+      {"characteristics": [{"code": "CS01", "type": "CONNECTION_POINT_STATUS", "value": "ACTIVE"}]}
+      """;
+
+  private final HttpClient client =
+      HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final List<Map<String, Object>> steps = new ArrayList<>();
+  private URI baseUri;
+  private boolean failed;
+
+  public static void main(String[] args) throws Exception {
+    List<String> command =
+        split(System.getProperty("smoketest.command", "target/enefitresourceservice"));
+    List<String> appArgs = split(System.getProperty("smoketest.app-args", ""));
+    Path output = Path.of(System.getProperty("smoketest.output", "target/smoketest"));
+    System.exit(new NativeSmokeTest().run(command, appArgs, output) ? 0 : 1);
+  }
+
+  boolean run(List<String> command, List<String> appArgs, Path output) throws Exception {
+    Files.createDirectories(output);
+    Path log = output.resolve("app.log");
+    int port = freePort();
+    baseUri = URI.create("http://localhost:" + port);
+
+    List<String> commandLine = new ArrayList<>(command);
+    commandLine.add("--server.port=" + port);
+    commandLine.add("--app.grpc.port=" + freePort());
+    commandLine.addAll(appArgs);
+    System.out.printf("Starting %s%n", String.join(" ", commandLine));
+
+    long launched = System.nanoTime();
+    Process process =
+        new ProcessBuilder(commandLine)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("command", String.join(" ", command));
+    try {
+      Double healthyAfter = awaitHealthy(process, launched);
+      result.put("healthyAfterMs", healthyAfter);
+      Matcher started = STARTED.matcher(Files.readString(log));
+      if (started.find()) {
+        result.put("startedInMs", Double.parseDouble(started.group(1)) * 1000);
+        result.put("processRunningForMs", Double.parseDouble(started.group(2)) * 1000);
+      }
+      result.put("rssAfterStartupKb", procStatus(process, "VmRSS"));
+      if (healthyAfter != null) {
+        crud();
+      } else {
+        failed = true;
+      }
+      result.put("peakRssKb", procStatus(process, "VmHWM"));
+    } finally {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    }
+    result.put("steps", steps);
+    result.put("passed", !failed);
+
+    System.out.printf(
+        "Healthy after %s ms (Spring: started in %s ms); RSS %s kB after startup, peak %s kB%n",
+        result.get("healthyAfterMs"),
+        result.get("startedInMs"),
+        result.get("rssAfterStartupKb"),
+        result.get("peakRssKb"));
+    for (Map<String, Object> step : steps) {
+      System.out.printf(
+          "%-8s %-32s %4s (expected %s) %8.2f ms%n",
+          step.get("method"),
+          step.get("path"),
+          step.get("status"),
+          step.get("expected"),
+          (Double) step.get("ms"));
+    }
+    objectMapper
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .writeValue(output.resolve("summary.json").toFile(), result);
+    System.out.printf(
+        "%s; results written to %s%n", failed ? "FAILED" : "Passed", output.toAbsolutePath());
+    return !failed;
+  }
+
+  /** Milliseconds from launch to the first 200 from /actuator/health, or null if it never came. */
+  private Double awaitHealthy(Process process, long launched) throws InterruptedException {
+    HttpRequest health =
+        HttpRequest.newBuilder(baseUri.resolve("/actuator/health"))
+            .timeout(REQUEST_TIMEOUT)
+            .build();
+    long deadline = launched + STARTUP_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline && process.isAlive()) {
+      try {
+        if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+          return (System.nanoTime() - launched) / 1e6;
+        }
+      } catch (ConnectException e) {
+        // not listening yet
+      } catch (IOException e) {
+        System.err.println("Health check failed: " + e);
+      }
+      Thread.sleep(20);
+    }
+    System.err.println(
+        process.isAlive()
+            ? "Service not healthy within " + STARTUP_TIMEOUT
+            : "Service exited with status " + process.exitValue());
+    return null;
+  }
+
+  private void crud() throws IOException, InterruptedException {
+    HttpResponse<String> created = step("POST", BASE_PATH, RESOURCE, 201);
+    if (created == null || created.statusCode() != 201) {
+      return;
+    }
+    String path = BASE_PATH + "/" + objectMapper.readTree(created.body()).get("id").asLong();
+    step("GET", path, null, 200);
+    step("PUT", path, RESOURCE.replace("METERING_POINT", "CONNECTION_POINT"), 200);
+    step("PATCH", path, PATCH, 200);
+    step("DELETE", path, null, 204);
+    step("GET", path, null, 404);
+  }
+
+  private HttpResponse<String> step(String method, String path, String json, int expected)
+      throws InterruptedException {
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+    if (json == null) {
+      request.method(method, BodyPublishers.noBody());
+    } else {
+      request
+          .header("Content-Type", "application/json")
+          .method(method, BodyPublishers.ofString(json));
+    }
+
+    Map<String, Object> step = new LinkedHashMap<>();
+    step.put("method", method);
+    step.put("path", path);
+    step.put("expected", expected);
+    steps.add(step);
+    long sent = System.nanoTime();
+    try {
+      HttpResponse<String> response =
+          client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+      step.put("ms", (System.nanoTime() - sent) / 1e6);
+      step.put("status", response.statusCode());
+      if (response.statusCode() != expected) {
+        failed = true;
+        step.put("body", response.body());
+      }
+      return response;
+    } catch (IOException e) {
+      step.put("ms", (System.nanoTime() - sent) / 1e6);
+      step.put("error", e.toString());
+      failed = true;
+      return null;
+    }
+  }
+
+  /** A kB value from /proc/<pid>/status, or null where there is no procfs (macOS, Windows). */
+  private static Long procStatus(Process process, String field) {
+    Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+    if (!process.isAlive() || !Files.isReadable(status)) {
+      return null;
+    }
+    try {
+      return Files.readAllLines(status).stream()
+          .filter(line -> line.startsWith(field + ":"))
+          .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+          .findFirst()
+          .orElse(null);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  private static List<String> split(String value) {
+    return value.isBlank() ? List.of() : Arrays.asList(value.trim().split("\\s+"));
+  }
+}
@@ -0,0 +1,78 @@
+package com.kaarelkaasla.enefitresourceservice.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * The OpenAPI document served from static/openapi.json must be the one springdoc derives from the
+ * annotated ResourceApi and OperationApi. Regenerate it after changing them with
+ * ./mvnw test -Dtest=OpenApiSpecTest -Dopenapi.update=true and commit the result; that run still
+ * fails if the file differed, so the flag cannot hide drift.
+ */
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:openapi;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+      "spring.flyway.enabled=false",
+      "spring.kafka.admin.auto-create=false",
+      "app.grpc.port=0",
+      "app.jfr.continuous.enabled=false"
+    })
+@AutoConfigureMockMvc
+class OpenApiSpecTest {
+
+  static final Path STATIC_SPEC = Path.of("src/main/resources/static/openapi.json");
+
+  @Autowired private MockMvc mockMvc;
+
+  private final ObjectMapper objectMapper =
+      new ObjectMapper()
+          .enable(SerializationFeature.INDENT_OUTPUT)
+          .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+  @Test
+  void staticSpecMatchesAnnotatedApi() throws Exception {
+    String generated =
+        mockMvc
+            .perform(get("/v3/api-docs"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    JsonNode spec = objectMapper.readTree(generated);
+    JsonNode committed = objectMapper.readTree(STATIC_SPEC.toFile());
+
+    if (Boolean.getBoolean("openapi.update") && !committed.equals(spec)) {
+      // Sorted keys keep the diff down to what changed
+      Files.writeString(
+          STATIC_SPEC,
+          objectMapper.writeValueAsString(objectMapper.treeToValue(spec, Map.class)) + "\n");
+    }
+
+    assertThat(committed)
+        .as(
+            "%s is out of date; regenerate it with"
+                + " ./mvnw test -Dtest=OpenApiSpecTest -Dopenapi.update=true",
+            STATIC_SPEC)
+        .isEqualTo(spec);
+  }
+}
@@ -0,0 +1,54 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.kaarelkaasla.enefitresourceservice.config.DataSourceConfig.BulkRoutingDataSource;
+import com.kaarelkaasla.enefitresourceservice.services.BulkWorkExecutor;
+import com.zaxxer.hikari.HikariDataSource;
+
+class DataSourceConfigTest {
+
+  private final HikariDataSource interactive = pool(DataSourceConfig.INTERACTIVE_POOL);
+  private final HikariDataSource bulk = pool(DataSourceConfig.BULK_POOL);
+  private final BulkRoutingDataSource dataSource = new BulkRoutingDataSource(interactive, bulk);
+
+  @AfterEach
+  void close() {
+    dataSource.close();
+  }
+
+  @Test
+  void requestThreadsGetInteractiveConnections() throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      assertThat(interactive.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+      assertThat(bulk.getHikariPoolMXBean()).isNull();
+    }
+  }
+
+  @Test
+  void bulkWorkGetsBulkConnections() {
+    BulkWorkExecutor.runAsBulk(
+        () -> {
+          try (Connection connection = dataSource.getConnection()) {
+            assertThat(bulk.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            assertThat(interactive.getHikariPoolMXBean()).isNull();
+          } catch (SQLException e) {
+            throw new IllegalStateException(e);
+          }
+        });
+  }
+
+  private static HikariDataSource pool(String name) {
+    HikariDataSource pool = new HikariDataSource();
+    pool.setJdbcUrl("jdbc:h2:mem:" + name);
+    pool.setPoolName(name);
+    pool.setMaximumPoolSize(1);
+    return pool;
+  }
+}
@@ -0,0 +1,102 @@
+package com.kaarelkaasla.enefitresourceservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+import com.kaarelkaasla.enefitresourceservice.dtos.LocationRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceEvent;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceRequest;
+import com.kaarelkaasla.enefitresourceservice.entities.Characteristic;
+import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicDocument;
+import com.kaarelkaasla.enefitresourceservice.entities.Resource;
+import com.kaarelkaasla.enefitresourceservice.monitoring.LatencyThresholdSetting;
+import com.kaarelkaasla.enefitresourceservice.validation.ValidCountryCode;
+import com.kaarelkaasla.enefitresourceservice.validation.ValidCountryCodeValidator;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+
+class ResourceServiceRuntimeHintsTest {
+
+  private final RuntimeHints hints = new RuntimeHints();
+
+  ResourceServiceRuntimeHintsTest() {
+    new ResourceServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+  }
+
+  @Test
+  void registersDtoRecordsForBindingAndValidation() throws NoSuchMethodException {
+    assertThat(RuntimeHintsPredicates.reflection().onType(ResourceRequest.class)).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onMethod(ResourceRequest.class, "countryCode"))
+        .accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onField(ResourceRequest.class, "location"))
+        .accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(LocationRequest.class)).accepts(hints);
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onConstructor(ResourceEvent.class.getDeclaredConstructors()[0]))
+        .accepts(hints);
+  }
+
+  @Test
+  void registersEntitiesAndTheCharacteristicsDocument() {
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onType(Resource.class)
+                .withMemberCategories(
+                    MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+        .accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onField(Characteristic.class, "resource"))
+        .accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(CharacteristicDocument.class))
+        .accepts(hints);
+  }
+
+  @Test
+  void registersConstraintValidatorsAndTheirAnnotations() {
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onType(ValidCountryCodeValidator.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+        .accepts(hints);
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onType(ValidCountryCode.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS))
+        .accepts(hints);
+  }
+
+  @Test
+  void registersMigrationsSettingsProxiesAndNativeLibraries() {
+    assertThat(
+            RuntimeHintsPredicates.resource()
+                .forResource("db/migration/V1__Create_resource_management_tables.sql"))
+        .accepts(hints);
+    assertThat(RuntimeHintsPredicates.resource().forResource("jfr/resource-service.jfc"))
+        .accepts(hints);
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onType(LatencyThresholdSetting.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS))
+        .accepts(hints);
+    assertThat(
+            RuntimeHintsPredicates.resource()
+                .forResource("linux/" + System.getProperty("os.arch") + "/libzstd-jni-1.5.7-4.so"))
+        .accepts(hints);
+    assertThat(
+            RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, Connection.class))
+        .accepts(hints);
+    assertThat(
+            RuntimeHintsPredicates.proxies()
+                .forInterfaces(ProxyJdbcObject.class, PreparedStatement.class))
+        .accepts(hints);
+    assertThat(hints.jni().getTypeHint(ZstdOutputStreamNoFinalizer.class)).isNotNull();
+  }
+}
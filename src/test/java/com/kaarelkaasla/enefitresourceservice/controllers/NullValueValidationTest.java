@@ -12,21 +12,28 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceNotFoundException;
+import com.kaarelkaasla.enefitresourceservice.services.BulkDeleteService;
 import com.kaarelkaasla.enefitresourceservice.services.ResourceService;
 import com.kaarelkaasla.enefitresourceservice.services.TimeProvider;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @WebMvcTest(ResourceController.class)
+@Import(SimpleMeterRegistry.class)
 class NullValueValidationTest {
 
   @Autowired private MockMvc mockMvc;
 
   @MockitoBean private ResourceService resourceService;
 
+  @MockitoBean private BulkDeleteService bulkDeleteService;
+
   @MockitoBean private TimeProvider timeProvider;
 
   @BeforeEach
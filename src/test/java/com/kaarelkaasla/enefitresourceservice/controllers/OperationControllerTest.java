@@ -0,0 +1,81 @@
+package com.kaarelkaasla.enefitresourceservice.controllers;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.kaarelkaasla.enefitresourceservice.dtos.BulkDeleteOperationResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.OperationStatus;
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceNotFoundException;
+import com.kaarelkaasla.enefitresourceservice.services.BulkDeleteService;
+import com.kaarelkaasla.enefitresourceservice.services.TimeProvider;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@WebMvcTest(OperationController.class)
+@Import(SimpleMeterRegistry.class)
+class OperationControllerTest {
+
+  private static final UUID ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockitoBean private BulkDeleteService bulkDeleteService;
+  @MockitoBean private TimeProvider timeProvider;
+
+  @BeforeEach
+  void setup() {
+    when(timeProvider.now()).thenReturn(OffsetDateTime.parse("2024-01-01T00:00:00Z"));
+  }
+
+  @Test
+  void getOperation_ReturnsProgress() throws Exception {
+    when(bulkDeleteService.getOperation(ID))
+        .thenReturn(
+            new BulkDeleteOperationResponse(
+                ID,
+                OperationStatus.RUNNING,
+                null,
+                "LV",
+                3000,
+                3,
+                OffsetDateTime.parse("2024-01-01T00:00:00Z"),
+                null,
+                null));
+
+    mockMvc
+        .perform(get("/api/v1/operations/{id}", ID))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("RUNNING"))
+        .andExpect(jsonPath("$.countryCode").value("LV"))
+        .andExpect(jsonPath("$.deletedCount").value(3000))
+        .andExpect(jsonPath("$.chunkCount").value(3));
+  }
+
+  @Test
+  void getOperation_Unknown_Returns404() throws Exception {
+    when(bulkDeleteService.getOperation(ID))
+        .thenThrow(new ResourceNotFoundException("Operation not found with id: " + ID));
+
+    mockMvc
+        .perform(get("/api/v1/operations/{id}", ID))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.message").value("Operation not found with id: " + ID));
+  }
+
+  @Test
+  void getOperation_MalformedId_Returns400() throws Exception {
+    mockMvc.perform(get("/api/v1/operations/not-a-uuid")).andExpect(status().isBadRequest());
+  }
+}
@@ -1,23 +1,32 @@
 package com.kaarelkaasla.enefitresourceservice.controllers;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -26,19 +35,30 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kaarelkaasla.enefitresourceservice.dtos.*;
 import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType;
 import com.kaarelkaasla.enefitresourceservice.entities.ResourceType;
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceBusyException;
 import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceNotFoundException;
+import com.kaarelkaasla.enefitresourceservice.services.BulkDeleteService;
 import com.kaarelkaasla.enefitresourceservice.services.ResourceService;
 import com.kaarelkaasla.enefitresourceservice.services.TimeProvider;
+import com.kaarelkaasla.enefitresourceservice.web.ResourceMediaTypes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @WebMvcTest(ResourceController.class)
+@Import(SimpleMeterRegistry.class)
 class ResourceControllerErrorHandlingTest {
 
   @Autowired private MockMvc mockMvc;
 
   @Autowired private ObjectMapper objectMapper;
 
+  @Autowired private MeterRegistry meterRegistry;
+
   @MockitoBean private ResourceService resourceService;
 
+  @MockitoBean private BulkDeleteService bulkDeleteService;
+
   @MockitoBean private TimeProvider timeProvider;
 
   private ResourceRequest validCreateRequest;
@@ -115,7 +135,7 @@ class ResourceControllerErrorHandlingTest {
 
   @Test
   void getResourceById_ServiceThrowsResourceNotFoundException_Returns404() throws Exception {
-    when(resourceService.getResourceById(999L))
+    when(resourceService.getEncodedResourceById(999L, false))
         .thenThrow(new ResourceNotFoundException("Resource with ID 999 not found"));
 
     mockMvc
@@ -124,6 +144,47 @@ class ResourceControllerErrorHandlingTest {
         .andExpect(jsonPath("$.message").value("Resource with ID 999 not found"));
   }
 
+  @Test
+  void getResourceById_ProtobufOnly_NotFoundIsErrorMessage() throws Exception {
+    when(resourceService.getResourceById(999L))
+        .thenThrow(new ResourceNotFoundException("Resource with ID 999 not found"));
+
+    byte[] body =
+        mockMvc
+            .perform(get("/api/v1/resources/999").accept(ResourceMediaTypes.APPLICATION_PROTOBUF))
+            .andExpect(status().isNotFound())
+            .andExpect(content().contentType(ResourceMediaTypes.APPLICATION_PROTOBUF))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    com.kaarelkaasla.enefitresourceservice.proto.Error error =
+        com.kaarelkaasla.enefitresourceservice.proto.Error.parseFrom(body);
+    assertThat(error.getStatus()).isEqualTo(404);
+    assertThat(error.getMessage()).isEqualTo("Resource with ID 999 not found");
+    assertThat(error.getPath()).isEqualTo("/api/v1/resources/999");
+  }
+
+  @Test
+  void notFoundAndConflictResponses_AreCounted() throws Exception {
+    double notFoundBefore = meterRegistry.get("resource.not.found").counter().count();
+    double conflictsBefore =
+        meterRegistry.get("resource.optimistic.lock.conflicts").counter().count();
+    when(resourceService.getEncodedResourceById(998L, false))
+        .thenThrow(new ResourceNotFoundException("Resource with ID 998 not found"));
+    doThrow(new OptimisticLockingFailureException("Concurrent modification"))
+        .when(resourceService)
+        .deleteResource(997L);
+
+    mockMvc.perform(get("/api/v1/resources/998")).andExpect(status().isNotFound());
+    mockMvc.perform(delete("/api/v1/resources/997")).andExpect(status().isConflict());
+
+    assertThat(meterRegistry.get("resource.not.found").counter().count())
+        .isEqualTo(notFoundBefore + 1);
+    assertThat(meterRegistry.get("resource.optimistic.lock.conflicts").counter().count())
+        .isEqualTo(conflictsBefore + 1);
+  }
+
   @Test
   void updateResource_ServiceThrowsResourceNotFoundException_Returns404() throws Exception {
     when(resourceService.updateResource(eq(999L), any(ResourceRequest.class)))
@@ -150,6 +211,37 @@ class ResourceControllerErrorHandlingTest {
         .andExpect(status().isConflict());
   }
 
+  @Test
+  void updateResource_ServiceThrowsConcurrencyFailureException_Returns409WithoutSqlDetails()
+      throws Exception {
+    when(resourceService.updateResource(eq(1L), any(ResourceRequest.class)))
+        .thenThrow(
+            new PessimisticLockingFailureException(
+                "could not execute statement [ERROR: could not serialize access due to concurrent"
+                    + " update] [update resources set country_code=? where id=?]"));
+
+    mockMvc
+        .perform(
+            put("/api/v1/resources/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validUpdateRequest)))
+        .andExpect(status().isConflict())
+        .andExpect(
+            jsonPath("$.message")
+                .value(
+                    "Resource was modified by another transaction. Please refresh and try"
+                        + " again."));
+  }
+
+  @Test
+  void deleteResource_ServiceThrowsCannotAcquireLockException_Returns409() throws Exception {
+    doThrow(new CannotAcquireLockException("lock timeout"))
+        .when(resourceService)
+        .deleteResource(1L);
+
+    mockMvc.perform(delete("/api/v1/resources/1")).andExpect(status().isConflict());
+  }
+
   @Test
   void patchResource_ServiceThrowsResourceNotFoundException_Returns404() throws Exception {
     when(resourceService.patchResource(eq(999L), any(PatchResourceRequest.class)))
@@ -176,6 +268,28 @@ class ResourceControllerErrorHandlingTest {
         .andExpect(status().isConflict());
   }
 
+  @Test
+  void patchResource_ServiceThrowsResourceBusyException_Returns503WithRetryAfter()
+      throws Exception {
+    when(resourceService.patchResource(eq(1L), any(PatchResourceRequest.class)))
+        .thenThrow(
+            new ResourceBusyException(
+                "Resource with id 1 is busy with other writes. Please try again.",
+                Duration.ofMillis(1500)));
+
+    mockMvc
+        .perform(
+            patch("/api/v1/resources/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPatchRequest)))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string("Retry-After", "2"))
+        .andExpect(jsonPath("$.status").value(503))
+        .andExpect(
+            jsonPath("$.message")
+                .value("Resource with id 1 is busy with other writes. Please try again."));
+  }
+
   @Test
   void deleteResource_ServiceThrowsResourceNotFoundException_Returns404() throws Exception {
     doThrow(new ResourceNotFoundException("Resource with ID 999 not found"))
@@ -302,6 +416,26 @@ class ResourceControllerErrorHandlingTest {
         .andExpect(status().isBadRequest());
   }
 
+  @Test
+  void searchResources_MissingValue_Returns400() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/resources/search").param("characteristicType", "CHARGING_POINT"))
+        .andExpect(status().isBadRequest())
+        .andExpect(
+            jsonPath("$.message").value("Required parameter 'characteristicValue' is missing"));
+  }
+
+  @Test
+  void searchResources_InvalidType_Returns400() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/v1/resources/search")
+                .param("characteristicType", "NOT_A_TYPE")
+                .param("characteristicValue", "CCS"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Invalid value for parameter 'characteristicType'"));
+  }
+
   @Test
   void patchResource_InvalidEnumValue_Returns400() throws Exception {
     String invalidPatchJson =
@@ -356,6 +490,83 @@ class ResourceControllerErrorHandlingTest {
   void getAllEndpoints_InvalidHttpMethod_Returns405() throws Exception {
     mockMvc.perform(post("/api/v1/resources/1")).andExpect(status().isMethodNotAllowed());
     mockMvc.perform(put("/api/v1/resources")).andExpect(status().isMethodNotAllowed());
-    mockMvc.perform(delete("/api/v1/resources")).andExpect(status().isMethodNotAllowed());
+    // DELETE on the collection is the filtered bulk delete; without a filter it is a 400
+    mockMvc.perform(patch("/api/v1/resources")).andExpect(status().isMethodNotAllowed());
+  }
+
+  @Test
+  void unknownPath_Returns404() throws Exception {
+    mockMvc
+        .perform(get("/v3/api-docs"))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.message").value("No endpoint GET /v3/api-docs"));
+  }
+
+  @Test
+  void getResourcesByIds_EmptyIds_Returns400() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/resources").param("ids", ""))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.fieldErrors[0].field").value("ids"))
+        .andExpect(jsonPath("$.fieldErrors[0].message").value("At least one id is required"));
+
+    verify(resourceService, never()).getResourcesByIds(any());
+  }
+
+  @Test
+  void getResourcesByIds_NonNumericId_Returns400() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/resources").param("ids", "1,abc"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.fieldErrors[0].field").value("ids"));
+
+    verify(resourceService, never()).getResourcesByIds(any());
+  }
+
+  @Test
+  void lookupResources_TooManyIds_Returns400() throws Exception {
+    List<Long> ids = LongStream.rangeClosed(1, ResourceLookupRequest.MAX_IDS + 1).boxed().toList();
+
+    mockMvc
+        .perform(
+            post("/api/v1/resources/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ResourceLookupRequest(ids))))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.fieldErrors[0].message").value("At most 1000 ids can be requested"));
+
+    verify(resourceService, never()).getResourcesByIds(any());
+  }
+
+  @Test
+  void deleteResources_NoFilter_Returns400() throws Exception {
+    mockMvc
+        .perform(delete("/api/v1/resources"))
+        .andExpect(status().isBadRequest())
+        .andExpect(
+            jsonPath("$.fieldErrors[0].message")
+                .value("At least one of type and countryCode is required"));
+
+    verify(bulkDeleteService, never()).start(any());
+  }
+
+  @Test
+  void deleteResources_InvalidCountryCode_Returns400() throws Exception {
+    mockMvc
+        .perform(delete("/api/v1/resources").param("countryCode", "lv"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.fieldErrors[0].field").value("countryCode"));
+
+    verify(bulkDeleteService, never()).start(any());
+  }
+
+  @Test
+  void deleteResources_UnknownType_Returns400() throws Exception {
+    mockMvc
+        .perform(delete("/api/v1/resources").param("type", "SUBSTATION"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.fieldErrors[0].field").value("type"));
+
+    verify(bulkDeleteService, never()).start(any());
   }
 }
@@ -1,5 +1,7 @@
 package com.kaarelkaasla.enefitresourceservice.controllers;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItems;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -9,29 +11,42 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.kaarelkaasla.enefitresourceservice.dtos.*;
 import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType;
 import com.kaarelkaasla.enefitresourceservice.entities.ResourceType;
+import com.kaarelkaasla.enefitresourceservice.proto.Resource;
+import com.kaarelkaasla.enefitresourceservice.proto.ResourceList;
+import com.kaarelkaasla.enefitresourceservice.proto.ResourceLookupResultList;
+import com.kaarelkaasla.enefitresourceservice.services.BulkDeleteService;
+import com.kaarelkaasla.enefitresourceservice.services.ResourceResponseCache;
 import com.kaarelkaasla.enefitresourceservice.services.ResourceService;
 import com.kaarelkaasla.enefitresourceservice.services.TimeProvider;
+import com.kaarelkaasla.enefitresourceservice.web.ResourceMediaTypes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @WebMvcTest(ResourceController.class)
+@Import(SimpleMeterRegistry.class)
 class ResourceControllerHappyPathTest {
 
   @Autowired private MockMvc mockMvc;
   @Autowired private ObjectMapper objectMapper;
 
   @MockitoBean private ResourceService resourceService;
+  @MockitoBean private BulkDeleteService bulkDeleteService;
   @MockitoBean private TimeProvider timeProvider;
 
   @BeforeEach
@@ -93,6 +108,117 @@ class ResourceControllerHappyPathTest {
         .andExpect(jsonPath("$[1].type").value("CONNECTION_POINT"));
   }
 
+  @Test
+  void getResourceById_WritesCachedJson() throws Exception {
+    byte[] json =
+        objectMapper.writeValueAsBytes(sampleResponse(1L, ResourceType.METERING_POINT, "US"));
+    when(resourceService.getEncodedResourceById(1L, false))
+        .thenReturn(new ResourceResponseCache.Body(json, false));
+
+    mockMvc
+        .perform(get("/api/v1/resources/1"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(header().stringValues("Vary", hasItems("Accept", "Accept-Encoding")))
+        .andExpect(header().doesNotExist("Content-Encoding"))
+        .andExpect(jsonPath("$.id").value(1))
+        .andExpect(jsonPath("$.location.postalCode").value("12345"));
+  }
+
+  @Test
+  void getResourceById_GzipAccepted_WritesCompressedBody() throws Exception {
+    byte[] gzip = {0x1f, (byte) 0x8b, 0x08, 0x00};
+    when(resourceService.getEncodedResourceById(1L, true))
+        .thenReturn(new ResourceResponseCache.Body(gzip, true));
+
+    mockMvc
+        .perform(get("/api/v1/resources/1").header("Accept-Encoding", "br;q=1.0, gzip;q=0.8"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Encoding", "gzip"))
+        .andExpect(content().bytes(gzip));
+  }
+
+  @Test
+  void getResourceById_CborAccepted_WritesCbor() throws Exception {
+    ResourceResponse resource = sampleResponse(1L, ResourceType.METERING_POINT, "US");
+    when(resourceService.getResourceById(1L)).thenReturn(resource);
+
+    byte[] body =
+        mockMvc
+            .perform(get("/api/v1/resources/1").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    ObjectMapper cbor = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+    assertThat(cbor.readTree(body))
+        .isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(resource)));
+  }
+
+  @Test
+  void getResourceById_ProtobufAccepted_WritesResourceMessage() throws Exception {
+    when(resourceService.getResourceById(1L))
+        .thenReturn(sampleResponse(1L, ResourceType.METERING_POINT, "US"));
+
+    byte[] body =
+        mockMvc
+            .perform(
+                get("/api/v1/resources/1")
+                    .header("Accept", "application/x-protobuf, application/json;q=0.5"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(ResourceMediaTypes.APPLICATION_PROTOBUF))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    Resource resource = Resource.parseFrom(body);
+    assertThat(resource.getId()).isEqualTo(1L);
+    assertThat(resource.getType())
+        .isEqualTo(com.kaarelkaasla.enefitresourceservice.proto.ResourceType.METERING_POINT);
+    assertThat(resource.getLocation().getPostalCode()).isEqualTo("12345");
+    assertThat(resource.getCharacteristicsList()).hasSize(1);
+    assertThat(resource.getCreatedAt().getSeconds())
+        .isEqualTo(OffsetDateTime.parse("2024-01-01T00:00:00Z").toEpochSecond());
+  }
+
+  @Test
+  void getAllResources_ProtobufAccepted_WritesResourceList() throws Exception {
+    when(resourceService.getAllResources())
+        .thenReturn(
+            List.of(
+                sampleResponse(1L, ResourceType.METERING_POINT, "US"),
+                sampleResponse(2L, ResourceType.CONNECTION_POINT, "EE")));
+
+    byte[] body =
+        mockMvc
+            .perform(get("/api/v1/resources").accept(ResourceMediaTypes.APPLICATION_PROTOBUF))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    assertThat(ResourceList.parseFrom(body).getResourcesList())
+        .extracting(Resource::getCountryCode)
+        .containsExactly("US", "EE");
+  }
+
+  @Test
+  void searchResources_PassesCharacteristicToService() throws Exception {
+    when(resourceService.findByCharacteristic(CharacteristicType.CHARGING_POINT, "CCS", null))
+        .thenReturn(List.of(sampleResponse(3L, ResourceType.CONNECTION_POINT, "EE")));
+
+    mockMvc
+        .perform(
+            get("/api/v1/resources/search")
+                .param("characteristicType", "CHARGING_POINT")
+                .param("characteristicValue", "CCS"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].id").value(3));
+  }
+
   @Test
   void updateResource_ReturnsUpdatedPayload() throws Exception {
     ResourceRequest req =
@@ -167,4 +293,112 @@ class ResourceControllerHappyPathTest {
         .andExpect(jsonPath("$.operation").value("BATCH_NOTIFICATION"))
         .andExpect(jsonPath("$.processedAt").exists());
   }
+
+  @Test
+  void getResourcesByIds_ReturnsResultPerIdInRequestOrder() throws Exception {
+    when(resourceService.getResourcesByIds(List.of(2L, 999L, 1L)))
+        .thenReturn(
+            List.of(
+                ResourceLookupResult.found(sampleResponse(2L, ResourceType.CONNECTION_POINT, "DE")),
+                ResourceLookupResult.notFound(999L),
+                ResourceLookupResult.found(sampleResponse(1L, ResourceType.METERING_POINT, "US"))));
+
+    mockMvc
+        .perform(get("/api/v1/resources").param("ids", "2,999,1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(3))
+        .andExpect(jsonPath("$[0].id").value(2))
+        .andExpect(jsonPath("$[0].found").value(true))
+        .andExpect(jsonPath("$[0].resource.type").value("CONNECTION_POINT"))
+        .andExpect(jsonPath("$[1].id").value(999))
+        .andExpect(jsonPath("$[1].found").value(false))
+        .andExpect(jsonPath("$[1].resource").isEmpty())
+        .andExpect(jsonPath("$[2].resource.id").value(1));
+  }
+
+  @Test
+  void getResourcesByIds_RepeatedParameter_IsAccepted() throws Exception {
+    when(resourceService.getResourcesByIds(List.of(1L, 2L)))
+        .thenReturn(List.of(ResourceLookupResult.notFound(1L), ResourceLookupResult.notFound(2L)));
+
+    mockMvc
+        .perform(get("/api/v1/resources").param("ids", "1").param("ids", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2));
+  }
+
+  @Test
+  void lookupResources_ReadsIdsFromBody() throws Exception {
+    when(resourceService.getResourcesByIds(List.of(1L, 999L)))
+        .thenReturn(
+            List.of(
+                ResourceLookupResult.found(sampleResponse(1L, ResourceType.METERING_POINT, "US")),
+                ResourceLookupResult.notFound(999L)));
+
+    mockMvc
+        .perform(
+            post("/api/v1/resources/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [1, 999]}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].found").value(true))
+        .andExpect(jsonPath("$[1].found").value(false));
+  }
+
+  @Test
+  void getResourcesByIds_ProtobufAccepted_WritesLookupResultList() throws Exception {
+    when(resourceService.getResourcesByIds(List.of(1L, 999L)))
+        .thenReturn(
+            List.of(
+                ResourceLookupResult.found(sampleResponse(1L, ResourceType.METERING_POINT, "US")),
+                ResourceLookupResult.notFound(999L)));
+
+    byte[] body =
+        mockMvc
+            .perform(
+                get("/api/v1/resources")
+                    .param("ids", "1,999")
+                    .accept(ResourceMediaTypes.APPLICATION_PROTOBUF))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(ResourceMediaTypes.APPLICATION_PROTOBUF))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    ResourceLookupResultList results = ResourceLookupResultList.parseFrom(body);
+    assertThat(results.getResultsList()).hasSize(2);
+    assertThat(results.getResults(0).getFound()).isTrue();
+    assertThat(results.getResults(0).getResource().getLocation().getPostalCode())
+        .isEqualTo("12345");
+    assertThat(results.getResults(1).getId()).isEqualTo(999L);
+    assertThat(results.getResults(1).getFound()).isFalse();
+    assertThat(results.getResults(1).hasResource()).isFalse();
+  }
+
+  @Test
+  void deleteResources_StartsJobAndPointsToItsStatus() throws Exception {
+    UUID operationId = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+    when(bulkDeleteService.start(any(BulkDeleteRequest.class)))
+        .thenReturn(
+            new BulkDeleteOperationResponse(
+                operationId,
+                OperationStatus.PENDING,
+                ResourceType.METERING_POINT,
+                "LV",
+                0,
+                0,
+                OffsetDateTime.parse("2024-01-01T00:00:00Z"),
+                null,
+                null));
+
+    mockMvc
+        .perform(
+            delete("/api/v1/resources").param("type", "METERING_POINT").param("countryCode", "LV"))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Location", "/api/v1/operations/" + operationId))
+        .andExpect(jsonPath("$.operationId").value(operationId.toString()))
+        .andExpect(jsonPath("$.status").value("PENDING"));
+
+    verify(bulkDeleteService).start(new BulkDeleteRequest(ResourceType.METERING_POINT, "LV"));
+  }
 }
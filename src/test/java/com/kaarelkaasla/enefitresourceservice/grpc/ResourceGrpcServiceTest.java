@@ -0,0 +1,467 @@
+package com.kaarelkaasla.enefitresourceservice.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.rpc.BadRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.CharacteristicResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.EncodedResourceResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.LocationResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceResponse;
+import com.kaarelkaasla.enefitresourceservice.exceptions.OptimisticLockingException;
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceBusyException;
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceNotFoundException;
+import com.kaarelkaasla.enefitresourceservice.proto.*;
+import com.kaarelkaasla.enefitresourceservice.services.BulkWorkExecutor;
+import com.kaarelkaasla.enefitresourceservice.services.ResourceService;
+import com.kaarelkaasla.enefitresourceservice.validation.ResourceRequestValidator;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.protobuf.StatusProto;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+
+/** Runs the service on an in-process transport, which applies flow control message by message. */
+class ResourceGrpcServiceTest {
+
+  private static final OffsetDateTime NOW = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+
+  private final ResourceService resourceService = mock(ResourceService.class);
+  private final ResourceWatchers watchers = new ResourceWatchers(4);
+
+  private ResourceGrpcService service;
+  private Server server;
+  private ManagedChannel channel;
+  private ResourcesGrpc.ResourcesBlockingStub blocking;
+  private ResourcesGrpc.ResourcesStub async;
+
+  @BeforeEach
+  void start() throws Exception {
+    service =
+        new ResourceGrpcService(
+            resourceService,
+            new ResourceRequestValidator(),
+            watchers,
+            Executors.newFixedThreadPool(2),
+            Duration.ofMillis(500));
+    String name = InProcessServerBuilder.generateName();
+    server =
+        InProcessServerBuilder.forName(name)
+            .executor(Executors.newFixedThreadPool(2))
+            .addService(service)
+            .build()
+            .start();
+    channel = InProcessChannelBuilder.forName(name).build();
+    blocking = ResourcesGrpc.newBlockingStub(channel);
+    async = ResourcesGrpc.newStub(channel);
+  }
+
+  @AfterEach
+  void stop() throws Exception {
+    channel.shutdownNow();
+    service.close();
+    server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void createResource_MapsRequestAndResponse() {
+    when(resourceService.createResource(any())).thenReturn(response(1L));
+
+    com.kaarelkaasla.enefitresourceservice.proto.Resource created =
+        blocking.createResource(
+            CreateResourceRequest.newBuilder().setResource(validInput()).build());
+
+    ArgumentCaptor<ResourceRequest> request = ArgumentCaptor.forClass(ResourceRequest.class);
+    verify(resourceService).createResource(request.capture());
+    assertThat(request.getValue().type())
+        .isEqualTo(com.kaarelkaasla.enefitresourceservice.entities.ResourceType.METERING_POINT);
+    assertThat(request.getValue().location().postalCode()).isEqualTo("10111");
+    assertThat(request.getValue().characteristics()).hasSize(1);
+    assertThat(created.getId()).isEqualTo(1L);
+    assertThat(created.getType()).isEqualTo(ResourceType.METERING_POINT);
+    assertThat(created.getCharacteristicsList()).hasSize(1);
+  }
+
+  @Test
+  void createResource_InvalidRequest_ReturnsBadRequestDetails() throws Exception {
+    ResourceInput invalid =
+        validInput().toBuilder()
+            .clearType()
+            .setLocation(validInput().getLocation().toBuilder().setPostalCode("1011"))
+            .build();
+
+    assertThatThrownBy(
+            () ->
+                blocking.createResource(
+                    CreateResourceRequest.newBuilder().setResource(invalid).build()))
+        .isInstanceOfSatisfying(
+            StatusRuntimeException.class,
+            e -> {
+              assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT);
+              com.google.rpc.Status status = StatusProto.fromThrowable(e);
+              assertThat(status.getDetailsList()).hasSize(1);
+              try {
+                BadRequest badRequest = status.getDetails(0).unpack(BadRequest.class);
+                assertThat(badRequest.getFieldViolationsList())
+                    .extracting(BadRequest.FieldViolation::getField)
+                    .contains("type", "location.postalCode");
+              } catch (Exception unpack) {
+                throw new AssertionError(unpack);
+              }
+            });
+    verifyNoInteractions(resourceService);
+  }
+
+  @Test
+  void getResource_NotFound_ReturnsNotFound() {
+    when(resourceService.getResourceById(9L))
+        .thenThrow(new ResourceNotFoundException("Resource not found with id: 9"));
+
+    assertThatThrownBy(() -> blocking.getResource(GetResourceRequest.newBuilder().setId(9).build()))
+        .isInstanceOfSatisfying(
+            StatusRuntimeException.class,
+            e -> {
+              assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND);
+              assertThat(e.getStatus().getDescription()).isEqualTo("Resource not found with id: 9");
+            });
+  }
+
+  @Test
+  void updateResource_Conflict_ReturnsAborted() {
+    when(resourceService.updateResource(eq(1L), any()))
+        .thenThrow(new OptimisticLockingException("modified"));
+
+    assertThatThrownBy(
+            () ->
+                blocking.updateResource(
+                    UpdateResourceRequest.newBuilder().setId(1).setResource(validInput()).build()))
+        .isInstanceOfSatisfying(
+            StatusRuntimeException.class,
+            e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.ABORTED));
+  }
+
+  @Test
+  void deleteResource_Busy_ReturnsUnavailable() {
+    doThrow(new ResourceBusyException("busy", Duration.ofSeconds(2)))
+        .when(resourceService)
+        .deleteResource(1L);
+
+    assertThatThrownBy(
+            () -> blocking.deleteResource(DeleteResourceRequest.newBuilder().setId(1).build()))
+        .isInstanceOfSatisfying(
+            StatusRuntimeException.class,
+            e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.UNAVAILABLE));
+  }
+
+  @Test
+  void patchResource_OnlySetFieldsArePresent() {
+    when(resourceService.patchResource(eq(1L), any())).thenReturn(response(1L));
+
+    blocking.patchResource(PatchResourceRequest.newBuilder().setId(1).setCountryCode("EE").build());
+
+    ArgumentCaptor<com.kaarelkaasla.enefitresourceservice.dtos.PatchResourceRequest> patch =
+        ArgumentCaptor.forClass(
+            com.kaarelkaasla.enefitresourceservice.dtos.PatchResourceRequest.class);
+    verify(resourceService).patchResource(eq(1L), patch.capture());
+    assertThat(patch.getValue().type()).isEmpty();
+    assertThat(patch.getValue().countryCode()).contains("EE");
+    assertThat(patch.getValue().location()).isEmpty();
+    assertThat(patch.getValue().characteristics()).isEmpty();
+  }
+
+  @Test
+  void patchResource_EmptyCharacteristicList_ClearsCharacteristics() {
+    when(resourceService.patchResource(eq(1L), any())).thenReturn(response(1L));
+
+    blocking.patchResource(
+        PatchResourceRequest.newBuilder()
+            .setId(1)
+            .setCharacteristics(CharacteristicList.getDefaultInstance())
+            .build());
+
+    ArgumentCaptor<com.kaarelkaasla.enefitresourceservice.dtos.PatchResourceRequest> patch =
+        ArgumentCaptor.forClass(
+            com.kaarelkaasla.enefitresourceservice.dtos.PatchResourceRequest.class);
+    verify(resourceService).patchResource(eq(1L), patch.capture());
+    assertThat(patch.getValue().characteristics()).contains(Set.of());
+  }
+
+  @Test
+  void patchResource_UnspecifiedType_IsRejected() {
+    assertThatThrownBy(
+            () ->
+                blocking.patchResource(
+                    PatchResourceRequest.newBuilder()
+                        .setId(1)
+                        .setType(ResourceType.RESOURCE_TYPE_UNSPECIFIED)
+                        .build()))
+        .isInstanceOfSatisfying(
+            StatusRuntimeException.class,
+            e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT));
+    verify(resourceService, never()).patchResource(anyLong(), any());
+  }
+
+  @Test
+  void deleteResource_DelegatesToService() {
+    blocking.deleteResource(DeleteResourceRequest.newBuilder().setId(3).build());
+
+    verify(resourceService).deleteResource(3L);
+  }
+
+  @Test
+  void listResources_StreamsEveryResourceInOrder() {
+    stream(100);
+
+    Iterator<com.kaarelkaasla.enefitresourceservice.proto.Resource> resources =
+        blocking.listResources(ListResourcesRequest.getDefaultInstance());
+    List<Long> ids = new ArrayList<>();
+    resources.forEachRemaining(resource -> ids.add(resource.getId()));
+
+    assertThat(ids).hasSize(100).isSorted().startsWith(1L).endsWith(100L);
+  }
+
+  @Test
+  void listResources_ReadsTheCursorAsBulkWork() {
+    AtomicBoolean bulk = new AtomicBoolean();
+    when(resourceService.streamAllResources(any()))
+        .thenAnswer(
+            invocation -> {
+              bulk.set(BulkWorkExecutor.inBulkWork());
+              return 0L;
+            });
+
+    blocking.listResources(ListResourcesRequest.getDefaultInstance()).forEachRemaining(r -> {});
+
+    // BulkRoutingDataSource hands bulk work connections from the bulk pool
+    assertThat(bulk).isTrue();
+  }
+
+  @Test
+  void listResources_ReadsNoFurtherThanTheClientRequested() throws Exception {
+    AtomicInteger produced = stream(100);
+    BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+    CompletableFuture<ClientCallStreamObserver<ListResourcesRequest>> requestStream =
+        new CompletableFuture<>();
+
+    async.listResources(
+        ListResourcesRequest.getDefaultInstance(),
+        new ClientResponseObserver<
+            ListResourcesRequest, com.kaarelkaasla.enefitresourceservice.proto.Resource>() {
+          @Override
+          public void beforeStart(ClientCallStreamObserver<ListResourcesRequest> stream) {
+            stream.disableAutoRequestWithInitial(3);
+            requestStream.complete(stream);
+          }
+
+          @Override
+          public void onNext(com.kaarelkaasla.enefitresourceservice.proto.Resource value) {
+            received.add(value);
+          }
+
+          @Override
+          public void onError(Throwable t) {
+            received.add(t);
+          }
+
+          @Override
+          public void onCompleted() {
+            received.add("completed");
+          }
+        });
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(received.poll(5, TimeUnit.SECONDS))
+          .isInstanceOf(com.kaarelkaasla.enefitresourceservice.proto.Resource.class);
+    }
+    Thread.sleep(100);
+    // The fourth row is read from the cursor and waits for the client
+    assertThat(produced.get()).isLessThanOrEqualTo(4);
+
+    requestStream.get().cancel("done", null);
+    Thread.sleep(100);
+    assertThat(produced.get()).isLessThanOrEqualTo(4);
+  }
+
+  @Test
+  void listResources_ClientStopsReading_EndsWithDeadlineExceeded() throws Exception {
+    stream(10);
+    BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+
+    async.listResources(
+        ListResourcesRequest.getDefaultInstance(),
+        new ClientResponseObserver<
+            ListResourcesRequest, com.kaarelkaasla.enefitresourceservice.proto.Resource>() {
+          @Override
+          public void beforeStart(ClientCallStreamObserver<ListResourcesRequest> stream) {
+            stream.disableAutoRequestWithInitial(1);
+          }
+
+          @Override
+          public void onNext(com.kaarelkaasla.enefitresourceservice.proto.Resource value) {}
+
+          @Override
+          public void onError(Throwable t) {
+            errors.add(t);
+          }
+
+          @Override
+          public void onCompleted() {}
+        });
+
+    Throwable error = errors.poll(5, TimeUnit.SECONDS);
+    assertThat(Status.fromThrowable(error).getCode()).isEqualTo(Status.Code.DEADLINE_EXCEEDED);
+  }
+
+  @Test
+  void watchResources_DeliversMatchingEventsAfterPublishing() throws Exception {
+    Iterator<ResourceEvent> events =
+        blocking.watchResources(WatchResourcesRequest.newBuilder().addResourceIds(2).build());
+    awaitWatchers(1);
+
+    watchers.onResourceEvent(
+        event(com.kaarelkaasla.enefitresourceservice.dtos.ResourceEventType.UPDATED, 1L));
+    watchers.onResourceEvent(
+        event(com.kaarelkaasla.enefitresourceservice.dtos.ResourceEventType.UPDATED, 2L));
+    watchers.onResourceEvent(
+        event(com.kaarelkaasla.enefitresourceservice.dtos.ResourceEventType.DELETED, 2L));
+
+    ResourceEvent updated = events.next();
+    assertThat(updated.getEventType()).isEqualTo(ResourceEventType.UPDATED);
+    assertThat(updated.getResourceId()).isEqualTo(2L);
+    assertThat(updated.getResource().getId()).isEqualTo(2L);
+    ResourceEvent deleted = events.next();
+    assertThat(deleted.getEventType()).isEqualTo(ResourceEventType.DELETED);
+    assertThat(deleted.hasResource()).isFalse();
+  }
+
+  @Test
+  void watchResources_SlowClient_IsClosedWithResourceExhausted() throws Exception {
+    BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+    async.watchResources(
+        WatchResourcesRequest.getDefaultInstance(),
+        new ClientResponseObserver<WatchResourcesRequest, ResourceEvent>() {
+          @Override
+          public void beforeStart(ClientCallStreamObserver<WatchResourcesRequest> stream) {
+            stream.disableAutoRequestWithInitial(0);
+          }
+
+          @Override
+          public void onNext(ResourceEvent value) {}
+
+          @Override
+          public void onError(Throwable t) {
+            errors.add(t);
+          }
+
+          @Override
+          public void onCompleted() {}
+        });
+    awaitWatchers(1);
+
+    for (long id = 1; id <= 5; id++) {
+      watchers.onResourceEvent(
+          event(com.kaarelkaasla.enefitresourceservice.dtos.ResourceEventType.UPDATED, id));
+    }
+
+    Throwable error = errors.poll(5, TimeUnit.SECONDS);
+    assertThat(Status.fromThrowable(error).getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+    assertThat(watchers.size()).isZero();
+  }
+
+  /** Stubs streamAllResources with ids 1..count; returns how many the consumer has been given. */
+  @SuppressWarnings("unchecked")
+  private AtomicInteger stream(int count) {
+    AtomicInteger produced = new AtomicInteger();
+    when(resourceService.streamAllResources(any()))
+        .thenAnswer(
+            invocation -> {
+              Consumer<ResourceResponse> consumer = invocation.getArgument(0);
+              for (long id = 1; id <= count; id++) {
+                produced.incrementAndGet();
+                consumer.accept(response(id));
+              }
+              return (long) count;
+            });
+    return produced;
+  }
+
+  private void awaitWatchers(int count) throws InterruptedException {
+    for (int i = 0; i < 100 && watchers.size() < count; i++) {
+      Thread.sleep(20);
+    }
+    assertThat(watchers.size()).isEqualTo(count);
+  }
+
+  private static ResourceInput validInput() {
+    return ResourceInput.newBuilder()
+        .setType(ResourceType.METERING_POINT)
+        .setCountryCode("EE")
+        .setLocation(
+            LocationInput.newBuilder()
+                .setStreetAddress("Narva mnt 1")
+                .setCity("Tallinn")
+                .setPostalCode("10111")
+                .setCountryCode("EE"))
+        .addCharacteristics(
+            CharacteristicInput.newBuilder()
+                .setCode("CT01")
+                .setType(CharacteristicType.CONSUMPTION_TYPE)
+                .setValue("RESIDENTIAL"))
+        .build();
+  }
+
+  private static ResourceResponse response(long id) {
+    return new ResourceResponse(
+        id,
+        com.kaarelkaasla.enefitresourceservice.entities.ResourceType.METERING_POINT,
+        "EE",
+        1L,
+        NOW,
+        NOW,
+        new LocationResponse(id, "Narva mnt 1", "Tallinn", "10111", "EE"),
+        Set.of(
+            new CharacteristicResponse(
+                id,
+                "CT01",
+                com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType.CONSUMPTION_TYPE,
+                "RESIDENTIAL")));
+  }
+
+  private static com.kaarelkaasla.enefitresourceservice.dtos.ResourceEvent event(
+      com.kaarelkaasla.enefitresourceservice.dtos.ResourceEventType type, long id) {
+    return new com.kaarelkaasla.enefitresourceservice.dtos.ResourceEvent(
+        type,
+        id,
+        type == com.kaarelkaasla.enefitresourceservice.dtos.ResourceEventType.DELETED
+            ? null
+            : EncodedResourceResponse.of(response(id)),
+        NOW,
+        "event-" + id);
+  }
+}
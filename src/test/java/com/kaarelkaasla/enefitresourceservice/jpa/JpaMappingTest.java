@@ -69,6 +69,13 @@ class JpaMappingTest {
     assertThat(codeCol).isNotNull();
     assertThat(codeCol.length()).isEqualTo(5);
     assertThat(codeCol.nullable()).isFalse();
+
+    // Part of the partitioned resource key; updated in the database via ON UPDATE CASCADE
+    Field country = Characteristic.class.getDeclaredField("resourceCountryCode");
+    Column countryCol = country.getAnnotation(Column.class);
+    assertThat(countryCol).isNotNull();
+    assertThat(countryCol.name()).isEqualTo("resource_country_code");
+    assertThat(countryCol.updatable()).isFalse();
   }
 
   @SuppressWarnings("unused")
@@ -0,0 +1,287 @@
+package com.kaarelkaasla.enefitresourceservice.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.kaarelkaasla.enefitresourceservice.dtos.*;
+import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType;
+import com.kaarelkaasla.enefitresourceservice.entities.ResourceType;
+
+/**
+ * Compares the hand-written codecs with Jackson's reflective record handling under the
+ * application's configuration: serialized output must be byte-identical and PatchResourceRequest
+ * must read to the same value, or fail with the same exception type and path.
+ */
+class ResourceJsonCodecsTest {
+
+  private static final String[] TEXTS = {
+    "Narva mnt 1",
+    "Tallinn",
+    "",
+    "quote \" and \\ backslash",
+    "line\nbreak\ttab",
+    "Tõnismägi 😀",
+    null
+  };
+
+  private final ObjectMapper reflective = mapper();
+  private final ObjectMapper codecs = mapper(ResourceJsonCodecs.module(), new BlackbirdModule());
+
+  @Test
+  void shouldWriteResourceResponsesLikeReflectiveSerialization() throws Exception {
+    Random random = new Random(7);
+    for (int i = 0; i < 2_000; i++) {
+      ResourceResponse response = resourceResponse(random);
+      assertThat(codecs.writeValueAsString(response))
+          .isEqualTo(reflective.writeValueAsString(response));
+    }
+  }
+
+  @Test
+  void shouldWriteListsAndNullsLikeReflectiveSerialization() throws Exception {
+    Random random = new Random(11);
+    List<ResourceResponse> responses =
+        Arrays.asList(resourceResponse(random), null, resourceResponse(random));
+    ResourceResponse allNull = new ResourceResponse(null, null, null, null, null, null, null, null);
+    Set<CharacteristicResponse> withNull = new LinkedHashSet<>();
+    withNull.add(null);
+
+    assertThat(codecs.writeValueAsString(responses))
+        .isEqualTo(reflective.writeValueAsString(responses));
+    assertThat(codecs.writeValueAsString(allNull))
+        .isEqualTo(reflective.writeValueAsString(allNull));
+    assertThat(
+            codecs.writeValueAsString(
+                new ResourceResponse(1L, null, "EE", 1L, null, null, null, withNull)))
+        .isEqualTo(
+            reflective.writeValueAsString(
+                new ResourceResponse(1L, null, "EE", 1L, null, null, null, withNull)));
+    assertThat(
+            codecs
+                .writerWithDefaultPrettyPrinter()
+                .writeValueAsString(resourceResponse(new Random(3))))
+        .isEqualTo(
+            reflective
+                .writerWithDefaultPrettyPrinter()
+                .writeValueAsString(resourceResponse(new Random(3))));
+  }
+
+  @Test
+  void shouldWriteEventsLikeReflectiveSerialization() throws Exception {
+    Random random = new Random(13);
+    for (int i = 0; i < 200; i++) {
+      ResourceResponse response = resourceResponse(random);
+      EncodedResourceResponse resource =
+          random.nextBoolean()
+              ? EncodedResourceResponse.of(response)
+              : new EncodedResourceResponse(response, reflective.writeValueAsBytes(response));
+      ResourceEvent event =
+          new ResourceEvent(
+              ResourceEventType.values()[random.nextInt(ResourceEventType.values().length)],
+              response.id(),
+              random.nextInt(10) == 0 ? null : resource,
+              timestamp(random),
+              random.nextInt(10) == 0 ? null : "event-" + i);
+
+      assertThat(codecs.writeValueAsString(event)).isEqualTo(reflective.writeValueAsString(event));
+    }
+  }
+
+  @Test
+  void shouldReadBackWrittenEvents() throws Exception {
+    Random random = new Random(19);
+    for (int i = 0; i < 50; i++) {
+      ResourceResponse response = resourceResponse(random);
+      ResourceEvent event =
+          new ResourceEvent(
+              ResourceEventType.UPDATED,
+              response.id(),
+              new EncodedResourceResponse(response, reflective.writeValueAsBytes(response)),
+              timestamp(random),
+              "event-" + i);
+
+      ResourceEvent read = codecs.readValue(codecs.writeValueAsBytes(event), ResourceEvent.class);
+
+      assertThat(read.resource().json()).isNull();
+      assertThat(read.resource().response())
+          .usingRecursiveComparison()
+          .ignoringCollectionOrder()
+          .withComparatorForType(OffsetDateTime.timeLineOrder(), OffsetDateTime.class)
+          .isEqualTo(response);
+      assertThat(read.eventId()).isEqualTo(event.eventId());
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "{}",
+        "{\"type\": \"CONNECTION_POINT\", \"countryCode\": \"LV\"}",
+        "{\"type\": null, \"countryCode\": null, \"location\": null, \"characteristics\": null}",
+        "{\"location\": {\"streetAddress\": \"Narva mnt 1\", \"city\": \"Tallinn\","
+            + " \"postalCode\": \"10111\", \"countryCode\": \"EE\", \"extra\": 1}}",
+        "{\"characteristics\": [{\"code\": \"CP1\", \"type\": \"CHARGING_POINT\", \"value\":"
+            + " \"CCS\"}, {\"code\": \"CP1\", \"type\": \"CHARGING_POINT\", \"value\": \"CCS\"}]}",
+        "{\"characteristics\": []}",
+        "{\"unknown\": {\"nested\": [1, 2, {\"x\": null}]}, \"countryCode\": \"EE\"}",
+        "{\"countryCode\": 12}",
+        "{\"countryCode\": \"EE\", \"countryCode\": \"FI\"}",
+        "{\"type\": \"SOLAR_PANEL\"}",
+        "{\"type\": 7}",
+        "{\"type\": [\"METERING_POINT\"]}",
+        "{\"countryCode\": {\"a\": 1}}",
+        "{\"location\": \"Tallinn\"}",
+        "{\"location\": {\"city\": [1]}}",
+        "{\"characteristics\": [{\"type\": \"NOPE\"}]}",
+        "{\"characteristics\": {\"code\": \"CP1\"}}",
+        "[]",
+        "\"text\"",
+        "null"
+      })
+  void shouldReadPatchRequestsLikeReflectiveDeserialization(String json) {
+    Object expected = read(reflective, json);
+    Object actual = read(codecs, json);
+
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  void shouldReadBackWrittenPatchRequests() throws Exception {
+    Set<CharacteristicRequest> characteristics = new LinkedHashSet<>();
+    characteristics.add(new CharacteristicRequest("CP1", CharacteristicType.CHARGING_POINT, "CCS"));
+    characteristics.add(new CharacteristicRequest("CT1", null, "Tõnismägi 😀"));
+    PatchResourceRequest request =
+        new PatchResourceRequest(
+            Optional.of(ResourceType.METERING_POINT),
+            Optional.of("EE"),
+            Optional.of(new LocationRequest("Narva mnt 1", "Tallinn", "10111", "EE")),
+            Optional.of(characteristics));
+
+    String json = reflective.writeValueAsString(request);
+
+    assertThat(codecs.readValue(json, PatchResourceRequest.class)).isEqualTo(request);
+  }
+
+  @Test
+  void shouldFormatTimestampsLikeIsoOffsetDateTime() {
+    Random random = new Random(17);
+    char[] buffer = new char[64];
+    for (int i = 0; i < 100_000; i++) {
+      OffsetDateTime value = timestamp(random);
+      if (value.getYear() > 9999) {
+        continue;
+      }
+      assertThat(new String(buffer, 0, JsonTimestamps.format(value, buffer)))
+          .isEqualTo(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value));
+    }
+  }
+
+  private static Object read(ObjectMapper mapper, String json) {
+    JsonMappingException failure =
+        catchThrowableOfType(
+            JsonMappingException.class, () -> mapper.readValue(json, PatchResourceRequest.class));
+    if (failure == null) {
+      try {
+        return mapper.readValue(json, PatchResourceRequest.class);
+      } catch (Exception e) {
+        throw new AssertionError(e);
+      }
+    }
+    List<String> path = new ArrayList<>();
+    failure.getPath().forEach(reference -> path.add(reference.getDescription()));
+    return failure.getClass().getSimpleName() + " at " + path;
+  }
+
+  private static ResourceResponse resourceResponse(Random random) {
+    Set<CharacteristicResponse> characteristics = new LinkedHashSet<>();
+    int count = random.nextInt(6);
+    for (int i = 0; i < count; i++) {
+      characteristics.add(
+          new CharacteristicResponse(
+              random.nextInt(8) == 0 ? null : random.nextLong(),
+              pick(random, TEXTS),
+              random.nextInt(6) == 0 ? null : CharacteristicType.values()[i % 3],
+              pick(random, TEXTS)));
+    }
+    return new ResourceResponse(
+        random.nextInt(8) == 0 ? null : (long) random.nextInt(Integer.MAX_VALUE),
+        random.nextInt(8) == 0 ? null : ResourceType.values()[random.nextInt(2)],
+        pick(random, TEXTS),
+        random.nextInt(8) == 0 ? null : (long) random.nextInt(1_000),
+        random.nextInt(8) == 0 ? null : timestamp(random),
+        random.nextInt(8) == 0 ? null : timestamp(random),
+        random.nextInt(8) == 0
+            ? null
+            : new LocationResponse(
+                random.nextLong(),
+                pick(random, TEXTS),
+                pick(random, TEXTS),
+                pick(random, TEXTS),
+                pick(random, TEXTS)),
+        random.nextInt(8) == 0 ? null : characteristics);
+  }
+
+  private static OffsetDateTime timestamp(Random random) {
+    int year =
+        switch (random.nextInt(10)) {
+          case 0 -> random.nextInt(10_000);
+          case 1 -> 10_000 + random.nextInt(100);
+          default -> 2000 + random.nextInt(50);
+        };
+    int nano =
+        switch (random.nextInt(4)) {
+          case 0 -> 0;
+          case 1 -> random.nextInt(1_000) * 1_000_000;
+          case 2 -> random.nextInt(1_000_000) * 1_000;
+          default -> random.nextInt(1_000_000_000);
+        };
+    int offsetSeconds =
+        switch (random.nextInt(4)) {
+          case 0 -> 0;
+          case 1 -> (random.nextInt(37) - 18) * 3600;
+          case 2 -> (random.nextInt(73) - 36) * 1800;
+          default -> random.nextInt(2 * 18 * 3600 + 1) - 18 * 3600;
+        };
+    return OffsetDateTime.of(
+        year,
+        1 + random.nextInt(12),
+        1 + random.nextInt(28),
+        random.nextInt(24),
+        random.nextInt(60),
+        random.nextInt(60),
+        nano,
+        ZoneOffset.ofTotalSeconds(offsetSeconds));
+  }
+
+  private static String pick(Random random, String[] values) {
+    return values[random.nextInt(values.length)];
+  }
+
+  private static ObjectMapper mapper(com.fasterxml.jackson.databind.Module... modules) {
+    // Spring Boot's defaults: no timestamps for dates, unknown properties ignored
+    return Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .modulesToInstall(modules)
+        .build();
+  }
+}
@@ -0,0 +1,81 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+
+class FileSpanExporterTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @TempDir Path directory;
+
+  @Test
+  void export_AppendsOneJsonLinePerSpan() throws Exception {
+    Path file = directory.resolve("traces/spans.jsonl");
+    try (SdkTracerProvider tracerProvider =
+        SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(new FileSpanExporter(file)))
+            .build()) {
+      Tracer tracer = tracerProvider.get("test");
+      Span parent = tracer.spanBuilder("resource.patch").startSpan();
+      try (Scope scope = parent.makeCurrent()) {
+        tracer
+            .spanBuilder("update resources")
+            .setAttribute("db.statement", "update resources set version=? where id=?")
+            .startSpan()
+            .setStatus(StatusCode.ERROR, "deadlock")
+            .end();
+        parent.addEvent("retry");
+      } finally {
+        parent.end();
+      }
+    }
+
+    List<String> lines = Files.readAllLines(file);
+    assertThat(lines).hasSize(2);
+    JsonNode child = objectMapper.readTree(lines.get(0));
+    JsonNode root = objectMapper.readTree(lines.get(1));
+
+    assertThat(child.get("name").asText()).isEqualTo("update resources");
+    assertThat(child.get("traceId").asText()).isEqualTo(root.get("traceId").asText());
+    assertThat(child.get("parentSpanId").asText()).isEqualTo(root.get("spanId").asText());
+    assertThat(child.get("status").asText()).isEqualTo("ERROR");
+    assertThat(child.get("statusDescription").asText()).isEqualTo("deadlock");
+    assertThat(child.get("attributes").get("db.statement").asText())
+        .isEqualTo("update resources set version=? where id=?");
+    assertThat(root.has("parentSpanId")).isFalse();
+    assertThat(root.get("durationMicros").asLong()).isNotNegative();
+    assertThat(root.get("events").get(0).get("name").asText()).isEqualTo("retry");
+  }
+
+  @Test
+  void export_AppendsToAnExistingFile() throws Exception {
+    Path file = directory.resolve("spans.jsonl");
+    Files.writeString(file, "{}\n");
+
+    try (SdkTracerProvider tracerProvider =
+        SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(new FileSpanExporter(file)))
+            .build()) {
+      tracerProvider.get("test").spanBuilder("resource.get").startSpan().end();
+    }
+
+    assertThat(Files.readAllLines(file)).hasSize(2);
+  }
+}
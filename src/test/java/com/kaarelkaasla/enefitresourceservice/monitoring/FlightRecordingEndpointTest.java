@@ -0,0 +1,127 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.kaarelkaasla.enefitresourceservice.dtos.EncodedResourceResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceEvent;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceResponse;
+import com.kaarelkaasla.enefitresourceservice.services.ResourceEventService;
+import com.kaarelkaasla.enefitresourceservice.services.TimeProvider;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class FlightRecordingEndpointTest {
+
+  @Test
+  void dumpsContinuousRecordingWithoutEnvironment(@TempDir Path dir) throws Exception {
+    ContinuousRecording continuous = new ContinuousRecording(Duration.ofMinutes(5), 10_000_000);
+    List<RecordedEvent> events;
+    try {
+      EventPublishEvent publish = new EventPublishEvent();
+      publish.latency = Duration.ofSeconds(1).toNanos();
+      publish.key = "3";
+      publish.commit();
+
+      WebEndpointResponse<Resource> response = new FlightRecordingEndpoint().dump();
+
+      assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+      Path file = dir.resolve("dump.jfr");
+      try (InputStream body = response.getBody().getInputStream()) {
+        Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      events = RecordingFile.readAllEvents(file);
+    } finally {
+      continuous.destroy();
+    }
+
+    assertThat(events)
+        .filteredOn(event -> event.getEventType().getName().endsWith(".EventPublish"))
+        .anySatisfy(event -> assertThat(event.getString("key")).isEqualTo("3"));
+    assertThat(events)
+        .noneMatch(
+            event -> event.getEventType().getName().equals("jdk.InitialEnvironmentVariable"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void recordsBulkPublishPerSendAllBlockAndBulkDeleteChunk(@TempDir Path dir) throws Exception {
+    KafkaTemplate<String, ResourceEvent> bulkKafkaTemplate = mock(KafkaTemplate.class);
+    when(bulkKafkaTemplate.send(anyString(), anyString(), any(ResourceEvent.class)))
+        .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+    TimeProvider timeProvider = mock(TimeProvider.class);
+    when(timeProvider.now()).thenReturn(OffsetDateTime.now());
+    ResourceEventService eventService =
+        new ResourceEventService(
+            mock(KafkaTemplate.class),
+            bulkKafkaTemplate,
+            timeProvider,
+            new SimpleMeterRegistry(),
+            mock(ApplicationEventPublisher.class));
+    ReflectionTestUtils.setField(eventService, "topicName", "resource-updates");
+    List<EncodedResourceResponse> resources =
+        LongStream.rangeClosed(100_001, 100_501)
+            .mapToObj(
+                id ->
+                    EncodedResourceResponse.of(
+                        new ResourceResponse(
+                            id, null, "EE", null, OffsetDateTime.now(), null, null, Set.of())))
+            .toList();
+
+    ContinuousRecording continuous = new ContinuousRecording(Duration.ofMinutes(5), 10_000_000);
+    List<RecordedEvent> events;
+    try {
+      eventService.publishBatchNotification(resources);
+      eventService.publishResourcesDeleted(List.of(100_601L, 100_602L, 100_605L)).join();
+
+      Path file = dir.resolve("dump.jfr");
+      try (InputStream body = new FlightRecordingEndpoint().dump().getBody().getInputStream()) {
+        Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      events = RecordingFile.readAllEvents(file);
+    } finally {
+      continuous.destroy();
+    }
+
+    assertThat(events)
+        .filteredOn(event -> event.getEventType().getName().endsWith(".BulkPublish"))
+        // Other recordings in this JVM may hold blocks from other tests
+        .filteredOn(event -> event.getLong("firstId") > 100_000)
+        .extracting(
+            event -> event.getString("operation"),
+            event -> event.getInt("events"),
+            event -> event.getInt("failed"),
+            event -> event.getLong("firstId"),
+            event -> event.getLong("lastId"))
+        .containsExactlyInAnyOrder(
+            tuple("send-all", 500, 0, 100_001L, 100_500L),
+            tuple("send-all", 1, 0, 100_501L, 100_501L),
+            tuple("bulk-delete", 3, 0, 100_601L, 100_605L));
+  }
+}
@@ -0,0 +1,40 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyThresholdSettingTest {
+
+  @Test
+  void parsesTheThresholdSyntax() {
+    assertThat(LatencyThresholdSetting.parse("0 ns")).isZero();
+    assertThat(LatencyThresholdSetting.parse("50 ms")).isEqualTo(50_000_000L);
+    assertThat(LatencyThresholdSetting.parse("2s")).isEqualTo(2_000_000_000L);
+    assertThatThrownBy(() -> LatencyThresholdSetting.parse("fast"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void lowestThresholdOfAllRecordingsApplies() {
+    LatencyThresholdSetting setting = new LatencyThresholdSetting();
+
+    setting.setValue(setting.combine(Set.of("50 ms", "1 s", "100 us")));
+
+    assertThat(setting.getValue()).isEqualTo("100 us");
+    assertThat(setting.nanos()).isEqualTo(100_000L);
+  }
+
+  @Test
+  void missingCombinedValue_RecordsEverything() {
+    LatencyThresholdSetting setting = new LatencyThresholdSetting();
+    setting.setValue("50 ms");
+
+    setting.setValue(null);
+
+    assertThat(setting.nanos()).isZero();
+  }
+}
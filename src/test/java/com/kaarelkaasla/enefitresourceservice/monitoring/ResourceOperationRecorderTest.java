@@ -0,0 +1,162 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import io.micrometer.core.annotation.Timed;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+class ResourceOperationRecorderTest {
+
+  private final SqlStatementCounter counter = new SqlStatementCounter();
+  private AnnotationConfigApplicationContext context;
+  private Operations operations;
+  private Recording recording;
+  private Instant started;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    JdbcDataSource h2 = new JdbcDataSource();
+    h2.setURL("jdbc:h2:mem:recorder;DB_CLOSE_DELAY=-1");
+    try (Connection connection = h2.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS items");
+      statement.execute("CREATE TABLE items (id INT PRIMARY KEY)");
+      statement.execute("INSERT INTO items VALUES (1), (2)");
+    }
+    DataSource dataSource =
+        ProxyDataSourceBuilder.create(h2)
+            .listener(counter)
+            .methodListener(counter)
+            .proxyResultSet()
+            .build();
+
+    context = new AnnotationConfigApplicationContext();
+    context.registerBean(AnnotationAwareAspectJAutoProxyCreator.class);
+    context.registerBean(
+        ResourceOperationRecorder.class, () -> new ResourceOperationRecorder(counter));
+    context.registerBean(Operations.class, () -> new Operations(dataSource));
+    context.refresh();
+    operations = context.getBean(Operations.class);
+
+    // Without a threshold of its own the recording would get the continuous one's, if a test
+    // context
+    // started it
+    recording = new Recording();
+    recording.enable(ResourceOperationEvent.class).withThreshold(Duration.ZERO);
+    started = Instant.now();
+    recording.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    recording.close();
+    context.close();
+  }
+
+  @Test
+  void recordsOperationWithResourceIdAndStatements() throws Exception {
+    SqlStatistics request = counter.measure(() -> operations.get(42L)).statistics();
+
+    List<RecordedEvent> events = recordedEvents();
+    assertThat(events).hasSize(1);
+    RecordedEvent event = events.get(0);
+    assertThat(event.getString("operation")).isEqualTo("get");
+    assertThat(event.getLong("resourceId")).isEqualTo(42L);
+    assertThat(event.getInt("statements")).isEqualTo(2);
+    assertThat(event.getLong("rows")).isEqualTo(2);
+    assertThat(event.getString("outcome")).isEqualTo("success");
+    // The enclosing scope still sees the operation's statements
+    assertThat(request.getStatements()).isEqualTo(2);
+  }
+
+  @Test
+  void recordsFailureOutcome() throws Exception {
+    assertThatThrownBy(() -> operations.delete(7L)).isInstanceOf(IllegalStateException.class);
+
+    List<RecordedEvent> events = recordedEvents();
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getString("operation")).isEqualTo("delete");
+    assertThat(events.get(0).getString("outcome")).isEqualTo("IllegalStateException");
+  }
+
+  @Test
+  void ignoresMethodsWithoutOperationTag() throws Exception {
+    operations.untagged(3L);
+
+    assertThat(recordedEvents()).isEmpty();
+  }
+
+  private List<RecordedEvent> recordedEvents() throws Exception {
+    recording.stop();
+    Path file = Files.createTempFile("recorder-test", ".jfr");
+    try {
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file).stream()
+          .filter(event -> event.getEventType().getName().endsWith(".ResourceOperation"))
+          // Dumps hold whole chunks, which can include events from before this recording started
+          .filter(event -> !event.getStartTime().isBefore(started))
+          .toList();
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  static class Operations {
+
+    private final DataSource dataSource;
+
+    Operations(DataSource dataSource) {
+      this.dataSource = dataSource;
+    }
+
+    @Timed(
+        value = "test.operations",
+        extraTags = {"operation", "get"})
+    public int get(Long id) {
+      int rows = 0;
+      try (Connection connection = dataSource.getConnection();
+          Statement statement = connection.createStatement()) {
+        statement.execute("SELECT 1");
+        try (ResultSet resultSet = statement.executeQuery("SELECT id FROM items")) {
+          while (resultSet.next()) {
+            rows++;
+          }
+        }
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+      return rows;
+    }
+
+    @Timed(
+        value = "test.operations",
+        extraTags = {"operation", "delete"})
+    public void delete(Long id) {
+      throw new IllegalStateException("gone");
+    }
+
+    @Timed("test.untagged")
+    public void untagged(Long id) {}
+  }
+}
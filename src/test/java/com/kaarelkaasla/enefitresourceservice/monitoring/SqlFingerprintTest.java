@@ -0,0 +1,59 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SqlFingerprintTest {
+
+  @Test
+  void literalsAndWhitespace_AreNormalized() {
+    SqlFingerprint fingerprint =
+        SqlFingerprint.of(
+            "select r.id\n  from resources r where r.country_code = 'EE' and r.version > 12.5");
+
+    assertThat(fingerprint.sql())
+        .isEqualTo("select r.id from resources r where r.country_code = ? and r.version > ?");
+    assertThat(fingerprint.operation()).isEqualTo("select");
+    assertThat(fingerprint.table()).isEqualTo("resources");
+  }
+
+  @Test
+  void inListsOfAnyLength_ShareOneFingerprint() {
+    SqlFingerprint two = SqlFingerprint.of("select * from resources r1_0 where r1_0.id in (?,?)");
+    SqlFingerprint eight =
+        SqlFingerprint.of("select * from resources r1_0 where r1_0.id in (?, ?, ?, ?, ?, ?, ?, ?)");
+
+    assertThat(two.sql()).isEqualTo("select * from resources r1_0 where r1_0.id in (?)");
+    assertThat(eight.id()).isEqualTo(two.id());
+  }
+
+  @Test
+  void identifiersWithDigits_AreKept() {
+    SqlFingerprint fingerprint =
+        SqlFingerprint.of("update locations l1_0 set city=? where l1_0.resource_id=42");
+
+    assertThat(fingerprint.sql())
+        .isEqualTo("update locations l1_0 set city=? where l1_0.resource_id=?");
+    assertThat(fingerprint.operation()).isEqualTo("update");
+    assertThat(fingerprint.table()).isEqualTo("locations");
+  }
+
+  @Test
+  void multiRowValues_CollapseToOneRow() {
+    SqlFingerprint fingerprint =
+        SqlFingerprint.of("insert into characteristics (code,type) values (?,?),(?,?),(?,?)");
+
+    assertThat(fingerprint.sql()).isEqualTo("insert into characteristics (code,type) values (?,?)");
+    assertThat(fingerprint.table()).isEqualTo("characteristics");
+  }
+
+  @Test
+  void differentStatements_HaveDifferentIds() {
+    assertThat(SqlFingerprint.of("select 1").id())
+        .hasSize(8)
+        .isNotEqualTo(SqlFingerprint.of("delete from resources where id=?").id());
+    assertThat(SqlFingerprint.of("select nextval('resources_seq')").table()).isEqualTo("none");
+    assertThat(SqlFingerprint.of("vacuum").operation()).isEqualTo("other");
+  }
+}
@@ -0,0 +1,39 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * MockMvc matchers asserting how many JDBC statements a request executed, as recorded by
+ * SqlStatementBudgetFilter. Needs the full application context, where SqlMonitoringConfig
+ * registers the filter.
+ */
+public final class SqlStatementBudget {
+
+  private SqlStatementBudget() {}
+
+  public static ResultMatcher statements(int expected) {
+    return result ->
+        assertThat(statementsOf(result))
+            .as("JDBC statements for %s", result.getRequest().getRequestURI())
+            .isEqualTo(expected);
+  }
+
+  public static ResultMatcher atMostStatements(int budget) {
+    return result ->
+        assertThat(statementsOf(result))
+            .as("JDBC statements for %s", result.getRequest().getRequestURI())
+            .isLessThanOrEqualTo(budget);
+  }
+
+  private static int statementsOf(MvcResult result) {
+    Object statistics =
+        result.getRequest().getAttribute(SqlStatementBudgetFilter.STATISTICS_ATTRIBUTE);
+    assertThat(statistics)
+        .withFailMessage("No SQL statistics on the request; is SqlStatementBudgetFilter active?")
+        .isInstanceOf(SqlStatistics.class);
+    return ((SqlStatistics) statistics).getStatements();
+  }
+}
@@ -0,0 +1,205 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import static com.kaarelkaasla.enefitresourceservice.monitoring.SqlStatementBudget.statements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaarelkaasla.enefitresourceservice.services.ResourceEventService;
+import com.kaarelkaasla.enefitresourceservice.services.ResourceResponseCache;
+
+/**
+ * Pins the number of JDBC statements each endpoint executes, so fetch-strategy or orphan-removal
+ * regressions fail here. Runs the real JPA stack on H2 with the schema generated from the entities.
+ */
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:sqlbudget;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.show-sql=false",
+      "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+      "spring.flyway.enabled=false",
+      "spring.kafka.admin.auto-create=false",
+      "app.grpc.port=0"
+    })
+@AutoConfigureMockMvc
+class SqlStatementBudgetTest {
+
+  private static final String RESOURCE_JSON =
+      """
+      {
+        "type": "METERING_POINT",
+        "countryCode": "EE",
+        "location": {
+          "streetAddress": "Narva mnt 1",
+          "city": "Tallinn",
+          "postalCode": "10111",
+          "countryCode": "EE"
+        },
+        "characteristics": [
+          {"code": "CT01", "type": "CONSUMPTION_TYPE", "value": "RESIDENTIAL"},
+          {"code": "CP01", "type": "CHARGING_POINT", "value": "CCS"}
+        ]
+      }
+      """;
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private ResourceResponseCache responseCache;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @MockitoBean private ResourceEventService resourceEventService;
+
+  private long id;
+
+  @BeforeEach
+  void createResource() throws Exception {
+    String body =
+        mockMvc
+            .perform(
+                post("/api/v1/resources")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(RESOURCE_JSON))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    id = objectMapper.readTree(body).get("id").asLong();
+  }
+
+  @Test
+  void create_InsertsResourceLocationAndEachCharacteristic() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/resources")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(RESOURCE_JSON))
+        .andExpect(status().isCreated())
+        .andExpect(statements(4));
+  }
+
+  // The version lookup only; create cached the response for that version
+  @Test
+  void getById_Cached_ReadsVersionOnly() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/resources/{id}", id))
+        .andExpect(status().isOk())
+        .andExpect(statements(1));
+  }
+
+  @Test
+  void getById_NotCached_ReadsVersionThenUsesSingleFetchJoin() throws Exception {
+    responseCache.evict(id);
+
+    mockMvc
+        .perform(get("/api/v1/resources/{id}", id))
+        .andExpect(status().isOk())
+        .andExpect(statements(2));
+  }
+
+  @Test
+  void getAll_UsesSingleFetchJoinRegardlessOfSize() throws Exception {
+    createResource();
+    createResource();
+
+    mockMvc.perform(get("/api/v1/resources")).andExpect(status().isOk()).andExpect(statements(1));
+  }
+
+  @Test
+  void getByIds_UsesSingleQueryRegardlessOfCount() throws Exception {
+    createResource();
+
+    mockMvc
+        .perform(get("/api/v1/resources").param("ids", id + "," + Long.MAX_VALUE + "," + id))
+        .andExpect(status().isOk())
+        .andExpect(statements(1));
+  }
+
+  @Test
+  void getById_Missing_UsesSingleStatement() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/resources/{id}", Long.MAX_VALUE))
+        .andExpect(status().isNotFound())
+        .andExpect(statements(1));
+  }
+
+  // One fetch join, the version bump, then one insert per new and one delete per orphaned
+  // characteristic
+  @Test
+  void put_ReplacingCharacteristics_DeletesOrphansAndInsertsNew() throws Exception {
+    String replacement =
+        RESOURCE_JSON.replace("\"CT01\"", "\"CT02\"").replace("\"CP01\"", "\"CP02\"");
+
+    mockMvc
+        .perform(
+            put("/api/v1/resources/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(replacement))
+        .andExpect(status().isOk())
+        .andExpect(statements(6));
+  }
+
+  @Test
+  void patch_CountryOnly_LoadsAndUpdatesOnce() throws Exception {
+    mockMvc
+        .perform(
+            patch("/api/v1/resources/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"countryCode\": \"LV\"}"))
+        .andExpect(status().isOk())
+        .andExpect(statements(2));
+  }
+
+  // The location and characteristic rows go through ON DELETE CASCADE
+  @Test
+  void delete_UsesSingleStatement() throws Exception {
+    mockMvc
+        .perform(delete("/api/v1/resources/{id}", id))
+        .andExpect(status().isNoContent())
+        .andExpect(statements(1));
+  }
+
+  @Test
+  void delete_RemovesLocationAndCharacteristicRows() throws Exception {
+    mockMvc.perform(delete("/api/v1/resources/{id}", id)).andExpect(status().isNoContent());
+
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM locations WHERE resource_id = ?", Long.class, id))
+        .isZero();
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM characteristics WHERE resource_id = ?", Long.class, id))
+        .isZero();
+  }
+
+  @Test
+  void delete_Missing_UsesSingleStatement() throws Exception {
+    mockMvc
+        .perform(delete("/api/v1/resources/{id}", Long.MAX_VALUE))
+        .andExpect(status().isNotFound())
+        .andExpect(statements(1));
+  }
+
+  @Test
+  void sendAll_UsesSingleFetchJoin() throws Exception {
+    mockMvc
+        .perform(post("/api/v1/resources/send-all"))
+        .andExpect(status().isOk())
+        .andExpect(statements(1));
+  }
+}
@@ -0,0 +1,129 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+class SqlStatementCounterTest {
+
+  private final SqlStatementCounter counter = new SqlStatementCounter();
+  private DataSource dataSource;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    JdbcDataSource h2 = new JdbcDataSource();
+    h2.setURL("jdbc:h2:mem:counter;DB_CLOSE_DELAY=-1");
+    try (Connection connection = h2.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS items");
+      statement.execute("CREATE TABLE items (id INT PRIMARY KEY)");
+    }
+    dataSource =
+        ProxyDataSourceBuilder.create(h2)
+            .listener(counter)
+            .methodListener(counter)
+            .proxyResultSet()
+            .build();
+  }
+
+  @Test
+  void countsStatementsRowsAndRepeatsWithinScope() {
+    SqlStatistics statistics =
+        counter
+            .measure(
+                () -> {
+                  for (int i = 1; i <= 3; i++) {
+                    execute("INSERT INTO items SELECT COALESCE(MAX(id), 0) + 1 FROM items");
+                  }
+                  return readAll();
+                })
+            .statistics();
+
+    assertThat(statistics.getStatements()).isEqualTo(4);
+    // three inserted + three read
+    assertThat(statistics.getRows()).isEqualTo(6);
+    assertThat(statistics.mostRepeatedStatement())
+        .hasValueSatisfying(entry -> assertThat(entry.getValue()).isEqualTo(3));
+  }
+
+  @Test
+  void ignoresStatementsOutsideScopeAndRestoresEnclosingScope() {
+    execute("INSERT INTO items VALUES (1)");
+
+    SqlStatistics outer =
+        counter
+            .measure(
+                () -> {
+                  SqlStatistics inner = counter.measure(this::readAll).statistics();
+                  assertThat(inner.getStatements()).isEqualTo(1);
+                  return readAll();
+                })
+            .statistics();
+
+    assertThat(outer.getStatements()).isEqualTo(1);
+  }
+
+  @Test
+  void closesScopeWhenActionThrows() {
+    assertThatThrownBy(
+            () ->
+                counter.measure(
+                    () -> {
+                      throw new IllegalStateException("boom");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+
+    SqlStatistics statistics = counter.measure(this::readAll).statistics();
+    assertThat(statistics.getStatements()).isEqualTo(1);
+  }
+
+  @Test
+  void propagate_CountsWorkOnAnotherThreadInCallersScope() {
+    SqlStatistics statistics =
+        counter
+            .measure(
+                () ->
+                    CompletableFuture.supplyAsync(counter.propagate(this::readAll))
+                        .thenCompose(rows -> CompletableFuture.supplyAsync(this::readAll))
+                        .join())
+            .statistics();
+
+    // The second, unpropagated read is not counted
+    assertThat(statistics.getStatements()).isEqualTo(1);
+  }
+
+  private void execute(String sql) {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate(sql);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private Integer readAll() {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement("SELECT id FROM items");
+        ResultSet rows = statement.executeQuery()) {
+      int count = 0;
+      while (rows.next()) {
+        count++;
+      }
+      return count;
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+class SqlStatementTimerTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  // Read from the logger rather than stdout, which the async appender writes from another thread
+  private final Logger timerLog = (Logger) LoggerFactory.getLogger(SqlStatementTimer.class);
+  private final ListAppender<ILoggingEvent> logged = new ListAppender<>();
+  private JdbcDataSource h2;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    h2 = new JdbcDataSource();
+    h2.setURL("jdbc:h2:mem:timer;DB_CLOSE_DELAY=-1");
+    try (Connection connection = h2.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS items");
+      statement.execute("CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(20))");
+      statement.execute("INSERT INTO items VALUES (1, 'one'), (2, 'two'), (3, 'three')");
+    }
+    logged.start();
+    timerLog.addAppender(logged);
+  }
+
+  @AfterEach
+  void tearDown() {
+    timerLog.detachAppender(logged);
+  }
+
+  @Test
+  void statementsDifferingInValuesAndListSize_ShareOneTimer() {
+    DataSource dataSource = proxied(new SqlStatementTimer(meterRegistry, Duration.ofHours(1), 10));
+
+    query(dataSource, "SELECT name FROM items WHERE id IN (?)", 1);
+    query(dataSource, "SELECT name FROM items WHERE id IN (?, ?)", 1, 2);
+    query(dataSource, "SELECT name FROM items WHERE id = 3");
+
+    Timer inList =
+        meterRegistry
+            .get(SqlStatementTimer.TIMER)
+            .tag("fingerprint", SqlFingerprint.of("SELECT name FROM items WHERE id IN (?)").id())
+            .tag("operation", "select")
+            .tag("table", "items")
+            .timer();
+    assertThat(inList.count()).isEqualTo(2);
+    assertThat(meterRegistry.get(SqlStatementTimer.TIMER).timers()).hasSize(3);
+  }
+
+  @Test
+  void beyondMaxFingerprints_TimesAsOther() {
+    DataSource dataSource = proxied(new SqlStatementTimer(meterRegistry, Duration.ofHours(1), 1));
+
+    query(dataSource, "SELECT name FROM items WHERE id = ?", 1);
+    query(dataSource, "SELECT id FROM items WHERE name = ?", "two");
+
+    assertThat(
+            meterRegistry.get(SqlStatementTimer.TIMER).tag("fingerprint", "other").timer().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void ddl_IsTimedAsOtherAndNewFingerprintsAreNotLoggedAtInfo() throws Exception {
+    DataSource dataSource = proxied(new SqlStatementTimer(meterRegistry, Duration.ofHours(1), 10));
+
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE IF NOT EXISTS tags (id INT PRIMARY KEY)");
+      statement.execute("DROP TABLE tags");
+    }
+    query(dataSource, "SELECT name FROM items WHERE id = ?", 1);
+
+    assertThat(meterRegistry.get(SqlStatementTimer.TIMER).timers())
+        .extracting(timer -> timer.getId().getTag("operation"))
+        .containsExactlyInAnyOrder("other", "select");
+    assertThat(
+            meterRegistry.get(SqlStatementTimer.TIMER).tag("fingerprint", "other").timer().count())
+        .isEqualTo(2);
+    assertThat(logged.list).noneMatch(event -> event.getLevel().isGreaterOrEqual(Level.INFO));
+  }
+
+  @Test
+  void slowStatement_IsLoggedWithParametersAndRepositoryMethod() {
+    DataSource dataSource = proxied(new SqlStatementTimer(meterRegistry, Duration.ZERO, 10));
+    ProxyFactory proxyFactory =
+        new ProxyFactory(
+            (Items) name -> query(dataSource, "SELECT id FROM items WHERE name = ?", name));
+    proxyFactory.addAdvice(new RepositoryCallTracker(Items.class));
+    Items items = (Items) proxyFactory.getProxy();
+
+    items.findByName("three");
+
+    assertThat(logged.list)
+        .filteredOn(event -> event.getLevel() == Level.WARN)
+        .singleElement()
+        .extracting(ILoggingEvent::getFormattedMessage)
+        .asString()
+        .contains("Slow SQL")
+        .contains("in Items.findByName from ")
+        .contains("SELECT id FROM items WHERE name = ? params=['three']");
+    assertThat(RepositoryCallTracker.current()).isNull();
+  }
+
+  interface Items {
+    int findByName(String name);
+  }
+
+  private DataSource proxied(SqlStatementTimer timer) {
+    return ProxyDataSourceBuilder.create(h2).listener(timer).build();
+  }
+
+  private static int query(DataSource dataSource, String sql, Object... parameters) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(sql)) {
+      for (int i = 0; i < parameters.length; i++) {
+        statement.setObject(i + 1, parameters[i]);
+      }
+      try (ResultSet rows = statement.executeQuery()) {
+        int count = 0;
+        while (rows.next()) {
+          count++;
+        }
+        return count;
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import com.kaarelkaasla.enefitresourceservice.monitoring.StartupTimelineReport.StepTime;
+
+class StartupTimelineReportTest {
+
+  @Test
+  void ranksStepsByTimeNotSpentInNestedSteps() throws InterruptedException {
+    BufferingApplicationStartup startup = new BufferingApplicationStartup(16);
+    StartupStep outer = startup.start("spring.beans.instantiate").tag("beanName", "outer");
+    StartupStep inner = startup.start("spring.beans.instantiate").tag("beanName", "inner");
+    Thread.sleep(200);
+    inner.end();
+    outer.end();
+    StartupStep other = startup.start("spring.boot.webserver.create");
+    Thread.sleep(100);
+    other.end();
+
+    List<StepTime> slowest =
+        StartupTimelineReport.slowest(startup.getBufferedTimeline().getEvents(), 2);
+
+    assertThat(slowest)
+        .extracting(StepTime::step)
+        .containsExactly(
+            "spring.beans.instantiate[beanName=inner]", "spring.boot.webserver.create");
+    assertThat(slowest.get(0).ownTime()).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+  }
+
+  @Test
+  void keepsOnlyBeanAndPostProcessorTags() {
+    BufferingApplicationStartup startup = new BufferingApplicationStartup(16);
+    startup.start("spring.beans.instantiate").tag("beanName", "a").tag("beanType", "X").end();
+
+    assertThat(StartupTimelineReport.slowest(startup.getBufferedTimeline().getEvents(), 5))
+        .extracting(StepTime::step)
+        .containsExactly("spring.beans.instantiate[beanName=a]");
+  }
+}
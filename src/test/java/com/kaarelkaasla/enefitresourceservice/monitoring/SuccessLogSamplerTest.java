@@ -0,0 +1,73 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+class SuccessLogSamplerTest {
+
+  private final LoggerContext context = new LoggerContext();
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+  private Logger log;
+
+  @BeforeEach
+  void setUp() {
+    SuccessLogSampler sampler = new SuccessLogSampler();
+    sampler.setContext(context);
+    sampler.addRate("read=0");
+    sampler.addRate("write = 1");
+    sampler.start();
+    context.addTurboFilter(sampler);
+
+    appender.setContext(context);
+    appender.start();
+    log = context.getLogger("test");
+    log.setLevel(Level.DEBUG);
+    log.addAppender(appender);
+  }
+
+  @Test
+  void dropsSuccessLinesAtTheirCategoryRate() {
+    for (int i = 0; i < 100; i++) {
+      log.info(SuccessLogSampler.READ, "Retrieved resource id={}", i);
+      log.info(SuccessLogSampler.WRITE, "Created resource id={}", i);
+    }
+
+    assertThat(appender.list)
+        .hasSize(100)
+        .allSatisfy(event -> assertThat(event.getMessage()).startsWith("Created"));
+  }
+
+  @Test
+  void neverDropsWarningsErrorsOrUnmarkedLines() {
+    log.warn(SuccessLogSampler.READ, "slow read");
+    log.error(SuccessLogSampler.READ, "failed read");
+    log.info("unmarked");
+
+    assertThat(appender.list)
+        .extracting(ILoggingEvent::getMessage)
+        .containsExactly("slow read", "failed read", "unmarked");
+  }
+
+  @Test
+  void samplesAShareOfLines() {
+    SuccessLogSampler sampler = new SuccessLogSampler();
+    sampler.addRate("read=0.5");
+    sampler.start();
+    context.resetTurboFilterList();
+    context.addTurboFilter(sampler);
+
+    for (int i = 0; i < 10_000; i++) {
+      log.info(SuccessLogSampler.READ, "Retrieved resource id={}", i);
+    }
+
+    assertThat(appender.list).hasSizeBetween(4_000, 6_000);
+  }
+}
@@ -0,0 +1,231 @@
+package com.kaarelkaasla.enefitresourceservice.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.test.context.bean.override.convention.TestBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceEvent;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Traces a PATCH end to end on H2 with a mock Kafka producer: the HTTP request, the service
+ * operation, its JDBC statements and connection waits and the event send must form one trace, and
+ * the sent record must carry that trace in its traceparent header.
+ */
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:tracing;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+      "spring.flyway.enabled=false",
+      "spring.kafka.admin.auto-create=false",
+      "app.grpc.port=0",
+      "management.tracing.sampling.probability=1.0"
+    })
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+class TracingTest {
+
+  // Shared by every send, so kept open when the template closes its producer
+  private static final MockProducer<String, ResourceEvent> PRODUCER =
+      new MockProducer<>(true, null, new StringSerializer(), new JsonSerializer<>()) {
+        @Override
+        public void close(Duration timeout) {}
+      };
+
+  private static final String RESOURCE_JSON =
+      """
+      {
+        "type": "METERING_POINT",
+        "countryCode": "EE",
+        "location": {
+          "streetAddress": "Narva mnt 1",
+          "city": "Tallinn",
+          "postalCode": "10111",
+          "countryCode": "EE"
+        },
+        "characteristics": [
+          {"code": "CT01", "type": "CONSUMPTION_TYPE", "value": "RESIDENTIAL"}
+        ]
+      }
+      """;
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private SdkTracerProvider tracerProvider;
+  @Autowired private CollectedSpans spans;
+
+  @TestBean(name = "producerFactory", methodName = "mockProducerFactory")
+  private ProducerFactory<String, ResourceEvent> producerFactory;
+
+  static ProducerFactory<String, ResourceEvent> mockProducerFactory() {
+    return new MockProducerFactory<>(() -> PRODUCER) {
+      // Read by the template's observation for the span's server address
+      @Override
+      public Map<String, Object> getConfigurationProperties() {
+        return Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+      }
+    };
+  }
+
+  private long id;
+
+  @BeforeEach
+  void createResource() throws Exception {
+    String body =
+        mockMvc
+            .perform(
+                post("/api/v1/resources")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(RESOURCE_JSON))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    id = objectMapper.readTree(body).get("id").asLong();
+    flush();
+    spans.clear();
+    PRODUCER.clear();
+  }
+
+  @Test
+  void patch_IsOneTraceFromRequestThroughJdbcToKafka() throws Exception {
+    mockMvc
+        .perform(
+            patch("/api/v1/resources/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"countryCode\": \"EE\", \"type\": \"CONNECTION_POINT\"}"))
+        .andExpect(status().isOk());
+    flush();
+
+    SpanData request = spans.single(span -> span.getKind() == SpanKind.SERVER);
+    String traceId = request.getTraceId();
+    assertThat(spans.all()).allMatch(span -> span.getTraceId().equals(traceId));
+
+    SpanData operation = spans.single(span -> span.getName().equals("resource.patch"));
+    assertThat(operation.getParentSpanId()).isEqualTo(request.getSpanId());
+    assertThat(operation.getAttributes().asMap().toString()).contains("resource.id=" + id);
+
+    List<SpanData> statements = spans.matching(span -> span.getName().endsWith(" resources"));
+    assertThat(statements)
+        .extracting(SpanData::getName)
+        .contains("select resources", "update resources");
+    assertThat(statements)
+        .allMatch(span -> span.getKind() == SpanKind.CLIENT)
+        .allMatch(span -> isWithin(span, operation));
+    assertThat(spans.matching(span -> span.getName().equals("connection"))).isNotEmpty();
+
+    SpanData send = spans.single(span -> span.getKind() == SpanKind.PRODUCER);
+    assertThat(isWithin(send, operation)).isTrue();
+    ProducerRecord<String, ResourceEvent> record = PRODUCER.history().getLast();
+    Header traceparent = record.headers().lastHeader("traceparent");
+    assertThat(new String(traceparent.value()))
+        .startsWith("00-" + traceId + "-" + send.getSpanId());
+  }
+
+  private void flush() {
+    tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+  }
+
+  private boolean isWithin(SpanData span, SpanData ancestor) {
+    SpanData current = span;
+    while (current != null) {
+      if (current.getParentSpanId().equals(ancestor.getSpanId())) {
+        return true;
+      }
+      String parentId = current.getParentSpanId();
+      current =
+          spans.all().stream()
+              .filter(candidate -> candidate.getSpanId().equals(parentId))
+              .findFirst()
+              .orElse(null);
+    }
+    return false;
+  }
+
+  @TestConfiguration
+  static class Config {
+
+    @Bean
+    CollectedSpans collectedSpans() {
+      return new CollectedSpans();
+    }
+  }
+
+  static class CollectedSpans implements SpanExporter {
+
+    private final List<SpanData> spans = new CopyOnWriteArrayList<>();
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> exported) {
+      spans.addAll(exported);
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    List<SpanData> all() {
+      return List.copyOf(spans);
+    }
+
+    List<SpanData> matching(Predicate<SpanData> predicate) {
+      return spans.stream().filter(predicate).toList();
+    }
+
+    SpanData single(Predicate<SpanData> predicate) {
+      List<SpanData> matching = matching(predicate);
+      assertThat(matching).hasSize(1);
+      return matching.get(0);
+    }
+
+    void clear() {
+      spans.clear();
+    }
+  }
+}
@@ -36,4 +36,51 @@ class SchemaMigrationsTest {
             "CHECK (type IN ('CONSUMPTION_TYPE', 'CHARGING_POINT', 'CONNECTION_POINT_STATUS'))");
     assertThat(v1).contains("code VARCHAR(5) NOT NULL");
   }
+
+  @Test
+  @DisplayName("Partitioning migration keeps composite keys and cascading foreign keys")
+  void partitioningMigration_DefinesPartitionsAndKeys() throws IOException {
+    String v2 = readClasspath("db/migration/V2__Partition_resources_and_characteristics.sql");
+
+    assertThat(v2).contains("PARTITION BY LIST (country_code)");
+    assertThat(v2).contains("PARTITION OF resources_partitioned DEFAULT");
+    assertThat(v2).contains("PARTITION BY HASH (resource_id)");
+    assertThat(v2).contains("PRIMARY KEY (id, country_code)");
+    assertThat(v2).contains("PRIMARY KEY (id, resource_id)");
+
+    assertThat(v2).contains("FOREIGN KEY (resource_id, country_code)");
+    assertThat(v2).contains("FOREIGN KEY (resource_id, resource_country_code)");
+    assertThat(v2).contains("ON UPDATE CASCADE");
+    assertThat(v2).contains("DEFERRABLE INITIALLY DEFERRED");
+
+    // Sequences must survive the table swap so existing ids keep increasing
+    assertThat(v2).contains("ALTER SEQUENCE resources_id_seq OWNED BY NONE");
+    assertThat(v2).contains("ALTER SEQUENCE characteristics_id_seq OWNED BY NONE");
+  }
+
+  @Test
+  @DisplayName("Characteristics document migration adds trigger-maintained JSONB with GIN index")
+  void characteristicsDocumentMigration_DefinesColumnTriggerAndIndex() throws IOException {
+    String v3 = readClasspath("db/migration/V3__Add_resource_characteristics_document.sql");
+
+    assertThat(v3).contains("ADD COLUMN characteristics JSONB NOT NULL DEFAULT '[]'::jsonb");
+    assertThat(v3)
+        .contains("AFTER INSERT OR DELETE OR UPDATE OF resource_id, code, type, char_value");
+    assertThat(v3).contains("USING GIN (characteristics jsonb_path_ops)");
+
+    // Existing rows are backfilled before the trigger takes over
+    assertThat(v3).contains("UPDATE resources r SET characteristics");
+  }
+
+  @Test
+  @DisplayName("Characteristics document is rebuilt once per statement from transition tables")
+  void characteristicsDocumentSyncMigration_UsesStatementLevelTriggers() throws IOException {
+    String v4 = readClasspath("db/migration/V4__Sync_characteristics_document_per_statement.sql");
+
+    assertThat(v4).contains("DROP TRIGGER trg_characteristics_document ON characteristics");
+    assertThat(v4).contains("REFERENCING NEW TABLE AS new_characteristics");
+    assertThat(v4).contains("REFERENCING OLD TABLE AS old_characteristics");
+    assertThat(v4).doesNotContain("FOR EACH ROW");
+    assertThat(v4).contains("FOR EACH STATEMENT");
+  }
 }
@@ -0,0 +1,154 @@
+package com.kaarelkaasla.enefitresourceservice.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs a bulk delete through the API against H2, covering the locking chunk query and the
+ * cascading delete. Uses the same context configuration as SqlStatementBudgetTest so the cached
+ * context is shared.
+ */
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:sqlbudget;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.show-sql=false",
+      "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+      "spring.flyway.enabled=false",
+      "spring.kafka.admin.auto-create=false",
+      "app.grpc.port=0"
+    })
+@AutoConfigureMockMvc
+class BulkDeleteIntegrationTest {
+
+  private static final String RESOURCE_JSON =
+      """
+      {
+        "type": "%s",
+        "countryCode": "%s",
+        "location": {
+          "streetAddress": "Brivibas iela 1",
+          "city": "Riga",
+          "postalCode": "10111",
+          "countryCode": "%s"
+        },
+        "characteristics": [
+          {"code": "CT01", "type": "CONSUMPTION_TYPE", "value": "RESIDENTIAL"}
+        ]
+      }
+      """;
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @MockitoBean private ResourceEventService resourceEventService;
+
+  @Test
+  void deleteResources_DeletesOnlyMatchingResourcesAndTheirChildren() throws Exception {
+    when(resourceEventService.publishResourcesDeleted(any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    long lvMetering1 = create("METERING_POINT", "LT");
+    long lvMetering2 = create("METERING_POINT", "LT");
+    long lvConnection = create("CONNECTION_POINT", "LT");
+    long eeMetering = create("METERING_POINT", "EE");
+
+    JsonNode accepted =
+        json(
+            mockMvc
+                .perform(
+                    delete("/api/v1/resources")
+                        .param("type", "METERING_POINT")
+                        .param("countryCode", "LT"))
+                .andExpect(status().isAccepted())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+    JsonNode finished = awaitFinished(accepted.get("operationId").asText());
+
+    assertThat(finished.get("status").asText()).isEqualTo("COMPLETED");
+    assertThat(finished.get("deletedCount").asLong()).isEqualTo(2);
+    assertThat(
+            ids(
+                "SELECT id FROM resources WHERE id IN (?, ?, ?, ?)",
+                lvMetering1,
+                lvMetering2,
+                lvConnection,
+                eeMetering))
+        .containsExactlyInAnyOrder(lvConnection, eeMetering);
+    assertThat(
+            ids(
+                "SELECT resource_id FROM characteristics WHERE resource_id IN (?, ?)",
+                lvMetering1,
+                lvMetering2))
+        .isEmpty();
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Long>> events = ArgumentCaptor.forClass(List.class);
+    verify(resourceEventService).publishResourcesDeleted(events.capture());
+    assertThat(events.getValue()).containsExactly(lvMetering1, lvMetering2);
+  }
+
+  private long create(String type, String countryCode) throws Exception {
+    String body =
+        mockMvc
+            .perform(
+                post("/api/v1/resources")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(RESOURCE_JSON.formatted(type, countryCode, countryCode)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return json(body).get("id").asLong();
+  }
+
+  private List<Long> ids(String sql, Object... args) {
+    return jdbcTemplate.queryForList(sql, Long.class, args);
+  }
+
+  private JsonNode awaitFinished(String operationId) throws Exception {
+    for (int i = 0; i < 250; i++) {
+      JsonNode operation =
+          json(
+              mockMvc
+                  .perform(get("/api/v1/operations/{id}", operationId))
+                  .andExpect(status().isOk())
+                  .andReturn()
+                  .getResponse()
+                  .getContentAsString());
+      String status = operation.get("status").asText();
+      if (status.equals("COMPLETED") || status.equals("FAILED")) {
+        return operation;
+      }
+      Thread.sleep(20);
+    }
+    throw new AssertionError("Operation " + operationId + " did not finish");
+  }
+
+  private JsonNode json(String body) throws Exception {
+    return objectMapper.readTree(body);
+  }
+}
@@ -0,0 +1,190 @@
+package com.kaarelkaasla.enefitresourceservice.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.kaarelkaasla.enefitresourceservice.dtos.BulkDeleteOperationResponse;
+import com.kaarelkaasla.enefitresourceservice.dtos.BulkDeleteRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.OperationStatus;
+import com.kaarelkaasla.enefitresourceservice.entities.ResourceType;
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceBusyException;
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceNotFoundException;
+import com.kaarelkaasla.enefitresourceservice.monitoring.SqlStatementCounter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BulkDeleteServiceTest {
+
+  private static final BulkDeleteRequest FILTER =
+      new BulkDeleteRequest(ResourceType.METERING_POINT, "LV");
+
+  private final ResourceService resourceService = mock(ResourceService.class);
+  private final ResourceEventService eventService = mock(ResourceEventService.class);
+  private final TimeProvider timeProvider = mock(TimeProvider.class);
+
+  private final BulkWorkExecutor bulkWork =
+      new BulkWorkExecutor(
+          1, 1, Duration.ofSeconds(5), new SqlStatementCounter(), new SimpleMeterRegistry());
+
+  private BulkDeleteService bulkDeleteService;
+
+  @BeforeEach
+  void setUp() {
+    when(timeProvider.now()).thenReturn(OffsetDateTime.parse("2024-01-01T00:00:00Z"));
+    when(eventService.publishResourcesDeleted(any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    bulkDeleteService =
+        new BulkDeleteService(
+            resourceService, eventService, timeProvider, bulkWork, 2, Duration.ZERO, 2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    bulkWork.destroy();
+  }
+
+  @Test
+  void start_DeletesChunksAfterTheLastIdUntilAShortChunk() throws Exception {
+    when(resourceService.deleteChunk(FILTER, 0, 2)).thenReturn(List.of(3L, 5L));
+    when(resourceService.deleteChunk(FILTER, 5, 2)).thenReturn(List.of(8L, 9L));
+    when(resourceService.deleteChunk(FILTER, 9, 2)).thenReturn(List.of(12L));
+
+    BulkDeleteOperationResponse accepted = bulkDeleteService.start(FILTER);
+    BulkDeleteOperationResponse finished = awaitFinished(accepted.operationId());
+
+    assertThat(accepted.status()).isEqualTo(OperationStatus.PENDING);
+    assertThat(finished.status()).isEqualTo(OperationStatus.COMPLETED);
+    assertThat(finished.deletedCount()).isEqualTo(5);
+    assertThat(finished.chunkCount()).isEqualTo(3);
+    assertThat(finished.type()).isEqualTo(ResourceType.METERING_POINT);
+    assertThat(finished.countryCode()).isEqualTo("LV");
+    assertThat(finished.finishedAt()).isNotNull();
+
+    InOrder order = inOrder(resourceService, eventService);
+    order.verify(resourceService).deleteChunk(FILTER, 0, 2);
+    order.verify(eventService).publishResourcesDeleted(List.of(3L, 5L));
+    order.verify(resourceService).deleteChunk(FILTER, 5, 2);
+    order.verify(eventService).publishResourcesDeleted(List.of(8L, 9L));
+    order.verify(resourceService).deleteChunk(FILTER, 9, 2);
+    order.verify(eventService).publishResourcesDeleted(List.of(12L));
+    verifyNoMoreInteractions(resourceService);
+  }
+
+  @Test
+  void start_NothingMatches_CompletesWithoutEvents() throws Exception {
+    when(resourceService.deleteChunk(FILTER, 0, 2)).thenReturn(List.of());
+
+    BulkDeleteOperationResponse finished =
+        awaitFinished(bulkDeleteService.start(FILTER).operationId());
+
+    assertThat(finished.status()).isEqualTo(OperationStatus.COMPLETED);
+    assertThat(finished.deletedCount()).isZero();
+    verifyNoInteractions(eventService);
+  }
+
+  @Test
+  void start_ChunkFails_KeepsProgressAndReportsTheError() throws Exception {
+    when(resourceService.deleteChunk(FILTER, 0, 2)).thenReturn(List.of(1L, 2L));
+    when(resourceService.deleteChunk(eq(FILTER), eq(2L), anyInt()))
+        .thenThrow(new IllegalStateException("connection lost"));
+
+    BulkDeleteOperationResponse finished =
+        awaitFinished(bulkDeleteService.start(FILTER).operationId());
+
+    assertThat(finished.status()).isEqualTo(OperationStatus.FAILED);
+    assertThat(finished.error()).isEqualTo("Bulk delete failed after 2 resources; see server logs");
+    assertThat(finished.deletedCount()).isEqualTo(2);
+  }
+
+  @Test
+  void start_DataAccessFails_DoesNotExposeTheSqlInTheStatus() throws Exception {
+    when(resourceService.deleteChunk(FILTER, 0, 2))
+        .thenThrow(
+            new DataIntegrityViolationException(
+                "could not execute statement [ERROR: update or delete on table \"resource\""
+                    + " violates foreign key constraint \"fk_location_resource\"]"));
+
+    BulkDeleteOperationResponse finished =
+        awaitFinished(bulkDeleteService.start(FILTER).operationId());
+
+    assertThat(finished.status()).isEqualTo(OperationStatus.FAILED);
+    assertThat(finished.error())
+        .isEqualTo("Bulk delete failed after 0 resources; see server logs")
+        .doesNotContain("resource\"", "constraint", "statement");
+  }
+
+  @Test
+  void start_BulkWorkFull_RefusesTheJob() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    when(resourceService.deleteChunk(any(), anyLong(), anyInt()))
+        .thenAnswer(
+            invocation -> {
+              release.await();
+              return List.of();
+            });
+
+    UUID running = bulkDeleteService.start(FILTER).operationId();
+    UUID queued = bulkDeleteService.start(FILTER).operationId();
+
+    assertThatThrownBy(() -> bulkDeleteService.start(FILTER))
+        .isInstanceOf(ResourceBusyException.class);
+
+    release.countDown();
+    assertThat(awaitFinished(running).status()).isEqualTo(OperationStatus.COMPLETED);
+    assertThat(awaitFinished(queued).status()).isEqualTo(OperationStatus.COMPLETED);
+  }
+
+  @Test
+  void getOperation_Unknown_ThrowsResourceNotFound() {
+    UUID id = UUID.randomUUID();
+
+    assertThatThrownBy(() -> bulkDeleteService.getOperation(id))
+        .isInstanceOf(ResourceNotFoundException.class)
+        .hasMessage("Operation not found with id: " + id);
+  }
+
+  @Test
+  void start_BeyondRetention_DropsOldestFinishedOperation() throws Exception {
+    when(resourceService.deleteChunk(any(), anyLong(), anyInt())).thenReturn(List.of());
+
+    UUID first = awaitFinished(bulkDeleteService.start(FILTER).operationId()).operationId();
+    UUID second = awaitFinished(bulkDeleteService.start(FILTER).operationId()).operationId();
+    UUID third = awaitFinished(bulkDeleteService.start(FILTER).operationId()).operationId();
+
+    assertThatThrownBy(() -> bulkDeleteService.getOperation(first))
+        .isInstanceOf(ResourceNotFoundException.class);
+    assertThat(bulkDeleteService.getOperation(second).status())
+        .isEqualTo(OperationStatus.COMPLETED);
+    assertThat(bulkDeleteService.getOperation(third).status()).isEqualTo(OperationStatus.COMPLETED);
+  }
+
+  private BulkDeleteOperationResponse awaitFinished(UUID id) throws InterruptedException {
+    for (int i = 0; i < 250; i++) {
+      BulkDeleteOperationResponse operation = bulkDeleteService.getOperation(id);
+      if (operation.status() == OperationStatus.COMPLETED
+          || operation.status() == OperationStatus.FAILED) {
+        return operation;
+      }
+      Thread.sleep(20);
+    }
+    throw new AssertionError("Operation " + id + " did not finish");
+  }
+}
@@ -0,0 +1,115 @@
+package com.kaarelkaasla.enefitresourceservice.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceBusyException;
+import com.kaarelkaasla.enefitresourceservice.monitoring.SqlStatementCounter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BulkWorkExecutorTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final BulkWorkExecutor bulkWork =
+      new BulkWorkExecutor(1, 1, Duration.ofSeconds(5), new SqlStatementCounter(), meterRegistry);
+
+  @AfterEach
+  void tearDown() {
+    bulkWork.destroy();
+  }
+
+  @Test
+  void call_RunsOnABulkThreadAndReturnsTheResult() {
+    String thread =
+        bulkWork.call(
+            () -> {
+              assertThat(BulkWorkExecutor.inBulkWork()).isTrue();
+              return Thread.currentThread().getName();
+            });
+
+    assertThat(thread).startsWith("bulk-");
+    assertThat(BulkWorkExecutor.inBulkWork()).isFalse();
+  }
+
+  @Test
+  void call_RethrowsWhatTheTaskThrew() {
+    assertThatThrownBy(
+            () ->
+                bulkWork.call(
+                    () -> {
+                      throw new IllegalStateException("scan failed");
+                    }))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("scan failed");
+  }
+
+  @Test
+  void queueFull_RefusesWithResourceBusy() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    bulkWork.execute(
+        () -> {
+          started.countDown();
+          awaitQuietly(release);
+        });
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    bulkWork.execute(() -> {});
+
+    assertThatThrownBy(() -> bulkWork.execute(() -> {}))
+        .isInstanceOf(ResourceBusyException.class)
+        .satisfies(
+            e ->
+                assertThat(((ResourceBusyException) e).getRetryAfter())
+                    .isEqualTo(BulkWorkExecutor.RETRY_AFTER));
+    assertThatThrownBy(() -> bulkWork.call(() -> "late")).isInstanceOf(ResourceBusyException.class);
+    release.countDown();
+  }
+
+  @Test
+  void call_NotFinishedInTime_CancelsTheTaskAndRefusesWithResourceBusy() throws Exception {
+    BulkWorkExecutor impatient =
+        new BulkWorkExecutor(
+            1, 1, Duration.ofMillis(100), new SqlStatementCounter(), new SimpleMeterRegistry());
+    CountDownLatch interrupted = new CountDownLatch(1);
+    try {
+      assertThatThrownBy(
+              () ->
+                  impatient.call(
+                      () -> {
+                        try {
+                          Thread.sleep(10_000);
+                        } catch (InterruptedException e) {
+                          interrupted.countDown();
+                        }
+                        return "late";
+                      }))
+          .isInstanceOf(ResourceBusyException.class);
+
+      assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    } finally {
+      impatient.destroy();
+    }
+  }
+
+  @Test
+  void registersExecutorMetrics() {
+    assertThat(meterRegistry.find("executor.queue.remaining").tag("name", "bulk").gauge())
+        .isNotNull();
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
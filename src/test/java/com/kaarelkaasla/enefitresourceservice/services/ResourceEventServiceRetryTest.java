@@ -1,39 +1,67 @@
 package com.kaarelkaasla.enefitresourceservice.services;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.kaarelkaasla.enefitresourceservice.dtos.EncodedResourceResponse;
 import com.kaarelkaasla.enefitresourceservice.dtos.ResourceEvent;
 import com.kaarelkaasla.enefitresourceservice.dtos.ResourceResponse;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 @ExtendWith(MockitoExtension.class)
 public class ResourceEventServiceRetryTest {
 
+  private static final String EVENT_PUBLISH = "com.kaarelkaasla.enefitresourceservice.EventPublish";
+
   @Mock private KafkaTemplate<String, ResourceEvent> kafkaTemplate;
 
+  @Mock private KafkaTemplate<String, ResourceEvent> bulkKafkaTemplate;
+
   @Mock private TimeProvider timeProvider;
 
   @Mock private SendResult<String, ResourceEvent> sendResult;
 
+  private SimpleMeterRegistry meterRegistry;
+
   private ResourceEventService resourceEventService;
 
   @BeforeEach
   void setUp() {
-    resourceEventService = new ResourceEventService(kafkaTemplate, timeProvider);
+    meterRegistry = new SimpleMeterRegistry();
+    resourceEventService =
+        new ResourceEventService(
+            kafkaTemplate,
+            bulkKafkaTemplate,
+            timeProvider,
+            meterRegistry,
+            mock(ApplicationEventPublisher.class));
     // Inject private field without a setter to avoid spinning up Spring context
     ReflectionTestUtils.setField(resourceEventService, "topicName", "resource-updates");
 
@@ -50,7 +78,7 @@ public class ResourceEventServiceRetryTest {
         new ResourceResponse(
             1L, null, "US", null, OffsetDateTime.now(), OffsetDateTime.now(), null, Set.of());
 
-    resourceEventService.publishResourceCreated(resource);
+    resourceEventService.publishResourceCreated(EncodedResourceResponse.of(resource));
 
     verify(kafkaTemplate).send(eq("resource-updates"), eq("1"), any(ResourceEvent.class));
   }
@@ -65,7 +93,7 @@ public class ResourceEventServiceRetryTest {
         new ResourceResponse(
             2L, null, "US", null, OffsetDateTime.now(), OffsetDateTime.now(), null, Set.of());
 
-    resourceEventService.publishResourceCreated(resource);
+    resourceEventService.publishResourceCreated(EncodedResourceResponse.of(resource));
 
     verify(kafkaTemplate).send(eq("resource-updates"), eq("2"), any(ResourceEvent.class));
   }
@@ -79,8 +107,151 @@ public class ResourceEventServiceRetryTest {
         new ResourceResponse(
             3L, null, "US", null, OffsetDateTime.now(), OffsetDateTime.now(), null, Set.of());
 
-    resourceEventService.publishResourceCreated(resource);
+    resourceEventService.publishResourceCreated(EncodedResourceResponse.of(resource));
 
     verify(kafkaTemplate).send(eq("resource-updates"), eq("3"), any(ResourceEvent.class));
   }
+
+  @Test
+  void shouldSendOnlyAfterTheSurroundingTransactionCommits() {
+    when(kafkaTemplate.send(anyString(), anyString(), any(ResourceEvent.class)))
+        .thenReturn(CompletableFuture.completedFuture(sendResult));
+    ResourceResponse resource =
+        new ResourceResponse(
+            4L, null, "US", null, OffsetDateTime.now(), OffsetDateTime.now(), null, Set.of());
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      resourceEventService.publishResourceUpdated(EncodedResourceResponse.of(resource));
+      verify(kafkaTemplate, never()).send(anyString(), anyString(), any(ResourceEvent.class));
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    verify(kafkaTemplate).send(eq("resource-updates"), eq("4"), any(ResourceEvent.class));
+  }
+
+  @Test
+  void shouldNotSendWhenTheSurroundingTransactionRollsBack() {
+    ResourceResponse resource =
+        new ResourceResponse(
+            5L, null, "US", null, OffsetDateTime.now(), OffsetDateTime.now(), null, Set.of());
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      resourceEventService.publishResourceCreated(EncodedResourceResponse.of(resource));
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(
+              synchronization ->
+                  synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    verifyNoInteractions(kafkaTemplate);
+  }
+
+  @Test
+  void shouldRecordPublishOutcomesAndInFlightSends() {
+    CompletableFuture<SendResult<String, ResourceEvent>> pending = new CompletableFuture<>();
+    CompletableFuture<SendResult<String, ResourceEvent>> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new RuntimeException("Kafka is down"));
+    when(bulkKafkaTemplate.send(anyString(), anyString(), any(ResourceEvent.class)))
+        .thenReturn(pending, failed);
+
+    ResourceResponse first =
+        new ResourceResponse(
+            4L, null, "US", null, OffsetDateTime.now(), OffsetDateTime.now(), null, Set.of());
+    ResourceResponse second =
+        new ResourceResponse(
+            5L, null, "US", null, OffsetDateTime.now(), OffsetDateTime.now(), null, Set.of());
+
+    resourceEventService.publishBatchNotification(
+        List.of(EncodedResourceResponse.of(first), EncodedResourceResponse.of(second)));
+
+    assertThat(meterRegistry.get("resource.events.in.flight").gauge().value()).isEqualTo(1.0);
+    assertThat(meterRegistry.get("resource.events.send.all.pending").gauge().value())
+        .isEqualTo(1.0);
+    assertThat(
+            meterRegistry
+                .get("resource.events.publish")
+                .tags("type", "BATCH_NOTIFICATION", "outcome", "failure")
+                .timer()
+                .count())
+        .isEqualTo(1);
+
+    pending.complete(sendResult);
+
+    assertThat(meterRegistry.get("resource.events.in.flight").gauge().value()).isZero();
+    assertThat(meterRegistry.get("resource.events.send.all.pending").gauge().value()).isZero();
+    assertThat(
+            meterRegistry
+                .get("resource.events.publish")
+                .tags("type", "BATCH_NOTIFICATION", "outcome", "success")
+                .timer()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void shouldRecordPublishAsFlightRecorderEvent() throws Exception {
+    when(sendResult.getRecordMetadata())
+        .thenReturn(new RecordMetadata(new TopicPartition("resource-updates", 2), 41, 0, 0, 1, 99));
+    when(kafkaTemplate.send(anyString(), anyString(), any(ResourceEvent.class)))
+        .thenReturn(CompletableFuture.completedFuture(sendResult));
+    ResourceResponse resource =
+        new ResourceResponse(
+            8L, null, "US", null, OffsetDateTime.now(), OffsetDateTime.now(), null, Set.of());
+
+    List<RecordedEvent> events;
+    Path file = Files.createTempFile("publish-test", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(EVENT_PUBLISH).with("latencyThreshold", "0 ns");
+      recording.start();
+      resourceEventService.publishResourceCreated(EncodedResourceResponse.of(resource));
+      recording.stop();
+      recording.dump(file);
+      events =
+          RecordingFile.readAllEvents(file).stream()
+              .filter(event -> event.getEventType().getName().equals(EVENT_PUBLISH))
+              .filter(event -> "8".equals(event.getString("key")))
+              .toList();
+    } finally {
+      Files.delete(file);
+    }
+
+    assertThat(events)
+        .singleElement()
+        .satisfies(
+            event -> {
+              assertThat(event.getString("eventType")).isEqualTo("CREATED");
+              assertThat(event.getString("key")).isEqualTo("8");
+              assertThat(event.getInt("partition")).isEqualTo(2);
+              assertThat(event.getLong("offset")).isEqualTo(41);
+              assertThat(event.getLong("serializedSize")).isEqualTo(100);
+              assertThat(event.getString("outcome")).isEqualTo("success");
+              assertThat(event.getDuration("latency")).isPositive();
+              assertThat(event.getThread().getJavaName())
+                  .isEqualTo(Thread.currentThread().getName());
+            });
+  }
+
+  @Test
+  void bulkEvents_UseTheBulkProducer() {
+    when(bulkKafkaTemplate.send(anyString(), anyString(), any(ResourceEvent.class)))
+        .thenReturn(CompletableFuture.completedFuture(sendResult));
+    ResourceResponse resource =
+        new ResourceResponse(
+            6L, null, "US", null, OffsetDateTime.now(), OffsetDateTime.now(), null, Set.of());
+
+    resourceEventService.publishBatchNotification(List.of(EncodedResourceResponse.of(resource)));
+    resourceEventService.publishResourcesDeleted(List.of(7L)).join();
+
+    verify(bulkKafkaTemplate).send(eq("resource-updates"), eq("6"), any(ResourceEvent.class));
+    verify(bulkKafkaTemplate).send(eq("resource-updates"), eq("7"), any(ResourceEvent.class));
+    verifyNoInteractions(kafkaTemplate);
+  }
 }
@@ -8,6 +8,8 @@ import static org.mockito.Mockito.when;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -26,6 +28,7 @@ import com.kaarelkaasla.enefitresourceservice.dtos.PatchResourceRequest;
 import com.kaarelkaasla.enefitresourceservice.dtos.ResourceRequest;
 import com.kaarelkaasla.enefitresourceservice.dtos.ResourceResponse;
 import com.kaarelkaasla.enefitresourceservice.entities.Characteristic;
+import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicDocument;
 import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType;
 import com.kaarelkaasla.enefitresourceservice.entities.Location;
 import com.kaarelkaasla.enefitresourceservice.entities.Resource;
@@ -147,6 +150,34 @@ class ResourceMappingServiceTest {
     assertThat(result.value()).isEqualTo("RESIDENTIAL");
   }
 
+  @Test
+  void toDocumentResponse_ShouldTakeCharacteristicsFromDocument() {
+    when(timeProvider.toApplicationOffset(any(OffsetDateTime.class))).thenReturn(testTime);
+    testResource.setCharacteristicsDocument(
+        List.of(new CharacteristicDocument(7L, "CP001", CharacteristicType.CHARGING_POINT, "CCS")));
+
+    ResourceResponse result = resourceMappingService.toDocumentResponse(testResource);
+
+    assertThat(result.id()).isEqualTo(1L);
+    assertThat(result.location()).isNotNull();
+    assertThat(result.characteristics())
+        .containsExactly(
+            new CharacteristicResponse(7L, "CP001", CharacteristicType.CHARGING_POINT, "CCS"));
+  }
+
+  @Test
+  void toCharacteristicFilter_ShouldIncludeOnlyGivenAttributes() {
+    assertThat(
+            resourceMappingService.toCharacteristicFilter(
+                CharacteristicType.CHARGING_POINT, "CCS", null))
+        .isEqualTo("[{\"type\":\"CHARGING_POINT\",\"value\":\"CCS\"}]");
+    assertThat(
+            resourceMappingService.toCharacteristicFilter(
+                CharacteristicType.CHARGING_POINT, "say \"hi\"", "CP001"))
+        .isEqualTo(
+            "[{\"type\":\"CHARGING_POINT\",\"value\":\"say \\\"hi\\\"\",\"code\":\"CP001\"}]");
+  }
+
   @Test
   void toEntity_WithCompleteRequest_ShouldCreateResourceWithAllFields() {
     Resource result = resourceMappingService.toEntity(testResourceRequest);
@@ -156,6 +187,9 @@ class ResourceMappingServiceTest {
     assertThat(result.getLocation()).isNotNull();
     assertThat(result.getLocation().getCountryCode()).isEqualTo("US");
     assertThat(result.getCharacteristics()).hasSize(1);
+    assertThat(result.getCharacteristics())
+        .extracting(Characteristic::getResourceCountryCode)
+        .containsOnly("US");
   }
 
   @Test
@@ -352,4 +386,38 @@ class ResourceMappingServiceTest {
     assertThat(resource.getCharacteristics().stream().anyMatch(c -> "NEW2".equals(c.getCode())))
         .isTrue();
   }
+
+  @Test
+  void patchedFieldValues_OnlyPatchedFields_ChangeWithThoseFieldsOnly() {
+    Resource resource =
+        Resource.builder().type(ResourceType.METERING_POINT).countryCode("EE").build();
+    resource.setLocation(
+        Location.builder()
+            .streetAddress("Street 1")
+            .city("Tallinn")
+            .postalCode("10111")
+            .countryCode("EE")
+            .build());
+    PatchResourceRequest patchRequest =
+        new PatchResourceRequest(
+            Optional.empty(),
+            Optional.empty(),
+            Optional.of(new LocationRequest("Street 2", "Tartu", "50050", "EE")),
+            Optional.empty());
+
+    Map<String, Object> before = resourceMappingService.patchedFieldValues(resource, patchRequest);
+    resource.setType(ResourceType.CONNECTION_POINT);
+    resource.setCountryCode("FI");
+    Map<String, Object> afterOtherFields =
+        resourceMappingService.patchedFieldValues(resource, patchRequest);
+    resource.getLocation().setCity("Narva");
+    Map<String, Object> afterLocation =
+        resourceMappingService.patchedFieldValues(resource, patchRequest);
+
+    assertThat(before)
+        .containsOnlyKeys("location")
+        .containsEntry("location", new LocationRequest("Street 1", "Tallinn", "10111", "EE"));
+    assertThat(afterOtherFields).isEqualTo(before);
+    assertThat(afterLocation).isNotEqualTo(before);
+  }
 }
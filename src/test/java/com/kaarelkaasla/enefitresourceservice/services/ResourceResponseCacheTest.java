@@ -0,0 +1,171 @@
+package com.kaarelkaasla.enefitresourceservice.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kaarelkaasla.enefitresourceservice.dtos.*;
+import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType;
+import com.kaarelkaasla.enefitresourceservice.entities.ResourceType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResourceResponseCacheTest {
+
+  private final ObjectMapper objectMapper =
+      Jackson2ObjectMapperBuilder.json()
+          .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+          .build();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private ResourceResponseCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache =
+        new ResourceResponseCache(
+            objectMapper, meterRegistry, DataSize.ofMegabytes(1), DataSize.ofBytes(512));
+  }
+
+  @AfterEach
+  void clearSynchronization() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void shouldOnlyAnswerForCachedVersion() {
+    cache.put(cache.encode(response(1L, 3L, 1)));
+
+    assertThat(cache.get(1L, 3L)).isNotNull();
+    assertThat(cache.get(1L, 2L)).isNull();
+    assertThat(cache.get(1L, 4L)).isNull();
+    assertThat(cache.get(2L, 3L)).isNull();
+  }
+
+  @Test
+  void shouldEncodeSameJsonAsObjectMapper() throws IOException {
+    ResourceResponse response = response(1L, 1L, 3);
+
+    EncodedResourceResponse encoded = cache.encode(response);
+
+    assertThat(encoded.json()).isEqualTo(objectMapper.writeValueAsBytes(response));
+  }
+
+  @Test
+  void shouldPublishWritesOnlyAfterCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+
+    cache.putAfterCommit(cache.encode(response(1L, 2L, 1)));
+
+    assertThat(cache.get(1L, 2L)).isNull();
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(TransactionSynchronization::afterCommit);
+    assertThat(cache.get(1L, 2L)).isNotNull();
+  }
+
+  @Test
+  void shouldNotPublishRolledBackWrites() {
+    TransactionSynchronizationManager.initSynchronization();
+
+    cache.putAfterCommit(cache.encode(response(1L, 2L, 1)));
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+    assertThat(cache.get(1L, 2L)).isNull();
+  }
+
+  @Test
+  void shouldCompressLargeResponsesOnceAndKeepSmallOnesPlain() throws IOException {
+    ResourceResponseCache.Entry large = cache.put(cache.encode(response(1L, 1L, 20)));
+    ResourceResponseCache.Entry small = cache.put(cache.encode(response(2L, 1L, 0)));
+
+    byte[] gzip = cache.gzip(1L, large);
+
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+      assertThat(in.readAllBytes()).isEqualTo(large.json());
+    }
+    assertThat(gzip.length).isLessThan(large.json().length);
+    assertThat(cache.get(1L, 1L).gzip()).isSameAs(gzip);
+    assertThat(cache.gzip(1L, cache.get(1L, 1L))).isSameAs(gzip);
+    assertThat(cache.gzip(2L, small)).isNull();
+  }
+
+  @Test
+  void shouldEvictOnDelete() {
+    cache.put(cache.encode(response(1L, 1L, 1)));
+
+    cache.evict(1L);
+
+    assertThat(cache.get(1L, 1L)).isNull();
+  }
+
+  @Test
+  void shouldSerializeEventsWithCachedBytesLikeRegularSerialization() throws IOException {
+    ResourceResponse response = response(1L, 1L, 5);
+    ResourceEvent reused = event(cache.encode(response));
+    ResourceEvent regular = event(EncodedResourceResponse.of(response));
+
+    assertThat(objectMapper.writeValueAsString(reused))
+        .isEqualTo(objectMapper.writeValueAsString(regular));
+    assertThat(objectMapper.readTree(objectMapper.writeValueAsBytes(reused)).get("resource"))
+        .isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(response)));
+  }
+
+  @Test
+  void shouldExposeCacheMetrics() {
+    cache.put(cache.encode(response(1L, 1L, 1)));
+    cache.get(1L, 1L);
+
+    assertThat(
+            meterRegistry
+                .get("cache.gets")
+                .tag("cache", ResourceResponseCache.CACHE_NAME)
+                .tag("result", "hit")
+                .functionCounter()
+                .count())
+        .isEqualTo(1.0);
+  }
+
+  private static ResourceEvent event(EncodedResourceResponse resource) {
+    return new ResourceEvent(
+        ResourceEventType.UPDATED,
+        resource.response().id(),
+        resource,
+        OffsetDateTime.parse("2024-01-01T00:00:00Z"),
+        "trace");
+  }
+
+  private static ResourceResponse response(long id, long version, int characteristicCount) {
+    Set<CharacteristicResponse> characteristics = new LinkedHashSet<>();
+    for (int i = 0; i < characteristicCount; i++) {
+      characteristics.add(
+          new CharacteristicResponse(
+              (long) i, "C" + i, CharacteristicType.CONSUMPTION_TYPE, "Residential " + i));
+    }
+    return new ResourceResponse(
+        id,
+        ResourceType.METERING_POINT,
+        "EE",
+        version,
+        OffsetDateTime.parse("2024-01-01T00:00:00Z"),
+        OffsetDateTime.parse("2024-01-02T00:00:00Z"),
+        new LocationResponse(id, "Narva mnt 1", "Tallinn", "10111", "EE"),
+        characteristics);
+  }
+}
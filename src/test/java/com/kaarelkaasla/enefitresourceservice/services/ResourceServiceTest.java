@@ -5,22 +5,38 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.lenient;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.kaarelkaasla.enefitresourceservice.dtos.*;
 import com.kaarelkaasla.enefitresourceservice.entities.*;
+import com.kaarelkaasla.enefitresourceservice.exceptions.OptimisticLockingException;
 import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceNotFoundException;
+import com.kaarelkaasla.enefitresourceservice.monitoring.SqlStatementCounter;
 import com.kaarelkaasla.enefitresourceservice.repositories.ResourceRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class ResourceServiceTest {
 
@@ -32,6 +48,23 @@ class ResourceServiceTest {
 
   @Mock private TimeProvider timeProvider;
 
+  @Mock private ResourceResponseCache responseCache;
+
+  @Spy
+  private TransactionTemplate transactionTemplate =
+      new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+  @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Spy
+  private ResourceWriteLocks writeLocks =
+      new ResourceWriteLocks(true, Duration.ofSeconds(1), new SimpleMeterRegistry());
+
+  @Spy
+  private BulkWorkExecutor bulkWork =
+      new BulkWorkExecutor(
+          1, 1, Duration.ofSeconds(5), new SqlStatementCounter(), new SimpleMeterRegistry());
+
   @InjectMocks private ResourceService resourceService;
 
   private ResourceRequest createRequest;
@@ -41,6 +74,11 @@ class ResourceServiceTest {
   private LocationRequest locationRequest;
   private CharacteristicRequest characteristicRequest;
 
+  @AfterEach
+  void tearDown() {
+    bulkWork.destroy();
+  }
+
   @BeforeEach
   void setUp() {
     locationRequest = new LocationRequest("123 Main Street", "New York", "10001", "US");
@@ -89,6 +127,9 @@ class ResourceServiceTest {
 
     // Avoid strict-stubbing warnings for non-essential time calls
     lenient().when(timeProvider.now()).thenReturn(OffsetDateTime.now());
+    lenient()
+        .when(responseCache.encode(any(ResourceResponse.class)))
+        .thenAnswer(invocation -> EncodedResourceResponse.of(invocation.getArgument(0)));
   }
 
   private ResourceResponse createMockResourceResponse() {
@@ -128,7 +169,7 @@ class ResourceServiceTest {
     assertThat(result.version()).isEqualTo(1L);
 
     verify(resourceRepository).save(any(Resource.class));
-    verify(resourceEventService).publishResourceCreated(any(ResourceResponse.class));
+    verify(resourceEventService).publishResourceCreated(any(EncodedResourceResponse.class));
   }
 
   @Test
@@ -150,6 +191,7 @@ class ResourceServiceTest {
     List<Resource> resources = List.of(existingResource);
     when(resourceRepository.findAllWithDetails()).thenReturn(resources);
     when(mappingService.toResponse(existingResource)).thenReturn(createMockResourceResponse());
+    when(mappingService.toResponse(existingResource)).thenReturn(createMockResourceResponse());
 
     List<ResourceResponse> result = resourceService.getAllResources();
 
@@ -170,6 +212,53 @@ class ResourceServiceTest {
     verify(resourceRepository).findAllWithDetails();
   }
 
+  @Test
+  void streamAllResources_DetachesEachEntityAndClosesCursor() {
+    EntityManager entityManager = mock(EntityManager.class);
+    ReflectionTestUtils.setField(resourceService, "entityManager", entityManager);
+    Resource second = new Resource();
+    second.setId(2L);
+    AtomicBoolean closed = new AtomicBoolean();
+    when(resourceRepository.streamAllWithLocation())
+        .thenReturn(Stream.of(existingResource, second).onClose(() -> closed.set(true)));
+    ResourceResponse response = createMockResourceResponse();
+    when(mappingService.toDocumentResponse(any(Resource.class))).thenReturn(response);
+    List<ResourceResponse> consumed = new ArrayList<>();
+
+    long count =
+        resourceService.streamAllResources(
+            r -> {
+              // The entity handed out before is already detached
+              verify(entityManager, times(consumed.size() + 1)).detach(any(Resource.class));
+              consumed.add(r);
+            });
+
+    assertThat(count).isEqualTo(2);
+    assertThat(consumed).containsExactly(response, response);
+    assertThat(closed).isTrue();
+  }
+
+  @Test
+  void streamAllResources_ConsumerThrows_StopsAndClosesCursor() {
+    ReflectionTestUtils.setField(resourceService, "entityManager", mock(EntityManager.class));
+    AtomicBoolean closed = new AtomicBoolean();
+    when(resourceRepository.streamAllWithLocation())
+        .thenReturn(Stream.of(existingResource, new Resource()).onClose(() -> closed.set(true)));
+    when(mappingService.toDocumentResponse(any(Resource.class)))
+        .thenReturn(createMockResourceResponse());
+
+    assertThatThrownBy(
+            () ->
+                resourceService.streamAllResources(
+                    r -> {
+                      throw new IllegalStateException("client gone");
+                    }))
+        .hasMessage("client gone");
+
+    verify(mappingService, times(1)).toDocumentResponse(any(Resource.class));
+    assertThat(closed).isTrue();
+  }
+
   @Test
   void getResourceById_ExistingId_ReturnsResource() {
     when(resourceRepository.findByIdWithDetails(1L)).thenReturn(Optional.of(existingResource));
@@ -195,6 +284,145 @@ class ResourceServiceTest {
     verify(resourceRepository).findByIdWithDetails(999L);
   }
 
+  @Test
+  void getResourceById_DocumentReads_SkipsCharacteristicsJoin() {
+    ReflectionTestUtils.setField(resourceService, "documentReads", true);
+    when(resourceRepository.findByIdWithLocation(1L)).thenReturn(Optional.of(existingResource));
+    when(mappingService.toDocumentResponse(existingResource))
+        .thenReturn(createMockResourceResponse());
+
+    ResourceResponse result = resourceService.getResourceById(1L);
+
+    assertThat(result.id()).isEqualTo(1L);
+    verify(resourceRepository, never()).findByIdWithDetails(any());
+    verify(mappingService, never()).toResponse(any());
+  }
+
+  @Test
+  void getAllResources_DocumentReads_SkipsCharacteristicsJoin() {
+    ReflectionTestUtils.setField(resourceService, "documentReads", true);
+    when(resourceRepository.findAllWithLocation()).thenReturn(List.of(existingResource));
+    when(mappingService.toDocumentResponse(existingResource))
+        .thenReturn(createMockResourceResponse());
+
+    List<ResourceResponse> result = resourceService.getAllResources();
+
+    assertThat(result).hasSize(1);
+    verify(resourceRepository, never()).findAllWithDetails();
+  }
+
+  @Test
+  void getResourcesByIds_ReturnsResultsInRequestOrderWithNotFoundMarkers() {
+    when(resourceRepository.findAllWithDetailsByIdIn(new LinkedHashSet<>(List.of(999L, 1L))))
+        .thenReturn(List.of(existingResource));
+    when(mappingService.toResponse(existingResource)).thenReturn(createMockResourceResponse());
+
+    List<ResourceLookupResult> results = resourceService.getResourcesByIds(List.of(999L, 1L, 1L));
+
+    assertThat(results)
+        .extracting(ResourceLookupResult::id, ResourceLookupResult::found)
+        .containsExactly(tuple(999L, false), tuple(1L, true), tuple(1L, true));
+    assertThat(results.get(0).resource()).isNull();
+    assertThat(results.get(1).resource().location().postalCode()).isEqualTo("10001");
+    verify(resourceRepository, times(1)).findAllWithDetailsByIdIn(any());
+    verify(mappingService, times(1)).toResponse(existingResource);
+  }
+
+  @Test
+  void getResourcesByIds_DocumentReads_SkipsCharacteristicsJoin() {
+    ReflectionTestUtils.setField(resourceService, "documentReads", true);
+    when(resourceRepository.findAllWithLocationByIdIn(Set.of(1L)))
+        .thenReturn(List.of(existingResource));
+    when(mappingService.toDocumentResponse(existingResource))
+        .thenReturn(createMockResourceResponse());
+
+    List<ResourceLookupResult> results = resourceService.getResourcesByIds(List.of(1L));
+
+    assertThat(results).singleElement().extracting(ResourceLookupResult::found).isEqualTo(true);
+    verify(resourceRepository, never()).findAllWithDetailsByIdIn(any());
+  }
+
+  @Test
+  void findByCharacteristic_LoadsMatchesWithLocationInOneLimitedQuery() {
+    ReflectionTestUtils.setField(resourceService, "searchMaxResults", 50);
+    String filter = "[{\"type\":\"CONSUMPTION_TYPE\",\"value\":\"Residential\"}]";
+    when(mappingService.toCharacteristicFilter(
+            CharacteristicType.CONSUMPTION_TYPE, "Residential", null))
+        .thenReturn(filter);
+    when(resourceRepository.findAllWithLocationByCharacteristicsContaining(filter, Limit.of(50)))
+        .thenReturn(List.of(existingResource));
+    when(mappingService.toDocumentResponse(existingResource))
+        .thenReturn(createMockResourceResponse());
+
+    List<ResourceResponse> result =
+        resourceService.findByCharacteristic(
+            CharacteristicType.CONSUMPTION_TYPE, "Residential", null);
+
+    assertThat(result).extracting(ResourceResponse::id).containsExactly(1L);
+    verify(resourceRepository, never()).findAllWithLocationByIdIn(any());
+  }
+
+  @Test
+  void findByCharacteristic_NoMatches_ReturnsEmptyList() {
+    ReflectionTestUtils.setField(resourceService, "searchMaxResults", 50);
+    when(mappingService.toCharacteristicFilter(CharacteristicType.CHARGING_POINT, "CCS", "CP001"))
+        .thenReturn("[]");
+    when(resourceRepository.findAllWithLocationByCharacteristicsContaining("[]", Limit.of(50)))
+        .thenReturn(List.of());
+
+    List<ResourceResponse> result =
+        resourceService.findByCharacteristic(CharacteristicType.CHARGING_POINT, "CCS", "CP001");
+
+    assertThat(result).isEmpty();
+  }
+
+  @Test
+  void getEncodedResourceById_CachedVersion_SkipsFullLoad() {
+    ResourceResponseCache.Entry entry =
+        new ResourceResponseCache.Entry(1L, "{\"id\":1}".getBytes(), null);
+    when(resourceRepository.findVersionById(1L)).thenReturn(Optional.of(1L));
+    when(responseCache.get(1L, 1L)).thenReturn(entry);
+
+    ResourceResponseCache.Body body = resourceService.getEncodedResourceById(1L, false);
+
+    assertThat(body.content()).isSameAs(entry.json());
+    assertThat(body.gzip()).isFalse();
+    verify(resourceRepository, never()).findByIdWithDetails(any());
+    verifyNoInteractions(mappingService);
+  }
+
+  @Test
+  void getEncodedResourceById_UncachedVersion_LoadsAndCaches() {
+    ResourceResponse response = createMockResourceResponse();
+    EncodedResourceResponse encoded =
+        new EncodedResourceResponse(response, "{\"id\":1}".getBytes());
+    ResourceResponseCache.Entry entry = new ResourceResponseCache.Entry(1L, encoded.json(), null);
+    byte[] gzip = {0x1f, (byte) 0x8b};
+    when(resourceRepository.findVersionById(1L)).thenReturn(Optional.of(1L));
+    when(resourceRepository.findByIdWithDetails(1L)).thenReturn(Optional.of(existingResource));
+    when(mappingService.toResponse(existingResource)).thenReturn(response);
+    when(responseCache.encode(response)).thenReturn(encoded);
+    when(responseCache.put(encoded)).thenReturn(entry);
+    when(responseCache.gzip(1L, entry)).thenReturn(gzip);
+
+    ResourceResponseCache.Body body = resourceService.getEncodedResourceById(1L, true);
+
+    assertThat(body.content()).isSameAs(gzip);
+    assertThat(body.gzip()).isTrue();
+    verify(responseCache).put(encoded);
+  }
+
+  @Test
+  void getEncodedResourceById_NonExistingId_ThrowsResourceNotFoundException() {
+    when(resourceRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> resourceService.getEncodedResourceById(999L, false))
+        .isInstanceOf(ResourceNotFoundException.class)
+        .hasMessage("Resource not found with id: 999");
+
+    verifyNoInteractions(responseCache);
+  }
+
   @Test
   void updateResource_ExistingResource_ReturnsUpdatedResource() {
     Resource updatedResource = new Resource();
@@ -206,7 +434,7 @@ class ResourceServiceTest {
     updatedResource.setUpdatedAt(OffsetDateTime.now());
 
     when(resourceRepository.findByIdWithDetails(1L)).thenReturn(Optional.of(existingResource));
-    when(resourceRepository.save(any(Resource.class))).thenReturn(updatedResource);
+    when(resourceRepository.saveAndFlush(any(Resource.class))).thenReturn(updatedResource);
     when(mappingService.toResponse(updatedResource))
         .thenReturn(
             new ResourceResponse(
@@ -230,8 +458,8 @@ class ResourceServiceTest {
     assertThat(result.version()).isEqualTo(2L);
 
     verify(resourceRepository).findByIdWithDetails(1L);
-    verify(resourceRepository).save(any(Resource.class));
-    verify(resourceEventService).publishResourceUpdated(any(ResourceResponse.class));
+    verify(resourceRepository).saveAndFlush(any(Resource.class));
+    verify(resourceEventService).publishResourceUpdated(any(EncodedResourceResponse.class));
   }
 
   @Test
@@ -243,14 +471,14 @@ class ResourceServiceTest {
         .hasMessage("Resource not found with id: 999");
 
     verify(resourceRepository).findByIdWithDetails(999L);
-    verify(resourceRepository, never()).save(any(Resource.class));
+    verify(resourceRepository, never()).saveAndFlush(any(Resource.class));
     verifyNoInteractions(resourceEventService);
   }
 
   @Test
   void updateResource_OptimisticLockingFailure_ThrowsException() {
     when(resourceRepository.findByIdWithDetails(1L)).thenReturn(Optional.of(existingResource));
-    when(resourceRepository.save(any(Resource.class)))
+    when(resourceRepository.saveAndFlush(any(Resource.class)))
         .thenThrow(new OptimisticLockingFailureException("Version conflict"));
 
     assertThatThrownBy(() -> resourceService.updateResource(1L, updateRequest))
@@ -259,7 +487,7 @@ class ResourceServiceTest {
         .hasMessage("Resource was modified by another transaction. Please refresh and try again.");
 
     verify(resourceRepository).findByIdWithDetails(1L);
-    verify(resourceRepository).save(any(Resource.class));
+    verify(resourceRepository).saveAndFlush(any(Resource.class));
     verifyNoInteractions(resourceEventService);
   }
 
@@ -272,7 +500,7 @@ class ResourceServiceTest {
     patchedResource.setVersion(2L);
 
     when(resourceRepository.findByIdWithDetails(1L)).thenReturn(Optional.of(existingResource));
-    when(resourceRepository.save(any(Resource.class))).thenReturn(patchedResource);
+    when(resourceRepository.saveAndFlush(any(Resource.class))).thenReturn(patchedResource);
     when(mappingService.toResponse(patchedResource))
         .thenReturn(
             new ResourceResponse(
@@ -295,8 +523,8 @@ class ResourceServiceTest {
     assertThat(result.countryCode()).isEqualTo("CA");
 
     verify(resourceRepository).findByIdWithDetails(1L);
-    verify(resourceRepository).save(any(Resource.class));
-    verify(resourceEventService).publishResourceUpdated(any(ResourceResponse.class));
+    verify(resourceRepository).saveAndFlush(any(Resource.class));
+    verify(resourceEventService).publishResourceUpdated(any(EncodedResourceResponse.class));
   }
 
   @Test
@@ -306,7 +534,7 @@ class ResourceServiceTest {
             Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
 
     when(resourceRepository.findByIdWithDetails(1L)).thenReturn(Optional.of(existingResource));
-    when(resourceRepository.save(any(Resource.class))).thenReturn(existingResource);
+    when(resourceRepository.saveAndFlush(any(Resource.class))).thenReturn(existingResource);
     when(mappingService.toResponse(existingResource)).thenReturn(createMockResourceResponse());
 
     ResourceResponse result = resourceService.patchResource(1L, emptyPatch);
@@ -316,8 +544,8 @@ class ResourceServiceTest {
     assertThat(result.type()).isEqualTo(ResourceType.METERING_POINT);
 
     verify(resourceRepository).findByIdWithDetails(1L);
-    verify(resourceRepository).save(any(Resource.class));
-    verify(resourceEventService).publishResourceUpdated(any(ResourceResponse.class));
+    verify(resourceRepository).saveAndFlush(any(Resource.class));
+    verify(resourceEventService).publishResourceUpdated(any(EncodedResourceResponse.class));
   }
 
   @Test
@@ -329,55 +557,137 @@ class ResourceServiceTest {
         .hasMessage("Resource not found with id: 999");
 
     verify(resourceRepository).findByIdWithDetails(999L);
-    verify(resourceRepository, never()).save(any(Resource.class));
+    verify(resourceRepository, never()).saveAndFlush(any(Resource.class));
     verifyNoInteractions(resourceEventService);
   }
 
+  @Test
+  void patchResource_ConcurrentWriteToOtherFields_RetriesAndMerges() {
+    configurePatchRetry(3);
+    Resource patchedResource = new Resource();
+    patchedResource.setId(1L);
+    patchedResource.setVersion(3L);
+    when(resourceRepository.findByIdWithDetails(1L)).thenReturn(Optional.of(existingResource));
+    when(mappingService.patchedFieldValues(existingResource, patchRequest))
+        .thenReturn(Map.of("type", ResourceType.METERING_POINT, "countryCode", "US"));
+    when(resourceRepository.saveAndFlush(existingResource))
+        .thenThrow(new OptimisticLockingFailureException("Version conflict"))
+        .thenReturn(patchedResource);
+    when(mappingService.toResponse(patchedResource)).thenReturn(createMockResourceResponse());
+
+    ResourceResponse result = resourceService.patchResource(1L, patchRequest);
+
+    assertThat(result).isNotNull();
+    verify(resourceRepository, times(2)).findByIdWithDetails(1L);
+    verify(mappingService, times(2)).patchEntity(existingResource, patchRequest);
+    verify(resourceEventService).publishResourceUpdated(any(EncodedResourceResponse.class));
+    assertThat(conflictCount("retried")).isEqualTo(1);
+    assertThat(conflictCount("merged")).isEqualTo(1);
+  }
+
+  @Test
+  void patchResource_ConcurrentWriteToPatchedField_ThrowsOptimisticLockingException() {
+    configurePatchRetry(3);
+    when(resourceRepository.findByIdWithDetails(1L)).thenReturn(Optional.of(existingResource));
+    when(mappingService.patchedFieldValues(existingResource, patchRequest))
+        .thenReturn(Map.of("type", ResourceType.METERING_POINT, "countryCode", "US"))
+        .thenReturn(Map.of("type", ResourceType.METERING_POINT, "countryCode", "FI"));
+    when(resourceRepository.saveAndFlush(existingResource))
+        .thenThrow(new OptimisticLockingFailureException("Version conflict"));
+
+    assertThatThrownBy(() -> resourceService.patchResource(1L, patchRequest))
+        .isInstanceOf(OptimisticLockingException.class)
+        .hasMessage("Resource was modified by another transaction. Please refresh and try again.");
+
+    verify(resourceRepository, times(2)).findByIdWithDetails(1L);
+    verify(mappingService).patchEntity(existingResource, patchRequest);
+    verify(resourceRepository).saveAndFlush(existingResource);
+    verifyNoInteractions(resourceEventService);
+    assertThat(conflictCount("conflict")).isEqualTo(1);
+  }
+
+  @Test
+  void patchResource_ConflictOnEveryAttempt_ThrowsAfterMaxAttempts() {
+    configurePatchRetry(3);
+    when(resourceRepository.findByIdWithDetails(1L)).thenReturn(Optional.of(existingResource));
+    when(resourceRepository.saveAndFlush(existingResource))
+        .thenThrow(new OptimisticLockingFailureException("Version conflict"));
+
+    assertThatThrownBy(() -> resourceService.patchResource(1L, patchRequest))
+        .isInstanceOf(OptimisticLockingException.class);
+
+    verify(resourceRepository, times(3)).saveAndFlush(existingResource);
+    verifyNoInteractions(resourceEventService);
+    assertThat(conflictCount("retried")).isEqualTo(2);
+    assertThat(conflictCount("exhausted")).isEqualTo(1);
+  }
+
+  @Test
+  void patchResource_NotFoundOnRetry_ThrowsResourceNotFoundException() {
+    configurePatchRetry(3);
+    when(resourceRepository.findByIdWithDetails(1L))
+        .thenReturn(Optional.of(existingResource))
+        .thenReturn(Optional.empty());
+    when(resourceRepository.saveAndFlush(existingResource))
+        .thenThrow(new OptimisticLockingFailureException("Version conflict"));
+
+    assertThatThrownBy(() -> resourceService.patchResource(1L, patchRequest))
+        .isInstanceOf(ResourceNotFoundException.class);
+
+    verify(resourceRepository).saveAndFlush(existingResource);
+  }
+
+  private void configurePatchRetry(int maxAttempts) {
+    ReflectionTestUtils.setField(resourceService, "patchMaxAttempts", maxAttempts);
+    ReflectionTestUtils.setField(resourceService, "patchInitialBackoff", Duration.ofMillis(1));
+    ReflectionTestUtils.setField(resourceService, "patchMaxBackoff", Duration.ofMillis(5));
+  }
+
+  private double conflictCount(String outcome) {
+    return meterRegistry
+        .counter(ResourceService.CONFLICT_COUNTER, "operation", "patch", "outcome", outcome)
+        .count();
+  }
+
   @Test
   void deleteResource_ExistingResource_DeletesSuccessfully() {
-    when(resourceRepository.existsById(1L)).thenReturn(true);
+    when(resourceRepository.deleteByIdCascading(1L)).thenReturn(1);
 
     resourceService.deleteResource(1L);
 
-    verify(resourceRepository).existsById(1L);
-    verify(resourceRepository).deleteById(1L);
+    verify(resourceRepository).deleteByIdCascading(1L);
+    verify(responseCache).evict(1L);
     verify(resourceEventService).publishResourceDeleted(eq(1L));
   }
 
   @Test
   void deleteResource_NonExistingId_ThrowsResourceNotFoundException() {
-    when(resourceRepository.existsById(999L)).thenReturn(false);
+    when(resourceRepository.deleteByIdCascading(999L)).thenReturn(0);
 
     assertThatThrownBy(() -> resourceService.deleteResource(999L))
         .isInstanceOf(ResourceNotFoundException.class)
         .hasMessage("Resource not found with id: 999");
 
-    verify(resourceRepository).existsById(999L);
-    verify(resourceRepository, never()).deleteById(any(Long.class));
+    verify(responseCache, never()).evict(any());
     verifyNoInteractions(resourceEventService);
   }
 
   @Test
-  void deleteResource_OptimisticLockingFailure_ThrowsException() {
-    when(resourceRepository.existsById(1L)).thenReturn(true);
-    doThrow(new OptimisticLockingFailureException("Version conflict"))
-        .when(resourceRepository)
-        .deleteById(1L);
+  void deleteResource_DoesNotLoadTheEntityGraph() {
+    when(resourceRepository.deleteByIdCascading(1L)).thenReturn(1);
 
-    assertThatThrownBy(() -> resourceService.deleteResource(1L))
-        .isInstanceOf(
-            com.kaarelkaasla.enefitresourceservice.exceptions.OptimisticLockingException.class)
-        .hasMessage("Resource was modified by another transaction. Please refresh and try again.");
+    resourceService.deleteResource(1L);
 
-    verify(resourceRepository).existsById(1L);
-    verify(resourceRepository).deleteById(1L);
-    verifyNoInteractions(resourceEventService);
+    verify(resourceRepository, never()).existsById(any());
+    verify(resourceRepository, never()).deleteById(any());
+    verify(resourceRepository, never()).findByIdWithDetails(any());
   }
 
   @Test
   void notifyAllResources_WithResources_ReturnsSuccessResponse() {
     List<Resource> resources = List.of(existingResource);
     when(resourceRepository.findAllWithDetails()).thenReturn(resources);
+    when(mappingService.toResponse(existingResource)).thenReturn(createMockResourceResponse());
 
     BatchNotificationResponse result = resourceService.notifyAllResources();
 
@@ -410,6 +720,7 @@ class ResourceServiceTest {
   void notifyAllResources_ServiceThrowsException_PropagatesException() {
     List<Resource> resources = List.of(existingResource);
     when(resourceRepository.findAllWithDetails()).thenReturn(resources);
+    when(mappingService.toResponse(existingResource)).thenReturn(createMockResourceResponse());
     doThrow(new RuntimeException("Kafka error"))
         .when(resourceEventService)
         .publishBatchNotification(any(List.class));
@@ -421,4 +732,20 @@ class ResourceServiceTest {
     verify(resourceRepository).findAllWithDetails();
     verify(resourceEventService).publishBatchNotification(any(List.class));
   }
+
+  @Test
+  void notifyAllResources_RunsAsBulkWork() {
+    AtomicBoolean bulk = new AtomicBoolean();
+    when(resourceRepository.findAllWithDetails())
+        .thenAnswer(
+            invocation -> {
+              bulk.set(BulkWorkExecutor.inBulkWork());
+              return List.of();
+            });
+
+    resourceService.notifyAllResources();
+
+    assertThat(bulk).isTrue();
+    assertThat(BulkWorkExecutor.inBulkWork()).isFalse();
+  }
 }
@@ -0,0 +1,160 @@
+package com.kaarelkaasla.enefitresourceservice.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.kaarelkaasla.enefitresourceservice.exceptions.ResourceBusyException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResourceWriteLocksTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void withLock_SameId_RunsOneWriteAtATime() throws Exception {
+    ResourceWriteLocks locks = new ResourceWriteLocks(true, Duration.ofSeconds(5), meterRegistry);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    List<Future<?>> writes = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      writes.add(
+          executor.submit(
+              () ->
+                  locks.withLock(
+                      1L,
+                      () -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        sleep(5);
+                        running.decrementAndGet();
+                      })));
+    }
+    for (Future<?> write : writes) {
+      write.get(5, TimeUnit.SECONDS);
+    }
+
+    assertThat(maxRunning).hasValue(1);
+    assertThat(locks.size()).isZero();
+  }
+
+  @Test
+  void withLock_DifferentIds_RunInParallel() throws Exception {
+    ResourceWriteLocks locks = new ResourceWriteLocks(true, Duration.ofSeconds(5), meterRegistry);
+    CountDownLatch bothInside = new CountDownLatch(2);
+
+    Future<Boolean> first =
+        executor.submit(() -> locks.withLock(1L, () -> arriveAndAwait(bothInside)));
+    Future<Boolean> second =
+        executor.submit(() -> locks.withLock(2L, () -> arriveAndAwait(bothInside)));
+
+    assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(locks.size()).isZero();
+  }
+
+  @Test
+  void withLock_WaitLongerThanTimeout_ThrowsResourceBusyException() throws Exception {
+    ResourceWriteLocks locks = new ResourceWriteLocks(true, Duration.ofMillis(50), meterRegistry);
+    CountDownLatch holding = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<?> holder =
+        executor.submit(
+            () ->
+                locks.withLock(
+                    1L,
+                    () -> {
+                      holding.countDown();
+                      await(release);
+                    }));
+    assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+    assertThatThrownBy(() -> locks.withLock(1L, () -> {}))
+        .isInstanceOfSatisfying(
+            ResourceBusyException.class,
+            e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofMillis(50)));
+
+    release.countDown();
+    holder.get(5, TimeUnit.SECONDS);
+    assertThat(meterRegistry.counter("resource.write.lock.timeouts").count()).isEqualTo(1);
+    assertThat(locks.size()).isZero();
+  }
+
+  @Test
+  void withLock_WriteThrows_ReleasesTheLock() {
+    ResourceWriteLocks locks = new ResourceWriteLocks(true, Duration.ofMillis(50), meterRegistry);
+
+    assertThatThrownBy(
+            () ->
+                locks.withLock(
+                    1L,
+                    () -> {
+                      throw new IllegalStateException("failed");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(locks.size()).isZero();
+    assertThat(locks.withLock(1L, () -> "next")).isEqualTo("next");
+  }
+
+  @Test
+  void withLock_Disabled_RunsWritesConcurrently() throws Exception {
+    ResourceWriteLocks locks = new ResourceWriteLocks(false, Duration.ofSeconds(5), meterRegistry);
+    CountDownLatch bothInside = new CountDownLatch(2);
+
+    Future<Boolean> first =
+        executor.submit(() -> locks.withLock(1L, () -> arriveAndAwait(bothInside)));
+    Future<Boolean> second =
+        executor.submit(() -> locks.withLock(1L, () -> arriveAndAwait(bothInside)));
+
+    assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  /** True when every party reached the latch while this one was inside its write. */
+  private static boolean arriveAndAwait(CountDownLatch latch) {
+    latch.countDown();
+    try {
+      return latch.await(2, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package com.kaarelkaasla.enefitresourceservice.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.bind.WebDataBinder;
+
+import com.kaarelkaasla.enefitresourceservice.config.RequestValidationAdvice;
+import com.kaarelkaasla.enefitresourceservice.dtos.CharacteristicRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.LocationRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.PatchResourceRequest;
+import com.kaarelkaasla.enefitresourceservice.dtos.ResourceRequest;
+import com.kaarelkaasla.enefitresourceservice.entities.CharacteristicType;
+import com.kaarelkaasla.enefitresourceservice.entities.ResourceType;
+
+/**
+ * Checks ResourceRequestValidator against Hibernate Validator run through Spring's adapter: both
+ * must leave the same field errors (field, rejected value, message) and global messages, in any
+ * order, which is all GlobalExceptionHandler reads.
+ */
+class ResourceRequestValidatorTest {
+
+  private static final String[] COUNTRY_CODES = {
+    "EE", "LV", "FI", "XX", "ee", "E", "EST", "E1", "", " ", "ÄÄ", null
+  };
+  private static final String[] POSTAL_CODES = {
+    "10111", "00000", "1011", "101111", "1011A", "", "   ", " 1011", "1011\n", "1234١", null
+  };
+  private static final String[] TEXTS = {"Narva mnt 1", "Tallinn", "", " ", "\t", " ", null};
+  private static final String[] CHARACTERISTIC_CODES = {
+    "CP1", "ABCDE", "ABCDEF", "", "  ", "      ", "éééééé", null
+  };
+
+  private static LocalValidatorFactoryBean beanValidator;
+  private final ResourceRequestValidator validator = new ResourceRequestValidator();
+
+  @BeforeAll
+  static void setUpBeanValidator() {
+    beanValidator = new LocalValidatorFactoryBean();
+    beanValidator.afterPropertiesSet();
+  }
+
+  @AfterAll
+  static void closeBeanValidator() {
+    beanValidator.close();
+  }
+
+  static Stream<Object> requests() {
+    LocationRequest valid = new LocationRequest("Narva mnt 1", "Tallinn", "10111", "EE");
+    LocationRequest invalid = new LocationRequest(" ", null, "", "ee");
+    Set<CharacteristicRequest> characteristics =
+        new LinkedHashSet<>(
+            Arrays.asList(
+                new CharacteristicRequest("TOOLONG", null, " "),
+                new CharacteristicRequest("", CharacteristicType.CHARGING_POINT, "x"),
+                null));
+    return Stream.of(
+        new ResourceRequest(ResourceType.METERING_POINT, "EE", valid, null),
+        new ResourceRequest(ResourceType.METERING_POINT, "EE", valid, Set.of()),
+        new ResourceRequest(null, null, null, null),
+        new ResourceRequest(null, "XX", invalid, characteristics),
+        new ResourceRequest(ResourceType.CONNECTION_POINT, "EE", invalid, null),
+        new ResourceRequest(
+            ResourceType.CONNECTION_POINT,
+            "EE",
+            new LocationRequest("Narva mnt 1", "Tallinn", "10111", "LV"),
+            null),
+        new PatchResourceRequest(
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty()),
+        new PatchResourceRequest(
+            Optional.of(ResourceType.METERING_POINT),
+            Optional.of("e1"),
+            Optional.of(invalid),
+            Optional.of(characteristics)),
+        new PatchResourceRequest(
+            Optional.empty(), Optional.of("LV"), Optional.of(valid), Optional.empty()),
+        valid,
+        invalid,
+        new CharacteristicRequest("ABCDEF", null, null));
+  }
+
+  @ParameterizedTest
+  @MethodSource("requests")
+  void shouldReportSameErrorsAsBeanValidation(Object request) {
+    assertThat(errors(validator, request)).isEqualTo(errors(beanValidator, request));
+  }
+
+  @Test
+  void shouldReportSameErrorsAsBeanValidationForGeneratedRequests() {
+    Random random = new Random(42);
+    for (int i = 0; i < 2_000; i++) {
+      ResourceRequest create =
+          new ResourceRequest(
+              random.nextInt(8) == 0 ? null : ResourceType.METERING_POINT,
+              pick(random, COUNTRY_CODES),
+              random.nextInt(8) == 0 ? null : location(random),
+              random.nextInt(4) == 0 ? null : characteristics(random));
+      PatchResourceRequest patch =
+          new PatchResourceRequest(
+              Optional.empty(),
+              Optional.ofNullable(pick(random, COUNTRY_CODES)),
+              random.nextBoolean() ? Optional.empty() : Optional.of(location(random)),
+              random.nextBoolean() ? Optional.empty() : Optional.of(characteristics(random)));
+
+      assertThat(errors(validator, create))
+          .as("%s", create)
+          .isEqualTo(errors(beanValidator, create));
+      assertThat(errors(validator, patch)).as("%s", patch).isEqualTo(errors(beanValidator, patch));
+    }
+  }
+
+  @Test
+  void countryCodeTableShouldMatchIsoCountries() {
+    Set<String> isoCountries = Set.of(Locale.getISOCountries());
+    Pattern format = Pattern.compile(ValidationConstants.COUNTRY_CODE_PATTERN);
+    for (char first = 0; first < 128; first++) {
+      for (char second = 0; second < 128; second++) {
+        String code = "" + first + second;
+        assertThat(ResourceRequestValidator.isIsoCountryCode(code))
+            .as(code)
+            .isEqualTo(isoCountries.contains(code));
+        assertThat(ResourceRequestValidator.isCountryCodeFormat(code))
+            .as(code)
+            .isEqualTo(format.matcher(code).matches());
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {"12345", "00000", "1234", "123456", "1234a", "12 45", "1234١", "12345\n", ""})
+  void postalCodeCheckShouldMatchPattern(String postalCode) {
+    assertThat(ResourceRequestValidator.isPostalCode(postalCode))
+        .isEqualTo(
+            Pattern.compile(ValidationConstants.POSTAL_CODE_PATTERN).matcher(postalCode).matches());
+  }
+
+  @Test
+  void adviceShouldInstallValidatorForRequestBodiesOnly() {
+    RequestValidationAdvice advice = new RequestValidationAdvice();
+    WebDataBinder requestBinder =
+        new WebDataBinder(
+            new ResourceRequest(ResourceType.METERING_POINT, "EE", null, null), "resourceRequest");
+    WebDataBinder otherBinder = new WebDataBinder(new Object(), "object");
+
+    advice.useResourceRequestValidator(requestBinder);
+    advice.useResourceRequestValidator(otherBinder);
+
+    assertThat(requestBinder.getValidator()).isInstanceOf(ResourceRequestValidator.class);
+    assertThat(otherBinder.getValidator()).isNull();
+  }
+
+  private static List<String> errors(Validator validator, Object target) {
+    BindingResult result = new BeanPropertyBindingResult(target, "request");
+    validator.validate(target, result);
+    List<String> errors = new ArrayList<>();
+    result
+        .getFieldErrors()
+        .forEach(
+            error ->
+                errors.add(
+                    error.getField()
+                        + " | "
+                        + error.getRejectedValue()
+                        + " | "
+                        + error.getDefaultMessage()));
+    result.getGlobalErrors().forEach(error -> errors.add("object | " + error.getDefaultMessage()));
+    errors.sort(null);
+    return errors;
+  }
+
+  private static LocationRequest location(Random random) {
+    return new LocationRequest(
+        pick(random, TEXTS),
+        pick(random, TEXTS),
+        pick(random, POSTAL_CODES),
+        pick(random, COUNTRY_CODES));
+  }
+
+  private static Set<CharacteristicRequest> characteristics(Random random) {
+    Set<CharacteristicRequest> characteristics = new LinkedHashSet<>();
+    int count = random.nextInt(4);
+    for (int i = 0; i < count; i++) {
+      characteristics.add(
+          new CharacteristicRequest(
+              pick(random, CHARACTERISTIC_CODES),
+              random.nextInt(6) == 0 ? null : CharacteristicType.CONSUMPTION_TYPE,
+              pick(random, TEXTS)));
+    }
+    return characteristics;
+  }
+
+  private static String pick(Random random, String[] values) {
+    return values[random.nextInt(values.length)];
+  }
+}
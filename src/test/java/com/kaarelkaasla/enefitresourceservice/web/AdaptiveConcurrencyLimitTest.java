@@ -0,0 +1,93 @@
+package com.kaarelkaasla.enefitresourceservice.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimitTest {
+
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+  @Test
+  void tryAcquire_AtLimit_RejectsUntilReleased() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 2, 10);
+
+    assertThat(limit.tryAcquire()).isEqualTo(1);
+    assertThat(limit.tryAcquire()).isEqualTo(2);
+    assertThat(limit.tryAcquire()).isEqualTo(-1);
+    assertThat(limit.getInFlight()).isEqualTo(2);
+
+    limit.release(-1, 2);
+
+    assertThat(limit.tryAcquire()).isEqualTo(2);
+  }
+
+  @Test
+  void steadyLatencyAtFullUse_GrowsUpToMax() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(5, 20, 100);
+
+    sample(limit, 500, FAST);
+
+    assertThat(limit.getLimit()).isEqualTo(100);
+  }
+
+  @Test
+  void risingLatency_ShrinksDownToMin() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 50, 100);
+    sample(limit, 20, FAST);
+    int before = limit.getLimit();
+
+    sample(limit, 10, SLOW);
+    int shrunk = limit.getLimit();
+    sample(limit, 40, SLOW);
+
+    assertThat(shrunk).isLessThan(before);
+    assertThat(limit.getLimit()).isEqualTo(10);
+  }
+
+  @Test
+  void latencyRecovers_GrowsAgain() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(5, 50, 100);
+    sample(limit, 20, FAST);
+    sample(limit, 40, SLOW);
+    int degraded = limit.getLimit();
+
+    sample(limit, 200, FAST);
+
+    assertThat(limit.getLimit()).isGreaterThan(degraded);
+  }
+
+  @Test
+  void lowUse_DoesNotChangeLimit() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(5, 50, 100);
+    sample(limit, 20, FAST);
+    int before = limit.getLimit();
+
+    for (int i = 0; i < 100; i++) {
+      limit.tryAcquire();
+      limit.release(i % 2 == 0 ? FAST : SLOW, 1);
+    }
+
+    assertThat(limit.getLimit()).isEqualTo(before);
+  }
+
+  @Test
+  void invalidBounds_AreRejected() {
+    assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(0, 1, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(5, 2, 10))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  /** Samples taken with the whole current limit in use. */
+  private static void sample(AdaptiveConcurrencyLimit limit, int count, long rttNanos) {
+    for (int i = 0; i < count; i++) {
+      limit.tryAcquire();
+      limit.release(rttNanos, limit.getLimit());
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.kaarelkaasla.enefitresourceservice.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.OffsetDateTime;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kaarelkaasla.enefitresourceservice.services.TimeProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConcurrencyLimitFilterTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final TimeProvider timeProvider = mock(TimeProvider.class);
+
+  private AdaptiveConcurrencyLimit reads;
+  private AdaptiveConcurrencyLimit writes;
+  private AdaptiveConcurrencyLimit sendAll;
+  private ConcurrencyLimitFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    when(timeProvider.now()).thenReturn(OffsetDateTime.parse("2024-01-01T12:00:00Z"));
+    reads = new AdaptiveConcurrencyLimit(1, 1, 1);
+    writes = new AdaptiveConcurrencyLimit(1, 1, 1);
+    sendAll = new AdaptiveConcurrencyLimit(1, 1, 1);
+    filter =
+        new ConcurrencyLimitFilter(
+            reads, writes, sendAll, objectMapper, timeProvider, meterRegistry);
+  }
+
+  @Test
+  void belowLimit_PassesThroughAndReleases() throws Exception {
+    MockHttpServletResponse response = run("GET", "/api/v1/resources/1");
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(reads.getInFlight()).isZero();
+  }
+
+  @Test
+  void atLimit_Returns503WithRetryAfter() throws Exception {
+    reads.tryAcquire();
+
+    MockHttpServletResponse response = run("GET", "/api/v1/resources/1");
+
+    assertThat(response.getStatus()).isEqualTo(503);
+    assertThat(response.getHeader("Retry-After"))
+        .isEqualTo(ConcurrencyLimitFilter.RETRY_AFTER_SECONDS);
+    JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+    assertThat(body.get("status").asInt()).isEqualTo(503);
+    assertThat(body.get("path").asText()).isEqualTo("/api/v1/resources/1");
+    assertThat(meterRegistry.counter("api.concurrency.rejected", "class", "read").count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void requestClasses_HaveSeparateLimits() throws Exception {
+    reads.tryAcquire();
+
+    assertThat(run("PUT", "/api/v1/resources/1").getStatus()).isEqualTo(200);
+    assertThat(run("POST", "/api/v1/resources/send-all").getStatus()).isEqualTo(200);
+    assertThat(run("POST", "/api/v1/resources/lookup").getStatus()).isEqualTo(503);
+
+    writes.tryAcquire();
+    assertThat(run("DELETE", "/api/v1/resources/1").getStatus()).isEqualTo(503);
+    sendAll.tryAcquire();
+    assertThat(run("POST", "/api/v1/resources/send-all").getStatus()).isEqualTo(503);
+  }
+
+  @Test
+  void handlerThrows_ReleasesTheSlot() {
+    MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/api/v1/resources/1");
+    MockFilterChain chain =
+        new MockFilterChain(
+            new HttpServlet() {
+              @Override
+              protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                throw new IllegalStateException("failed");
+              }
+            });
+
+    assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), chain))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(writes.getInFlight()).isZero();
+  }
+
+  @Test
+  void gauges_ReportLimitAndInFlight() {
+    writes.tryAcquire();
+
+    assertThat(meterRegistry.get("api.concurrency.limit").tag("class", "write").gauge().value())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("api.concurrency.in.flight").tag("class", "write").gauge().value())
+        .isEqualTo(1);
+  }
+
+  private MockHttpServletResponse run(String method, String uri) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, new MockFilterChain());
+    return response;
+  }
+}
@@ -0,0 +1,45 @@
+package com.kaarelkaasla.enefitresourceservice.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class ContentCodingTest {
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      value = {
+        "gzip|true",
+        "gzip, deflate, br|true",
+        "GZIP;q=0.5|true",
+        "*|true",
+        "gzip;q=0|false",
+        "gzip; q=0.000|false",
+        "br, deflate|false",
+        "identity|false",
+        "*, gzip;q=0|false"
+      })
+  void accepts_HonoursQualityValues(String acceptEncoding, boolean expected) {
+    assertThat(ContentCoding.accepts(acceptEncoding, ContentCoding.GZIP)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      value = {
+        "zstd, gzip|ZSTD",
+        "gzip, zstd|ZSTD",
+        "gzip, deflate, br|GZIP",
+        "zstd;q=0.5, gzip|GZIP",
+        "zstd;q=0, *|GZIP",
+        "*|ZSTD",
+        "gzip;q=0, zstd;q=0|IDENTITY",
+        "br|IDENTITY",
+        "zstd;q=oops, gzip;q=0.1|GZIP"
+      })
+  void negotiate_PicksHighestQualityPreferringZstd(String acceptEncoding, ContentCoding expected) {
+    assertThat(ContentCoding.negotiate(acceptEncoding)).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,28 @@
+package com.kaarelkaasla.enefitresourceservice.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class ResourceMediaTypesTest {
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      value = {
+        "''|true",
+        "*/*|true",
+        "application/json|true",
+        "application/*|true",
+        "application/cbor|false",
+        "application/x-protobuf, application/json;q=0.5|false",
+        "application/x-protobuf;q=0.5, application/json|true",
+        "application/x-jackson-smile, */*;q=0.1|false",
+        "text/html, */*;q=0.8|true",
+        "text/html|false"
+      })
+  void prefersJson_FollowsAcceptQuality(String accept, boolean expected) {
+    assertThat(ResourceMediaTypes.prefersJson(accept)).isEqualTo(expected);
+  }
+}
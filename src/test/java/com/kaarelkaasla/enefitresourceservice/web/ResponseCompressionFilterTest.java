@@ -0,0 +1,156 @@
+package com.kaarelkaasla.enefitresourceservice.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+class ResponseCompressionFilterTest {
+
+  private static final byte[] LARGE_JSON =
+      ("[" + "{\"code\":\"CHARACTERISTIC\",\"value\":\"RESIDENTIAL\"},".repeat(100) + "{}]")
+          .getBytes(StandardCharsets.UTF_8);
+
+  private final ResponseCompressionFilter filter = new ResponseCompressionFilter(1024, 3);
+
+  @Test
+  void gzipAccepted_CompressesAndDropsContentLength() throws Exception {
+    MockHttpServletResponse response = run("gzip", MediaType.APPLICATION_JSON_VALUE, LARGE_JSON);
+
+    assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+    assertThat(response.getHeader("Content-Length")).isNull();
+    assertThat(response.getHeaders("Vary")).contains("Accept-Encoding");
+    byte[] body = response.getContentAsByteArray();
+    assertThat(body.length).isLessThan(LARGE_JSON.length);
+    assertThat(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes())
+        .isEqualTo(LARGE_JSON);
+  }
+
+  @Test
+  void zstdPreferred_CompressesWithZstd() throws Exception {
+    MockHttpServletResponse response =
+        run("gzip, zstd", MediaType.APPLICATION_CBOR_VALUE, LARGE_JSON);
+
+    assertThat(response.getHeader("Content-Encoding")).isEqualTo("zstd");
+    byte[] body = response.getContentAsByteArray();
+    assertThat(new ZstdInputStream(new ByteArrayInputStream(body)).readAllBytes())
+        .isEqualTo(LARGE_JSON);
+  }
+
+  @Test
+  void writerBody_IsCompressed() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/resources");
+    request.addHeader("Accept-Encoding", "gzip");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    String json = new String(LARGE_JSON, StandardCharsets.UTF_8);
+
+    filter.doFilter(
+        request,
+        response,
+        new MockFilterChain(
+            new HttpServlet() {
+              @Override
+              protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+                  throws IOException {
+                resp.setContentType("application/problem+json;charset=UTF-8");
+                resp.getWriter().write(json);
+              }
+            }));
+
+    byte[] body = response.getContentAsByteArray();
+    assertThat(
+            new String(
+                new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(),
+                StandardCharsets.UTF_8))
+        .isEqualTo(json);
+  }
+
+  @Test
+  void smallBody_PassesThroughWithLength() throws Exception {
+    byte[] small = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    MockHttpServletResponse response = run("gzip", MediaType.APPLICATION_JSON_VALUE, small);
+
+    assertThat(response.getHeader("Content-Encoding")).isNull();
+    assertThat(response.getContentLength()).isEqualTo(small.length);
+    assertThat(response.getContentAsByteArray()).isEqualTo(small);
+  }
+
+  @Test
+  void nonApiContentType_PassesThrough() throws Exception {
+    MockHttpServletResponse response = run("gzip", MediaType.IMAGE_PNG_VALUE, LARGE_JSON);
+
+    assertThat(response.getHeader("Content-Encoding")).isNull();
+    assertThat(response.getContentAsByteArray()).isEqualTo(LARGE_JSON);
+  }
+
+  @Test
+  void alreadyEncoded_PassesThroughUnchanged() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/resources/1");
+    request.addHeader("Accept-Encoding", "zstd, gzip");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(
+        request,
+        response,
+        new MockFilterChain(
+            new HttpServlet() {
+              @Override
+              protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+                  throws IOException {
+                resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                resp.setHeader("Content-Encoding", "gzip");
+                resp.getOutputStream().write(LARGE_JSON);
+              }
+            }));
+
+    assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+    assertThat(response.getContentAsByteArray()).isEqualTo(LARGE_JSON);
+  }
+
+  @Test
+  void noAcceptEncoding_PassesThrough() throws Exception {
+    MockHttpServletResponse response = run(null, MediaType.APPLICATION_JSON_VALUE, LARGE_JSON);
+
+    assertThat(response.getHeader("Content-Encoding")).isNull();
+    assertThat(response.getHeaders("Vary")).contains("Accept-Encoding");
+    assertThat(response.getContentAsByteArray()).isEqualTo(LARGE_JSON);
+  }
+
+  private MockHttpServletResponse run(String acceptEncoding, String contentType, byte[] body)
+      throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/resources");
+    if (acceptEncoding != null) {
+      request.addHeader("Accept-Encoding", acceptEncoding);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(
+        request,
+        response,
+        new MockFilterChain(
+            new HttpServlet() {
+              @Override
+              protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+                  throws IOException {
+                resp.setContentType(contentType);
+                resp.setContentLength(body.length);
+                resp.getOutputStream().write(body);
+              }
+            }));
+    return response;
+  }
+}